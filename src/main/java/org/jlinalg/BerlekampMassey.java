@@ -0,0 +1,199 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jlinalg.polynomial.Polynomial;
+
+/**
+ * The Berlekamp-Massey algorithm, which finds the shortest linear recurrence
+ * s<sub>k</sub> + c<sub>1</sub> s<sub>k-1</sub> + ... + c<sub>L</sub>
+ * s<sub>k-L</sub> = 0 satisfied by a sequence over a field. The terms are
+ * added one at a time, so that the caller can stop generating them once the
+ * recurrence is stable; 2L terms determine a recurrence of length L.
+ * 
+ * @param <RE>
+ *            the type of the elements.
+ */
+public class BerlekampMassey<RE extends IRingElement<RE>>
+{
+	/**
+	 * the factory of the elements
+	 */
+	private final IRingElementFactory<RE> factory;
+
+	/**
+	 * the terms added so far
+	 */
+	private final List<RE> sequence = new ArrayList<>();
+
+	/**
+	 * the current connection polynomial 1 + c<sub>1</sub> z + ...
+	 */
+	private RE[] c;
+
+	/**
+	 * the connection polynomial before the last change of the length
+	 */
+	private RE[] b;
+
+	/**
+	 * the length L of the current recurrence
+	 */
+	private int length;
+
+	/**
+	 * the number of terms since the last change of the length
+	 */
+	private int shift = 1;
+
+	/**
+	 * the discrepancy at the last change of the length
+	 */
+	private RE lastDiscrepancy;
+
+	/**
+	 * @param factory
+	 *            the factory of the elements
+	 */
+	public BerlekampMassey(IRingElementFactory<RE> factory)
+	{
+		this.factory = factory;
+		this.c = factory.getArray(1);
+		this.c[0] = factory.one();
+		this.b = c.clone();
+		this.lastDiscrepancy = factory.one();
+	}
+
+	/**
+	 * @param <RE>
+	 *            the type of the elements.
+	 * @param sequence
+	 *            at least 2L terms of a sequence satisfying a recurrence of
+	 *            length L
+	 * @return the minimal polynomial of the sequence (see
+	 *         {@link #getMinimalPolynomial()}).
+	 */
+	public static <RE extends IRingElement<RE>> Polynomial<RE> minimalPolynomial(
+			Vector<RE> sequence)
+	{
+		BerlekampMassey<RE> bm = new BerlekampMassey<>(sequence
+				.getElementFactory());
+		for (int i = 1; i <= sequence.length(); i++) {
+			bm.add(sequence.getEntry(i));
+		}
+		return bm.getMinimalPolynomial();
+	}
+
+	/**
+	 * Add the next term of the sequence and update the recurrence.
+	 * 
+	 * @param term
+	 *            the term
+	 */
+	public void add(RE term)
+	{
+		int n = sequence.size();
+		sequence.add(term);
+		RE d = term;
+		for (int i = 1; i <= length && i < c.length; i++) {
+			d = d.add(c[i].multiply(sequence.get(n - i)));
+		}
+		if (d.isZero()) {
+			shift++;
+			return;
+		}
+		RE coefficient = d.divide(lastDiscrepancy);
+		RE[] t = c;
+		c = factory.getArray(Math.max(c.length, b.length + shift));
+		for (int i = 0; i < c.length; i++) {
+			c[i] = i < t.length ? t[i] : factory.zero();
+		}
+		for (int i = 0; i < b.length; i++) {
+			c[i + shift] = c[i + shift].subtract(coefficient.multiply(b[i]));
+		}
+		if (2 * length <= n) {
+			length = n + 1 - length;
+			b = t;
+			lastDiscrepancy = d;
+			shift = 1;
+		}
+		else {
+			shift++;
+		}
+	}
+
+	/**
+	 * @return the number of terms added.
+	 */
+	public int size()
+	{
+		return sequence.size();
+	}
+
+	/**
+	 * @return the length L of the shortest recurrence satisfied by the terms
+	 *         added so far.
+	 */
+	public int getLength()
+	{
+		return length;
+	}
+
+	/**
+	 * @param terms
+	 *            the number of terms confirming the recurrence
+	 * @return true if at least 2L + <code>terms</code> terms have been added,
+	 *         i.e. the recurrence has been confirmed by <code>terms</code>
+	 *         terms which could have changed it.
+	 */
+	public boolean isStable(int terms)
+	{
+		return sequence.size() >= 2 * length + terms;
+	}
+
+	/**
+	 * @return the coefficients 1, c<sub>1</sub>, ..., c<sub>L</sub> of the
+	 *         connection polynomial.
+	 */
+	public RE[] getConnectionPolynomial()
+	{
+		RE[] result = factory.getArray(length + 1);
+		for (int i = 0; i <= length; i++) {
+			result[i] = i < c.length ? c[i] : factory.zero();
+		}
+		return result;
+	}
+
+	/**
+	 * @return the minimal polynomial x<sup>L</sup> + c<sub>1</sub>
+	 *         x<sup>L-1</sup> + ... + c<sub>L</sub> of the sequence, which is
+	 *         the reverse of the connection polynomial.
+	 */
+	public Polynomial<RE> getMinimalPolynomial()
+	{
+		Map<Integer, RE> coefficients = new HashMap<>();
+		for (int i = 0; i <= length && i < c.length; i++) {
+			coefficients.put(length - i, c[i]);
+		}
+		return new Polynomial<>(coefficients, factory);
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+/**
+ * A linear map given only by its products with vectors. Algorithms for black
+ * boxes (like {@link WiedemannSolver}) do not need the entries of a matrix
+ * and do not modify them, so that they can be used for large sparse or
+ * structured matrices for which elimination would produce too much fill-in.
+ * 
+ * @param <RE>
+ *            the type of the elements.
+ */
+public interface BlackBox<RE extends IRingElement<RE>>
+{
+	/**
+	 * @return the number of rows.
+	 */
+	public int getRows();
+
+	/**
+	 * @return the number of columns.
+	 */
+	public int getCols();
+
+	/**
+	 * @return the factory of the elements.
+	 */
+	public IRingElementFactory<RE> getFactory();
+
+	/**
+	 * @param x
+	 *            a vector of length {@link #getCols()}
+	 * @return A x
+	 */
+	public Vector<RE> apply(Vector<RE> x);
+
+	/**
+	 * @param y
+	 *            a vector of length {@link #getRows()}
+	 * @return A<sup>T</sup> y
+	 */
+	public Vector<RE> applyTranspose(Vector<RE> y);
+
+	/**
+	 * @param <RE>
+	 *            the type of the elements.
+	 * @param matrix
+	 *            a dense matrix
+	 * @return a black box for the matrix, which is not copied.
+	 */
+	public static <RE extends IRingElement<RE>> BlackBox<RE> of(
+			final Matrix<RE> matrix)
+	{
+		return new BlackBox<RE>() {
+			@Override
+			public int getRows()
+			{
+				return matrix.getRows();
+			}
+
+			@Override
+			public int getCols()
+			{
+				return matrix.getCols();
+			}
+
+			@Override
+			public IRingElementFactory<RE> getFactory()
+			{
+				return matrix.getFactory();
+			}
+
+			@Override
+			public Vector<RE> apply(Vector<RE> x)
+			{
+				return matrix.multiply(x);
+			}
+
+			@Override
+			public Vector<RE> applyTranspose(Vector<RE> y)
+			{
+				return y.multiply(matrix);
+			}
+		};
+	}
+}
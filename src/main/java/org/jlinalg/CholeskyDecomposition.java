@@ -0,0 +1,242 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+
+/**
+ * The Cholesky decomposition A = L L<sup>T</sup> of a symmetric positive
+ * definite matrix, where L is lower triangular with a positive diagonal. The
+ * elements must implement a method <code>sqrt()</code> (like
+ * {@link org.jlinalg.doublewrapper.DoubleWrapper} and
+ * {@link org.jlinalg.bigdecimalwrapper.BigDecimalWrapper}); for exact fields,
+ * use the square-root-free {@link LDLDecomposition}.
+ * <p>
+ * The factorisation is computed in place in one copy of the lower triangle,
+ * proceeding in blocks of {@link LDLDecomposition#BLOCK_SIZE} columns. Once
+ * computed, the factor is reused for any number of calls to
+ * {@link #solve(Vector)}.
+ * 
+ * @param <RE>
+ *            the type of the elements.
+ */
+public class CholeskyDecomposition<RE extends IRingElement<RE>>
+		implements
+		Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * the lower triangle holds L.
+	 */
+	private final RE[][] a;
+
+	/**
+	 * the factory of the elements
+	 */
+	private final IRingElementFactory<RE> factory;
+
+	/**
+	 * Decompose a symmetric positive definite matrix.
+	 * 
+	 * @param matrix
+	 *            the matrix
+	 * @throws InvalidOperationException
+	 *             if the matrix is not square and symmetric, not positive
+	 *             definite, or its elements do not implement
+	 *             <code>sqrt()</code>.
+	 */
+	public CholeskyDecomposition(Matrix<RE> matrix)
+			throws InvalidOperationException
+	{
+		factory = matrix.getFactory();
+		a = LDLDecomposition.lowerTriangle(matrix);
+		int n = a.length;
+		RE zero = factory.zero();
+		int nb = LDLDecomposition.BLOCK_SIZE;
+		for (int k0 = 0; k0 < n; k0 += nb) {
+			int k1 = Math.min(k0 + nb, n);
+			// factor the block of columns k0..k1-1
+			for (int j = k0; j < k1; j++) {
+				RE d = a[j][j];
+				for (int p = k0; p < j; p++) {
+					d = d.subtract(a[j][p].multiply(a[j][p]));
+				}
+				if (!d.gt(zero)) {
+					throw new InvalidOperationException(
+							"Tried to decompose a matrix that is not positive definite");
+				}
+				a[j][j] = sqrt(d);
+				RE lInv = a[j][j].invert();
+				for (int i = j + 1; i < n; i++) {
+					RE s = a[i][j];
+					for (int p = k0; p < j; p++) {
+						s = s.subtract(a[i][p].multiply(a[j][p]));
+					}
+					a[i][j] = s.multiply(lInv);
+				}
+			}
+			// update the trailing matrix with the contribution of the block
+			for (int j = k1; j < n; j++) {
+				for (int i = j; i < n; i++) {
+					RE s = a[i][j];
+					for (int p = k0; p < k1; p++) {
+						s = s.subtract(a[i][p].multiply(a[j][p]));
+					}
+					a[i][j] = s;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the square root of d
+	 * @throws InvalidOperationException
+	 *             if the <code>RE</code> does not implement the method sqrt()
+	 */
+	@SuppressWarnings("unchecked")
+	static <RE extends IRingElement<RE>> RE sqrt(RE d)
+			throws InvalidOperationException
+	{
+		try {
+			Method sqrt = d.getClass().getMethod("sqrt");
+			return (RE) sqrt.invoke(d);
+		} catch (Exception e) {
+			throw new InvalidOperationException(
+					"Square root can not be calculated for "
+							+ d.getClass().getCanonicalName() + " "
+							+ e.getMessage());
+		}
+	}
+
+	/**
+	 * @return the lower triangular factor L.
+	 */
+	public Matrix<RE> getL()
+	{
+		int n = a.length;
+		RE[][] l = factory.getArray(n, n);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				l[i][j] = j <= i ? a[i][j] : factory.zero();
+			}
+		}
+		return new Matrix<>(l, n, n, factory);
+	}
+
+	/**
+	 * @return the determinant of the decomposed matrix, the square of the
+	 *         product of the diagonal of L.
+	 */
+	public RE det()
+	{
+		RE p = factory.one();
+		for (int i = 0; i < a.length; i++) {
+			p = p.multiply(a[i][i]);
+		}
+		return p.multiply(p);
+	}
+
+	/**
+	 * @return the natural logarithm of the determinant, calculated as twice
+	 *         the sum of the logarithms of the diagonal of L (and hence
+	 *         without overflow for large matrices).
+	 * @throws InvalidOperationException
+	 *             if the <code>RE</code> does not implement the method
+	 *             doubleValue()
+	 */
+	public double logDet() throws InvalidOperationException
+	{
+		double sum = 0;
+		for (int i = 0; i < a.length; i++) {
+			try {
+				Method doubleValue = a[i][i].getClass().getMethod(
+						"doubleValue");
+				sum += Math.log((Double) doubleValue.invoke(a[i][i]));
+			} catch (Exception e) {
+				throw new InvalidOperationException(
+						"log-determinant can not be calculated for "
+								+ a[i][i].getClass().getCanonicalName() + " "
+								+ e.getMessage());
+			}
+		}
+		return 2 * sum;
+	}
+
+	/**
+	 * Solve A x = b.
+	 * 
+	 * @param b
+	 *            the right hand side
+	 * @return the solution x
+	 * @throws InvalidOperationException
+	 *             if the length of b does not match the matrix.
+	 */
+	public Vector<RE> solve(Vector<RE> b) throws InvalidOperationException
+	{
+		return new Vector<>(solve(LDLDecomposition.rightHandSide(b, a.length)),
+				factory);
+	}
+
+	/**
+	 * Solve A X = B.
+	 * 
+	 * @param b
+	 *            the right hand sides as columns of a matrix
+	 * @return the solution X
+	 * @throws InvalidOperationException
+	 *             if the number of rows of b does not match the matrix.
+	 */
+	public Matrix<RE> solve(Matrix<RE> b) throws InvalidOperationException
+	{
+		if (b.getRows() != a.length) {
+			throw new InvalidOperationException("Tried to solve a system with "
+					+ a.length + " rows for " + b.getRows()
+					+ " right hand sides");
+		}
+		Matrix<RE> x = new Matrix<>(b.getRows(), b.getCols(), factory);
+		for (int c = 1; c <= b.getCols(); c++) {
+			x.setCol(c, new Vector<>(solve(b.getCol(c).entries.clone()),
+					factory));
+		}
+		return x;
+	}
+
+	/**
+	 * Overwrite x by the solution of L L<sup>T</sup> x = x.
+	 */
+	private RE[] solve(RE[] x)
+	{
+		int n = a.length;
+		for (int i = 0; i < n; i++) {
+			RE s = x[i];
+			for (int j = 0; j < i; j++) {
+				s = s.subtract(a[i][j].multiply(x[j]));
+			}
+			x[i] = s.divide(a[i][i]);
+		}
+		for (int i = n - 1; i >= 0; i--) {
+			RE s = x[i];
+			for (int j = i + 1; j < n; j++) {
+				s = s.subtract(a[j][i].multiply(x[j]));
+			}
+			x[i] = s.divide(a[i][i]);
+		}
+		return x;
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import org.jlinalg.complex.Complex;
+import org.jlinalg.doublewrapper.DoubleWrapper;
+import org.jlinalg.doublewrapper.DoubleWrapperFactory;
+
+/**
+ * The eigenvalues and eigenvectors of a square matrix of
+ * {@link DoubleWrapper}s. The entries of the matrix are converted to doubles
+ * once; symmetric matrices are then decomposed by Householder
+ * tridiagonalisation and the implicit QL method (TRED2/TQL2), all others by
+ * orthogonal reduction to Hessenberg form and the shifted QR algorithm
+ * (ORTHES/HQR2), see {@link Handbook}.
+ * <p>
+ * For a symmetric matrix, the eigenvalues are real and sorted in ascending
+ * order, and the eigenvectors are orthonormal, so that A = V D V<sup>T</sup>.
+ * Otherwise, A V = V D holds where D is block diagonal: a complex pair
+ * &lambda; &plusmn; i&mu; appears as the 2x2 block [&lambda; &mu;; -&mu;
+ * &lambda;], and the corresponding columns j, j+1 of V hold the real and
+ * imaginary part of the eigenvector for &lambda; + i&mu;.
+ */
+public class EigenDecomposition
+{
+	/**
+	 * the real parts of the eigenvalues
+	 */
+	private final double[] wr;
+
+	/**
+	 * the imaginary parts of the eigenvalues
+	 */
+	private final double[] wi;
+
+	/**
+	 * the eigenvectors, stored column-wise
+	 */
+	private final double[][] v;
+
+	/**
+	 * whether the symmetric algorithm was used
+	 */
+	private final boolean symmetric;
+
+	/**
+	 * Computes the eigendecomposition of a matrix.
+	 * 
+	 * @param matrix
+	 *            a square matrix of {@link DoubleWrapper}s
+	 * @throws InvalidOperationException
+	 *             if the matrix is not square, does not contain
+	 *             DoubleWrappers, or the QR iteration does not converge.
+	 */
+	public <RE extends IRingElement<RE>> EigenDecomposition(Matrix<RE> matrix)
+			throws InvalidOperationException
+	{
+		if (matrix.getRows() != matrix.getCols()) {
+			throw new InvalidOperationException("Matrix must be square");
+		}
+		double[][] a;
+		try {
+			a = Handbook.doubleValues(matrix);
+		} catch (Exception e) {
+			throw new InvalidOperationException(
+					"Matrix must contain only DoubleWrappers");
+		}
+		int n = a.length;
+		wr = new double[n];
+		wi = new double[n];
+		symmetric = Handbook.isSymmetric(a);
+		if (symmetric) {
+			v = a;
+			Handbook.tred2(v, wr, wi, true);
+			Handbook.tql2(v, wr, wi, true);
+		}
+		else {
+			v = new double[n][n];
+			Handbook.orthes(a, v);
+			Handbook.hqr2(a, v, wr, wi);
+		}
+	}
+
+	/**
+	 * @return true if the matrix was symmetric (and hence all eigenvalues are
+	 *         real and the eigenvectors orthonormal).
+	 */
+	public boolean isSymmetric()
+	{
+		return symmetric;
+	}
+
+	/**
+	 * @return the eigenvalues. For a symmetric matrix, these are in ascending
+	 *         order.
+	 */
+	public Vector<Complex> getEigenvalues()
+	{
+		Complex[] entries = new Complex[wr.length];
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = Complex.FACTORY.get(wr[i], wi[i]);
+		}
+		return new Vector<>(entries, Complex.FACTORY);
+	}
+
+	/**
+	 * @return the real parts of the eigenvalues (a copy).
+	 */
+	public double[] getRealEigenvalues()
+	{
+		return wr.clone();
+	}
+
+	/**
+	 * @return the imaginary parts of the eigenvalues (a copy).
+	 */
+	public double[] getImagEigenvalues()
+	{
+		return wi.clone();
+	}
+
+	/**
+	 * @return the matrix V whose columns are the eigenvectors (in the real
+	 *         form described in the class comment).
+	 */
+	public Matrix<DoubleWrapper> getEigenvectors()
+	{
+		int n = wr.length;
+		Matrix<DoubleWrapper> m = new Matrix<>(n, n,
+				DoubleWrapperFactory.INSTANCE);
+		DoubleWrapper[][] entries = m.getEntries();
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				entries[i][j] = DoubleWrapperFactory.INSTANCE.get(v[i][j]);
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * @return the block diagonal matrix D of eigenvalues such that A V = V D.
+	 */
+	public Matrix<DoubleWrapper> getD()
+	{
+		int n = wr.length;
+		Matrix<DoubleWrapper> m = new Matrix<>(n, n,
+				DoubleWrapperFactory.INSTANCE);
+		DoubleWrapper[][] entries = m.getEntries();
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				entries[i][j] = DoubleWrapperFactory.INSTANCE.get(0.0);
+			}
+			entries[i][i] = DoubleWrapperFactory.INSTANCE.get(wr[i]);
+			if (wi[i] > 0) {
+				entries[i][i + 1] = DoubleWrapperFactory.INSTANCE.get(wi[i]);
+			}
+			else if (wi[i] < 0) {
+				entries[i][i - 1] = DoubleWrapperFactory.INSTANCE.get(wi[i]);
+			}
+		}
+		return m;
+	}
+}
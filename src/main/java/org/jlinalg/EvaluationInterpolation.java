@@ -0,0 +1,576 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.jlinalg.polynomial.Polynomial;
+import org.jlinalg.polynomial.PolynomialFactory;
+import org.jlinalg.rationalFunction.RationalFunction;
+import org.jlinalg.rationalFunction.RationalFunctionFactory;
+
+/**
+ * Determinants and solutions of linear equation systems for matrices of
+ * {@link Polynomial}s and {@link RationalFunction}s by evaluation and
+ * interpolation: the matrix is evaluated at a number of points of the field of
+ * coefficients, the resulting scalar problems are solved by
+ * {@link LUDecomposition}s (in parallel if the {@link ExecutionPolicy} is
+ * parallel), and the polynomials sought are interpolated from their values.
+ * This avoids polynomial arithmetic during the elimination, as well as the
+ * factorial runtime of {@link MatrixDeterminant#leibnizMethod(Matrix)}.
+ * Matrices of rational functions are reduced to polynomial matrices by
+ * multiplying each row with the least common multiple of its denominators.
+ * <P>
+ * The number of points is one more than a bound on the degree of the result:
+ * the smaller of the sums of the maximal degrees in the rows and in the
+ * columns. With early termination (see {@link #setEarlyTermination(int)}),
+ * random points are used instead, and the interpolation stops as soon as a
+ * number of consecutive points does not change the interpolated polynomials.
+ * The result is then only correct with a high probability.
+ * <P>
+ * The coefficients have to be an exact field (see {@link #isSupported}) with
+ * more elements than the degree bound. Instances are not thread safe.
+ * 
+ * @param <BASE>
+ *            the type of the coefficients of the polynomials
+ */
+public class EvaluationInterpolation<BASE extends IRingElement<BASE>>
+{
+	/**
+	 * the factory for the coefficients
+	 */
+	private final IRingElementFactory<BASE> baseFactory;
+
+	/**
+	 * determines whether the points are evaluated in parallel.
+	 */
+	private ExecutionPolicy policy = ExecutionPolicy.getDefault();
+
+	/**
+	 * the number of points which must not change the interpolation, or zero
+	 * if the degree bound is used.
+	 */
+	private int earlyTermination = 0;
+
+	/**
+	 * the source for random points used with early termination.
+	 */
+	private final Random random = new Random();
+
+	/**
+	 * the number of scalar problems solved by the last operation.
+	 */
+	private int evaluations;
+
+	/**
+	 * @param baseFactory
+	 *            the factory for the coefficients of the polynomials.
+	 * @throws InvalidOperationException
+	 *             if the coefficients are not supported.
+	 */
+	public EvaluationInterpolation(IRingElementFactory<BASE> baseFactory)
+			throws InvalidOperationException
+	{
+		if (!isSupported(baseFactory)) {
+			throw new InvalidOperationException(
+					"Evaluation and interpolation needs an exact field, not "
+							+ baseFactory.getClass().getName());
+		}
+		this.baseFactory = baseFactory;
+	}
+
+	/**
+	 * @param baseFactory
+	 *            the factory for the coefficients of polynomials
+	 * @return true if the coefficients are a field which is exact according to
+	 *         its {@link JLinAlgTypeProperties}.
+	 */
+	public static boolean isSupported(IRingElementFactory<?> baseFactory)
+	{
+		if (!(baseFactory.one() instanceof FieldElement)) {
+			return false;
+		}
+		JLinAlgTypeProperties properties = baseFactory.getClass()
+				.getAnnotation(JLinAlgTypeProperties.class);
+		return properties != null && properties.isExact();
+	}
+
+	/**
+	 * @param matrix
+	 *            a square matrix of polynomials
+	 * @return the determinant of the matrix
+	 * @throws InvalidOperationException
+	 *             if the matrix is not square, or the field of coefficients
+	 *             has too few elements.
+	 */
+	public Polynomial<BASE> det(Matrix<Polynomial<BASE>> matrix)
+			throws InvalidOperationException
+	{
+		checkSquare(matrix);
+		int n = matrix.getRows();
+		Polynomial<BASE>[][] entries = matrix.getEntries();
+		int[] rowDegrees = new int[n];
+		int[] colDegrees = new int[n];
+		degrees(entries, rowDegrees, colDegrees);
+		int bound = Math.min(sum(rowDegrees), sum(colDegrees));
+		if (bound < 0) {
+			// a row or column is zero
+			evaluations = 0;
+			return PolynomialFactory.getFactory(baseFactory).zero();
+		}
+		return interpolate(1, bound, n, x -> {
+			BASE[] value = baseFactory.getArray(1);
+			value[0] = decompose(entries, x).det();
+			return value;
+		}, 0).get(0);
+	}
+
+	/**
+	 * Solve A x = b.
+	 * 
+	 * @param a
+	 *            a square matrix of polynomials
+	 * @param b
+	 *            the right hand side
+	 * @return the solution
+	 * @throws InvalidOperationException
+	 *             if a is not square, the length of b does not match, a is
+	 *             singular or the field of coefficients has too few elements.
+	 */
+	public Vector<RationalFunction<BASE>> solve(Matrix<Polynomial<BASE>> a,
+			Vector<Polynomial<BASE>> b) throws InvalidOperationException
+	{
+		checkSquare(a);
+		int n = a.getRows();
+		if (b.length() != n) {
+			throw new InvalidOperationException("Tried to solve a system with "
+					+ n + " rows and a right hand side of length "
+					+ b.length());
+		}
+		Polynomial<BASE>[][] entries = a.getEntries();
+		int[] rowDegrees = new int[n];
+		int[] colDegrees = new int[n];
+		degrees(entries, rowDegrees, colDegrees);
+		int detBound = Math.min(sum(rowDegrees), sum(colDegrees));
+		if (detBound < 0) {
+			throw new InvalidOperationException("The matrix is singular.");
+		}
+		// the bound for the numerators of Cramer's rule
+		int rhsDegree = -1;
+		int minColDegree = Integer.MAX_VALUE;
+		int augmentedRows = 0;
+		for (int i = 0; i < n; i++) {
+			int d = degree(b.getEntry(i + 1));
+			rhsDegree = Math.max(rhsDegree, d);
+			minColDegree = Math.min(minColDegree, colDegrees[i]);
+			augmentedRows += Math.max(rowDegrees[i], d);
+		}
+		int bound = Math.max(detBound, Math.min(augmentedRows,
+				sum(colDegrees) - minColDegree + rhsDegree));
+		RationalFunctionFactory<BASE> factory = RationalFunctionFactory
+				.getFactory(baseFactory);
+		if (rhsDegree < 0) {
+			evaluations = 0;
+			return new Vector<>(n, factory.zero());
+		}
+		List<Polynomial<BASE>> p = interpolate(n + 1, bound, n, x -> {
+			LUDecomposition<BASE> lu = decompose(entries, x);
+			if (lu.isSingular()) {
+				return null;
+			}
+			BASE[] rhs = baseFactory.getArray(n);
+			for (int i = 0; i < n; i++) {
+				rhs[i] = b.getEntry(i + 1).evaluate(x);
+			}
+			Vector<BASE> solution = lu.solve(new Vector<>(rhs));
+			BASE[] values = baseFactory.getArray(n + 1);
+			values[0] = lu.det();
+			for (int i = 1; i <= n; i++) {
+				values[i] = solution.getEntry(i).multiply(values[0]);
+			}
+			return values;
+		}, detBound);
+		RationalFunction<BASE>[] x = factory.getArray(n);
+		for (int i = 0; i < n; i++) {
+			x[i] = reduce(p.get(i + 1), p.get(0));
+		}
+		return new Vector<>(x);
+	}
+
+	/**
+	 * @param matrix
+	 *            a square matrix of rational functions
+	 * @return the determinant of the matrix
+	 * @throws InvalidOperationException
+	 *             if the matrix is not square, or the field of coefficients
+	 *             has too few elements.
+	 */
+	public RationalFunction<BASE> rationalFunctionDet(
+			Matrix<RationalFunction<BASE>> matrix)
+			throws InvalidOperationException
+	{
+		checkSquare(matrix);
+		int n = matrix.getRows();
+		PolynomialFactory<BASE> polynomialFactory = PolynomialFactory
+				.getFactory(baseFactory);
+		Polynomial<BASE>[][] entries = polynomialFactory.getArray(n, n);
+		Polynomial<BASE> denominator = polynomialFactory.one();
+		for (int i = 0; i < n; i++) {
+			denominator = denominator.multiply(clearDenominators(
+					matrix.getEntries()[i], entries[i]));
+		}
+		Polynomial<BASE> numerator = det(new Matrix<>(entries, n, n,
+				polynomialFactory));
+		return reduce(numerator, denominator);
+	}
+
+	/**
+	 * Solve A x = b.
+	 * 
+	 * @param a
+	 *            a square matrix of rational functions
+	 * @param b
+	 *            the right hand side
+	 * @return the solution
+	 * @throws InvalidOperationException
+	 *             if a is not square, the length of b does not match, a is
+	 *             singular or the field of coefficients has too few elements.
+	 */
+	public Vector<RationalFunction<BASE>> rationalFunctionSolve(
+			Matrix<RationalFunction<BASE>> a, Vector<RationalFunction<BASE>> b)
+			throws InvalidOperationException
+	{
+		checkSquare(a);
+		int n = a.getRows();
+		if (b.length() != n) {
+			throw new InvalidOperationException("Tried to solve a system with "
+					+ n + " rows and a right hand side of length "
+					+ b.length());
+		}
+		PolynomialFactory<BASE> polynomialFactory = PolynomialFactory
+				.getFactory(baseFactory);
+		Polynomial<BASE>[][] entries = polynomialFactory.getArray(n, n);
+		Polynomial<BASE>[] rhs = polynomialFactory.getArray(n);
+		for (int i = 0; i < n; i++) {
+			RationalFunction<BASE>[] row = a.getEntries()[i];
+			RationalFunction<BASE>[] augmented = RationalFunctionFactory
+					.getFactory(baseFactory).getArray(n + 1);
+			System.arraycopy(row, 0, augmented, 0, n);
+			augmented[n] = b.getEntry(i + 1);
+			Polynomial<BASE>[] cleared = polynomialFactory.getArray(n + 1);
+			clearDenominators(augmented, cleared);
+			System.arraycopy(cleared, 0, entries[i], 0, n);
+			rhs[i] = cleared[n];
+		}
+		return solve(new Matrix<>(entries, n, n, polynomialFactory),
+				new Vector<>(rhs));
+	}
+
+	/**
+	 * @param earlyTermination
+	 *            the number of consecutive random points which have to leave
+	 *            the interpolation unchanged before it stops, or zero if a
+	 *            point is needed for every possible degree.
+	 * @throws InvalidOperationException
+	 *             if the number is negative.
+	 */
+	public void setEarlyTermination(int earlyTermination)
+	{
+		if (earlyTermination < 0) {
+			throw new InvalidOperationException(
+					"Invalid number of points for early termination "
+							+ earlyTermination);
+		}
+		this.earlyTermination = earlyTermination;
+	}
+
+	/**
+	 * @return the number of points which have to leave the interpolation
+	 *         unchanged, or zero if early termination is not used.
+	 */
+	public int getEarlyTermination()
+	{
+		return earlyTermination;
+	}
+
+	/**
+	 * @param policy
+	 *            determines whether the scalar problems are solved in
+	 *            parallel.
+	 */
+	public void setExecutionPolicy(ExecutionPolicy policy)
+	{
+		if (policy == null) {
+			throw new InvalidOperationException("the policy is null");
+		}
+		this.policy = policy;
+	}
+
+	/**
+	 * @return the number of points at which the last operation evaluated the
+	 *         matrix.
+	 */
+	public int getEvaluations()
+	{
+		return evaluations;
+	}
+
+	/**
+	 * Evaluate at new points until the number of points exceeds the degree
+	 * bound (or early termination applies) and interpolate.
+	 * 
+	 * @param targets
+	 *            the number of polynomials sought
+	 * @param bound
+	 *            a bound on their degree
+	 * @param n
+	 *            the size of the scalar problems
+	 * @param evaluation
+	 *            the values of the polynomials at a point, or null if the
+	 *            point cannot be used.
+	 * @param maxSkipped
+	 *            the maximal number of points which may be skipped.
+	 * @return the polynomials
+	 * @throws InvalidOperationException
+	 *             if more than maxSkipped points are skipped.
+	 */
+	private List<Polynomial<BASE>> interpolate(int targets, int bound, int n,
+			Function<BASE, BASE[]> evaluation, int maxSkipped)
+	{
+		List<BASE> points = new ArrayList<>();
+		// the coefficients of the Newton forms, one array per point
+		List<BASE[]> newton = new ArrayList<>();
+		Set<BASE> used = new HashSet<>();
+		evaluations = 0;
+		int skipped = 0;
+		int unchanged = 0;
+		while (points.size() <= bound
+				&& (earlyTermination == 0 || unchanged < earlyTermination))
+		{
+			int batch = bound + 1 - points.size();
+			if (earlyTermination > 0) {
+				batch = Math.min(batch, earlyTermination);
+			}
+			BASE[] xs = baseFactory.getArray(batch);
+			for (int k = 0; k < batch; k++) {
+				xs[k] = nextPoint(used);
+			}
+			Object[][] values = new Object[batch][];
+			policy.forEachRow(batch, n * n * n, k -> values[k - 1] = evaluation
+					.apply(xs[k - 1]));
+			evaluations += batch;
+			for (int k = 0; k < batch; k++) {
+				if (values[k] == null) {
+					if (++skipped > maxSkipped) {
+						throw new InvalidOperationException(
+								"The matrix is singular.");
+					}
+					continue;
+				}
+				@SuppressWarnings("unchecked")
+				BASE[] c = ((BASE[]) values[k]).clone();
+				boolean zero = true;
+				for (int j = 0; j < points.size(); j++) {
+					BASE d = xs[k].subtract(points.get(j)).invert();
+					BASE[] previous = newton.get(j);
+					for (int t = 0; t < targets; t++) {
+						c[t] = c[t].subtract(previous[t]).multiply(d);
+					}
+				}
+				for (int t = 0; t < targets && zero; t++) {
+					zero = c[t].isZero();
+				}
+				unchanged = zero && !points.isEmpty() ? unchanged + 1 : 0;
+				points.add(xs[k]);
+				newton.add(c);
+				if (earlyTermination > 0 && unchanged >= earlyTermination) {
+					break;
+				}
+			}
+		}
+		List<Polynomial<BASE>> result = new ArrayList<>(targets);
+		for (int t = 0; t < targets; t++) {
+			result.add(toPolynomial(points, newton, t));
+		}
+		return result;
+	}
+
+	/**
+	 * @return a point not yet in used, which is added to used.
+	 * @throws InvalidOperationException
+	 *             if the field does not provide more points.
+	 */
+	private BASE nextPoint(Set<BASE> used)
+	{
+		for (int attempt = 0; attempt < 100; attempt++) {
+			BASE x = baseFactory.get(earlyTermination > 0 ? random
+					.nextInt(Integer.MAX_VALUE) : used.size());
+			if (used.add(x)) {
+				return x;
+			}
+			if (earlyTermination == 0) {
+				break;
+			}
+		}
+		throw new InvalidOperationException(
+				"The field of coefficients has too few elements for "
+						+ "the interpolation.");
+	}
+
+	/**
+	 * convert the Newton form of target t into a polynomial.
+	 */
+	private Polynomial<BASE> toPolynomial(List<BASE> points,
+			List<BASE[]> newton, int t)
+	{
+		int m = points.size();
+		BASE[] r = baseFactory.getArray(m + 1);
+		for (int i = 0; i <= m; i++) {
+			r[i] = baseFactory.zero();
+		}
+		r[0] = newton.get(m - 1)[t];
+		for (int j = m - 2; j >= 0; j--) {
+			// r = r * (x - x_j) + c_j
+			BASE xj = points.get(j);
+			for (int i = m - 1 - j; i > 0; i--) {
+				r[i] = r[i - 1].subtract(xj.multiply(r[i]));
+			}
+			r[0] = newton.get(j)[t].subtract(xj.multiply(r[0]));
+		}
+		Map<Integer, BASE> coefficients = new HashMap<>();
+		for (int i = 0; i < m; i++) {
+			coefficients.put(Integer.valueOf(i), r[i]);
+		}
+		return new Polynomial<>(coefficients, baseFactory);
+	}
+
+	/**
+	 * @return the LU decomposition of the matrix evaluated at x.
+	 */
+	private LUDecomposition<BASE> decompose(Polynomial<BASE>[][] entries,
+			BASE x)
+	{
+		int n = entries.length;
+		BASE[][] values = baseFactory.getArray(n, n);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				values[i][j] = entries[i][j].evaluate(x);
+			}
+		}
+		return new LUDecomposition<>(new Matrix<>(values, n, n, baseFactory),
+				ExecutionPolicy.SEQUENTIAL, LUDecomposition.DEFAULT_TILE_SIZE);
+	}
+
+	/**
+	 * Multiply a row of rational functions by the least common multiple of
+	 * their denominators.
+	 * 
+	 * @param row
+	 *            the rational functions
+	 * @param cleared
+	 *            receives the resulting polynomials
+	 * @return the least common multiple
+	 */
+	private Polynomial<BASE> clearDenominators(RationalFunction<BASE>[] row,
+			Polynomial<BASE>[] cleared)
+	{
+		Polynomial<BASE> lcm = PolynomialFactory.getFactory(baseFactory).one();
+		for (RationalFunction<BASE> f : row) {
+			Polynomial<BASE> d = f.cancel().getDenominator();
+			lcm = lcm.multiply(d.divide(lcm.gcd(d)));
+		}
+		for (int j = 0; j < row.length; j++) {
+			RationalFunction<BASE> f = row[j].cancel();
+			cleared[j] = f.getNumerator().multiply(
+					lcm.divide(f.getDenominator()));
+		}
+		return lcm;
+	}
+
+	/**
+	 * @return the rational function n/d with the common factors removed and a
+	 *         monic denominator.
+	 */
+	private RationalFunction<BASE> reduce(Polynomial<BASE> n,
+			Polynomial<BASE> d)
+	{
+		Polynomial<BASE> gcd = n.gcd(d);
+		if (gcd.getDegree() > 0) {
+			n = n.divide(gcd);
+			d = d.divide(gcd);
+		}
+		BASE lead = d.getHighestCoefficient();
+		return RationalFunctionFactory.getFactory(baseFactory).get(
+				n.divideByScalar(lead), d.divideByScalar(lead), baseFactory);
+	}
+
+	private static void checkSquare(Matrix<?> matrix)
+	{
+		if (matrix.getRows() != matrix.getCols()) {
+			throw new InvalidOperationException(
+					"Square matrix needed for determinant");
+		}
+	}
+
+	/**
+	 * @return the degree of p, -1 for the zero polynomial.
+	 */
+	private static int degree(Polynomial<?> p)
+	{
+		return p.isZero() ? -1 : p.getDegree();
+	}
+
+	/**
+	 * calculate the maximal degrees in the rows and columns.
+	 */
+	private static void degrees(Polynomial<?>[][] entries, int[] rowDegrees,
+			int[] colDegrees)
+	{
+		Arrays.fill(rowDegrees, -1);
+		Arrays.fill(colDegrees, -1);
+		for (int i = 0; i < entries.length; i++) {
+			for (int j = 0; j < entries.length; j++) {
+				int d = degree(entries[i][j]);
+				rowDegrees[i] = Math.max(rowDegrees[i], d);
+				colDegrees[j] = Math.max(colDegrees[j], d);
+			}
+		}
+	}
+
+	/**
+	 * @return the sum of the degrees, or -1 if one of them is -1.
+	 */
+	private static int sum(int[] degrees)
+	{
+		int sum = 0;
+		for (int d : degrees) {
+			if (d < 0) {
+				return -1;
+			}
+			sum += d;
+		}
+		return sum;
+	}
+}
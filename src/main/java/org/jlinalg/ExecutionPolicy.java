@@ -0,0 +1,310 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Determines whether element-wise operations on a {@link Matrix} (for example
+ * {@link Matrix#apply(org.jlinalg.operator.MonadicOperator)} or
+ * {@link Matrix#lt(Matrix)}) and reductions (see
+ * {@link org.jlinalg.operator.Reduction}) are executed sequentially or in
+ * parallel.
+ * <P>
+ * A parallel policy splits the rows of a matrix into chunks of at least
+ * <code>threshold</code> elements and processes them as tasks in a
+ * {@link ForkJoinPool}. Matrices with fewer elements than the threshold are
+ * processed sequentially. As every element is computed independently, the
+ * results do not depend on the policy. The operators applied have however to
+ * be thread safe, which is the case for all operators in JLinAlg.
+ * <P>
+ * The policy used by methods without an explicit policy is
+ * {@link #getDefault()}, which is {@link #SEQUENTIAL} unless changed by
+ * {@link #setDefault(ExecutionPolicy)}.
+ */
+public final class ExecutionPolicy
+{
+	/**
+	 * the default number of elements below which operations are not split.
+	 */
+	public static final int DEFAULT_THRESHOLD = 1024;
+
+	/**
+	 * Execute all operations in the calling thread.
+	 */
+	public static final ExecutionPolicy SEQUENTIAL = new ExecutionPolicy(null,
+			Integer.MAX_VALUE);
+
+	/**
+	 * the policy used if none is given.
+	 */
+	private static volatile ExecutionPolicy defaultPolicy = SEQUENTIAL;
+
+	/**
+	 * the pool executing the tasks (null for {@link #SEQUENTIAL}).
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * the minimal number of elements processed by a task.
+	 */
+	private final int threshold;
+
+	/**
+	 * @param pool
+	 * @param threshold
+	 */
+	private ExecutionPolicy(ForkJoinPool pool, int threshold)
+	{
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * @return a parallel policy using the common pool and
+	 *         {@link #DEFAULT_THRESHOLD}.
+	 */
+	public static ExecutionPolicy parallel()
+	{
+		return parallel(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * @param pool
+	 *            the pool executing the tasks.
+	 * @param threshold
+	 *            the minimal number of elements processed by a task. For
+	 *            cheap operations (for example on
+	 *            {@link org.jlinalg.doublewrapper.DoubleWrapper}) this should be
+	 *            larger than for expensive ones (for example on
+	 *            {@link org.jlinalg.polynomial.Polynomial}).
+	 * @return a parallel policy
+	 * @throws InvalidOperationException
+	 *             if the threshold is not positive.
+	 */
+	public static ExecutionPolicy parallel(ForkJoinPool pool, int threshold)
+	{
+		if (pool == null) {
+			throw new InvalidOperationException("the pool is null");
+		}
+		if (threshold < 1) {
+			throw new InvalidOperationException("illegal threshold "
+					+ threshold);
+		}
+		return new ExecutionPolicy(pool, threshold);
+	}
+
+	/**
+	 * @return the policy used by operations without an explicit policy.
+	 */
+	public static ExecutionPolicy getDefault()
+	{
+		return defaultPolicy;
+	}
+
+	/**
+	 * @param policy
+	 *            the policy to be used by operations without an explicit
+	 *            policy.
+	 */
+	public static void setDefault(ExecutionPolicy policy)
+	{
+		if (policy == null) {
+			throw new InvalidOperationException("the policy is null");
+		}
+		defaultPolicy = policy;
+	}
+
+	/**
+	 * @return true if this policy may execute operations in parallel.
+	 */
+	public boolean isParallel()
+	{
+		return pool != null;
+	}
+
+	/**
+	 * @return the minimal number of elements processed by a task.
+	 */
+	public int getThreshold()
+	{
+		return threshold;
+	}
+
+	/**
+	 * @return the pool executing the tasks (null for {@link #SEQUENTIAL}).
+	 */
+	ForkJoinPool getPool()
+	{
+		return pool;
+	}
+
+	/**
+	 * Call <code>rowAction</code> for all rows 1 to <code>rows</code>. The
+	 * method returns after all rows are processed; exceptions thrown by
+	 * <code>rowAction</code> are re-thrown.
+	 * 
+	 * @param rows
+	 *            the number of rows
+	 * @param cols
+	 *            the number of elements in a row, used to determine the size
+	 *            of the chunks.
+	 * @param rowAction
+	 *            processes one row (with an index starting at 1).
+	 */
+	void forEachRow(int rows, int cols, IntConsumer rowAction)
+	{
+		long elements = (long) rows * cols;
+		if (pool == null || elements < 2L * threshold || rows < 2) {
+			for (int i = 1; i <= rows; i++) {
+				rowAction.accept(i);
+			}
+			return;
+		}
+		int chunk = Math.max(1, threshold / Math.max(1, cols));
+		pool.invoke(new RowTask(1, rows + 1, chunk, rowAction));
+	}
+
+	/**
+	 * Reduce the elements of a spliterator. If this policy is parallel and
+	 * there are enough elements, the spliterator is split recursively into
+	 * parts of about {@link #getThreshold()} elements; the parts are reduced
+	 * by <code>reduce</code> and the results combined in the order of the
+	 * parts. The result hence only depends on the threshold and the way the
+	 * spliterator splits itself.
+	 * 
+	 * @param <E>
+	 *            the type of the elements
+	 * @param spliterator
+	 * @param reduce
+	 *            reduces a part sequentially and returns null if the part is
+	 *            empty.
+	 * @param combiner
+	 *            an associative operation combining the results of two
+	 *            consecutive parts.
+	 * @return the reduction of all elements or null if there are none.
+	 */
+	public <E> E reduce(Spliterator<E> spliterator,
+			Function<Spliterator<E>, E> reduce, BinaryOperator<E> combiner)
+	{
+		if (pool == null || spliterator.estimateSize() < 2L * threshold) {
+			return reduce.apply(spliterator);
+		}
+		return pool.invoke(new ReduceTask<>(spliterator, reduce, combiner,
+				threshold));
+	}
+
+	@Override
+	public String toString()
+	{
+		return pool == null ? "sequential" : "parallel (threshold "
+				+ threshold + ", " + pool + ")";
+	}
+
+	/**
+	 * Processes the rows from (including) <code>from</code> to (excluding)
+	 * <code>to</code>, splitting the range in halves as long as it contains
+	 * more than <code>chunk</code> rows.
+	 */
+	private static final class RowTask
+			extends
+			RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int from, to, chunk;
+
+		private final IntConsumer rowAction;
+
+		RowTask(int from, int to, int chunk, IntConsumer rowAction)
+		{
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
+			this.rowAction = rowAction;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from <= chunk) {
+				for (int i = from; i < to; i++) {
+					rowAction.accept(i);
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new RowTask(from, middle, chunk, rowAction),
+					new RowTask(middle, to, chunk, rowAction));
+		}
+	}
+
+	/**
+	 * Reduces the elements of a spliterator, splitting it as long as it
+	 * contains more than <code>threshold</code> elements.
+	 */
+	private static final class ReduceTask<E>
+			extends
+			RecursiveTask<E>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Spliterator<E> spliterator;
+
+		private final Function<Spliterator<E>, E> reduce;
+
+		private final BinaryOperator<E> combiner;
+
+		private final int threshold;
+
+		ReduceTask(Spliterator<E> spliterator,
+				Function<Spliterator<E>, E> reduce, BinaryOperator<E> combiner,
+				int threshold)
+		{
+			this.spliterator = spliterator;
+			this.reduce = reduce;
+			this.combiner = combiner;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected E compute()
+		{
+			Spliterator<E> prefix = spliterator.estimateSize() > threshold
+					? spliterator.trySplit() : null;
+			if (prefix == null) {
+				return reduce.apply(spliterator);
+			}
+			ReduceTask<E> left = new ReduceTask<>(prefix, reduce, combiner,
+					threshold);
+			left.fork();
+			E right = new ReduceTask<>(spliterator, reduce, combiner,
+					threshold).compute();
+			E l = left.join();
+			if (l == null) {
+				return right;
+			}
+			return right == null ? l : combiner.apply(l, right);
+		}
+	}
+}
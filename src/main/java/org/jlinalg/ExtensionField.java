@@ -0,0 +1,484 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jlinalg.polynomial.Polynomial;
+
+/**
+ * The extension field of degree k of a finite field F<sub>q</sub>, whose
+ * elements are the polynomials of degree less than k over F<sub>q</sub>
+ * modulo a random irreducible polynomial of degree k. It is used by
+ * {@link WiedemannSolver} to draw random values from a field that is large
+ * compared to the dimension if F<sub>q</sub> is not.
+ * 
+ * @param <BASE>
+ *            the type of the elements of F<sub>q</sub>.
+ */
+@JLinAlgTypeProperties(isExact = true, isDiscreet = true, hasNegativeValues = false, isCompound = true)
+final class ExtensionField<BASE extends IRingElement<BASE>>
+		extends
+		FieldElementFactory<ExtensionField.Element<BASE>>
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * the factory of F<sub>q</sub>
+	 */
+	private final IRingElementFactory<BASE> baseFactory;
+
+	/**
+	 * the coefficients m<sub>0</sub>, ..., m<sub>k</sub> = 1 of the monic
+	 * irreducible polynomial
+	 */
+	private final BASE[] modulus;
+
+	/**
+	 * the number q<sup>k</sup> of elements
+	 */
+	private final BigInteger size;
+
+	private final Element<BASE> zero;
+
+	private final Element<BASE> one;
+
+	private final Element<BASE> mOne;
+
+	/**
+	 * @param baseFactory
+	 *            the factory of F<sub>q</sub>
+	 * @param q
+	 *            the number of elements of F<sub>q</sub>
+	 * @param degree
+	 *            the degree k of the extension
+	 * @throws InvalidOperationException
+	 *             if the degree is not positive.
+	 */
+	ExtensionField(IRingElementFactory<BASE> baseFactory, BigInteger q,
+			int degree) throws InvalidOperationException
+	{
+		if (degree < 1) {
+			throw new InvalidOperationException("illegal degree " + degree);
+		}
+		this.baseFactory = baseFactory;
+		this.size = q.pow(degree);
+		this.modulus = irreduciblePolynomial(baseFactory, q, degree);
+		this.zero = embed(baseFactory.zero());
+		this.one = embed(baseFactory.one());
+		this.mOne = embed(baseFactory.m_one());
+	}
+
+	/**
+	 * @return the number of elements.
+	 */
+	BigInteger getFieldSize()
+	{
+		return size;
+	}
+
+	/**
+	 * @return the degree k of the extension.
+	 */
+	int getDegree()
+	{
+		return modulus.length - 1;
+	}
+
+	/**
+	 * @return the element of F<sub>q</sub> as an element of the extension.
+	 */
+	Element<BASE> embed(BASE value)
+	{
+		BASE[] c = constant(baseFactory, getDegree(), value);
+		return new Element<>(c, this);
+	}
+
+	/**
+	 * @param coefficients
+	 *            the coefficients c<sub>0</sub>, ..., c<sub>k-1</sub> (not
+	 *            copied)
+	 * @return the element c<sub>0</sub> + c<sub>1</sub> &alpha; + ...
+	 */
+	Element<BASE> get(BASE[] coefficients)
+	{
+		return new Element<>(coefficients, this);
+	}
+
+	@SuppressWarnings({
+			"unchecked", "rawtypes"
+	})
+	@Override
+	public Element<BASE>[] getArray(int size)
+	{
+		return new Element[size];
+	}
+
+	@SuppressWarnings({
+			"unchecked", "rawtypes"
+	})
+	@Override
+	public Element<BASE>[][] getArray(int rows, int columns)
+	{
+		return new Element[rows][columns];
+	}
+
+	@Override
+	public Element<BASE> one()
+	{
+		return one;
+	}
+
+	@Override
+	public Element<BASE> zero()
+	{
+		return zero;
+	}
+
+	@Override
+	public Element<BASE> m_one()
+	{
+		return mOne;
+	}
+
+	/**
+	 * @return o if it is an element of this field, and o converted by the
+	 *         factory of F<sub>q</sub> otherwise.
+	 */
+	@Override
+	public Element<BASE> get(Object o)
+	{
+		if (o instanceof Element && ((Element<?>) o).field == this) {
+			@SuppressWarnings("unchecked")
+			Element<BASE> e = (Element<BASE>) o;
+			return e;
+		}
+		return embed(baseFactory.get(o));
+	}
+
+	@Override
+	public Element<BASE> get(int i)
+	{
+		return embed(baseFactory.get(i));
+	}
+
+	@Override
+	public Element<BASE> get(long d)
+	{
+		return embed(baseFactory.get(d));
+	}
+
+	@Override
+	public Element<BASE> get(double d)
+	{
+		return embed(baseFactory.get(d));
+	}
+
+	/**
+	 * @return a random element with uniformly distributed coefficients.
+	 */
+	@Override
+	public Element<BASE> randomValue()
+	{
+		BASE[] c = baseFactory.getArray(getDegree());
+		for (int i = 0; i < c.length; i++) {
+			c[i] = baseFactory.randomValue();
+		}
+		return new Element<>(c, this);
+	}
+
+	/**
+	 * @return the same as {@link #randomValue()}. All parameters are ignored.
+	 */
+	@Override
+	public Element<BASE> randomValue(
+			@SuppressWarnings("unused") Element<BASE> min,
+			@SuppressWarnings("unused") Element<BASE> max)
+	{
+		return randomValue();
+	}
+
+	/**
+	 * @return the same as {@link #randomValue()}
+	 */
+	@Override
+	public Element<BASE> gaussianRandomValue()
+	{
+		return randomValue();
+	}
+
+	/**
+	 * @return the constant polynomial value of degree less than k.
+	 */
+	private static <BASE extends IRingElement<BASE>> BASE[] constant(
+			IRingElementFactory<BASE> baseFactory, int k, BASE value)
+	{
+		BASE[] c = baseFactory.getArray(k);
+		Arrays.fill(c, baseFactory.zero());
+		c[0] = value;
+		return c;
+	}
+
+	/**
+	 * @return a b modulo the monic polynomial m, for a and b of degree less
+	 *         than that of m.
+	 */
+	private static <BASE extends IRingElement<BASE>> BASE[] multiply(
+			BASE[] a, BASE[] b, BASE[] m, IRingElementFactory<BASE> factory)
+	{
+		int k = m.length - 1;
+		BASE[] p = factory.getArray(2 * k - 1);
+		Arrays.fill(p, factory.zero());
+		for (int i = 0; i < k; i++) {
+			if (a[i].isZero()) continue;
+			for (int j = 0; j < k; j++) {
+				p[i + j] = p[i + j].add(a[i].multiply(b[j]));
+			}
+		}
+		for (int i = p.length - 1; i >= k; i--) {
+			BASE t = p[i];
+			if (t.isZero()) continue;
+			for (int j = 0; j < k; j++) {
+				p[i - k + j] = p[i - k + j].subtract(t.multiply(m[j]));
+			}
+		}
+		return Arrays.copyOf(p, k);
+	}
+
+	/**
+	 * @return a<sup>e</sup> modulo the monic polynomial m, calculated by
+	 *         repeated squaring.
+	 */
+	private static <BASE extends IRingElement<BASE>> BASE[] pow(BASE[] a,
+			BigInteger e, BASE[] m, IRingElementFactory<BASE> factory)
+	{
+		BASE[] result = constant(factory, m.length - 1, factory.one());
+		for (int i = e.bitLength() - 1; i >= 0; i--) {
+			result = multiply(result, result, m, factory);
+			if (e.testBit(i)) {
+				result = multiply(result, a, m, factory);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the coefficients as a polynomial.
+	 */
+	private static <BASE extends IRingElement<BASE>> Polynomial<BASE> toPolynomial(
+			BASE[] c, IRingElementFactory<BASE> factory)
+	{
+		Map<Integer, BASE> coefficients = new HashMap<>();
+		for (int i = 0; i < c.length; i++) {
+			coefficients.put(i, c[i]);
+		}
+		return new Polynomial<>(coefficients, factory);
+	}
+
+	/**
+	 * Find a random monic irreducible polynomial f of degree k over
+	 * F<sub>q</sub> by Ben-Or's test: f is irreducible if gcd(x<sup>q<sup>i
+	 * </sup></sup> - x, f) = 1 for all i &le; k/2. About one in k polynomials
+	 * is irreducible.
+	 * 
+	 * @return the coefficients f<sub>0</sub>, ..., f<sub>k</sub> = 1.
+	 */
+	private static <BASE extends IRingElement<BASE>> BASE[] irreduciblePolynomial(
+			IRingElementFactory<BASE> factory, BigInteger q, int k)
+	{
+		BASE[] f = factory.getArray(k + 1);
+		f[k] = factory.one();
+		while (true) {
+			for (int i = 0; i < k; i++) {
+				f[i] = factory.randomValue();
+			}
+			if (k == 1) return f;
+			if (f[0].isZero()) continue;
+			Polynomial<BASE> p = toPolynomial(f, factory);
+			BASE[] x = constant(factory, k, factory.zero());
+			x[1] = factory.one();
+			BASE[] h = x;
+			boolean irreducible = true;
+			for (int i = 1; 2 * i <= k && irreducible; i++) {
+				h = pow(h, q, f, factory);
+				BASE[] d = h.clone();
+				d[1] = d[1].subtract(factory.one());
+				irreducible = toPolynomial(d, factory).gcd(p).getDegree() == 0;
+			}
+			if (irreducible) return f;
+		}
+	}
+
+	/**
+	 * An element of the extension field.
+	 * 
+	 * @param <BASE>
+	 *            the type of the elements of F<sub>q</sub>.
+	 */
+	static final class Element<BASE extends IRingElement<BASE>>
+			extends
+			FieldElement<Element<BASE>>
+	{
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * the coefficients c<sub>0</sub>, ..., c<sub>k-1</sub> of c<sub>0</sub>
+		 * + c<sub>1</sub> &alpha; + ..., where &alpha; is a root of the modulus
+		 */
+		private final BASE[] coefficients;
+
+		/**
+		 * the field this element belongs to
+		 */
+		private final ExtensionField<BASE> field;
+
+		Element(BASE[] coefficients, ExtensionField<BASE> field)
+		{
+			this.coefficients = coefficients;
+			this.field = field;
+		}
+
+		/**
+		 * @return the i-th coefficient of this element.
+		 */
+		BASE getCoefficient(int i)
+		{
+			return coefficients[i];
+		}
+
+		@Override
+		public Element<BASE> add(Element<BASE> val)
+		{
+			BASE[] c = coefficients.clone();
+			for (int i = 0; i < c.length; i++) {
+				c[i] = c[i].add(val.coefficients[i]);
+			}
+			return new Element<>(c, field);
+		}
+
+		@Override
+		public Element<BASE> subtract(Element<BASE> val)
+		{
+			BASE[] c = coefficients.clone();
+			for (int i = 0; i < c.length; i++) {
+				c[i] = c[i].subtract(val.coefficients[i]);
+			}
+			return new Element<>(c, field);
+		}
+
+		@Override
+		public Element<BASE> negate()
+		{
+			BASE[] c = coefficients.clone();
+			for (int i = 0; i < c.length; i++) {
+				c[i] = c[i].negate();
+			}
+			return new Element<>(c, field);
+		}
+
+		@Override
+		public Element<BASE> multiply(Element<BASE> val)
+		{
+			return new Element<>(ExtensionField.multiply(coefficients,
+					val.coefficients, field.modulus, field.baseFactory), field);
+		}
+
+		/**
+		 * @return this<sup>-1</sup> = this<sup>q<sup>k</sup>-2</sup>.
+		 * @throws DivisionByZeroException
+		 *             if this is zero.
+		 */
+		@Override
+		public Element<BASE> invert() throws DivisionByZeroException
+		{
+			if (isZero()) {
+				throw new DivisionByZeroException("Tried to invert zero.");
+			}
+			return new Element<>(pow(coefficients, field.size
+					.subtract(BigInteger.valueOf(2)), field.modulus,
+					field.baseFactory), field);
+		}
+
+		@Override
+		public boolean isZero()
+		{
+			for (BASE c : coefficients) {
+				if (!c.isZero()) return false;
+			}
+			return true;
+		}
+
+		@Override
+		public boolean isOne()
+		{
+			if (!coefficients[0].isOne()) return false;
+			for (int i = 1; i < coefficients.length; i++) {
+				if (!coefficients[i].isZero()) return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Compare the coefficients, starting with the highest one.
+		 */
+		@Override
+		public int compareTo(Element<BASE> val)
+		{
+			for (int i = coefficients.length - 1; i >= 0; i--) {
+				BASE a = coefficients[i], b = val.coefficients[i];
+				if (!a.equals(b)) return a.lt(b) ? -1 : 1;
+			}
+			return 0;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Arrays.hashCode(coefficients);
+		}
+
+		@Override
+		public ExtensionField<BASE> getFactory()
+		{
+			return field;
+		}
+
+		/**
+		 * @return {@code this}
+		 */
+		@Override
+		public Element<BASE> abs()
+		{
+			return this;
+		}
+
+		@Override
+		public Element<BASE> floor()
+		{
+			return this;
+		}
+
+		@Override
+		public String toString()
+		{
+			return toPolynomial(coefficients, field.baseFactory).toString();
+		}
+	}
+}
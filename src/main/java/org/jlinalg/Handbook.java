@@ -21,8 +21,8 @@ import org.jlinalg.doublewrapper.DoubleWrapper;
 import org.jlinalg.doublewrapper.DoubleWrapperFactory;
 
 /**
- * This file contains Java versions of the algorithms HQR, ELMHES, and BALANCE,
- * as presented in
+ * This file contains Java versions of the algorithms HQR, ELMHES, BALANCE,
+ * TRED2, TQL2, ORTHES and HQR2, as presented in
  * 
  * <PRE>
  * &#064;Book{LinearAlgebraHandbook, 
@@ -38,6 +38,11 @@ import org.jlinalg.doublewrapper.DoubleWrapperFactory;
  */
 class Handbook
 {
+	/**
+	 * the relative machine precision 2^-52 used by the EISPACK-derived
+	 * procedures
+	 */
+	static final double EPS = Math.ulp(1.0);
 
 	// Finds the eigenvalues of a real upper Hessenberg matrix, H,
 	// stored in the array h[0:n-1][0:n-1], and stores the real parts
@@ -63,6 +68,11 @@ class Handbook
 	 * (3) Run the QR algorithm on the Hessenberg matrix to obtain the
 	 * eigenvalues.<br>
 	 * <br>
+	 * Symmetric matrices are instead reduced to tridiagonal form and solved by
+	 * the implicit QL method, which is several times faster; the (real)
+	 * eigenvalues are then returned in ascending order. Eigenvectors are
+	 * available through {@link EigenDecomposition}.<br>
+	 * <br>
 	 * The algorithms used for steps 1-3 are adapted from
 	 * 
 	 * <PRE>
@@ -103,6 +113,17 @@ class Handbook
 		double[] wr = new double[n];
 		double[] wi = new double[n];
 
+		if (isSymmetric(vals)) {
+			// all eigenvalues are real: tridiagonalise and use implicit QL
+			tred2(vals, wr, wi, false);
+			tql2(null, wr, wi, false);
+			Complex[] entries = new Complex[n];
+			for (int i = 0; i < n; ++i) {
+				entries[i] = Complex.FACTORY.get(wr[i], 0.0);
+			}
+			return new Vector<>(entries, Complex.FACTORY);
+		}
+
 		int[] iint = new int[n];
 		int[] cnt = new int[n];
 		int[] lohi = new int[2];
@@ -126,6 +147,787 @@ class Handbook
 		return new Vector<>(entries, Complex.FACTORY);
 	}
 
+	/**
+	 * Tests whether a square array is exactly symmetric.
+	 * 
+	 * @param a
+	 *            the array
+	 * @return true if a[i][j]==a[j][i] for all i,j
+	 */
+	static boolean isSymmetric(double[][] a)
+	{
+		int n = a.length;
+		for (int i = 0; i < n; i++) {
+			if (a[i].length != n) {
+				return false;
+			}
+			for (int j = 0; j < i; j++) {
+				if (a[i][j] != a[j][i]) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Symmetric Householder reduction to tridiagonal form (procedure TRED2 of
+	 * the Handbook, in the 0-based formulation of EISPACK). On entry, the
+	 * lower triangle of v holds the symmetric matrix. On exit, d holds the
+	 * diagonal and e[1:n-1] the sub-diagonal of the tridiagonal matrix. If
+	 * vectors is true, v is overwritten with the orthogonal transformation,
+	 * otherwise its contents are undefined.
+	 * 
+	 * @param v
+	 *            the matrix, overwritten
+	 * @param d
+	 *            receives the diagonal
+	 * @param e
+	 *            receives the sub-diagonal
+	 * @param vectors
+	 *            whether to accumulate the transformations
+	 */
+	protected static void tred2(double[][] v, double[] d, double[] e,
+			boolean vectors)
+	{
+		int n = d.length;
+		for (int j = 0; j < n; j++) {
+			d[j] = v[n - 1][j];
+		}
+
+		for (int i = n - 1; i > 0; i--) {
+			double scale = 0.0, h = 0.0;
+			for (int k = 0; k < i; k++) {
+				scale += Math.abs(d[k]);
+			}
+			if (scale == 0.0) {
+				e[i] = d[i - 1];
+				for (int j = 0; j < i; j++) {
+					d[j] = v[i - 1][j];
+					v[i][j] = 0.0;
+					v[j][i] = 0.0;
+				}
+			}
+			else {
+				// generate the Householder vector
+				for (int k = 0; k < i; k++) {
+					d[k] /= scale;
+					h += d[k] * d[k];
+				}
+				double f = d[i - 1];
+				double g = Math.sqrt(h);
+				if (f > 0) {
+					g = -g;
+				}
+				e[i] = scale * g;
+				h -= f * g;
+				d[i - 1] = f - g;
+				for (int j = 0; j < i; j++) {
+					e[j] = 0.0;
+				}
+
+				// apply the similarity transformation to the remaining columns
+				for (int j = 0; j < i; j++) {
+					f = d[j];
+					v[j][i] = f;
+					g = e[j] + v[j][j] * f;
+					for (int k = j + 1; k <= i - 1; k++) {
+						g += v[k][j] * d[k];
+						e[k] += v[k][j] * f;
+					}
+					e[j] = g;
+				}
+				f = 0.0;
+				for (int j = 0; j < i; j++) {
+					e[j] /= h;
+					f += e[j] * d[j];
+				}
+				double hh = f / (h + h);
+				for (int j = 0; j < i; j++) {
+					e[j] -= hh * d[j];
+				}
+				for (int j = 0; j < i; j++) {
+					f = d[j];
+					g = e[j];
+					for (int k = j; k <= i - 1; k++) {
+						v[k][j] -= f * e[k] + g * d[k];
+					}
+					d[j] = v[i - 1][j];
+					v[i][j] = 0.0;
+				}
+			}
+			d[i] = h;
+		}
+
+		if (!vectors) {
+			for (int j = 0; j < n; j++) {
+				d[j] = v[j][j];
+			}
+			e[0] = 0.0;
+			return;
+		}
+
+		// accumulate the transformations
+		for (int i = 0; i < n - 1; i++) {
+			v[n - 1][i] = v[i][i];
+			v[i][i] = 1.0;
+			double h = d[i + 1];
+			if (h != 0.0) {
+				for (int k = 0; k <= i; k++) {
+					d[k] = v[k][i + 1] / h;
+				}
+				for (int j = 0; j <= i; j++) {
+					double g = 0.0;
+					for (int k = 0; k <= i; k++) {
+						g += v[k][i + 1] * v[k][j];
+					}
+					for (int k = 0; k <= i; k++) {
+						v[k][j] -= g * d[k];
+					}
+				}
+			}
+			for (int k = 0; k <= i; k++) {
+				v[k][i + 1] = 0.0;
+			}
+		}
+		for (int j = 0; j < n; j++) {
+			d[j] = v[n - 1][j];
+			v[n - 1][j] = 0.0;
+		}
+		v[n - 1][n - 1] = 1.0;
+		e[0] = 0.0;
+	}
+
+	/**
+	 * Eigenvalues (and optionally eigenvectors) of a symmetric tridiagonal
+	 * matrix by the implicit QL method (procedure TQL2 of the Handbook). The
+	 * input is as left by {@link #tred2(double[][], double[], double[],
+	 * boolean)}. On exit, d holds the eigenvalues in ascending order and, if
+	 * vectors is true, the columns of v the corresponding orthonormal
+	 * eigenvectors.
+	 * 
+	 * @param v
+	 *            the transformation from tred2 (ignored if vectors is false)
+	 * @param d
+	 *            the diagonal, overwritten with the eigenvalues
+	 * @param e
+	 *            the sub-diagonal, destroyed
+	 * @param vectors
+	 *            whether to update v
+	 * @throws InvalidOperationException
+	 *             if an eigenvalue takes more than 30 iterations
+	 */
+	protected static void tql2(double[][] v, double[] d, double[] e,
+			boolean vectors) throws InvalidOperationException
+	{
+		int n = d.length;
+		for (int i = 1; i < n; i++) {
+			e[i - 1] = e[i];
+		}
+		e[n - 1] = 0.0;
+
+		double f = 0.0, tst1 = 0.0;
+		for (int l = 0; l < n; l++) {
+			// find a small sub-diagonal element
+			tst1 = Math.max(tst1, Math.abs(d[l]) + Math.abs(e[l]));
+			int m = l;
+			while (m < n) {
+				if (Math.abs(e[m]) <= EPS * tst1) {
+					break;
+				}
+				m++;
+			}
+
+			// if m == l, d[l] is already an eigenvalue, otherwise iterate
+			if (m > l) {
+				int iter = 0;
+				do {
+					if (++iter > 30) {
+						throw new InvalidOperationException(
+								"Eigenvalue computation did not converge");
+					}
+
+					// compute the implicit shift
+					double g = d[l];
+					double p = (d[l + 1] - g) / (2.0 * e[l]);
+					double r = Math.hypot(p, 1.0);
+					if (p < 0) {
+						r = -r;
+					}
+					d[l] = e[l] / (p + r);
+					d[l + 1] = e[l] * (p + r);
+					double dl1 = d[l + 1];
+					double h = g - d[l];
+					for (int i = l + 2; i < n; i++) {
+						d[i] -= h;
+					}
+					f += h;
+
+					// implicit QL transformation
+					p = d[m];
+					double c = 1.0, c2 = c, c3 = c;
+					double el1 = e[l + 1];
+					double s = 0.0, s2 = 0.0;
+					for (int i = m - 1; i >= l; i--) {
+						c3 = c2;
+						c2 = c;
+						s2 = s;
+						g = c * e[i];
+						h = c * p;
+						r = Math.hypot(p, e[i]);
+						e[i + 1] = s * r;
+						s = e[i] / r;
+						c = p / r;
+						p = c * d[i] - s * g;
+						d[i + 1] = h + s * (c * g + s * d[i]);
+						if (vectors) {
+							for (int k = 0; k < n; k++) {
+								h = v[k][i + 1];
+								v[k][i + 1] = s * v[k][i] + c * h;
+								v[k][i] = c * v[k][i] - s * h;
+							}
+						}
+					}
+					p = -s * s2 * c3 * el1 * e[l] / dl1;
+					e[l] = s * p;
+					d[l] = c * p;
+				} while (Math.abs(e[l]) > EPS * tst1);
+			}
+			d[l] += f;
+			e[l] = 0.0;
+		}
+
+		// sort the eigenvalues and the corresponding vectors
+		for (int i = 0; i < n - 1; i++) {
+			int k = i;
+			double p = d[i];
+			for (int j = i + 1; j < n; j++) {
+				if (d[j] < p) {
+					k = j;
+					p = d[j];
+				}
+			}
+			if (k != i) {
+				d[k] = d[i];
+				d[i] = p;
+				if (vectors) {
+					for (int j = 0; j < n; j++) {
+						p = v[j][i];
+						v[j][i] = v[j][k];
+						v[j][k] = p;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Nonsymmetric reduction to Hessenberg form by orthogonal similarity
+	 * transformations (procedures ORTHES and ORTRAN of the Handbook). On
+	 * exit, h is upper Hessenberg and v holds the accumulated transformation.
+	 * 
+	 * @param h
+	 *            the matrix, overwritten with its Hessenberg form
+	 * @param v
+	 *            receives the orthogonal transformation
+	 */
+	protected static void orthes(double[][] h, double[][] v)
+	{
+		int n = h.length;
+		int high = n - 1;
+		double[] ort = new double[n];
+
+		for (int m = 1; m <= high - 1; m++) {
+			double scale = 0.0;
+			for (int i = m; i <= high; i++) {
+				scale += Math.abs(h[i][m - 1]);
+			}
+			if (scale != 0.0) {
+				// compute the Householder transformation
+				double hh = 0.0;
+				for (int i = high; i >= m; i--) {
+					ort[i] = h[i][m - 1] / scale;
+					hh += ort[i] * ort[i];
+				}
+				double g = Math.sqrt(hh);
+				if (ort[m] > 0) {
+					g = -g;
+				}
+				hh -= ort[m] * g;
+				ort[m] -= g;
+
+				// apply it from the left and from the right
+				for (int j = m; j < n; j++) {
+					double f = 0.0;
+					for (int i = high; i >= m; i--) {
+						f += ort[i] * h[i][j];
+					}
+					f /= hh;
+					for (int i = m; i <= high; i++) {
+						h[i][j] -= f * ort[i];
+					}
+				}
+				for (int i = 0; i <= high; i++) {
+					double f = 0.0;
+					for (int j = high; j >= m; j--) {
+						f += ort[j] * h[i][j];
+					}
+					f /= hh;
+					for (int j = m; j <= high; j++) {
+						h[i][j] -= f * ort[j];
+					}
+				}
+				ort[m] *= scale;
+				h[m][m - 1] = scale * g;
+			}
+		}
+
+		// accumulate the transformations
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				v[i][j] = i == j ? 1.0 : 0.0;
+			}
+		}
+		for (int m = high - 1; m >= 1; m--) {
+			if (h[m][m - 1] != 0.0) {
+				for (int i = m + 1; i <= high; i++) {
+					ort[i] = h[i][m - 1];
+				}
+				for (int j = m; j <= high; j++) {
+					double g = 0.0;
+					for (int i = m; i <= high; i++) {
+						g += ort[i] * v[i][j];
+					}
+					// double division avoids possible underflow
+					g = g / ort[m] / h[m][m - 1];
+					for (int i = m; i <= high; i++) {
+						v[i][j] += g * ort[i];
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Eigenvalues and eigenvectors of a real upper Hessenberg matrix by the
+	 * shifted QR algorithm followed by back-substitution (procedure HQR2 of
+	 * the Handbook). On entry, v holds the transformation from
+	 * {@link #orthes(double[][], double[][])}. On exit, wr and wi hold the
+	 * real and imaginary parts of the eigenvalues and the columns of v the
+	 * eigenvectors: for a complex pair wr[j] &plusmn; i wi[j] (wi[j] &gt; 0)
+	 * the vector is v[.][j] &plusmn; i v[.][j+1].
+	 * 
+	 * @param h
+	 *            the Hessenberg matrix, destroyed
+	 * @param v
+	 *            the transformation, overwritten with the eigenvectors
+	 * @param wr
+	 *            receives the real parts of the eigenvalues
+	 * @param wi
+	 *            receives the imaginary parts of the eigenvalues
+	 * @throws InvalidOperationException
+	 *             if an eigenvalue takes more than 30 iterations past the
+	 *             exceptional shifts
+	 */
+	protected static void hqr2(double[][] h, double[][] v, double[] wr,
+			double[] wi) throws InvalidOperationException
+	{
+		int nn = wr.length;
+		int n = nn - 1;
+		double exshift = 0.0;
+		double p = 0, q = 0, r = 0, s = 0, z = 0, t, w, x, y;
+		double[] cd = new double[2];
+
+		double norm = 0.0;
+		for (int i = 0; i < nn; i++) {
+			for (int j = Math.max(i - 1, 0); j < nn; j++) {
+				norm += Math.abs(h[i][j]);
+			}
+		}
+
+		int iter = 0;
+		while (n >= 0) {
+			// look for a single small sub-diagonal element
+			int l = n;
+			while (l > 0) {
+				s = Math.abs(h[l - 1][l - 1]) + Math.abs(h[l][l]);
+				if (s == 0.0) {
+					s = norm;
+				}
+				if (Math.abs(h[l][l - 1]) < EPS * s) {
+					break;
+				}
+				l--;
+			}
+
+			if (l == n) {
+				// one root found
+				h[n][n] += exshift;
+				wr[n] = h[n][n];
+				wi[n] = 0.0;
+				n--;
+				iter = 0;
+			}
+			else if (l == n - 1) {
+				// two roots found
+				w = h[n][n - 1] * h[n - 1][n];
+				p = (h[n - 1][n - 1] - h[n][n]) / 2.0;
+				q = p * p + w;
+				z = Math.sqrt(Math.abs(q));
+				h[n][n] += exshift;
+				h[n - 1][n - 1] += exshift;
+				x = h[n][n];
+
+				if (q >= 0) {
+					// real pair
+					z = p >= 0 ? p + z : p - z;
+					wr[n - 1] = x + z;
+					wr[n] = wr[n - 1];
+					if (z != 0.0) {
+						wr[n] = x - w / z;
+					}
+					wi[n - 1] = 0.0;
+					wi[n] = 0.0;
+					x = h[n][n - 1];
+					s = Math.abs(x) + Math.abs(z);
+					p = x / s;
+					q = z / s;
+					r = Math.sqrt(p * p + q * q);
+					p /= r;
+					q /= r;
+
+					for (int j = n - 1; j < nn; j++) {
+						z = h[n - 1][j];
+						h[n - 1][j] = q * z + p * h[n][j];
+						h[n][j] = q * h[n][j] - p * z;
+					}
+					for (int i = 0; i <= n; i++) {
+						z = h[i][n - 1];
+						h[i][n - 1] = q * z + p * h[i][n];
+						h[i][n] = q * h[i][n] - p * z;
+					}
+					for (int i = 0; i < nn; i++) {
+						z = v[i][n - 1];
+						v[i][n - 1] = q * z + p * v[i][n];
+						v[i][n] = q * v[i][n] - p * z;
+					}
+				}
+				else {
+					// complex pair
+					wr[n - 1] = x + p;
+					wr[n] = x + p;
+					wi[n - 1] = z;
+					wi[n] = -z;
+				}
+				n -= 2;
+				iter = 0;
+			}
+			else {
+				// no convergence yet: form the shift
+				x = h[n][n];
+				y = 0.0;
+				w = 0.0;
+				if (l < n) {
+					y = h[n - 1][n - 1];
+					w = h[n][n - 1] * h[n - 1][n];
+				}
+
+				// Wilkinson's exceptional shift
+				if (iter == 10) {
+					exshift += x;
+					for (int i = 0; i <= n; i++) {
+						h[i][i] -= x;
+					}
+					s = Math.abs(h[n][n - 1]) + Math.abs(h[n - 1][n - 2]);
+					x = y = 0.75 * s;
+					w = -0.4375 * s * s;
+				}
+
+				// a second exceptional shift for stubborn cases
+				if (iter == 30) {
+					s = (y - x) / 2.0;
+					s = s * s + w;
+					if (s > 0) {
+						s = Math.sqrt(s);
+						if (y < x) {
+							s = -s;
+						}
+						s = x - w / ((y - x) / 2.0 + s);
+						for (int i = 0; i <= n; i++) {
+							h[i][i] -= s;
+						}
+						exshift += s;
+						x = y = w = 0.964;
+					}
+				}
+
+				if (++iter > 60) {
+					throw new InvalidOperationException(
+							"Eigenvalue computation did not converge");
+				}
+
+				// look for two consecutive small sub-diagonal elements
+				int m = n - 2;
+				while (m >= l) {
+					z = h[m][m];
+					r = x - z;
+					s = y - z;
+					p = (r * s - w) / h[m + 1][m] + h[m][m + 1];
+					q = h[m + 1][m + 1] - z - r - s;
+					r = h[m + 2][m + 1];
+					s = Math.abs(p) + Math.abs(q) + Math.abs(r);
+					p /= s;
+					q /= s;
+					r /= s;
+					if (m == l) {
+						break;
+					}
+					if (Math.abs(h[m][m - 1]) * (Math.abs(q) + Math.abs(r)) < EPS
+							* (Math.abs(p) * (Math.abs(h[m - 1][m - 1])
+									+ Math.abs(z) + Math.abs(h[m + 1][m + 1])))) {
+						break;
+					}
+					m--;
+				}
+
+				for (int i = m + 2; i <= n; i++) {
+					h[i][i - 2] = 0.0;
+					if (i > m + 2) {
+						h[i][i - 3] = 0.0;
+					}
+				}
+
+				// double QR step involving rows l:n and columns m:n
+				for (int k = m; k <= n - 1; k++) {
+					boolean notlast = k != n - 1;
+					if (k != m) {
+						p = h[k][k - 1];
+						q = h[k + 1][k - 1];
+						r = notlast ? h[k + 2][k - 1] : 0.0;
+						x = Math.abs(p) + Math.abs(q) + Math.abs(r);
+						if (x == 0.0) {
+							continue;
+						}
+						p /= x;
+						q /= x;
+						r /= x;
+					}
+					s = Math.sqrt(p * p + q * q + r * r);
+					if (p < 0) {
+						s = -s;
+					}
+					if (s != 0) {
+						if (k != m) {
+							h[k][k - 1] = -s * x;
+						}
+						else if (l != m) {
+							h[k][k - 1] = -h[k][k - 1];
+						}
+						p += s;
+						x = p / s;
+						y = q / s;
+						z = r / s;
+						q /= p;
+						r /= p;
+
+						// row modification
+						for (int j = k; j < nn; j++) {
+							p = h[k][j] + q * h[k + 1][j];
+							if (notlast) {
+								p += r * h[k + 2][j];
+								h[k + 2][j] -= p * z;
+							}
+							h[k][j] -= p * x;
+							h[k + 1][j] -= p * y;
+						}
+						// column modification
+						for (int i = 0; i <= Math.min(n, k + 3); i++) {
+							p = x * h[i][k] + y * h[i][k + 1];
+							if (notlast) {
+								p += z * h[i][k + 2];
+								h[i][k + 2] -= p * r;
+							}
+							h[i][k] -= p;
+							h[i][k + 1] -= p * q;
+						}
+						// accumulate the transformations
+						for (int i = 0; i < nn; i++) {
+							p = x * v[i][k] + y * v[i][k + 1];
+							if (notlast) {
+								p += z * v[i][k + 2];
+								v[i][k + 2] -= p * r;
+							}
+							v[i][k] -= p;
+							v[i][k + 1] -= p * q;
+						}
+					}
+				}
+			}
+		}
+
+		if (norm == 0.0) {
+			return;
+		}
+
+		// back-substitute to find the vectors of the upper triangular form
+		for (n = nn - 1; n >= 0; n--) {
+			p = wr[n];
+			q = wi[n];
+
+			if (q == 0) {
+				// real vector
+				int l = n;
+				h[n][n] = 1.0;
+				for (int i = n - 1; i >= 0; i--) {
+					w = h[i][i] - p;
+					r = 0.0;
+					for (int j = l; j <= n; j++) {
+						r += h[i][j] * h[j][n];
+					}
+					if (wi[i] < 0.0) {
+						z = w;
+						s = r;
+					}
+					else {
+						l = i;
+						if (wi[i] == 0.0) {
+							h[i][n] = w != 0.0 ? -r / w : -r / (EPS * norm);
+						}
+						else {
+							x = h[i][i + 1];
+							y = h[i + 1][i];
+							q = (wr[i] - p) * (wr[i] - p) + wi[i] * wi[i];
+							t = (x * s - z * r) / q;
+							h[i][n] = t;
+							h[i + 1][n] = Math.abs(x) > Math.abs(z) ? (-r - w
+									* t)
+									/ x : (-s - y * t) / z;
+						}
+						// overflow control
+						t = Math.abs(h[i][n]);
+						if (EPS * t * t > 1) {
+							for (int j = i; j <= n; j++) {
+								h[j][n] /= t;
+							}
+						}
+					}
+				}
+			}
+			else if (q < 0) {
+				// complex vector; the last component is chosen imaginary
+				int l = n - 1;
+				if (Math.abs(h[n][n - 1]) > Math.abs(h[n - 1][n])) {
+					h[n - 1][n - 1] = q / h[n][n - 1];
+					h[n - 1][n] = -(h[n][n] - p) / h[n][n - 1];
+				}
+				else {
+					cdiv(0.0, -h[n - 1][n], h[n - 1][n - 1] - p, q, cd);
+					h[n - 1][n - 1] = cd[0];
+					h[n - 1][n] = cd[1];
+				}
+				h[n][n - 1] = 0.0;
+				h[n][n] = 1.0;
+				for (int i = n - 2; i >= 0; i--) {
+					double ra = 0.0, sa = 0.0, vr, vi;
+					for (int j = l; j <= n; j++) {
+						ra += h[i][j] * h[j][n - 1];
+						sa += h[i][j] * h[j][n];
+					}
+					w = h[i][i] - p;
+					if (wi[i] < 0.0) {
+						z = w;
+						r = ra;
+						s = sa;
+					}
+					else {
+						l = i;
+						if (wi[i] == 0) {
+							cdiv(-ra, -sa, w, q, cd);
+							h[i][n - 1] = cd[0];
+							h[i][n] = cd[1];
+						}
+						else {
+							x = h[i][i + 1];
+							y = h[i + 1][i];
+							vr = (wr[i] - p) * (wr[i] - p) + wi[i] * wi[i] - q
+									* q;
+							vi = (wr[i] - p) * 2.0 * q;
+							if (vr == 0.0 && vi == 0.0) {
+								vr = EPS
+										* norm
+										* (Math.abs(w) + Math.abs(q)
+												+ Math.abs(x) + Math.abs(y) + Math
+												.abs(z));
+							}
+							cdiv(x * r - z * ra + q * sa, x * s - z * sa - q
+									* ra, vr, vi, cd);
+							h[i][n - 1] = cd[0];
+							h[i][n] = cd[1];
+							if (Math.abs(x) > Math.abs(z) + Math.abs(q)) {
+								h[i + 1][n - 1] = (-ra - w * h[i][n - 1] + q
+										* h[i][n])
+										/ x;
+								h[i + 1][n] = (-sa - w * h[i][n] - q
+										* h[i][n - 1])
+										/ x;
+							}
+							else {
+								cdiv(-r - y * h[i][n - 1], -s - y * h[i][n], z,
+										q, cd);
+								h[i + 1][n - 1] = cd[0];
+								h[i + 1][n] = cd[1];
+							}
+						}
+						// overflow control
+						t = Math.max(Math.abs(h[i][n - 1]), Math.abs(h[i][n]));
+						if (EPS * t * t > 1) {
+							for (int j = i; j <= n; j++) {
+								h[j][n - 1] /= t;
+								h[j][n] /= t;
+							}
+						}
+					}
+				}
+			}
+		}
+
+		// back-transformation to the eigenvectors of the original matrix
+		for (int j = nn - 1; j >= 0; j--) {
+			for (int i = 0; i < nn; i++) {
+				z = 0.0;
+				for (int k = 0; k <= j; k++) {
+					z += v[i][k] * h[k][j];
+				}
+				v[i][j] = z;
+			}
+		}
+	}
+
+	/**
+	 * Complex division (xr + i xi) / (yr + i yi), used in
+	 * {@link #hqr2(double[][], double[][], double[], double[])}.
+	 * 
+	 * @param result
+	 *            receives the real and imaginary part of the quotient
+	 */
+	private static void cdiv(double xr, double xi, double yr, double yi,
+			double[] result)
+	{
+		double r, d;
+		if (Math.abs(yr) > Math.abs(yi)) {
+			r = yi / yr;
+			d = yr + r * yi;
+			result[0] = (xr + r * xi) / d;
+			result[1] = (xi - r * xr) / d;
+		}
+		else {
+			r = yr / yi;
+			d = yi + r * yr;
+			result[0] = (r * xr + xi) / d;
+			result[1] = (r * xi - xr) / d;
+		}
+	}
+
 	/**
 	 * used in {@link #eig(Matrix)}
 	 * 
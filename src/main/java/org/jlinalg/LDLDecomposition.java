@@ -0,0 +1,268 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.io.Serializable;
+
+/**
+ * The square-root-free decomposition A = L D L<sup>T</sup> of a symmetric
+ * matrix, where L is unit lower triangular and D diagonal. As no square roots
+ * are taken, this works in all fields, in particular in exact ones like
+ * {@link org.jlinalg.rational.Rational} and
+ * {@link org.jlinalg.field_p.FieldP}. The decomposition is computed without
+ * pivoting, hence all leading principal minors of A must be non-zero (which
+ * is the case for positive definite matrices).
+ * <p>
+ * The factorisation is computed in place in one copy of the lower triangle,
+ * proceeding in blocks of {@link #BLOCK_SIZE} columns. Once computed, the
+ * factors are reused for any number of calls to {@link #solve(Vector)}.
+ * 
+ * @param <RE>
+ *            the type of the elements.
+ */
+public class LDLDecomposition<RE extends IRingElement<RE>>
+		implements
+		Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * the number of columns processed as one block.
+	 */
+	static final int BLOCK_SIZE = 32;
+
+	/**
+	 * the strictly lower triangle holds L, the diagonal D.
+	 */
+	private final RE[][] a;
+
+	/**
+	 * the factory of the elements
+	 */
+	private final IRingElementFactory<RE> factory;
+
+	/**
+	 * Decompose a symmetric matrix.
+	 * 
+	 * @param matrix
+	 *            the matrix
+	 * @throws InvalidOperationException
+	 *             if the matrix is not square and symmetric, or a leading
+	 *             principal minor is zero.
+	 */
+	public LDLDecomposition(Matrix<RE> matrix) throws InvalidOperationException
+	{
+		factory = matrix.getFactory();
+		a = lowerTriangle(matrix);
+		int n = a.length;
+		RE[] w = factory.getArray(BLOCK_SIZE);
+		for (int k0 = 0; k0 < n; k0 += BLOCK_SIZE) {
+			int k1 = Math.min(k0 + BLOCK_SIZE, n);
+			// factor the block of columns k0..k1-1
+			for (int j = k0; j < k1; j++) {
+				for (int p = k0; p < j; p++) {
+					w[p - k0] = a[j][p].multiply(a[p][p]);
+				}
+				RE d = a[j][j];
+				for (int p = k0; p < j; p++) {
+					d = d.subtract(a[j][p].multiply(w[p - k0]));
+				}
+				if (d.isZero()) {
+					throw new InvalidOperationException(
+							"LDL decomposition needs non-zero leading principal minors (column "
+									+ (j + 1) + ")");
+				}
+				a[j][j] = d;
+				RE dInv = d.invert();
+				for (int i = j + 1; i < n; i++) {
+					RE s = a[i][j];
+					for (int p = k0; p < j; p++) {
+						s = s.subtract(a[i][p].multiply(w[p - k0]));
+					}
+					a[i][j] = s.multiply(dInv);
+				}
+			}
+			// update the trailing matrix with the contribution of the block
+			for (int j = k1; j < n; j++) {
+				for (int p = k0; p < k1; p++) {
+					w[p - k0] = a[j][p].multiply(a[p][p]);
+				}
+				for (int i = j; i < n; i++) {
+					RE s = a[i][j];
+					for (int p = k0; p < k1; p++) {
+						s = s.subtract(a[i][p].multiply(w[p - k0]));
+					}
+					a[i][j] = s;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the unit lower triangular factor L.
+	 */
+	public Matrix<RE> getL()
+	{
+		int n = a.length;
+		RE[][] l = factory.getArray(n, n);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				l[i][j] = j < i ? a[i][j] : i == j ? factory.one() : factory
+						.zero();
+			}
+		}
+		return new Matrix<>(l, n, n, factory);
+	}
+
+	/**
+	 * @return the diagonal of D.
+	 */
+	public Vector<RE> getD()
+	{
+		RE[] d = factory.getArray(a.length);
+		for (int i = 0; i < d.length; i++) {
+			d[i] = a[i][i];
+		}
+		return new Vector<>(d, factory);
+	}
+
+	/**
+	 * @return the determinant of the decomposed matrix, the product of the
+	 *         entries of D.
+	 */
+	public RE det()
+	{
+		RE det = factory.one();
+		for (int i = 0; i < a.length; i++) {
+			det = det.multiply(a[i][i]);
+		}
+		return det;
+	}
+
+	/**
+	 * Solve A x = b.
+	 * 
+	 * @param b
+	 *            the right hand side
+	 * @return the solution x
+	 * @throws InvalidOperationException
+	 *             if the length of b does not match the matrix.
+	 */
+	public Vector<RE> solve(Vector<RE> b) throws InvalidOperationException
+	{
+		return new Vector<>(solve(rightHandSide(b, a.length)), factory);
+	}
+
+	/**
+	 * Solve A X = B.
+	 * 
+	 * @param b
+	 *            the right hand sides as columns of a matrix
+	 * @return the solution X
+	 * @throws InvalidOperationException
+	 *             if the number of rows of b does not match the matrix.
+	 */
+	public Matrix<RE> solve(Matrix<RE> b) throws InvalidOperationException
+	{
+		if (b.getRows() != a.length) {
+			throw new InvalidOperationException("Tried to solve a system with "
+					+ a.length + " rows for " + b.getRows()
+					+ " right hand sides");
+		}
+		Matrix<RE> x = new Matrix<>(b.getRows(), b.getCols(), factory);
+		for (int c = 1; c <= b.getCols(); c++) {
+			x.setCol(c, new Vector<>(solve(b.getCol(c).entries.clone()),
+					factory));
+		}
+		return x;
+	}
+
+	/**
+	 * Overwrite x by the solution of L D L<sup>T</sup> x = x.
+	 */
+	private RE[] solve(RE[] x)
+	{
+		int n = a.length;
+		for (int i = 0; i < n; i++) {
+			RE s = x[i];
+			for (int j = 0; j < i; j++) {
+				s = s.subtract(a[i][j].multiply(x[j]));
+			}
+			x[i] = s;
+		}
+		for (int i = 0; i < n; i++) {
+			x[i] = x[i].divide(a[i][i]);
+		}
+		for (int i = n - 1; i >= 0; i--) {
+			RE s = x[i];
+			for (int j = i + 1; j < n; j++) {
+				s = s.subtract(a[j][i].multiply(x[j]));
+			}
+			x[i] = s;
+		}
+		return x;
+	}
+
+	/**
+	 * @param b
+	 *            a right hand side
+	 * @param n
+	 *            the size of the system
+	 * @return a copy of the entries of b
+	 * @throws InvalidOperationException
+	 *             if b does not have n entries.
+	 */
+	static <RE extends IRingElement<RE>> RE[] rightHandSide(Vector<RE> b,
+			int n) throws InvalidOperationException
+	{
+		if (b.length() != n) {
+			throw new InvalidOperationException("Tried to solve a system with "
+					+ n + " rows for a vector of length " + b.length());
+		}
+		return b.entries.clone();
+	}
+
+	/**
+	 * @param matrix
+	 *            a square, symmetric matrix
+	 * @return a copy of the entries of the matrix, of which only the lower
+	 *         triangle is used.
+	 * @throws InvalidOperationException
+	 *             if the matrix is not square and symmetric.
+	 */
+	static <RE extends IRingElement<RE>> RE[][] lowerTriangle(Matrix<RE> matrix)
+			throws InvalidOperationException
+	{
+		int n = matrix.getRows();
+		if (n != matrix.getCols()) {
+			throw new InvalidOperationException("Tried to decompose a "
+					+ matrix.getRows() + "x" + matrix.getCols() + " matrix");
+		}
+		RE[][] entries = matrix.getEntries();
+		RE[][] a = matrix.getFactory().getArray(n, n);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j <= i; j++) {
+				if (!entries[i][j].equals(entries[j][i])) {
+					throw new InvalidOperationException(
+							"Tried to decompose a matrix that is not symmetric");
+				}
+			}
+			System.arraycopy(entries[i], 0, a[i], 0, i + 1);
+		}
+		return a;
+	}
+}
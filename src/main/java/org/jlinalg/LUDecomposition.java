@@ -0,0 +1,470 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.io.Serializable;
+
+/**
+ * The decomposition P A = L U of a square matrix with partial pivoting, where
+ * P is a permutation matrix, L unit lower triangular and U upper triangular.
+ * It works for the elements of any field (e.g.
+ * {@link org.jlinalg.rational.Rational}, {@link org.jlinalg.field_p.FieldP}
+ * or {@link org.jlinalg.doublewrapper.DoubleWrapper}); the pivot is the entry
+ * of maximal {@link IRingElement#norm()} in its column, as in
+ * {@link MatrixDeterminant#gaussianMethod(Matrix)}.
+ * <p>
+ * The matrix is split into square tiles of {@link #getTileSize()} rows and
+ * columns, and the right-looking elimination is expressed as tasks on tiles:
+ * the factorisation of a panel (a column of tiles on and below the diagonal),
+ * the row interchanges and triangular solve for a tile right of the diagonal
+ * and the update of a trailing tile by the product of two tiles. Each task
+ * starts as soon as the tasks producing its input are finished (see
+ * {@link TaskGraph}), so that with a parallel {@link ExecutionPolicy} the
+ * next panel is factored while the updates of the previous step are still
+ * running, and all cores are kept busy. The result does not depend on the
+ * policy.
+ * <p>
+ * Singular matrices are decomposed as well; U then has a zero on its
+ * diagonal, which is reported by {@link #isSingular()}.
+ * 
+ * @param <RE>
+ *            the type of the elements.
+ */
+public class LUDecomposition<RE extends IRingElement<RE>>
+		implements
+		Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * the default number of rows and columns of a tile.
+	 */
+	public static final int DEFAULT_TILE_SIZE = 64;
+
+	/**
+	 * the strictly lower triangle holds L, the upper triangle U.
+	 */
+	private final RE[][] a;
+
+	/**
+	 * row i was interchanged with row pivot[i] (&ge; i) in step i.
+	 */
+	private final int[] pivot;
+
+	/**
+	 * the number of rows and columns of a tile.
+	 */
+	private final int tileSize;
+
+	/**
+	 * the factory of the elements
+	 */
+	private final IRingElementFactory<RE> factory;
+
+	/**
+	 * whether a zero pivot occurred
+	 */
+	private volatile boolean singular;
+
+	/**
+	 * Decompose a square matrix using the default execution policy.
+	 * 
+	 * @param matrix
+	 *            the matrix
+	 * @throws InvalidOperationException
+	 *             if the matrix is not square.
+	 */
+	public LUDecomposition(Matrix<RE> matrix) throws InvalidOperationException
+	{
+		this(matrix, ExecutionPolicy.getDefault(), DEFAULT_TILE_SIZE);
+	}
+
+	/**
+	 * Decompose a square matrix.
+	 * 
+	 * @param matrix
+	 *            the matrix
+	 * @param policy
+	 *            determines whether the tile tasks are executed in parallel
+	 * @param tileSize
+	 *            the number of rows and columns of a tile
+	 * @throws InvalidOperationException
+	 *             if the matrix is not square or the tile size is not
+	 *             positive.
+	 */
+	public LUDecomposition(Matrix<RE> matrix, ExecutionPolicy policy,
+			int tileSize) throws InvalidOperationException
+	{
+		int n = matrix.getRows();
+		if (n != matrix.getCols()) {
+			throw new InvalidOperationException("Tried to decompose a "
+					+ matrix.getRows() + "x" + matrix.getCols() + " matrix");
+		}
+		if (tileSize < 1) {
+			throw new InvalidOperationException("illegal tile size "
+					+ tileSize);
+		}
+		this.factory = matrix.getFactory();
+		this.tileSize = tileSize;
+		this.pivot = new int[n];
+		this.a = factory.getArray(n, n);
+		RE[][] entries = matrix.getEntries();
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(entries[i], 0, a[i], 0, n);
+		}
+		schedule().execute(policy);
+		// apply the interchanges of later steps to the columns of L
+		for (int k0 = tileSize; k0 < n; k0 += tileSize) {
+			for (int c = k0; c < Math.min(k0 + tileSize, n); c++) {
+				swap(c, pivot[c], 0, k0);
+			}
+		}
+	}
+
+	/**
+	 * @return the graph of the tasks on the tiles of {@link #a}.
+	 */
+	private TaskGraph schedule()
+	{
+		int n = a.length;
+		int tiles = (n + tileSize - 1) / tileSize;
+		TaskGraph graph = new TaskGraph();
+		// last[i][j] is the task which last updated tile (i,j)
+		TaskGraph.Node[][] last = new TaskGraph.Node[tiles][tiles];
+		for (int k = 0; k < tiles; k++) {
+			final int k0 = k * tileSize, k1 = Math.min(k0 + tileSize, n);
+			TaskGraph.Node panel = graph.add(() -> factorPanel(k0, k1));
+			for (int i = k; i < tiles; i++) {
+				graph.dependOn(panel, last[i][k]);
+			}
+			TaskGraph.Node[] row = new TaskGraph.Node[tiles];
+			for (int j = k + 1; j < tiles; j++) {
+				final int j0 = j * tileSize, j1 = Math.min(j0 + tileSize, n);
+				row[j] = graph.add(() -> solveRow(k0, k1, j0, j1), panel);
+				for (int i = k; i < tiles; i++) {
+					graph.dependOn(row[j], last[i][j]);
+				}
+			}
+			for (int i = k + 1; i < tiles; i++) {
+				final int i0 = i * tileSize, i1 = Math.min(i0 + tileSize, n);
+				for (int j = k + 1; j < tiles; j++) {
+					final int j0 = j * tileSize, j1 = Math.min(j0 + tileSize,
+							n);
+					last[i][j] = graph.add(
+							() -> update(i0, i1, j0, j1, k0, k1), panel,
+							row[j]);
+				}
+			}
+		}
+		return graph;
+	}
+
+	/**
+	 * Factor the columns k0..k1-1 on and below the diagonal, choosing the
+	 * pivots. The interchanges are only applied to these columns.
+	 */
+	private void factorPanel(int k0, int k1)
+	{
+		int n = a.length;
+		for (int c = k0; c < k1; c++) {
+			int p = c;
+			RE max = a[c][c].norm();
+			for (int r = c + 1; r < n; r++) {
+				if (!a[r][c].isZero()) {
+					RE norm = a[r][c].norm();
+					if (norm.gt(max)) {
+						max = norm;
+						p = r;
+					}
+				}
+			}
+			pivot[c] = p;
+			swap(c, p, k0, k1);
+			if (a[c][c].isZero()) {
+				singular = true;
+				continue;
+			}
+			RE inverse = a[c][c].invert();
+			for (int r = c + 1; r < n; r++) {
+				RE[] ar = a[r];
+				if (ar[c].isZero()) continue;
+				RE l = ar[c].multiply(inverse);
+				ar[c] = l;
+				for (int j = c + 1; j < k1; j++) {
+					ar[j] = ar[j].subtract(l.multiply(a[c][j]));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Apply the interchanges of the panel k0..k1-1 to the columns j0..j1-1
+	 * and overwrite the tile in rows k0..k1-1 by L<sup>-1</sup> times it,
+	 * where L is the unit lower triangular diagonal tile.
+	 */
+	private void solveRow(int k0, int k1, int j0, int j1)
+	{
+		for (int c = k0; c < k1; c++) {
+			swap(c, pivot[c], j0, j1);
+		}
+		for (int c = k0; c < k1; c++) {
+			RE[] ac = a[c];
+			for (int r = c + 1; r < k1; r++) {
+				RE l = a[r][c];
+				if (l.isZero()) continue;
+				RE[] ar = a[r];
+				for (int j = j0; j < j1; j++) {
+					ar[j] = ar[j].subtract(l.multiply(ac[j]));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Subtract the product of the tiles (i,k) and (k,j) from tile (i,j).
+	 */
+	private void update(int i0, int i1, int j0, int j1, int k0, int k1)
+	{
+		for (int r = i0; r < i1; r++) {
+			RE[] ar = a[r];
+			for (int c = k0; c < k1; c++) {
+				RE l = ar[c];
+				if (l.isZero()) continue;
+				RE[] ac = a[c];
+				for (int j = j0; j < j1; j++) {
+					ar[j] = ar[j].subtract(l.multiply(ac[j]));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Interchange the entries of rows r1 and r2 in the columns from
+	 * (including) c0 to (excluding) c1.
+	 */
+	private void swap(int r1, int r2, int c0, int c1)
+	{
+		if (r1 == r2) return;
+		RE[] x = a[r1], y = a[r2];
+		for (int c = c0; c < c1; c++) {
+			RE t = x[c];
+			x[c] = y[c];
+			y[c] = t;
+		}
+	}
+
+	/**
+	 * @return the number of rows and columns of a tile.
+	 */
+	public int getTileSize()
+	{
+		return tileSize;
+	}
+
+	/**
+	 * @return true if the decomposed matrix is singular.
+	 */
+	public boolean isSingular()
+	{
+		return singular;
+	}
+
+	/**
+	 * @return the unit lower triangular factor L.
+	 */
+	public Matrix<RE> getL()
+	{
+		int n = a.length;
+		RE[][] l = factory.getArray(n, n);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				l[i][j] = j < i ? a[i][j] : i == j ? factory.one() : factory
+						.zero();
+			}
+		}
+		return new Matrix<>(l, n, n, factory);
+	}
+
+	/**
+	 * @return the upper triangular factor U.
+	 */
+	public Matrix<RE> getU()
+	{
+		int n = a.length;
+		RE[][] u = factory.getArray(n, n);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				u[i][j] = j >= i ? a[i][j] : factory.zero();
+			}
+		}
+		return new Matrix<>(u, n, n, factory);
+	}
+
+	/**
+	 * @return the rows of A in the order of the rows of L U, i.e. row i of
+	 *         P A is row <code>getPermutation()[i-1]</code> of A (indices
+	 *         starting at 1).
+	 */
+	public int[] getPermutation()
+	{
+		int n = a.length;
+		int[] perm = new int[n];
+		for (int i = 0; i < n; i++) {
+			perm[i] = i + 1;
+		}
+		for (int i = 0; i < n; i++) {
+			int t = perm[i];
+			perm[i] = perm[pivot[i]];
+			perm[pivot[i]] = t;
+		}
+		return perm;
+	}
+
+	/**
+	 * @return the permutation matrix P.
+	 */
+	public Matrix<RE> getP()
+	{
+		int n = a.length;
+		int[] perm = getPermutation();
+		RE[][] p = factory.getArray(n, n);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				p[i][j] = perm[i] == j + 1 ? factory.one() : factory.zero();
+			}
+		}
+		return new Matrix<>(p, n, n, factory);
+	}
+
+	/**
+	 * @return the determinant of the decomposed matrix, the product of the
+	 *         diagonal of U times the sign of the permutation.
+	 */
+	public RE det()
+	{
+		RE det = factory.one();
+		for (int i = 0; i < a.length; i++) {
+			det = det.multiply(a[i][i]);
+			if (pivot[i] != i) {
+				det = det.negate();
+			}
+		}
+		return det;
+	}
+
+	/**
+	 * Solve A x = b.
+	 * 
+	 * @param b
+	 *            the right hand side
+	 * @return the solution x
+	 * @throws InvalidOperationException
+	 *             if the length of b does not match the matrix or the matrix
+	 *             is singular.
+	 */
+	public Vector<RE> solve(Vector<RE> b) throws InvalidOperationException
+	{
+		checkNonSingular();
+		return new Vector<>(solve(LDLDecomposition.rightHandSide(b,
+				a.length)), factory);
+	}
+
+	/**
+	 * Solve A X = B. The columns of B are solved for independently, in
+	 * parallel if the default {@link ExecutionPolicy} is parallel.
+	 * 
+	 * @param b
+	 *            the right hand sides as columns of a matrix
+	 * @return the solution X
+	 * @throws InvalidOperationException
+	 *             if the number of rows of b does not match the matrix or the
+	 *             matrix is singular.
+	 */
+	public Matrix<RE> solve(Matrix<RE> b) throws InvalidOperationException
+	{
+		if (b.getRows() != a.length) {
+			throw new InvalidOperationException("Tried to solve a system with "
+					+ a.length + " rows for " + b.getRows()
+					+ " right hand sides");
+		}
+		checkNonSingular();
+		int n = a.length;
+		RE[][] bEntries = b.getEntries();
+		RE[][] x = factory.getArray(n, b.getCols());
+		ExecutionPolicy.getDefault().forEachRow(b.getCols(), n * n, c -> {
+			RE[] col = factory.getArray(n);
+			for (int i = 0; i < n; i++) {
+				col[i] = bEntries[i][c - 1];
+			}
+			solve(col);
+			for (int i = 0; i < n; i++) {
+				x[i][c - 1] = col[i];
+			}
+		});
+		return new Matrix<>(x, n, b.getCols(), factory);
+	}
+
+	/**
+	 * @return the inverse of the decomposed matrix.
+	 * @throws InvalidOperationException
+	 *             if the matrix is singular.
+	 */
+	public Matrix<RE> inverse() throws InvalidOperationException
+	{
+		return solve(new LinAlgFactory<>(factory).identity(a.length));
+	}
+
+	/**
+	 * @throws InvalidOperationException
+	 *             if the matrix is singular.
+	 */
+	private void checkNonSingular() throws InvalidOperationException
+	{
+		if (singular) {
+			throw new InvalidOperationException(
+					"Tried to solve a system with a singular matrix");
+		}
+	}
+
+	/**
+	 * Overwrite x by the solution of P<sup>T</sup> L U x = x.
+	 */
+	private RE[] solve(RE[] x)
+	{
+		int n = a.length;
+		for (int i = 0; i < n; i++) {
+			RE t = x[i];
+			x[i] = x[pivot[i]];
+			x[pivot[i]] = t;
+		}
+		for (int i = 0; i < n; i++) {
+			RE s = x[i];
+			for (int j = 0; j < i; j++) {
+				s = s.subtract(a[i][j].multiply(x[j]));
+			}
+			x[i] = s;
+		}
+		for (int i = n - 1; i >= 0; i--) {
+			RE s = x[i];
+			for (int j = i + 1; j < n; j++) {
+				s = s.subtract(a[i][j].multiply(x[j]));
+			}
+			x[i] = s.divide(a[i][i]);
+		}
+		return x;
+	}
+}
@@ -159,6 +159,8 @@ public class LinSysSolver<RE extends IRingElement<?>>
 	 * @return solution as a Vector.
 	 * @throws InvalidOperationException
 	 *             if the matrix and vector sizes mismatch.
+	 * @see MixedPrecisionSolver for a faster solution of well-conditioned
+	 *      square systems over precise types.
 	 */
 	public static <RE extends IRingElement<RE>> Vector<RE> solve(Matrix<RE> a,
 			Vector<RE> b)
@@ -252,9 +254,12 @@ public class LinSysSolver<RE extends IRingElement<?>>
 
 		// Find the index of the first not zero row.
 		while (row > 0 && tmp.isZeroRow(row)) {
-			tmp = tmp.withoutRow(row);
 			row--;
 		}
+		// Drop the zero rows with a single copy.
+		if (row < tmp.getRows()) {
+			tmp = tmp.getMatrix(0, row - 1, 0, tmp.getCols() - 1);
+		}
 
 		if (b.isZero()) {
 			return tmp;
@@ -320,4 +325,49 @@ public class LinSysSolver<RE extends IRingElement<?>>
 		return false;
 
 	}
+
+	/**
+	 * Calculates the least squares solution of a (typically overdetermined)
+	 * linear equation system A*x=b by a QR decomposition of A. Unlike solving
+	 * the normal equations A^T*A*x = A^T*b, this does not square the condition
+	 * number of the problem.
+	 * 
+	 * @param <RE>
+	 *            the type of the elements; must implement <code>sqrt()</code>
+	 * @param a
+	 *            coefficient matrix with full column rank
+	 * @param b
+	 *            result vector
+	 * @return the x minimising the Euclidean norm of A*x-b.
+	 * @throws InvalidOperationException
+	 *             if the matrix and vector sizes mismatch or a does not have
+	 *             full column rank.
+	 * @see QRDecomposition
+	 */
+	public static <RE extends IRingElement<RE>> Vector<RE> leastSquares(
+			Matrix<RE> a, Vector<RE> b) throws InvalidOperationException
+	{
+		return new QRDecomposition<>(a).solve(b);
+	}
+
+	/**
+	 * Calculates the least squares solutions of A*X=B for several right hand
+	 * sides at once.
+	 * 
+	 * @param <RE>
+	 *            the type of the elements; must implement <code>sqrt()</code>
+	 * @param a
+	 *            coefficient matrix with full column rank
+	 * @param b
+	 *            the right hand sides as columns
+	 * @return the X minimising the Euclidean norm of each column of A*X-B.
+	 * @throws InvalidOperationException
+	 *             if the matrix sizes mismatch or a does not have full column
+	 *             rank.
+	 */
+	public static <RE extends IRingElement<RE>> Matrix<RE> leastSquares(
+			Matrix<RE> a, Matrix<RE> b) throws InvalidOperationException
+	{
+		return new QRDecomposition<>(a).solve(b);
+	}
 }
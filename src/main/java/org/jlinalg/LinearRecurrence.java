@@ -0,0 +1,224 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * A linear recurrence a<sub>k</sub> = c<sub>1</sub> a<sub>k-1</sub> + ... +
+ * c<sub>d</sub> a<sub>k-d</sub> with given initial terms a<sub>0</sub>, ...,
+ * a<sub>d-1</sub>. The n-th term is computed by Kitamasa's method:
+ * x<sup>n</sup> is reduced modulo the characteristic polynomial
+ * x<sup>d</sup> - c<sub>1</sub> x<sup>d-1</sup> - ... - c<sub>d</sub> by
+ * repeated squaring, and the coefficients of the remainder r<sub>0</sub> +
+ * ... + r<sub>d-1</sub> x<sup>d-1</sup> give a<sub>n</sub> = r<sub>0</sub>
+ * a<sub>0</sub> + ... + r<sub>d-1</sub> a<sub>d-1</sub>. This needs
+ * O(d<sup>2</sup> log n) operations, compared to O(d<sup>3</sup> log n) for
+ * raising the companion matrix to the power n (see
+ * {@link Matrix#pow(long)}) and O(d n) for iterating the recurrence.
+ * <p>
+ * The recurrence is only evaluated with ring operations; the elements have
+ * to form a field only for {@link #of(Vector)}.
+ * 
+ * @param <RE>
+ *            the type of the elements.
+ */
+public class LinearRecurrence<RE extends IRingElement<RE>>
+		implements
+		Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * the coefficients c<sub>1</sub>, ..., c<sub>d</sub>
+	 */
+	private final RE[] coefficients;
+
+	/**
+	 * the initial terms a<sub>0</sub>, ..., a<sub>d-1</sub>
+	 */
+	private final RE[] initial;
+
+	/**
+	 * the factory of the elements
+	 */
+	private final IRingElementFactory<RE> factory;
+
+	/**
+	 * @param coefficients
+	 *            the coefficients c<sub>1</sub>, ..., c<sub>d</sub>
+	 * @param initial
+	 *            the initial terms a<sub>0</sub>, ..., a<sub>d-1</sub>
+	 * @throws InvalidOperationException
+	 *             if the vectors have different lengths.
+	 */
+	public LinearRecurrence(Vector<RE> coefficients, Vector<RE> initial)
+			throws InvalidOperationException
+	{
+		if (coefficients.length() != initial.length()) {
+			throw new InvalidOperationException("A recurrence of order "
+					+ coefficients.length() + " needs as many initial terms, "
+					+ "not " + initial.length());
+		}
+		this.coefficients = coefficients.entries.clone();
+		this.initial = initial.entries.clone();
+		this.factory = coefficients.getElementFactory();
+	}
+
+	/**
+	 * Find the shortest recurrence satisfied by a sequence by the
+	 * {@link BerlekampMassey} algorithm.
+	 * 
+	 * @param <RE>
+	 *            the type of the elements, which have to form a field.
+	 * @param sequence
+	 *            at least 2d terms of a sequence satisfying a recurrence of
+	 *            order d
+	 * @return the recurrence with the first terms of the sequence as initial
+	 *         terms.
+	 */
+	public static <RE extends IRingElement<RE>> LinearRecurrence<RE> of(
+			Vector<RE> sequence)
+	{
+		IRingElementFactory<RE> factory = sequence.getElementFactory();
+		BerlekampMassey<RE> bm = new BerlekampMassey<>(factory);
+		for (RE term : sequence.entries) {
+			bm.add(term);
+		}
+		RE[] c = bm.getConnectionPolynomial();
+		int d = c.length - 1;
+		Vector<RE> coefficients = new Vector<>(d, factory);
+		Vector<RE> initial = new Vector<>(d, factory);
+		for (int i = 0; i < d; i++) {
+			coefficients.entries[i] = c[i + 1].negate();
+			initial.entries[i] = i < sequence.length() ? sequence.entries[i]
+					: factory.zero();
+		}
+		return new LinearRecurrence<>(coefficients, initial);
+	}
+
+	/**
+	 * @return the order d of the recurrence.
+	 */
+	public int getOrder()
+	{
+		return coefficients.length;
+	}
+
+	/**
+	 * @return the coefficients c<sub>1</sub>, ..., c<sub>d</sub>.
+	 */
+	public Vector<RE> getCoefficients()
+	{
+		Vector<RE> v = new Vector<>(coefficients.length, factory);
+		v.entries = coefficients.clone();
+		return v;
+	}
+
+	/**
+	 * @param n
+	 *            the index of the term (starting at 0)
+	 * @return the term a<sub>n</sub>.
+	 * @throws InvalidOperationException
+	 *             if n is negative.
+	 */
+	public RE term(long n) throws InvalidOperationException
+	{
+		return term(BigInteger.valueOf(n));
+	}
+
+	/**
+	 * @param n
+	 *            the index of the term (starting at 0)
+	 * @return the term a<sub>n</sub>.
+	 * @throws InvalidOperationException
+	 *             if n is negative.
+	 */
+	public RE term(BigInteger n) throws InvalidOperationException
+	{
+		if (n.signum() < 0) {
+			throw new InvalidOperationException("Negative index " + n);
+		}
+		int d = coefficients.length;
+		if (d == 0) return factory.zero();
+		if (n.compareTo(BigInteger.valueOf(d)) < 0) {
+			return initial[n.intValue()];
+		}
+		RE[] r = power(n);
+		RE a = factory.zero();
+		for (int i = 0; i < d; i++) {
+			a = a.add(r[i].multiply(initial[i]));
+		}
+		return a;
+	}
+
+	/**
+	 * @return the coefficients of x<sup>n</sup> modulo the characteristic
+	 *         polynomial.
+	 */
+	private RE[] power(BigInteger n)
+	{
+		int d = coefficients.length;
+		RE zero = factory.zero();
+		RE[] r = factory.getArray(d);
+		RE[] product = factory.getArray(2 * d);
+		Arrays.fill(r, zero);
+		r[0] = factory.one();
+		for (int bit = n.bitLength() - 1; bit >= 0; bit--) {
+			// r = r^2
+			Arrays.fill(product, zero);
+			for (int i = 0; i < d; i++) {
+				if (r[i].isZero()) continue;
+				for (int j = 0; j < d; j++) {
+					product[i + j] = product[i + j].add(r[i].multiply(r[j]));
+				}
+			}
+			reduce(product, 2 * d - 2);
+			System.arraycopy(product, 0, r, 0, d);
+			if (n.testBit(bit)) {
+				// r = x r
+				product[d] = r[d - 1];
+				System.arraycopy(r, 0, product, 1, d - 1);
+				product[0] = zero;
+				reduce(product, d);
+				System.arraycopy(product, 0, r, 0, d);
+			}
+		}
+		return r;
+	}
+
+	/**
+	 * Reduce the polynomial p of degree at most <code>degree</code> modulo
+	 * the characteristic polynomial, using x<sup>d</sup> = c<sub>1</sub>
+	 * x<sup>d-1</sup> + ... + c<sub>d</sub>. Afterwards, only the first d
+	 * entries of p are relevant.
+	 */
+	private void reduce(RE[] p, int degree)
+	{
+		int d = coefficients.length;
+		for (int k = degree; k >= d; k--) {
+			RE t = p[k];
+			p[k] = factory.zero();
+			if (t.isZero()) continue;
+			for (int j = 1; j <= d; j++) {
+				p[k - j] = p[k - j].add(t.multiply(coefficients[j - 1]));
+			}
+		}
+	}
+}
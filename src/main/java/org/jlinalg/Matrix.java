@@ -17,11 +17,15 @@
 package org.jlinalg;
 
 import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import org.jlinalg.complex.Complex;
 import org.jlinalg.operator.DyadicOperator;
@@ -30,6 +34,7 @@ import org.jlinalg.operator.MonadicOperator;
 import org.jlinalg.operator.Reduction;
 import org.jlinalg.polynomial.Polynomial;
 import org.jlinalg.polynomial.PolynomialFactory;
+import org.jlinalg.rationalFunction.RationalFunctionFactory;
 
 /**
  * This class represents a matrix.
@@ -280,8 +285,8 @@ public class Matrix<RE extends IRingElement<RE>>
 			throw new InvalidOperationException(
 					"Tried to construct matrix but entry array was null");
 		}
-		if (entries.length == 0 || entries[0].length == 0
-				|| entries[0][0] == null)
+		if (theEntries.length == 0 || theEntries[0].length == 0
+				|| theEntries[0][0] == null)
 		{
 			throw new InvalidOperationException(
 					"Cannot extract factory from " + theEntries);
@@ -292,6 +297,28 @@ public class Matrix<RE extends IRingElement<RE>>
 		FACTORY = entries[0][0].getFactory();
 	}
 
+	/**
+	 * Constructs a Matrix that takes ownership of an array of entries without
+	 * any checks. Used where the factory cannot be obtained from the entries
+	 * (for instance, as they are not yet set).
+	 * 
+	 * @param theEntries
+	 *            an array with <code>rows</code> rows and <code>cols</code>
+	 *            columns.
+	 * @param rows
+	 * @param cols
+	 * @param factory
+	 *            the factory of the elements in the matrix.
+	 */
+	Matrix(RE[][] theEntries, int rows, int cols,
+			IRingElementFactory<RE> factory)
+	{
+		this.numOfRows = rows;
+		this.numOfCols = cols;
+		this.entries = theEntries;
+		FACTORY = factory;
+	}
+
 	/**
 	 * Convert a matrix to a new type
 	 * 
@@ -507,13 +534,12 @@ public class Matrix<RE extends IRingElement<RE>>
 		Matrix<RE> tmp = new Matrix<>(this.getRows() - 1, this.getCols(),
 				FACTORY);
 		int counter = 0;
-		for (int i = 1; i <= this.getRows(); i++) {
-			counter++;
-			if (i == rowIndex) {
-				counter--;
+		for (int i = 0; i < this.getRows(); i++) {
+			if (i == rowIndex - 1) {
 				continue;
 			}
-			tmp.setRow(counter, this.getRow(i));
+			System.arraycopy(entries[i], 0, tmp.entries[counter++], 0,
+					numOfCols);
 		}
 		return tmp;
 	}
@@ -530,14 +556,11 @@ public class Matrix<RE extends IRingElement<RE>>
 		// Exception still missing here
 		Matrix<RE> tmp = new Matrix<>(this.getRows(), this.getCols() - 1,
 				FACTORY);
-		int counter = 0;
-		for (int i = 1; i <= this.getCols(); i++) {
-			counter++;
-			if (i == colIndex) {
-				counter--;
-				continue;
-			}
-			tmp.setCol(counter, this.getCol(i));
+		for (int row = 0; row < this.getRows(); row++) {
+			System.arraycopy(entries[row], 0, tmp.entries[row], 0,
+					colIndex - 1);
+			System.arraycopy(entries[row], colIndex, tmp.entries[row],
+					colIndex - 1, numOfCols - colIndex);
 		}
 		return tmp;
 	}
@@ -650,9 +673,7 @@ public class Matrix<RE extends IRingElement<RE>>
 		RE[][] B = X.getEntries();
 		try {
 			for (int i = i0; i <= i1; i++) {
-				for (int j = j0; j <= j1; j++) {
-					B[i - i0][j - j0] = entries[i][j];
-				}
+				System.arraycopy(entries[i], j0, B[i - i0], 0, j1 - j0 + 1);
 			}
 		} catch (ArrayIndexOutOfBoundsException e) {
 			throw new ArrayIndexOutOfBoundsException(
@@ -692,6 +713,37 @@ public class Matrix<RE extends IRingElement<RE>>
 		return X;
 	}
 
+	/**
+	 * @return a view on all entries of this matrix. The entries are not copied;
+	 *         changes of the view write through to this matrix.
+	 * @see MatrixView
+	 */
+	public MatrixView<RE> getView()
+	{
+		return new MatrixView<>(this);
+	}
+
+	/**
+	 * Get a view on a submatrix without copying the entries.
+	 * 
+	 * @param i0
+	 *            Initial row index
+	 * @param i1
+	 *            Final row index
+	 * @param j0
+	 *            Initial column index
+	 * @param j1
+	 *            Final column index
+	 * @return a view on A(i0:i1,j0:j1)
+	 * @exception ArrayIndexOutOfBoundsException
+	 *                Submatrix indices
+	 * @see #getMatrix(int, int, int, int)
+	 */
+	public MatrixView<RE> getView(int i0, int i1, int j0, int j1)
+	{
+		return getView().getView(i0, i1, j0, j1);
+	}
+
 	/**
 	 * Returns a String representation of this Matrix.
 	 * 
@@ -822,10 +874,19 @@ public class Matrix<RE extends IRingElement<RE>>
 					+ "Not correct format!";
 			throw new InvalidOperationException(err);
 		}
+		if (numOfCols > 0 && SmallMatrixKernels.isSmall(numOfRows, numOfCols)) {
+			return SmallMatrixKernels.multiply(this, vector);
+		}
 
+		RE[] x = vector.entries;
 		Vector<RE> resultVector = new Vector<>(numOfRows, FACTORY);
-		for (int i = 1; i <= numOfRows; i++) {
-			resultVector.set(i, this.getRow(i).multiply(vector));
+		for (int i = 0; i < numOfRows; i++) {
+			RE[] row = entries[i];
+			RE s = FACTORY.zero();
+			for (int j = 0; j < numOfCols; j++) {
+				s = s.add(row[j].multiply(x[j]));
+			}
+			resultVector.entries[i] = s;
 		}
 
 		return resultVector;
@@ -849,17 +910,54 @@ public class Matrix<RE extends IRingElement<RE>>
 	}
 
 	/**
-	 * Returns the determinant of this Matrix. The Leibniz method, if not all
+	 * Returns the determinant of this Matrix. Matrices with up to four rows
+	 * use a closed-form cofactor expansion. Larger matrices of polynomials or
+	 * rational functions over an exact field use
+	 * {@link EvaluationInterpolation}, other matrices the gaussian method
+	 * (the tiled {@link LUDecomposition} if the default
+	 * {@link ExecutionPolicy} is parallel), or the Leibniz method, if not all
 	 * element are FieldElements and the gaussian nethod fails
 	 * 
 	 * @return determinant
 	 * @throws InvalidOperationException
 	 *             if matrix is not square
 	 */
-
+	@SuppressWarnings({
+			"unchecked", "rawtypes"
+	})
 	public RE det() throws InvalidOperationException
 	{
+		if (numOfRows == numOfCols && numOfRows > 0
+				&& numOfRows <= SmallMatrixKernels.MAX_SIZE)
+		{
+			return SmallMatrixKernels.det(this);
+		}
+		if (numOfRows == numOfCols) {
+			try {
+				if (FACTORY instanceof PolynomialFactory) {
+					IRingElementFactory<?> base = ((PolynomialFactory<?>) FACTORY)
+							.getBaseFactory();
+					if (EvaluationInterpolation.isSupported(base)) {
+						return (RE) new EvaluationInterpolation(base)
+								.det((Matrix) this);
+					}
+				}
+				if (FACTORY instanceof RationalFunctionFactory) {
+					IRingElementFactory<?> base = ((RationalFunctionFactory<?>) FACTORY)
+							.getBaseFactory();
+					if (EvaluationInterpolation.isSupported(base)) {
+						return (RE) new EvaluationInterpolation(base)
+								.rationalFunctionDet((Matrix) this);
+					}
+				}
+			} catch (InvalidOperationException e) {
+				// too few points in the field: use elimination
+			}
+		}
 		try {
+			if (useTiledLU()) {
+				return lu().det();
+			}
 			return MatrixDeterminant.gaussianMethod(this);
 		} catch (org.jlinalg.InvalidOperationException e) {
 			return MatrixDeterminant.leibnizMethod(this);
@@ -879,9 +977,16 @@ public class Matrix<RE extends IRingElement<RE>>
 
 	public void swapRows(int rowIndex1, int rowIndex2)
 	{
-		Vector<RE> tmp = getRow(rowIndex1);
-		this.setRow(rowIndex1, getRow(rowIndex2));
-		this.setRow(rowIndex2, tmp);
+		try {
+			RE[] tmp = entries[rowIndex1 - 1];
+			entries[rowIndex1 - 1] = entries[rowIndex2 - 1];
+			entries[rowIndex2 - 1] = tmp;
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new InvalidOperationException("Tried to swap rows "
+					+ rowIndex1 + " and " + rowIndex2
+					+ ". Only row indices from 1 to " + this.numOfRows
+					+ " valid");
+		}
 	}
 
 	/**
@@ -1044,6 +1149,116 @@ public class Matrix<RE extends IRingElement<RE>>
 		return (Vector<RE>) Handbook.eig(this);
 	}
 
+	/**
+	 * Calculates the eigenvalues and eigenvectors of a matrix.
+	 * 
+	 * @return the decomposition.
+	 * @throws InvalidOperationException
+	 *             if this matrix is no square matrix or the entries are not all
+	 *             DoubleWrappers.
+	 */
+	public EigenDecomposition eigenDecomposition()
+			throws InvalidOperationException
+	{
+		return new EigenDecomposition(this);
+	}
+
+	/**
+	 * Calculates the Cholesky decomposition of a symmetric positive definite
+	 * matrix.
+	 * 
+	 * @return the decomposition.
+	 * @throws InvalidOperationException
+	 *             if this matrix is not symmetric and positive definite or the
+	 *             entries do not implement <code>sqrt()</code>.
+	 */
+	public CholeskyDecomposition<RE> cholesky()
+			throws InvalidOperationException
+	{
+		return new CholeskyDecomposition<>(this);
+	}
+
+	/**
+	 * Calculates the decomposition P A = L U with partial pivoting by the
+	 * tiled algorithm of {@link LUDecomposition}, using the default
+	 * {@link ExecutionPolicy}.
+	 * 
+	 * @return the decomposition.
+	 * @throws InvalidOperationException
+	 *             if this matrix is not square.
+	 */
+	public LUDecomposition<RE> lu() throws InvalidOperationException
+	{
+		return new LUDecomposition<>(this);
+	}
+
+	/**
+	 * Calculates the decomposition P A = L U with partial pivoting by the
+	 * tiled algorithm of {@link LUDecomposition}.
+	 * 
+	 * @param policy
+	 *            determines whether the tile tasks are executed in parallel
+	 * @return the decomposition.
+	 * @throws InvalidOperationException
+	 *             if this matrix is not square.
+	 */
+	public LUDecomposition<RE> lu(ExecutionPolicy policy)
+			throws InvalidOperationException
+	{
+		return new LUDecomposition<>(this, policy,
+				LUDecomposition.DEFAULT_TILE_SIZE);
+	}
+
+	/**
+	 * @return true if {@link #det()} and {@link #inverse()} should use the
+	 *         parallel {@link LUDecomposition}: the default policy is
+	 *         parallel and the matrix spans more than one tile.
+	 */
+	private boolean useTiledLU()
+	{
+		return ExecutionPolicy.getDefault().isParallel()
+				&& numOfRows > LUDecomposition.DEFAULT_TILE_SIZE;
+	}
+
+	/**
+	 * Calculates the square-root-free decomposition L D L<sup>T</sup> of a
+	 * symmetric matrix.
+	 * 
+	 * @return the decomposition.
+	 * @throws InvalidOperationException
+	 *             if this matrix is not symmetric or a leading principal minor
+	 *             is zero.
+	 */
+	public LDLDecomposition<RE> ldl() throws InvalidOperationException
+	{
+		return new LDLDecomposition<>(this);
+	}
+
+	/**
+	 * Calculates the QR decomposition by Householder reflections.
+	 * 
+	 * @return the decomposition.
+	 * @throws InvalidOperationException
+	 *             if this matrix has more columns than rows or the entries do
+	 *             not implement <code>sqrt()</code>.
+	 */
+	public QRDecomposition<RE> qr() throws InvalidOperationException
+	{
+		return new QRDecomposition<>(this);
+	}
+
+	/**
+	 * Calculates the singular value decomposition.
+	 * 
+	 * @return the decomposition.
+	 * @throws InvalidOperationException
+	 *             if the entries are not all DoubleWrappers.
+	 */
+	public SingularValueDecomposition svd() throws InvalidOperationException
+	{
+		return new SingularValueDecomposition(this);
+	}
+
 	/**
 	 * Returns whether the row at the specified row index is a zero row or not.
 	 * 
@@ -1108,9 +1323,9 @@ public class Matrix<RE extends IRingElement<RE>>
 	public Matrix<RE> transpose()
 	{
 		Matrix<RE> tmp = new Matrix<>(this.getCols(), this.getRows(), FACTORY);
-		for (int row = 1; row <= this.getRows(); row++) {
-			for (int col = 1; col <= this.getCols(); col++) {
-				tmp.set(col, row, this.get(row, col));
+		for (int row = 0; row < this.getRows(); row++) {
+			for (int col = 0; col < this.getCols(); col++) {
+				tmp.entries[col][row] = entries[row][col];
 			}
 		}
 		return tmp;
@@ -1199,7 +1414,10 @@ public class Matrix<RE extends IRingElement<RE>>
 
 	/**
 	 * Returns the inverse of this Matrix. N.B.: In General, this operation will
-	 * fail, if not all entries are FieldElements.
+	 * fail, if not all entries are FieldElements. Matrices with up to four
+	 * rows are inverted as adjugate divided by the determinant. If the default
+	 * {@link ExecutionPolicy} is parallel, larger matrices are inverted using
+	 * the tiled {@link LUDecomposition}.
 	 * 
 	 * @return inverse Matrix
 	 * @exception InvalidOperationException
@@ -1212,6 +1430,24 @@ public class Matrix<RE extends IRingElement<RE>>
 			throw new InvalidOperationException("Can not inverse " + getRows()
 					+ "x" + getCols() + " matrices");
 		}
+		if (numOfRows > 0 && numOfRows <= SmallMatrixKernels.MAX_SIZE) {
+			return SmallMatrixKernels.inverse(this);
+		}
+		if (useTiledLU()) {
+			LUDecomposition<RE> lu;
+			try {
+				lu = lu();
+			} catch (InvalidOperationException | ClassCastException e) {
+				lu = null;
+			}
+			if (lu != null) {
+				if (lu.isSingular()) {
+					throw new InvalidOperationException("The matrix \n" + this
+							+ "\ncannot be inverted.");
+				}
+				return lu.inverse();
+			}
+		}
 
 		Matrix<RE> tmp = this.copy();
 
@@ -1597,11 +1833,26 @@ public class Matrix<RE extends IRingElement<RE>>
 	 */
 	public void applyReplace(MonadicOperator<RE> fun)
 	{
-		for (int i = 1; i <= this.getRows(); i++) {
-			for (int j = 1; j <= this.getCols(); j++) {
-				this.set(i, j, fun.apply(this.get(i, j)));
+		applyReplace(fun, ExecutionPolicy.getDefault());
+	}
+
+	/**
+	 * Sets this Matrix to the result of applying a specified function to every
+	 * element of this Matrix, using the given execution policy.
+	 * 
+	 * @param fun
+	 *            the function to apply
+	 * @param policy
+	 *            determines whether the rows are processed in parallel.
+	 */
+	public void applyReplace(final MonadicOperator<RE> fun,
+			ExecutionPolicy policy)
+	{
+		policy.forEachRow(getRows(), getCols(), i -> {
+			for (int j = 1; j <= getCols(); j++) {
+				set(i, j, fun.apply(get(i, j)));
 			}
-		}
+		});
 	}
 
 	/**
@@ -1615,20 +1866,63 @@ public class Matrix<RE extends IRingElement<RE>>
 	 */
 	public Matrix<RE> apply(MonadicOperator<RE> monadicOperator)
 	{
-		Matrix<RE> matrix = new Matrix<>(this.getRows(), this.getCols(),
-				FACTORY);
+		return apply(monadicOperator, ExecutionPolicy.getDefault());
+	}
 
-		for (int i = 1; i <= matrix.getRows(); i++) {
-			for (int j = 1; j <= this.getCols(); j++) {
-				matrix.set(i, j, monadicOperator.apply(this.get(i, j)));
+	/**
+	 * Returns the result of applying a specified function to every element of
+	 * this Matrix, using the given execution policy.
+	 * 
+	 * @param monadicOperator
+	 *            the function to apply
+	 * @param policy
+	 *            determines whether the rows are processed in parallel.
+	 * @return result of applying <tt>fun</tt> to this Matrix
+	 */
+	public Matrix<RE> apply(final MonadicOperator<RE> monadicOperator,
+			ExecutionPolicy policy)
+	{
+		final Matrix<RE> matrix = new Matrix<>(this.getRows(),
+				this.getCols(), FACTORY);
+
+		policy.forEachRow(getRows(), getCols(), i -> {
+			for (int j = 1; j <= getCols(); j++) {
+				matrix.set(i, j, monadicOperator.apply(get(i, j)));
 			}
-		}
+		});
 		return matrix;
 	}
 
+	/**
+	 * Returns the result of reducing all elements of this Matrix with the
+	 * default execution policy.
+	 * 
+	 * @param reduction
+	 * @return the reduction of the elements
+	 */
 	public RE apply(Reduction<RE> reduction)
 	{
-		return reduction.apply(this);
+		return apply(reduction, ExecutionPolicy.getDefault());
+	}
+
+	/**
+	 * Returns the result of reducing all elements of this Matrix.
+	 * 
+	 * @param reduction
+	 * @param policy
+	 *            determines whether parts of the matrix are reduced in
+	 *            parallel.
+	 * @return the reduction of the elements
+	 */
+	public RE apply(Reduction<RE> reduction, ExecutionPolicy policy)
+	{
+		if (getRows() == 0 || getCols() == 0) {
+			RE identity = reduction.identity(FACTORY);
+			if (identity != null) {
+				return identity;
+			}
+		}
+		return reduction.apply(this, policy);
 	}
 
 	/**
@@ -1642,14 +1936,23 @@ public class Matrix<RE extends IRingElement<RE>>
 	 */
 	public void applyReplace(Matrix<RE> anotherMatrix, DyadicOperator<RE> fun)
 	{
-		check_sizes(anotherMatrix, fun.getClass().getName());
+		applyReplace(anotherMatrix, fun, ExecutionPolicy.getDefault());
+	}
 
-		for (int i = 1; i <= this.getRows(); i++) {
-			for (int j = 1; j <= this.getCols(); j++) {
-				this.set(i, j,
-						fun.apply(this.get(i, j), anotherMatrix.get(i, j)));
-			}
-		}
+	/**
+	 * Sets this Matrix to the result of applying a specified function to
+	 * elements of this Matrix and another's, using the given execution policy.
+	 * 
+	 * @param anotherMatrix
+	 * @param fun
+	 *            the function to apply
+	 * @param policy
+	 *            determines whether the rows are processed in parallel.
+	 */
+	public void applyReplace(Matrix<RE> anotherMatrix, DyadicOperator<RE> fun,
+			ExecutionPolicy policy)
+	{
+		operateReplace(anotherMatrix, fun, fun.getClass().getName(), policy);
 	}
 
 	/**
@@ -1666,18 +1969,24 @@ public class Matrix<RE extends IRingElement<RE>>
 	 */
 	public Matrix<RE> apply(Matrix<RE> anotherMatrix, DyadicOperator<RE> fun)
 	{
-		check_sizes(anotherMatrix, fun.getClass().getName());
-
-		Matrix<RE> matrix = new Matrix<>(this.getRows(), this.getCols(),
-				FACTORY);
+		return apply(anotherMatrix, fun, ExecutionPolicy.getDefault());
+	}
 
-		for (int i = 1; i <= matrix.getRows(); i++) {
-			for (int j = 1; j <= this.getCols(); j++) {
-				matrix.set(i, j,
-						fun.apply(this.get(i, j), anotherMatrix.get(i, j)));
-			}
-		}
-		return matrix;
+	/**
+	 * Returns the result of applying a specified function to the elements of
+	 * this Matrix and another, using the given execution policy.
+	 * 
+	 * @param anotherMatrix
+	 * @param fun
+	 *            the function to apply
+	 * @param policy
+	 *            determines whether the rows are processed in parallel.
+	 * @return result of applying <tt>fun</tt> to the two Matrices
+	 */
+	public Matrix<RE> apply(Matrix<RE> anotherMatrix, DyadicOperator<RE> fun,
+			ExecutionPolicy policy)
+	{
+		return operate(anotherMatrix, fun, fun.getClass().getName(), policy);
 	}
 
 	/**
@@ -1691,11 +2000,23 @@ public class Matrix<RE extends IRingElement<RE>>
 	 */
 	public void applyReplace(RE scalar, DyadicOperator<RE> fun)
 	{
-		for (int i = 1; i <= this.getRows(); i++) {
-			for (int j = 1; j <= this.getCols(); j++) {
-				this.set(i, j, fun.apply(this.get(i, j), scalar));
-			}
-		}
+		applyReplace(scalar, fun, ExecutionPolicy.getDefault());
+	}
+
+	/**
+	 * Sets this Matrix to the result of applying a specified function to
+	 * elements of this Matrix and a scalar, using the given execution policy.
+	 * 
+	 * @param scalar
+	 * @param fun
+	 *            the function to apply
+	 * @param policy
+	 *            determines whether the rows are processed in parallel.
+	 */
+	public void applyReplace(RE scalar, DyadicOperator<RE> fun,
+			ExecutionPolicy policy)
+	{
+		operateReplace(scalar, fun, policy);
 	}
 
 	/**
@@ -1710,16 +2031,24 @@ public class Matrix<RE extends IRingElement<RE>>
 	 */
 	public Matrix<RE> apply(RE scalar, DyadicOperator<RE> fun)
 	{
-		Matrix<RE> matrix = new Matrix<>(this.getRows(), this.getCols(),
-				FACTORY);
-
-		for (int i = 1; i <= matrix.getRows(); i++) {
-			for (int j = 1; j <= this.getCols(); j++) {
-				matrix.set(i, j, fun.apply(this.get(i, j), scalar));
-			}
-		}
+		return apply(scalar, fun, ExecutionPolicy.getDefault());
+	}
 
-		return matrix;
+	/**
+	 * Returns the result of applying a specified function to the elements of
+	 * this Matrix and a scalar, using the given execution policy.
+	 * 
+	 * @param scalar
+	 * @param fun
+	 *            the function to apply
+	 * @param policy
+	 *            determines whether the rows are processed in parallel.
+	 * @return result of applying <tt>fun</tt> to the Matrix and scalar
+	 */
+	public Matrix<RE> apply(RE scalar, DyadicOperator<RE> fun,
+			ExecutionPolicy policy)
+	{
+		return operate(scalar, fun, policy);
 	}
 
 	/**
@@ -1801,11 +2130,15 @@ public class Matrix<RE extends IRingElement<RE>>
 	 */
 	public Vector<RE> sumRows()
 	{
-		Vector<RE> sum = getRow(1);
-		for (int i = 2; i <= getRows(); ++i) {
-			sum.addReplace(getRow(i));
-		}
-		return sum;
+		final RE[] sum = FACTORY.getArray(getCols());
+		ExecutionPolicy.getDefault().forEachRow(getCols(), getRows(), j -> {
+			RE s = get(1, j);
+			for (int i = 2; i <= getRows(); i++) {
+				s = s.add(get(i, j));
+			}
+			sum[j - 1] = s;
+		});
+		return new Vector<>(sum);
 	}
 
 	/**
@@ -1815,7 +2148,15 @@ public class Matrix<RE extends IRingElement<RE>>
 	 */
 	public Vector<RE> sumCols()
 	{
-		return this.transpose().sumRows();
+		final RE[] sum = FACTORY.getArray(getRows());
+		ExecutionPolicy.getDefault().forEachRow(getRows(), getCols(), i -> {
+			RE s = get(i, 1);
+			for (int j = 2; j <= getCols(); j++) {
+				s = s.add(get(i, j));
+			}
+			sum[i - 1] = s;
+		});
+		return new Vector<>(sum);
 	}
 
 	/**
@@ -1868,16 +2209,37 @@ public class Matrix<RE extends IRingElement<RE>>
 	 */
 	private Matrix<RE> operate(Matrix<RE> matrix2,
 			DyadicOperator<RE> dyadicOperator, String funName)
+	{
+		return operate(matrix2, dyadicOperator, funName,
+				ExecutionPolicy.getDefault());
+	}
+
+	/**
+	 * apply an operator on this and a second matrix
+	 * 
+	 * @param matrix2
+	 *            the second matrix
+	 * @param dyadicOperator
+	 *            an operator
+	 * @param funName
+	 *            an informal name for the operator.
+	 * @param policy
+	 *            determines whether the rows are processed in parallel.
+	 * @return Matrix resulting from operation on two others
+	 */
+	private Matrix<RE> operate(final Matrix<RE> matrix2,
+			final DyadicOperator<RE> dyadicOperator, String funName,
+			ExecutionPolicy policy)
 	{
 		check_sizes(matrix2, funName);
 
-		Matrix<RE> matrix3 = new Matrix<>(numOfRows, numOfCols, FACTORY);
-		for (int i = 1; i <= matrix3.getRows(); i++) {
-			for (int j = 1; j <= matrix3.getCols(); j++) {
+		final Matrix<RE> matrix3 = new Matrix<>(numOfRows, numOfCols, FACTORY);
+		policy.forEachRow(getRows(), getCols(), i -> {
+			for (int j = 1; j <= getCols(); j++) {
 				matrix3.set(i, j,
 						dyadicOperator.apply(get(i, j), matrix2.get(i, j)));
 			}
-		}
+		});
 		return matrix3;
 	}
 
@@ -1891,13 +2253,29 @@ public class Matrix<RE extends IRingElement<RE>>
 	 */
 	private Matrix<RE> operate(RE scalar, DyadicOperator<RE> dyadicOperator)
 	{
-		Matrix<RE> matrix2 = copy();
+		return operate(scalar, dyadicOperator, ExecutionPolicy.getDefault());
+	}
+
+	/**
+	 * apply an operator on this matrix and a scalar
+	 * 
+	 * @param scalar
+	 * @param dyadicOperator
+	 *            an operator
+	 * @param policy
+	 *            determines whether the rows are processed in parallel.
+	 * @return Matrix resulting from operation on Matrix and scalar
+	 */
+	private Matrix<RE> operate(final RE scalar,
+			final DyadicOperator<RE> dyadicOperator, ExecutionPolicy policy)
+	{
+		final Matrix<RE> matrix2 = copy();
 
-		for (int i = 1; i <= getRows(); ++i) {
-			for (int j = 1; j <= getCols(); ++j) {
+		policy.forEachRow(getRows(), getCols(), i -> {
+			for (int j = 1; j <= getCols(); j++) {
 				matrix2.set(i, j, dyadicOperator.apply(get(i, j), scalar));
 			}
-		}
+		});
 
 		return matrix2;
 	}
@@ -1906,63 +2284,79 @@ public class Matrix<RE extends IRingElement<RE>>
 	// another's
 	private void operateReplace(Matrix<RE> matrix,
 			DyadicOperator<RE> dyadicOperator, String funName)
+	{
+		operateReplace(matrix, dyadicOperator, funName,
+				ExecutionPolicy.getDefault());
+	}
+
+	// set elements of this Matrix to result of operation on them and
+	// another's, processing the rows as determined by policy
+	private void operateReplace(final Matrix<RE> matrix,
+			final DyadicOperator<RE> dyadicOperator, String funName,
+			ExecutionPolicy policy)
 	{
 		check_sizes(matrix, funName);
-		for (int i = 1; i <= getRows(); ++i) {
-			for (int j = 1; j <= getCols(); ++j) {
-				this.set(i, j,
-						dyadicOperator.apply(get(i, j), matrix.get(i, j)));
+		policy.forEachRow(getRows(), getCols(), i -> {
+			for (int j = 1; j <= getCols(); j++) {
+				set(i, j, dyadicOperator.apply(get(i, j), matrix.get(i, j)));
 			}
-		}
+		});
 	}
 
 	// set elements of this Matrix to result of operation on them and a
 	// scalar
 	private void operateReplace(RE scalar, DyadicOperator<RE> dyadicOperator)
 	{
-		for (int i = 1; i <= this.getRows(); ++i) {
-			for (int j = 1; j <= this.getCols(); ++j) {
-				this.set(i, j, dyadicOperator.apply(this.get(i, j), scalar));
+		operateReplace(scalar, dyadicOperator, ExecutionPolicy.getDefault());
+	}
+
+	// set elements of this Matrix to result of operation on them and a
+	// scalar, processing the rows as determined by policy
+	private void operateReplace(final RE scalar,
+			final DyadicOperator<RE> dyadicOperator, ExecutionPolicy policy)
+	{
+		policy.forEachRow(getRows(), getCols(), i -> {
+			for (int j = 1; j <= getCols(); j++) {
+				set(i, j, dyadicOperator.apply(get(i, j), scalar));
 			}
-		}
+		});
 	}
 
 	// return the result of comparing this Matrix with another (ones where
 	// comparison succeeds, zeros where it fails)
-	private Matrix<RE> comparison(Matrix<RE> anotherMatrix,
-			FEComparator<RE> feComparator, String compName)
+	private Matrix<RE> comparison(final Matrix<RE> anotherMatrix,
+			final FEComparator<RE> feComparator, String compName)
 	{
 		check_sizes(anotherMatrix, compName);
 
-		Matrix<RE> a = new Matrix<>(this.getRows(), this.getCols(), FACTORY);
+		final Matrix<RE> a = new Matrix<>(this.getRows(), this.getCols(),
+				FACTORY);
 
-		for (int i = 1; i <= this.getRows(); ++i) {
-			for (int j = 1; j <= this.getCols(); ++j) {
-				RE entry = this.get(i, j);
-				boolean success = feComparator.compare(entry,
+		ExecutionPolicy.getDefault().forEachRow(getRows(), getCols(), i -> {
+			for (int j = 1; j <= getCols(); j++) {
+				boolean success = feComparator.compare(get(i, j),
 						anotherMatrix.get(i, j));
-				RE result = success ? FACTORY.one() : FACTORY.zero();
-				a.set(i, j, result);
+				a.set(i, j, success ? FACTORY.one() : FACTORY.zero());
 			}
-		}
+		});
 
 		return a;
 	}
 
 	// return the result of comparing this Matrix with a scalar (ones where
 	// comparison succeeds, zeros where it fails)
-	private Matrix<RE> comparison(RE scalar, FEComparator<RE> feComparator)
+	private Matrix<RE> comparison(final RE scalar,
+			final FEComparator<RE> feComparator)
 	{
-		Matrix<RE> a = new Matrix<>(this.getRows(), this.getCols(), FACTORY);
+		final Matrix<RE> a = new Matrix<>(this.getRows(), this.getCols(),
+				FACTORY);
 
-		for (int i = 1; i <= this.getRows(); ++i) {
-			for (int j = 1; j <= this.getCols(); ++j) {
-				RE entry = this.get(i, j);
-				boolean success = feComparator.compare(entry, scalar);
-				RE result = success ? FACTORY.one() : FACTORY.zero();
-				a.set(i, j, result);
+		ExecutionPolicy.getDefault().forEachRow(getRows(), getCols(), i -> {
+			for (int j = 1; j <= getCols(); j++) {
+				boolean success = feComparator.compare(get(i, j), scalar);
+				a.set(i, j, success ? FACTORY.one() : FACTORY.zero());
 			}
-		}
+		});
 
 		return a;
 	}
@@ -1991,6 +2385,8 @@ public class Matrix<RE extends IRingElement<RE>>
 	 *         elements in this matrix are some sort of floating point.
 	 * @exception InvalidOperationException
 	 *                if the matrix is not square.
+	 * @see #multiplicativeOrder() which is used for matrices over prime
+	 *      fields.
 	 */
 	public int order(final int max)
 	{
@@ -2001,6 +2397,12 @@ public class Matrix<RE extends IRingElement<RE>>
 		RE d = this.det();
 		if (!(d.equals(FACTORY.one()) || d.equals(FACTORY.m_one()))) return -1;
 
+		if (MatrixOrder.fieldSize(FACTORY) != null) {
+			BigInteger o = MatrixOrder.order(this);
+			if (o.compareTo(BigInteger.valueOf(max)) >= 0) return -2;
+			return o.intValue();
+		}
+
 		Matrix<RE> m = this.copy();
 
 		int i = 1;
@@ -2021,6 +2423,129 @@ public class Matrix<RE extends IRingElement<RE>>
 		return order(Integer.MAX_VALUE);
 	}
 
+	/**
+	 * Calculate the multiplicative order of an invertible matrix over a prime
+	 * field ({@link org.jlinalg.field_p.FieldP} or
+	 * {@link org.jlinalg.f2.F2}) from the factorisation of its minimal
+	 * polynomial. Unlike {@link #order(int)}, the cost does not grow with the
+	 * order, which can be as large as p<sup>n</sup> - 1.
+	 * 
+	 * @return the smallest positive k for which this matrix to the power k is
+	 *         the identity.
+	 * @throws InvalidOperationException
+	 *             if the matrix is not square or singular, or the elements are
+	 *             not from a prime field.
+	 */
+	public BigInteger multiplicativeOrder() throws InvalidOperationException
+	{
+		return MatrixOrder.order(this);
+	}
+
+	/**
+	 * Calculate the n-th power of this matrix by repeated squaring, which
+	 * needs O(log n) multiplications. The intermediate products are written
+	 * into two buffers which are reused throughout; matrices of more than
+	 * {@link MatrixMultiplication#STRASSEN_BODRATO_TRUNCATION_POINT} rows are
+	 * multiplied by
+	 * {@link MatrixMultiplication#strassenBodrato(Matrix, Matrix)} instead.
+	 * 
+	 * @param n
+	 *            the exponent. For negative exponents, the inverse is raised
+	 *            to the power -n.
+	 * @return this matrix to the power n (the identity for n = 0).
+	 * @throws InvalidOperationException
+	 *             if this matrix is not square, or n is negative and the
+	 *             matrix cannot be inverted.
+	 */
+	public Matrix<RE> pow(long n) throws InvalidOperationException
+	{
+		return pow(BigInteger.valueOf(n));
+	}
+
+	/**
+	 * Calculate the n-th power of this matrix by repeated squaring.
+	 * 
+	 * @param n
+	 *            the exponent. For negative exponents, the inverse is raised
+	 *            to the power -n.
+	 * @return this matrix to the power n (the identity for n = 0).
+	 * @throws InvalidOperationException
+	 *             if this matrix is not square, or n is negative and the
+	 *             matrix cannot be inverted.
+	 * @see #pow(long)
+	 */
+	public Matrix<RE> pow(BigInteger n) throws InvalidOperationException
+	{
+		if (numOfRows != numOfCols) {
+			throw new InvalidOperationException("Tried to raise a "
+					+ numOfRows + "x" + numOfCols + " matrix to a power");
+		}
+		if (n.signum() < 0) {
+			return inverse().pow(n.negate());
+		}
+		int size = numOfRows;
+		RE[][] result = FACTORY.getArray(size, size);
+		RE[][] base = FACTORY.getArray(size, size);
+		RE[][] scratch = FACTORY.getArray(size, size);
+		RE zero = FACTORY.zero();
+		for (int i = 0; i < size; i++) {
+			Arrays.fill(result[i], zero);
+			result[i][i] = FACTORY.one();
+			System.arraycopy(entries[i], 0, base[i], 0, size);
+		}
+		int truncation = MatrixMultiplication.STRASSEN_BODRATO_TRUNCATION_POINT;
+		boolean strassen = size > truncation;
+		for (int bit = n.bitLength() - 1; bit >= 0; bit--) {
+			// result = result^2 (skipped while result is the identity)
+			if (bit < n.bitLength() - 1) {
+				if (strassen) {
+					Matrix<RE> r = new Matrix<>(result, size, size, FACTORY);
+					result = MatrixMultiplication.strassenBodrato(r, r).entries;
+				}
+				else {
+					multiply(result, result, scratch);
+					RE[][] t = result;
+					result = scratch;
+					scratch = t;
+				}
+			}
+			if (n.testBit(bit)) {
+				if (strassen) {
+					result = MatrixMultiplication.strassenBodrato(
+							new Matrix<>(result, size, size, FACTORY),
+							new Matrix<>(base, size, size, FACTORY)).entries;
+				}
+				else {
+					multiply(result, base, scratch);
+					RE[][] t = result;
+					result = scratch;
+					scratch = t;
+				}
+			}
+		}
+		return new Matrix<>(result, size, size, FACTORY);
+	}
+
+	/**
+	 * Calculate out = a b for square matrices of the same size. out must not
+	 * be a or b.
+	 */
+	private static <RE extends IRingElement<RE>> void multiply(RE[][] a,
+			RE[][] b, RE[][] out)
+	{
+		int size = a.length;
+		for (int i = 0; i < size; i++) {
+			RE[] ai = a[i], oi = out[i];
+			for (int j = 0; j < size; j++) {
+				RE e = ai[0].multiply(b[0][j]);
+				for (int k = 1; k < size; k++) {
+					e = e.add(ai[k].multiply(b[k][j]));
+				}
+				oi[j] = e;
+			}
+		}
+	}
+
 	/**
 	 * Determine whether this matrix is a identity matrix
 	 * 
@@ -2198,4 +2723,92 @@ public class Matrix<RE extends IRingElement<RE>>
 			}
 		};
 	}
+
+	/**
+	 * A spliterator over the elements, rows-first. Splitting divides the
+	 * remaining elements in halves (which need not coincide with rows).
+	 */
+	@Override
+	public Spliterator<RE> spliterator()
+	{
+		return new EntrySpliterator<>(entries, numOfCols, 0, (long) numOfRows
+				* numOfCols);
+	}
+
+	/**
+	 * A spliterator over a range of the entries of a matrix, numbered
+	 * rows-first. The numbers are longs, as a matrix may have more than
+	 * {@link Integer#MAX_VALUE} entries.
+	 */
+	private static final class EntrySpliterator<RE>
+			implements
+			Spliterator<RE>
+	{
+		private final RE[][] entries;
+
+		private final int cols;
+
+		/**
+		 * the index of the next element and the index after the last one.
+		 */
+		private long index, end;
+
+		EntrySpliterator(RE[][] entries, int cols, long index, long end)
+		{
+			this.entries = entries;
+			this.cols = cols;
+			this.index = index;
+			this.end = end;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super RE> action)
+		{
+			if (index >= end) {
+				return false;
+			}
+			action.accept(entries[(int) (index / cols)][(int) (index % cols)]);
+			index++;
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super RE> action)
+		{
+			int row = (int) (index / cols);
+			int col = (int) (index % cols);
+			for (; index < end; index++) {
+				action.accept(entries[row][col]);
+				if (++col == cols) {
+					col = 0;
+					row++;
+				}
+			}
+		}
+
+		@Override
+		public Spliterator<RE> trySplit()
+		{
+			long middle = (index + end) >>> 1;
+			if (middle <= index) {
+				return null;
+			}
+			Spliterator<RE> prefix = new EntrySpliterator<>(entries, cols,
+					index, middle);
+			index = middle;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize()
+		{
+			return end - index;
+		}
+
+		@Override
+		public int characteristics()
+		{
+			return ORDERED | SIZED | SUBSIZED;
+		}
+	}
 }
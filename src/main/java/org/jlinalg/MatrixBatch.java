@@ -0,0 +1,503 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.util.List;
+
+import org.jlinalg.doublewrapper.DoubleWrapper;
+import org.jlinalg.doublewrapper.DoubleWrapperFactory;
+
+/**
+ * A batch of equally sized square matrices of doubles, stored packed in one
+ * array (row-major, matrix after matrix). Determinants, inverses, solutions of
+ * linear systems and eigenvalues are computed for all matrices at once without
+ * creating {@link Matrix} or {@link DoubleWrapper} objects per matrix. Each
+ * thread reuses one workspace for all matrices it processes, and the matrices
+ * are distributed over threads according to an {@link ExecutionPolicy}.
+ * <p>
+ * This is intended for large numbers of small matrices (for instance 3x3 to
+ * 8x8). The matrices in a batch are indexed from 0, as their position in the
+ * packed array.
+ */
+public final class MatrixBatch
+{
+	/**
+	 * the workspace of the current thread, reallocated when the dimension
+	 * changes.
+	 */
+	private static final ThreadLocal<Workspace> WORKSPACE = new ThreadLocal<>();
+
+	/**
+	 * the entries of all matrices.
+	 */
+	private final double[] data;
+
+	/**
+	 * the dimension of the matrices.
+	 */
+	private final int n;
+
+	/**
+	 * the number of matrices.
+	 */
+	private final int count;
+
+	/**
+	 * Create a batch backed by a packed array. The array is not copied.
+	 * 
+	 * @param data
+	 *            the entries of the matrices: entry (i,j) (starting at 1) of
+	 *            matrix k is at <code>k*n*n + (i-1)*n + (j-1)</code>.
+	 * @param n
+	 *            the dimension of the matrices
+	 * @throws InvalidOperationException
+	 *             if n is not positive or the length of data is not a
+	 *             multiple of n*n.
+	 */
+	public MatrixBatch(double[] data, int n) throws InvalidOperationException
+	{
+		if (n < 1 || data.length % (n * n) != 0) {
+			throw new InvalidOperationException("Array of length "
+					+ data.length + " does not hold " + n + "x" + n
+					+ " matrices");
+		}
+		this.data = data;
+		this.n = n;
+		this.count = data.length / (n * n);
+	}
+
+	/**
+	 * Pack a list of square matrices of equal size into a batch.
+	 * 
+	 * @param matrices
+	 *            matrices of DoubleWrappers
+	 * @return the batch
+	 * @throws InvalidOperationException
+	 *             if the list is empty, the matrices are not square or of
+	 *             different sizes, or do not contain DoubleWrappers.
+	 */
+	public static <RE extends IRingElement<RE>> MatrixBatch of(
+			List<Matrix<RE>> matrices) throws InvalidOperationException
+	{
+		if (matrices.isEmpty()) {
+			throw new InvalidOperationException("Empty list of matrices");
+		}
+		int n = matrices.get(0).getRows();
+		double[] data = new double[matrices.size() * n * n];
+		int offset = 0;
+		for (Matrix<RE> m : matrices) {
+			if (m.getRows() != n || m.getCols() != n) {
+				throw new InvalidOperationException("Matrix of size "
+						+ m.getRows() + "x" + m.getCols() + " in a batch of "
+						+ n + "x" + n + " matrices");
+			}
+			for (double[] row : Handbook.doubleValues(m)) {
+				System.arraycopy(row, 0, data, offset, n);
+				offset += n;
+			}
+		}
+		return new MatrixBatch(data, n);
+	}
+
+	/**
+	 * @return the number of matrices in the batch.
+	 */
+	public int size()
+	{
+		return count;
+	}
+
+	/**
+	 * @return the dimension of the matrices.
+	 */
+	public int getDimension()
+	{
+		return n;
+	}
+
+	/**
+	 * @return the packed entries (not a copy).
+	 */
+	public double[] getData()
+	{
+		return data;
+	}
+
+	/**
+	 * @param k
+	 *            the index of the matrix in the batch (starting at 0)
+	 * @return a copy of the matrix as a Matrix of DoubleWrappers.
+	 */
+	public Matrix<DoubleWrapper> getMatrix(int k)
+	{
+		Matrix<DoubleWrapper> m = new Matrix<>(n, n,
+				DoubleWrapperFactory.INSTANCE);
+		DoubleWrapper[][] entries = m.getEntries();
+		int offset = k * n * n;
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				entries[i][j] = DoubleWrapperFactory.INSTANCE
+						.get(data[offset++]);
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * Calculate the determinants using the default execution policy.
+	 * 
+	 * @see #det(ExecutionPolicy)
+	 */
+	public double[] det()
+	{
+		return det(ExecutionPolicy.getDefault());
+	}
+
+	/**
+	 * Calculate the determinants of all matrices by LU decomposition with
+	 * partial pivoting.
+	 * 
+	 * @param policy
+	 *            determines whether the matrices are processed in parallel
+	 * @return the determinant of matrix k at index k.
+	 */
+	public double[] det(ExecutionPolicy policy)
+	{
+		double[] result = new double[count];
+		policy.forEachRow(count, n * n * n, k -> {
+			Workspace ws = workspace(n);
+			load(k - 1, ws.a);
+			result[k - 1] = ws.decompose() ? ws.det() : 0.0;
+		});
+		return result;
+	}
+
+	/**
+	 * Calculate the inverses using the default execution policy.
+	 * 
+	 * @see #inverse(ExecutionPolicy)
+	 */
+	public MatrixBatch inverse() throws InvalidOperationException
+	{
+		return inverse(ExecutionPolicy.getDefault());
+	}
+
+	/**
+	 * Calculate the inverses of all matrices by LU decomposition with partial
+	 * pivoting.
+	 * 
+	 * @param policy
+	 *            determines whether the matrices are processed in parallel
+	 * @return a batch with the inverse of matrix k at index k.
+	 * @throws InvalidOperationException
+	 *             if one of the matrices is singular.
+	 */
+	public MatrixBatch inverse(ExecutionPolicy policy)
+			throws InvalidOperationException
+	{
+		double[] result = new double[data.length];
+		policy.forEachRow(count, n * n * n, k -> {
+			Workspace ws = workspace(n);
+			load(k - 1, ws.a);
+			if (!ws.decompose()) {
+				throw new InvalidOperationException("Matrix " + (k - 1)
+						+ " of the batch is singular");
+			}
+			int offset = (k - 1) * n * n;
+			for (int j = 0; j < n; j++) {
+				for (int i = 0; i < n; i++) {
+					ws.x[i] = i == j ? 1.0 : 0.0;
+				}
+				ws.solve();
+				for (int i = 0; i < n; i++) {
+					result[offset + i * n + j] = ws.x[i];
+				}
+			}
+		});
+		return new MatrixBatch(result, n);
+	}
+
+	/**
+	 * Solve the linear systems using the default execution policy.
+	 * 
+	 * @see #solve(double[], ExecutionPolicy)
+	 */
+	public double[] solve(double[] b) throws InvalidOperationException
+	{
+		return solve(b, ExecutionPolicy.getDefault());
+	}
+
+	/**
+	 * Solve the linear systems A<sub>k</sub> x<sub>k</sub> = b<sub>k</sub>
+	 * for all matrices in the batch.
+	 * 
+	 * @param b
+	 *            the right hand sides, packed: b<sub>k</sub> starts at
+	 *            <code>k*n</code>
+	 * @param policy
+	 *            determines whether the matrices are processed in parallel
+	 * @return the solutions, packed like b.
+	 * @throws InvalidOperationException
+	 *             if b has the wrong length or one of the matrices is
+	 *             singular.
+	 */
+	public double[] solve(double[] b, ExecutionPolicy policy)
+			throws InvalidOperationException
+	{
+		if (b.length != count * n) {
+			throw new InvalidOperationException("Right hand sides of length "
+					+ b.length + " do not match " + count + " systems of size "
+					+ n);
+		}
+		double[] result = new double[b.length];
+		policy.forEachRow(count, n * n * n, k -> {
+			Workspace ws = workspace(n);
+			load(k - 1, ws.a);
+			if (!ws.decompose()) {
+				throw new InvalidOperationException("Matrix " + (k - 1)
+						+ " of the batch is singular");
+			}
+			System.arraycopy(b, (k - 1) * n, ws.x, 0, n);
+			ws.solve();
+			System.arraycopy(ws.x, 0, result, (k - 1) * n, n);
+		});
+		return result;
+	}
+
+	/**
+	 * Calculate the eigenvalues using the default execution policy.
+	 * 
+	 * @see #eig(ExecutionPolicy)
+	 */
+	public double[][] eig() throws InvalidOperationException
+	{
+		return eig(ExecutionPolicy.getDefault());
+	}
+
+	/**
+	 * Calculate the eigenvalues of all matrices with the algorithms of
+	 * {@link Handbook#eig(Matrix)}: symmetric matrices are tridiagonalised
+	 * and solved by the implicit QL method, all others are balanced, reduced
+	 * to Hessenberg form and solved by the QR algorithm.
+	 * 
+	 * @param policy
+	 *            determines whether the matrices are processed in parallel
+	 * @return an array {re, im} with the real and imaginary parts of the
+	 *         eigenvalues, packed: those of matrix k start at
+	 *         <code>k*n</code>.
+	 * @throws InvalidOperationException
+	 *             if the QR algorithm does not converge for a matrix.
+	 */
+	public double[][] eig(ExecutionPolicy policy)
+			throws InvalidOperationException
+	{
+		double[] re = new double[count * n];
+		double[] im = new double[count * n];
+		policy.forEachRow(count, n * n * n, k -> {
+			Workspace ws = workspace(n);
+			load(k - 1, ws.a);
+			if (Handbook.isSymmetric(ws.a)) {
+				Handbook.tred2(ws.a, ws.wr, ws.wi, false);
+				Handbook.tql2(null, ws.wr, ws.wi, false);
+			}
+			else {
+				Handbook.balance(ws.a, ws.lohi, ws.d, n, 2);
+				Handbook.elmhes(ws.a, ws.iint, n, ws.lohi[0], ws.lohi[1]);
+				Handbook.hqr(ws.a, ws.wr, ws.wi, ws.cnt, n, 1e-20);
+			}
+			System.arraycopy(ws.wr, 0, re, (k - 1) * n, n);
+			System.arraycopy(ws.wi, 0, im, (k - 1) * n, n);
+		});
+		return new double[][] { re, im };
+	}
+
+	/**
+	 * Copy matrix k into a workspace array.
+	 */
+	private void load(int k, double[][] a)
+	{
+		int offset = k * n * n;
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(data, offset + i * n, a[i], 0, n);
+		}
+	}
+
+	/**
+	 * @return the workspace of the current thread for matrices of dimension n.
+	 */
+	private static Workspace workspace(int n)
+	{
+		Workspace ws = WORKSPACE.get();
+		if (ws == null || ws.n != n) {
+			ws = new Workspace(n);
+			WORKSPACE.set(ws);
+		}
+		return ws;
+	}
+
+	/**
+	 * The arrays needed to process one matrix, reused for all matrices of a
+	 * thread.
+	 */
+	private static final class Workspace
+	{
+		/**
+		 * the dimension
+		 */
+		final int n;
+
+		/**
+		 * the matrix, overwritten by the algorithms
+		 */
+		final double[][] a;
+
+		/**
+		 * real and imaginary parts of eigenvalues
+		 */
+		final double[] wr, wi;
+
+		/**
+		 * the scaling of {@link Handbook#balance}
+		 */
+		final double[] d;
+
+		/**
+		 * the interchanges of {@link Handbook#elmhes}
+		 */
+		final int[] iint;
+
+		/**
+		 * the iteration counts of {@link Handbook#hqr}
+		 */
+		final int[] cnt;
+
+		/**
+		 * the bounds computed by {@link Handbook#balance}
+		 */
+		final int[] lohi = new int[2];
+
+		/**
+		 * the row permutation of the LU decomposition
+		 */
+		final int[] perm;
+
+		/**
+		 * a right hand side and solution
+		 */
+		final double[] x;
+
+		/**
+		 * the sign of the permutation
+		 */
+		int sign;
+
+		Workspace(int n)
+		{
+			this.n = n;
+			a = new double[n][n];
+			wr = new double[n];
+			wi = new double[n];
+			d = new double[n];
+			iint = new int[n];
+			cnt = new int[n];
+			perm = new int[n];
+			x = new double[n];
+		}
+
+		/**
+		 * LU decomposition of {@link #a} in place with partial pivoting.
+		 * 
+		 * @return false if the matrix is singular.
+		 */
+		boolean decompose()
+		{
+			sign = 1;
+			for (int i = 0; i < n; i++) {
+				perm[i] = i;
+			}
+			for (int col = 0; col < n; col++) {
+				int p = col;
+				for (int i = col + 1; i < n; i++) {
+					if (Math.abs(a[i][col]) > Math.abs(a[p][col])) {
+						p = i;
+					}
+				}
+				if (a[p][col] == 0.0) {
+					return false;
+				}
+				if (p != col) {
+					double[] t = a[p];
+					a[p] = a[col];
+					a[col] = t;
+					int tp = perm[p];
+					perm[p] = perm[col];
+					perm[col] = tp;
+					sign = -sign;
+				}
+				double pivot = a[col][col];
+				for (int i = col + 1; i < n; i++) {
+					double f = a[i][col] /= pivot;
+					if (f != 0.0) {
+						for (int j = col + 1; j < n; j++) {
+							a[i][j] -= f * a[col][j];
+						}
+					}
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * @return the determinant after {@link #decompose()}.
+		 */
+		double det()
+		{
+			double det = sign;
+			for (int i = 0; i < n; i++) {
+				det *= a[i][i];
+			}
+			return det;
+		}
+
+		/**
+		 * Replace {@link #x} by the solution of A y = x after
+		 * {@link #decompose()}.
+		 */
+		void solve()
+		{
+			// forward substitution with the permuted right hand side
+			for (int i = 0; i < n; i++) {
+				wr[i] = x[perm[i]];
+			}
+			for (int i = 0; i < n; i++) {
+				double s = wr[i];
+				for (int j = 0; j < i; j++) {
+					s -= a[i][j] * wr[j];
+				}
+				wr[i] = s;
+			}
+			// back substitution
+			for (int i = n - 1; i >= 0; i--) {
+				double s = wr[i];
+				for (int j = i + 1; j < n; j++) {
+					s -= a[i][j] * x[j];
+				}
+				x[i] = s / a[i][i];
+			}
+		}
+	}
+}
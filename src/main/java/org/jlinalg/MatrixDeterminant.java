@@ -57,12 +57,13 @@ public class MatrixDeterminant
 
 		checkSquare(matrix);
 
-		// do the calculations.
-		Matrix<RE> m = matrix.copy();
+		// do the calculations on a copy. The reduced matrices are views on
+		// this copy.
+		MatrixView<RE> m = matrix.copy().getView();
 		RE determinant = factory.one();
 		RE zero = factory.zero();
 		// while m is not a single field element
-		while (m.numOfCols != 1) {
+		while (m.getCols() != 1) {
 			// Search element with maximal norm value in row=1.
 			int mrow = 1;
 			RE max = m.get(mrow, 1).norm();
@@ -75,11 +76,11 @@ public class MatrixDeterminant
 			// if max=0, determinant is zero
 			if (max.equals(zero)) return factory.zero();
 			// reduce other rows
-			for (int r = 1; r <= m.numOfRows; r++) {
+			for (int r = 1; r <= m.getRows(); r++) {
 				if (r == mrow || m.get(r, 1).equals(zero)) continue;
 				RE div = m.get(mrow, 1).multiply(m.get(r, 1).invert());
 				m.set(r, 1, factory.zero());
-				for (int c = 2; c <= m.numOfCols; c++) {
+				for (int c = 2; c <= m.getCols(); c++) {
 					m.set(r, c, m.get(r, c)
 							.subtract(m.get(mrow, c).multiply(div.invert())));
 				}
@@ -110,14 +111,28 @@ public class MatrixDeterminant
 	public static <RE extends IRingElement<RE>> RE leibnizMethod(
 			Matrix<RE> squareMatrix)
 	{
-		IRingElementFactory<RE> factory = squareMatrix.get(1, 1).getFactory();
-
 		checkSquare(squareMatrix);
+		return leibnizMethod(squareMatrix.getView());
+	}
+
+	/**
+	 * The recursion of {@link #leibnizMethod(Matrix)}. The minors are views on
+	 * the original matrix and are not copied.
+	 * 
+	 * @param <RE>
+	 *            the type of the elements in the matrix
+	 * @param squareMatrix
+	 * @return the determinant
+	 */
+	private static <RE extends IRingElement<RE>> RE leibnizMethod(
+			MatrixView<RE> squareMatrix)
+	{
+		IRingElementFactory<RE> factory = squareMatrix.getFactory();
 
-		if (squareMatrix.numOfRows == 1) {
+		if (squareMatrix.getRows() == 1) {
 			return squareMatrix.get(1, 1);
 		}
-		else if (squareMatrix.numOfRows == 2) {
+		else if (squareMatrix.getRows() == 2) {
 			/*
 			 * This case is unnecessary, but it is nice to have it there (maybe
 			 * even a bit of a runtime optimization ;-)...
@@ -131,15 +146,15 @@ public class MatrixDeterminant
 			RE m_one = factory.m_one();
 			RE one = factory.one();
 
-			for (int i = 1; i <= squareMatrix.numOfRows; i++) {
+			MatrixView<RE> withoutFirstCol = squareMatrix.withoutCol(1);
+			for (int i = 1; i <= squareMatrix.getRows(); i++) {
 				RE f;
 				if (i % 2 == 0)
 					f = m_one;
 				else
 					f = one;
 				determinant = determinant.add(f.multiply(squareMatrix.get(i, 1))
-						.multiply(leibnizMethod(
-								withoutRowAndColumn(squareMatrix, i, 1))));
+						.multiply(leibnizMethod(withoutFirstCol.withoutRow(i))));
 			}
 			return determinant;
 		}
@@ -161,26 +176,7 @@ public class MatrixDeterminant
 	public static <RE extends IRingElement<RE>> Matrix<RE> withoutRowAndColumn(
 			Matrix<RE> squareMatrix, int withoutRow, int withoutColumn)
 	{
-		Matrix<RE> result = new Matrix<>(squareMatrix.numOfRows - 1,
-				squareMatrix.numOfCols - 1, squareMatrix.getFactory());
-		int resultRow = 1;
-		int resultCol = 1;
-
-		for (int row = 1; row <= squareMatrix.numOfRows; row++) {
-			if (row == withoutRow) {
-				continue;
-			}
-
-			resultCol = 1;
-			for (int col = 1; col <= squareMatrix.numOfCols; col++) {
-				if (col == withoutColumn) {
-					continue;
-				}
-				result.set(resultRow, resultCol, squareMatrix.get(row, col));
-				resultCol++;
-			}
-			resultRow++;
-		}
-		return result;
+		return squareMatrix.getView().withoutRow(withoutRow)
+				.withoutCol(withoutColumn).copy();
 	}
 }
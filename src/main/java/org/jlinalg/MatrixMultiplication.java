@@ -57,9 +57,24 @@ public class MatrixMultiplication
 		}
 	}
 
+	/**
+	 * @param m1
+	 * @param m2
+	 * @return true if all dimensions of m1 and m2 are positive and small
+	 *         enough for {@link SmallMatrixKernels}.
+	 */
+	private static <RE extends IRingElement<RE>> boolean isSmall(
+			Matrix<RE> m1, Matrix<RE> m2)
+	{
+		return m1.getRows() > 0 && m1.getCols() > 0 && m2.getCols() > 0
+				&& SmallMatrixKernels.isSmall(m1.getRows(), m1.getCols())
+				&& m2.getCols() <= SmallMatrixKernels.MAX_SIZE;
+	}
+
 	/**
 	 * Uses the standard method for multiplication of Matrix-objects. Asymptotic
-	 * runtime: 0(n^3)
+	 * runtime: 0(n^3). Matrices with at most four rows and columns use
+	 * unrolled inner products.
 	 * 
 	 * @param <RE>
 	 *            the type of the elements in the matrices.
@@ -72,20 +87,40 @@ public class MatrixMultiplication
 			Matrix<RE> m1, Matrix<RE> m2) throws InvalidOperationException
 	{
 		checkDimensions(m1, m2);
+		if (isSmall(m1, m2)) {
+			return SmallMatrixKernels.multiply(m1, m2);
+		}
 
-		int resultRows = m1.getRows();
-		int resultCols = m2.getCols();
-
-		Matrix<RE> resultMatrix = new Matrix<>(resultRows, resultCols, m1
-				.getFactory());
+		Matrix<RE> resultMatrix = new Matrix<>(m1.getRows(), m2.getCols(),
+				m1.getFactory());
+		simple(m1.getView(), m2.getView(), resultMatrix.getView());
+		return resultMatrix;
+	}
 
-		for (int i = 1; i <= resultRows; i++) {
-			for (int j = 1; j <= resultCols; j++) {
-				RE e = m1.getRow(i).multiply(m2.getCol(j));
-				resultMatrix.set(i, j, e);
+	/**
+	 * The standard method for multiplication operating on views.
+	 * 
+	 * @param <RE>
+	 *            the type of the elements in the matrices.
+	 * @param m1
+	 * @param m2
+	 * @param result
+	 *            the view into which m1 multiplied by m2 is written.
+	 */
+	static <RE extends IRingElement<RE>> void simple(MatrixView<RE> m1,
+			MatrixView<RE> m2, MatrixView<RE> result)
+	{
+		RE zero = m1.getFactory().zero();
+		int inner = m1.getCols();
+		for (int i = 1; i <= result.getRows(); i++) {
+			for (int j = 1; j <= result.getCols(); j++) {
+				RE e = zero;
+				for (int k = 1; k <= inner; k++) {
+					e = e.add(m1.get(i, k).multiply(m2.get(k, j)));
+				}
+				result.set(i, j, e);
 			}
 		}
-		return resultMatrix;
 	}
 
 	/**
@@ -103,6 +138,9 @@ public class MatrixMultiplication
 			Matrix<RE> m1, Matrix<RE> m2) throws InvalidOperationException
 	{
 		checkDimensions(m1, m2);
+		if (isSmall(m1, m2)) {
+			return SmallMatrixKernels.multiply(m1, m2);
+		}
 
 		int resultRows = m1.getRows();
 		int resultCols = m2.getCols();
@@ -152,84 +190,98 @@ public class MatrixMultiplication
 		m1 = MatrixMultiplication.fillUpPow2(m1);
 		m2 = MatrixMultiplication.fillUpPow2(m2);
 
-		return strassenOriginalHelper(m1, m2).getMatrix(0, resultRows - 1, 0,
-				resultCols - 1);
+		Matrix<RE> result = new Matrix<>(m1.getRows(), m2.getCols(),
+				m1.getFactory());
+		strassenOriginalHelper(m1.getView(), m2.getView(), result.getView());
+		return result.getMatrix(0, resultRows - 1, 0, resultCols - 1);
 	}
 
-	private static <RE extends IRingElement<RE>> Matrix<RE> strassenOriginalHelper(
-			Matrix<RE> m1, Matrix<RE> m2)
+	/**
+	 * The recursion of {@link #strassenOriginal(Matrix, Matrix)}. The
+	 * quadrants of the operands and of the result are views and are not
+	 * copied.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param c
+	 *            the view into which m1 multiplied by m2 is written.
+	 */
+	private static <RE extends IRingElement<RE>> void strassenOriginalHelper(
+			MatrixView<RE> m1, MatrixView<RE> m2, MatrixView<RE> c)
 	{
 
 		if (m1.getRows() <= STRASSEN_ORIGINAL_TRUNCATION_POINT) {
-			return MatrixMultiplication.simple(m1, m2);
+			MatrixMultiplication.simple(m1, m2, c);
+			return;
 		}
 
 		int endIndex = m1.getRows();
 		int splitIndex = endIndex / 2;
 
-		Matrix<RE> a11 = m1.getMatrix(0, splitIndex - 1, 0, splitIndex - 1);
-		Matrix<RE> a12 = m1.getMatrix(0, splitIndex - 1, splitIndex,
+		MatrixView<RE> a11 = m1.getView(0, splitIndex - 1, 0, splitIndex - 1);
+		MatrixView<RE> a12 = m1.getView(0, splitIndex - 1, splitIndex,
 				endIndex - 1);
-		Matrix<RE> a21 = m1.getMatrix(splitIndex, endIndex - 1, 0,
+		MatrixView<RE> a21 = m1.getView(splitIndex, endIndex - 1, 0,
 				splitIndex - 1);
-		Matrix<RE> a22 = m1.getMatrix(splitIndex, endIndex - 1, splitIndex,
+		MatrixView<RE> a22 = m1.getView(splitIndex, endIndex - 1, splitIndex,
 				endIndex - 1);
 
-		Matrix<RE> b11 = m2.getMatrix(0, splitIndex - 1, 0, splitIndex - 1);
-		Matrix<RE> b12 = m2.getMatrix(0, splitIndex - 1, splitIndex,
+		MatrixView<RE> b11 = m2.getView(0, splitIndex - 1, 0, splitIndex - 1);
+		MatrixView<RE> b12 = m2.getView(0, splitIndex - 1, splitIndex,
 				endIndex - 1);
-		Matrix<RE> b21 = m2.getMatrix(splitIndex, endIndex - 1, 0,
+		MatrixView<RE> b21 = m2.getView(splitIndex, endIndex - 1, 0,
 				splitIndex - 1);
-		Matrix<RE> b22 = m2.getMatrix(splitIndex, endIndex - 1, splitIndex,
+		MatrixView<RE> b22 = m2.getView(splitIndex, endIndex - 1, splitIndex,
 				endIndex - 1);
 
-		Matrix<RE> p1 = strassenOriginalHelper(a11.add(a22), b11.add(b22));
-		Matrix<RE> p2 = strassenOriginalHelper(a21.add(a22), b11);
-		Matrix<RE> p3 = strassenOriginalHelper(a11, b12.subtract(b22));
-		Matrix<RE> p4 = strassenOriginalHelper(a22, b21.subtract(b11));
-		Matrix<RE> p5 = strassenOriginalHelper(a11.add(a12), b22);
-		Matrix<RE> p6 = strassenOriginalHelper(a21.subtract(a11), b11.add(b12));
-		Matrix<RE> p7 = strassenOriginalHelper(a12.subtract(a22), b21.add(b22));
-
-		Matrix<RE> c11 = p1.add(p4).subtract(p5).add(p7);
-		Matrix<RE> c12 = p3.add(p5);
-		Matrix<RE> c21 = p2.add(p4);
-		Matrix<RE> c22 = p1.add(p3).subtract(p2).add(p6);
-
-		RE[][] c11Entries = c11.getEntries();
-		RE[][] c12Entries = c12.getEntries();
-		RE[][] c21Entries = c21.getEntries();
-		RE[][] c22Entries = c22.getEntries();
-
-		RE[][] cEntries = m1.getFactory().getArray(m1.getRows(), m2.getRows());
-
-		for (int i = 0; i < c11.getRows(); i++) {
-			for (int j = 0; j < c11.getCols(); j++) {
-				cEntries[i][j] = c11Entries[i][j];
-			}
-		}
-
-		for (int i = 0; i < c12.getRows(); i++) {
-			// int offset = splitIndex;
-			for (int j = 0; j < c12.getCols(); j++) {
-				cEntries[i][j + splitIndex] = c12Entries[i][j];
-			}
-		}
+		IRingElementFactory<RE> factory = m1.getFactory();
+		MatrixView<RE> p1 = product(a11.add(a22).getView(),
+				b11.add(b22).getView(), factory);
+		MatrixView<RE> p2 = product(a21.add(a22).getView(), b11, factory);
+		MatrixView<RE> p3 = product(a11, b12.subtract(b22).getView(), factory);
+		MatrixView<RE> p4 = product(a22, b21.subtract(b11).getView(), factory);
+		MatrixView<RE> p5 = product(a11.add(a12).getView(), b22, factory);
+		MatrixView<RE> p6 = product(a21.subtract(a11).getView(),
+				b11.add(b12).getView(), factory);
+		MatrixView<RE> p7 = product(a12.subtract(a22).getView(),
+				b21.add(b22).getView(), factory);
+
+		MatrixView<RE> c11 = c.getView(0, splitIndex - 1, 0, splitIndex - 1);
+		MatrixView<RE> c12 = c.getView(0, splitIndex - 1, splitIndex,
+				endIndex - 1);
+		MatrixView<RE> c21 = c.getView(splitIndex, endIndex - 1, 0,
+				splitIndex - 1);
+		MatrixView<RE> c22 = c.getView(splitIndex, endIndex - 1, splitIndex,
+				endIndex - 1);
 
-		for (int i = 0; i < c21.getRows(); i++) {
-			// int offset = splitIndex;
-			for (int j = 0; j < c21.getCols(); j++) {
-				cEntries[i + splitIndex][j] = c21Entries[i][j];
-			}
-		}
+		c11.setAll(p1);
+		c11.addReplace(p4);
+		c11.subtractReplace(p5);
+		c11.addReplace(p7);
+		c12.setAll(p3);
+		c12.addReplace(p5);
+		c21.setAll(p2);
+		c21.addReplace(p4);
+		c22.setAll(p1);
+		c22.addReplace(p3);
+		c22.subtractReplace(p2);
+		c22.addReplace(p6);
+	}
 
-		for (int i = 0; i < c22.getRows(); i++) {
-			// int offset = splitIndex;
-			for (int j = 0; j < c22.getCols(); j++) {
-				cEntries[i + splitIndex][j + splitIndex] = c22Entries[i][j];
-			}
-		}
-		return new Matrix<>(cEntries);
+	/**
+	 * Multiply two views with {@link #strassenOriginalHelper} into a new
+	 * matrix.
+	 * 
+	 * @return a view on the product.
+	 */
+	private static <RE extends IRingElement<RE>> MatrixView<RE> product(
+			MatrixView<RE> m1, MatrixView<RE> m2,
+			IRingElementFactory<RE> factory)
+	{
+		MatrixView<RE> p = new Matrix<>(m1.getRows(), m2.getCols(), factory)
+				.getView();
+		strassenOriginalHelper(m1, m2, p);
+		return p;
 	}
 
 	/**
@@ -259,99 +311,102 @@ public class MatrixMultiplication
 		m1 = MatrixMultiplication.fillUpPow2(m1);
 		m2 = MatrixMultiplication.fillUpPow2(m2);
 
-		return strassenWinogradHelper(m1, m2).getMatrix(0, resultRows - 1, 0,
-				resultCols - 1);
+		Matrix<RE> result = new Matrix<>(m1.getRows(), m2.getCols(),
+				m1.getFactory());
+		strassenWinogradHelper(m1.getView(), m2.getView(), result.getView());
+		return result.getMatrix(0, resultRows - 1, 0, resultCols - 1);
 	}
 
-	private static <RE extends IRingElement<RE>> Matrix<RE> strassenWinogradHelper(
-			Matrix<RE> m1, Matrix<RE> m2)
+	/**
+	 * The recursion of {@link #strassenWinograd(Matrix, Matrix)}, writing the
+	 * product into the view <code>c</code>.
+	 */
+	private static <RE extends IRingElement<RE>> void strassenWinogradHelper(
+			MatrixView<RE> m1, MatrixView<RE> m2, MatrixView<RE> c)
 	{
 		if (m1.getRows() <= STRASSEN_WINOGRAD_TRUNCATION_POINT) {
-			return MatrixMultiplication.simple(m1, m2);
+			MatrixMultiplication.simple(m1, m2, c);
+			return;
 		}
 
 		int endIndex = m1.getRows();
 		int splitIndex = endIndex / 2;
 
-		Matrix<RE> a11 = m1.getMatrix(0, splitIndex - 1, 0, splitIndex - 1);
-		Matrix<RE> a12 = m1.getMatrix(0, splitIndex - 1, splitIndex,
+		MatrixView<RE> a11 = m1.getView(0, splitIndex - 1, 0, splitIndex - 1);
+		MatrixView<RE> a12 = m1.getView(0, splitIndex - 1, splitIndex,
 				endIndex - 1);
-		Matrix<RE> a21 = m1.getMatrix(splitIndex, endIndex - 1, 0,
+		MatrixView<RE> a21 = m1.getView(splitIndex, endIndex - 1, 0,
 				splitIndex - 1);
-		Matrix<RE> a22 = m1.getMatrix(splitIndex, endIndex - 1, splitIndex,
+		MatrixView<RE> a22 = m1.getView(splitIndex, endIndex - 1, splitIndex,
 				endIndex - 1);
 
-		Matrix<RE> b11 = m2.getMatrix(0, splitIndex - 1, 0, splitIndex - 1);
-		Matrix<RE> b12 = m2.getMatrix(0, splitIndex - 1, splitIndex,
+		MatrixView<RE> b11 = m2.getView(0, splitIndex - 1, 0, splitIndex - 1);
+		MatrixView<RE> b12 = m2.getView(0, splitIndex - 1, splitIndex,
 				endIndex - 1);
-		Matrix<RE> b21 = m2.getMatrix(splitIndex, endIndex - 1, 0,
+		MatrixView<RE> b21 = m2.getView(splitIndex, endIndex - 1, 0,
 				splitIndex - 1);
-		Matrix<RE> b22 = m2.getMatrix(splitIndex, endIndex - 1, splitIndex,
+		MatrixView<RE> b22 = m2.getView(splitIndex, endIndex - 1, splitIndex,
 				endIndex - 1);
 
-		Matrix<RE> s1 = a21.add(a22);
-		Matrix<RE> s2 = s1.subtract(a11);
-		Matrix<RE> s3 = a11.subtract(a21);
-		Matrix<RE> s4 = a12.subtract(s2);
-
-		Matrix<RE> t1 = b12.subtract(b11);
-		Matrix<RE> t2 = b22.subtract(t1);
-		Matrix<RE> t3 = b22.subtract(b12);
-		Matrix<RE> t4 = b21.subtract(t2);
-
-		Matrix<RE> p1 = strassenWinogradHelper(a11, b11);
-		Matrix<RE> p2 = strassenWinogradHelper(a12, b21);
-		Matrix<RE> p3 = strassenWinogradHelper(s1, t1);
-		Matrix<RE> p4 = strassenWinogradHelper(s2, t2);
-		Matrix<RE> p5 = strassenWinogradHelper(s3, t3);
-		Matrix<RE> p6 = strassenWinogradHelper(s4, b22);
-		Matrix<RE> p7 = strassenWinogradHelper(a22, t4);
-
-		Matrix<RE> u1 = p1.add(p2);
-		Matrix<RE> u2 = p1.add(p4);
-		Matrix<RE> u3 = u2.add(p5);
-		Matrix<RE> u4 = u3.add(p7);
-		Matrix<RE> u5 = u3.add(p3);
-		Matrix<RE> u6 = u2.add(p3);
-		Matrix<RE> u7 = u6.add(p6);
-
-		RE[][] c11Entries = u1.getEntries();
-		RE[][] c12Entries = u7.getEntries();
-		RE[][] c21Entries = u4.getEntries();
-		RE[][] c22Entries = u5.getEntries();
-		IRingElementFactory<RE> factory = m1.getFactory();
-
-		RE[][] cEntries = factory.getArray(m1.getRows(), m2.getRows());
-
-		for (int i = 0; i < u1.getRows(); i++) {
-			for (int j = 0; j < u1.getCols(); j++) {
-				cEntries[i][j] = c11Entries[i][j];
-			}
-		}
-
-		for (int i = 0; i < u7.getRows(); i++) {
-			// int offset = splitIndex;
-			for (int j = 0; j < u7.getCols(); j++) {
-				cEntries[i][j + splitIndex] = c12Entries[i][j];
-			}
-		}
+		MatrixView<RE> s1 = a21.add(a22).getView();
+		MatrixView<RE> s2 = s1.subtract(a11).getView();
+		MatrixView<RE> s3 = a11.subtract(a21).getView();
+		MatrixView<RE> s4 = a12.subtract(s2).getView();
 
-		for (int i = 0; i < u4.getRows(); i++) {
-			// int offset = splitIndex;
-			for (int j = 0; j < u4.getCols(); j++) {
-				cEntries[i + splitIndex][j] = c21Entries[i][j];
-			}
-		}
+		MatrixView<RE> t1 = b12.subtract(b11).getView();
+		MatrixView<RE> t2 = b22.subtract(t1).getView();
+		MatrixView<RE> t3 = b22.subtract(b12).getView();
+		MatrixView<RE> t4 = b21.subtract(t2).getView();
 
-		for (int i = 0; i < u5.getRows(); i++) {
-			// int offset = splitIndex;
-			for (int j = 0; j < u5.getCols(); j++) {
-				cEntries[i + splitIndex][j + splitIndex] = c22Entries[i][j];
-			}
-		}
+		MatrixView<RE> c11 = c.getView(0, splitIndex - 1, 0, splitIndex - 1);
+		MatrixView<RE> c12 = c.getView(0, splitIndex - 1, splitIndex,
+				endIndex - 1);
+		MatrixView<RE> c21 = c.getView(splitIndex, endIndex - 1, 0,
+				splitIndex - 1);
+		MatrixView<RE> c22 = c.getView(splitIndex, endIndex - 1, splitIndex,
+				endIndex - 1);
 
-		return new Matrix<>(cEntries);
+		IRingElementFactory<RE> factory = m1.getFactory();
+		MatrixView<RE> p1 = winogradProduct(a11, b11, factory);
+		MatrixView<RE> p2 = winogradProduct(a12, b21, factory);
+		MatrixView<RE> p3 = winogradProduct(s1, t1, factory);
+		MatrixView<RE> p4 = winogradProduct(s2, t2, factory);
+		MatrixView<RE> p5 = winogradProduct(s3, t3, factory);
+		MatrixView<RE> p6 = winogradProduct(s4, b22, factory);
+		MatrixView<RE> p7 = winogradProduct(a22, t4, factory);
+
+		// c11 = u1 = p1 + p2
+		c11.setAll(p1);
+		c11.addReplace(p2);
+		// u2 = p1 + p4 is kept in p4, u3 = u2 + p5 in p5
+		p4.addReplace(p1);
+		p5.addReplace(p4);
+		// c21 = u4 = u3 + p7
+		c21.setAll(p5);
+		c21.addReplace(p7);
+		// c22 = u5 = u3 + p3
+		c22.setAll(p5);
+		c22.addReplace(p3);
+		// c12 = u7 = u6 + p6 = u2 + p3 + p6
+		c12.setAll(p4);
+		c12.addReplace(p3);
+		c12.addReplace(p6);
+	}
 
+	/**
+	 * Multiply two views with {@link #strassenWinogradHelper} into a new
+	 * matrix.
+	 * 
+	 * @return a view on the product.
+	 */
+	private static <RE extends IRingElement<RE>> MatrixView<RE> winogradProduct(
+			MatrixView<RE> m1, MatrixView<RE> m2,
+			IRingElementFactory<RE> factory)
+	{
+		MatrixView<RE> p = new Matrix<>(m1.getRows(), m2.getCols(), factory)
+				.getView();
+		strassenWinogradHelper(m1, m2, p);
+		return p;
 	}
 
 	/**
@@ -389,70 +444,97 @@ public class MatrixMultiplication
 
 		boolean squaring = (m1 == m2);
 		m1 = MatrixMultiplication.fillUpPow2(m1);
+		MatrixView<RE> v1 = m1.getView();
+		MatrixView<RE> v2 = v1;
 		if (!squaring) {
 			m2 = MatrixMultiplication.fillUpPow2(m2);
-			return strassenBodratoHelper(m1, m2).getMatrix(0, resultRows - 1,
-					0, resultCols - 1);
+			v2 = m2.getView();
 		}
-		return strassenBodratoHelper(m1, m1).getMatrix(0, resultRows - 1, 0,
-				resultCols - 1);
+		Matrix<RE> result = new Matrix<>(m1.getRows(), m1.getRows(),
+				m1.getFactory());
+		strassenBodratoHelper(v1, v2, result.getView());
+		return result.getMatrix(0, resultRows - 1, 0, resultCols - 1);
 	}
 
-	private static <RE extends IRingElement<RE>> Matrix<RE> strassenBodratoHelper(
-			Matrix<RE> m1, Matrix<RE> m2)
+	/**
+	 * The recursion of {@link #strassenBodrato(Matrix, Matrix)}, writing the
+	 * product into the view <code>c</code>. The operands are squared if
+	 * <code>m1 == m2</code>. Four of the seven products are computed directly
+	 * into the quadrants of <code>c</code>.
+	 */
+	private static <RE extends IRingElement<RE>> void strassenBodratoHelper(
+			MatrixView<RE> m1, MatrixView<RE> m2, MatrixView<RE> c)
 	{
 
 		if (m1.getRows() <= STRASSEN_BODRATO_TRUNCATION_POINT) {
-			return MatrixMultiplication.simple(m1, m2);
+			MatrixMultiplication.simple(m1, m2, c);
+			return;
 		}
 
 		int endIndex = m1.getRows();
 		int splitIndex = endIndex / 2;
 
-		Matrix<RE> a11 = m1.getMatrix(0, splitIndex - 1, 0, splitIndex - 1);
-		Matrix<RE> a12 = m1.getMatrix(0, splitIndex - 1, splitIndex,
+		MatrixView<RE> a11 = m1.getView(0, splitIndex - 1, 0, splitIndex - 1);
+		MatrixView<RE> a12 = m1.getView(0, splitIndex - 1, splitIndex,
 				endIndex - 1);
-		Matrix<RE> a21 = m1.getMatrix(splitIndex, endIndex - 1, 0,
+		MatrixView<RE> a21 = m1.getView(splitIndex, endIndex - 1, 0,
 				splitIndex - 1);
-		Matrix<RE> a22 = m1.getMatrix(splitIndex, endIndex - 1, splitIndex,
+		MatrixView<RE> a22 = m1.getView(splitIndex, endIndex - 1, splitIndex,
 				endIndex - 1);
 
-		Matrix<RE> s1 = a22.add(a12);
-		a22.subtractReplace(a21); /* s2 */
-		Matrix<RE> s3 = a22.add(a12);
-		Matrix<RE> s4 = s3.subtract(a11);
+		MatrixView<RE> s1 = a22.add(a12).getView();
+		MatrixView<RE> s2 = a22.subtract(a21).getView();
+		MatrixView<RE> s3 = s2.add(a12).getView();
+		MatrixView<RE> s4 = s3.subtract(a11).getView();
 
-		Matrix<RE> p1, p2, p3, p4, p5, p6, p7;
+		MatrixView<RE> c11 = c.getView(0, splitIndex - 1, 0, splitIndex - 1);
+		MatrixView<RE> c12 = c.getView(0, splitIndex - 1, splitIndex,
+				endIndex - 1);
+		MatrixView<RE> c21 = c.getView(splitIndex, endIndex - 1, 0,
+				splitIndex - 1);
+		MatrixView<RE> c22 = c.getView(splitIndex, endIndex - 1, splitIndex,
+				endIndex - 1);
+
+		IRingElementFactory<RE> factory = m1.getFactory();
+		/*
+		 * p1, p2, p3 and p4 end up (after the updates below) as c21, c22, c12
+		 * and c11 and are hence computed directly into these quadrants.
+		 */
+		MatrixView<RE> p1 = c21, p2 = c22, p3 = c12, p4 = c11;
+		MatrixView<RE> p5 = newView(splitIndex, factory);
+		MatrixView<RE> p6 = newView(splitIndex, factory);
+		MatrixView<RE> p7 = newView(splitIndex, factory);
 		if (m1 != m2) {
-			Matrix<RE> b11 = m2.getMatrix(0, splitIndex - 1, 0, splitIndex - 1);
-			Matrix<RE> b12 = m2.getMatrix(0, splitIndex - 1, splitIndex,
-					endIndex - 1);
-			Matrix<RE> b21 = m2.getMatrix(splitIndex, endIndex - 1, 0,
+			MatrixView<RE> b11 = m2.getView(0, splitIndex - 1, 0,
 					splitIndex - 1);
-			Matrix<RE> b22 = m2.getMatrix(splitIndex, endIndex - 1, splitIndex,
+			MatrixView<RE> b12 = m2.getView(0, splitIndex - 1, splitIndex,
 					endIndex - 1);
-
-			Matrix<RE> t1 = b22.add(b12);
-			b22.subtractReplace(b21); /* t2 */
-			Matrix<RE> t3 = b22.add(b12);
-			Matrix<RE> t4 = t3.subtract(b11);
-
-			p1 = strassenBodratoHelper(s1, t1);
-			p2 = strassenBodratoHelper(a22, b22);
-			p3 = strassenBodratoHelper(s3, t3);
-			p4 = strassenBodratoHelper(a11, b11);
-			p5 = strassenBodratoHelper(a12, b21);
-			p6 = strassenBodratoHelper(s4, b12);
-			p7 = strassenBodratoHelper(a21, t4);
+			MatrixView<RE> b21 = m2.getView(splitIndex, endIndex - 1, 0,
+					splitIndex - 1);
+			MatrixView<RE> b22 = m2.getView(splitIndex, endIndex - 1,
+					splitIndex, endIndex - 1);
+
+			MatrixView<RE> t1 = b22.add(b12).getView();
+			MatrixView<RE> t2 = b22.subtract(b21).getView();
+			MatrixView<RE> t3 = t2.add(b12).getView();
+			MatrixView<RE> t4 = t3.subtract(b11).getView();
+
+			strassenBodratoHelper(s1, t1, p1);
+			strassenBodratoHelper(s2, t2, p2);
+			strassenBodratoHelper(s3, t3, p3);
+			strassenBodratoHelper(a11, b11, p4);
+			strassenBodratoHelper(a12, b21, p5);
+			strassenBodratoHelper(s4, b12, p6);
+			strassenBodratoHelper(a21, t4, p7);
 		}
 		else {
-			p1 = strassenBodratoHelper(s1, s1);
-			p2 = strassenBodratoHelper(a22, a22);
-			p3 = strassenBodratoHelper(s3, s3);
-			p4 = strassenBodratoHelper(a11, a11);
-			p5 = strassenBodratoHelper(a12, a21);
-			p6 = strassenBodratoHelper(s4, a12);
-			p7 = strassenBodratoHelper(a21, s4);
+			strassenBodratoHelper(s1, s1, p1);
+			strassenBodratoHelper(s2, s2, p2);
+			strassenBodratoHelper(s3, s3, p3);
+			strassenBodratoHelper(a11, a11, p4);
+			strassenBodratoHelper(a12, a21, p5);
+			strassenBodratoHelper(s4, a12, p6);
+			strassenBodratoHelper(a21, s4, p7);
 		}
 
 		p3.addReplace(p5); /* u1 */
@@ -462,44 +544,15 @@ public class MatrixMultiplication
 		p3.subtractReplace(p6); /* u5 */
 		p2.addReplace(p1); /* u7 */
 		p1.subtractReplace(p7); /* u6 */
+	}
 
-		RE[][] c11Entries = p4.getEntries();
-		RE[][] c12Entries = p3.getEntries();
-		RE[][] c21Entries = p1.getEntries();
-		RE[][] c22Entries = p2.getEntries();
-
-		IRingElementFactory<RE> factory = m1.getFactory();
-
-		RE[][] cEntries = factory.getArray(m1.getRows(), m2.getRows());
-
-		for (int i = 0; i < p4.getRows(); i++) {
-			for (int j = 0; j < p4.getCols(); j++) {
-				cEntries[i][j] = c11Entries[i][j];
-			}
-		}
-
-		for (int i = 0; i < p3.getRows(); i++) {
-			// int offset = splitIndex;
-			for (int j = 0; j < p3.getCols(); j++) {
-				cEntries[i][j + splitIndex] = c12Entries[i][j];
-			}
-		}
-
-		for (int i = 0; i < p1.getRows(); i++) {
-			// int offset = splitIndex;
-			for (int j = 0; j < p1.getCols(); j++) {
-				cEntries[i + splitIndex][j] = c21Entries[i][j];
-			}
-		}
-
-		for (int i = 0; i < p2.getRows(); i++) {
-			// int offset = splitIndex;
-			for (int j = 0; j < p2.getCols(); j++) {
-				cEntries[i + splitIndex][j + splitIndex] = c22Entries[i][j];
-			}
-		}
-
-		return new Matrix<>(cEntries);
+	/**
+	 * @return a view on a new square matrix of the given size.
+	 */
+	private static <RE extends IRingElement<RE>> MatrixView<RE> newView(
+			int size, IRingElementFactory<RE> factory)
+	{
+		return new Matrix<>(size, size, factory).getView();
 	}
 
 	private static <RE extends IRingElement<RE>> Matrix<RE> fillUpPow2(
@@ -0,0 +1,467 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.jlinalg.f2.F2;
+import org.jlinalg.field_p.FieldPAbstractFactory;
+import org.jlinalg.polynomial.Polynomial;
+
+/**
+ * The multiplicative order of an invertible matrix over a prime field
+ * F<sub>p</sub> ({@link org.jlinalg.field_p.FieldP} or {@link F2}).
+ * <p>
+ * A<sup>k</sup> = I if and only if x<sup>k</sup> = 1 modulo the minimal
+ * polynomial &mu; of A, so the computation takes place in
+ * F<sub>p</sub>[x]/(&mu;), where a product costs O(n<sup>2</sup>) instead of
+ * O(n<sup>3</sup>) operations. If &mu; has irreducible factors of the degrees
+ * d<sub>1</sub>, d<sub>2</sub>, ... (found by distinct-degree factorisation)
+ * with multiplicities at most p<sup>t</sup>, the order divides M =
+ * p<sup>t</sup> lcm(p<sup>d<sub>i</sub></sup> - 1). M is factored (via the
+ * cyclotomic factors of p<sup>d</sup> - 1 and Pollard's rho method), and each
+ * prime factor r is removed as long as x<sup>M/r</sup> is still 1. This
+ * needs a number of products polynomial in log M, i.e. in n log p; only the
+ * integer factorisation may be slow if p<sup>d</sup> - 1 has two very large
+ * prime factors.
+ */
+final class MatrixOrder
+{
+	/**
+	 * the primes used for trial division before Pollard's rho method.
+	 */
+	private static final int TRIAL_DIVISION_BOUND = 10000;
+
+	/**
+	 * no instances.
+	 */
+	private MatrixOrder()
+	{
+	}
+
+	/**
+	 * @param factory
+	 *            a factory
+	 * @return the size p of the prime field of the elements or null if the
+	 *         elements are not from a (known) finite field.
+	 */
+	static BigInteger fieldSize(IRingElementFactory<?> factory)
+	{
+		if (factory instanceof FieldPAbstractFactory) {
+			return new BigInteger(((FieldPAbstractFactory) factory)
+					.getFieldSize().toString());
+		}
+		if (factory instanceof F2.F2Factory) {
+			return BigInteger.valueOf(2);
+		}
+		return null;
+	}
+
+	/**
+	 * @param matrix
+	 *            a square, invertible matrix over a prime field
+	 * @return the smallest positive k with matrix<sup>k</sup> = I.
+	 * @throws InvalidOperationException
+	 *             if the matrix is not square or singular, or the elements are
+	 *             not from a prime field.
+	 */
+	static <RE extends IRingElement<RE>> BigInteger order(Matrix<RE> matrix)
+			throws InvalidOperationException
+	{
+		IRingElementFactory<RE> factory = matrix.getFactory();
+		BigInteger p = fieldSize(factory);
+		if (p == null) {
+			throw new InvalidOperationException(
+					"The multiplicative order is only calculated over prime "
+							+ "fields, not for " + factory);
+		}
+		if (matrix.getRows() != matrix.getCols()) {
+			throw new InvalidOperationException("matrix is not square");
+		}
+		RE[] mu = minimalPolynomial(matrix);
+		if (mu[0].isZero()) {
+			throw new InvalidOperationException("matrix is singular");
+		}
+		int n = mu.length - 1;
+		if (n == 1 && mu[0].equals(factory.m_one())) {
+			return BigInteger.ONE;
+		}
+
+		// a multiple M of the order, as a factorisation
+		Map<BigInteger, Integer> m = new TreeMap<>();
+		int t = 0;
+		for (BigInteger pt = BigInteger.ONE; pt.compareTo(BigInteger
+				.valueOf(n)) < 0; pt = pt.multiply(p))
+		{
+			t++;
+		}
+		if (t > 0) {
+			m.put(p, t);
+		}
+		Map<Integer, BigInteger> cyclotomic = new HashMap<>();
+		for (int d : factorDegrees(mu, p, factory)) {
+			// p^d - 1 is the product of the cyclotomic values
+			Map<BigInteger, Integer> f = new TreeMap<>();
+			for (int e = 1; e <= d; e++) {
+				if (d % e == 0) {
+					factor(cyclotomicValue(e, p, cyclotomic), f);
+				}
+			}
+			for (Map.Entry<BigInteger, Integer> r : f.entrySet()) {
+				m.merge(r.getKey(), r.getValue(), Math::max);
+			}
+		}
+
+		BigInteger order = BigInteger.ONE;
+		for (Map.Entry<BigInteger, Integer> r : m.entrySet()) {
+			order = order.multiply(r.getKey().pow(r.getValue()));
+		}
+		if (!isOne(powerOfX(order, mu, factory))) {
+			throw new InternalError("x^" + order + " is not 1 modulo "
+					+ Arrays.toString(mu));
+		}
+		for (Map.Entry<BigInteger, Integer> r : m.entrySet()) {
+			for (int k = 0; k < r.getValue(); k++) {
+				BigInteger smaller = order.divide(r.getKey());
+				if (!isOne(powerOfX(smaller, mu, factory))) break;
+				order = smaller;
+			}
+		}
+		return order;
+	}
+
+	/**
+	 * @return the coefficients of the monic minimal polynomial of the
+	 *         matrix, with the constant first. It is the least common
+	 *         multiple of the minimal polynomials of the unit vectors, each of
+	 *         which is found exactly by {@link WiedemannSolver}.
+	 */
+	private static <RE extends IRingElement<RE>> RE[] minimalPolynomial(
+			Matrix<RE> matrix)
+	{
+		IRingElementFactory<RE> factory = matrix.getFactory();
+		int n = matrix.getRows();
+		WiedemannSolver<RE> solver = new WiedemannSolver<>(BlackBox
+				.of(matrix));
+		RE[] mu = factory.getArray(1);
+		mu[0] = factory.one();
+		for (int i = 1; i <= n && mu.length <= n; i++) {
+			Vector<RE> e = new Vector<>(n, factory.zero());
+			e.set(i, factory.one());
+			// lcm(mu, mu_e) = mu * mu_v with v = mu(A) e
+			Vector<RE> v = e.multiply(mu[mu.length - 1]);
+			for (int k = mu.length - 2; k >= 0; k--) {
+				v = matrix.multiply(v).add(e.multiply(mu[k]));
+			}
+			Polynomial<RE> g = solver.minimalPolynomial(v);
+			if (g.getDegree() == 0) continue;
+			RE[] ga = factory.getArray(g.getDegree() + 1);
+			for (int k = 0; k < ga.length; k++) {
+				ga[k] = g.getCoefficinet(k);
+			}
+			mu = multiply(mu, ga, factory);
+		}
+		return mu;
+	}
+
+	/**
+	 * Distinct-degree factorisation: h<sub>d</sub> = gcd(x<sup>p<sup>d</sup></sup>
+	 * - x, &mu;) is the product of the irreducible factors of &mu; whose
+	 * degree divides d. All powers of these factors are removed from &mu;
+	 * before the next degree.
+	 * 
+	 * @return the degrees of the irreducible factors of mu.
+	 */
+	private static <RE extends IRingElement<RE>> List<Integer> factorDegrees(
+			RE[] mu, BigInteger p, IRingElementFactory<RE> factory)
+	{
+		List<Integer> degrees = new ArrayList<>();
+		RE[] h = mu;
+		RE[] x = factory.getArray(2);
+		x[0] = factory.zero();
+		x[1] = factory.one();
+		// xp = x^(p^d) modulo h
+		RE[] xp = x;
+		for (int d = 1; degree(h) > 0; d++) {
+			if (degree(h) < 2 * d) {
+				// the rest is irreducible
+				degrees.add(degree(h));
+				break;
+			}
+			xp = power(xp, p, h, factory);
+			RE[] g = gcd(subtract(xp, x, factory), h, factory);
+			if (degree(g) > 0) {
+				degrees.add(d);
+				do {
+					h = divide(h, g, factory);
+				} while (degree(g = gcd(h, g, factory)) > 0);
+				xp = mod(xp, h, factory);
+			}
+		}
+		return degrees;
+	}
+
+	/**
+	 * @return &Phi;<sub>e</sub>(p), the value of the e-th cyclotomic
+	 *         polynomial at p, using p<sup>e</sup> - 1 = &prod;<sub>d|e</sub>
+	 *         &Phi;<sub>d</sub>(p).
+	 */
+	private static BigInteger cyclotomicValue(int e, BigInteger p,
+			Map<Integer, BigInteger> cache)
+	{
+		BigInteger value = cache.get(e);
+		if (value != null) return value;
+		value = p.pow(e).subtract(BigInteger.ONE);
+		for (int d = 1; d < e; d++) {
+			if (e % d == 0) {
+				value = value.divide(cyclotomicValue(d, p, cache));
+			}
+		}
+		cache.put(e, value);
+		return value;
+	}
+
+	/**
+	 * Add the prime factors of n (with multiplicities) to factors.
+	 */
+	static void factor(BigInteger n, Map<BigInteger, Integer> factors)
+	{
+		for (int q = 2; q < TRIAL_DIVISION_BOUND
+				&& n.compareTo(BigInteger.ONE) > 0; q++)
+		{
+			BigInteger bq = BigInteger.valueOf(q);
+			while (n.mod(bq).signum() == 0) {
+				factors.merge(bq, 1, Integer::sum);
+				n = n.divide(bq);
+			}
+		}
+		factorLarge(n, factors);
+	}
+
+	/**
+	 * Add the prime factors of n, which has no small prime factors, to
+	 * factors.
+	 */
+	private static void factorLarge(BigInteger n,
+			Map<BigInteger, Integer> factors)
+	{
+		if (n.compareTo(BigInteger.ONE) <= 0) return;
+		if (n.isProbablePrime(40)) {
+			factors.merge(n, 1, Integer::sum);
+			return;
+		}
+		BigInteger d = rho(n);
+		factorLarge(d, factors);
+		factorLarge(n.divide(d), factors);
+	}
+
+	/**
+	 * Pollard's rho method with Brent's cycle detection.
+	 * 
+	 * @return a non-trivial divisor of the composite number n.
+	 */
+	private static BigInteger rho(BigInteger n)
+	{
+		Random random = new Random(n.longValue());
+		while (true) {
+			BigInteger c = new BigInteger(n.bitLength(), random).mod(n);
+			BigInteger y = new BigInteger(n.bitLength(), random).mod(n);
+			BigInteger g = BigInteger.ONE, q = BigInteger.ONE, x = y, ys = y;
+			int r = 1;
+			while (g.equals(BigInteger.ONE)) {
+				x = y;
+				for (int i = 0; i < r; i++) {
+					y = y.multiply(y).add(c).mod(n);
+				}
+				for (int k = 0; k < r && g.equals(BigInteger.ONE); k += 100) {
+					ys = y;
+					for (int i = 0; i < Math.min(100, r - k); i++) {
+						y = y.multiply(y).add(c).mod(n);
+						q = q.multiply(x.subtract(y).abs()).mod(n);
+					}
+					g = q.gcd(n);
+				}
+				r *= 2;
+			}
+			if (g.equals(n)) {
+				// the batch overshot: repeat step by step
+				do {
+					ys = ys.multiply(ys).add(c).mod(n);
+					g = x.subtract(ys).abs().gcd(n);
+				} while (g.equals(BigInteger.ONE));
+			}
+			if (!g.equals(n)) return g;
+		}
+	}
+
+	/**
+	 * @return x<sup>e</sup> modulo mu.
+	 */
+	private static <RE extends IRingElement<RE>> RE[] powerOfX(BigInteger e,
+			RE[] mu, IRingElementFactory<RE> factory)
+	{
+		RE[] x = factory.getArray(2);
+		x[0] = factory.zero();
+		x[1] = factory.one();
+		return power(mod(x, mu, factory), e, mu, factory);
+	}
+
+	/**
+	 * @return a<sup>e</sup> modulo m, by repeated squaring.
+	 */
+	private static <RE extends IRingElement<RE>> RE[] power(RE[] a,
+			BigInteger e, RE[] m, IRingElementFactory<RE> factory)
+	{
+		RE[] result = factory.getArray(1);
+		result[0] = factory.one();
+		result = mod(result, m, factory);
+		for (int bit = e.bitLength() - 1; bit >= 0; bit--) {
+			result = mod(multiply(result, result, factory), m, factory);
+			if (e.testBit(bit)) {
+				result = mod(multiply(result, a, factory), m, factory);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return true if a is the constant polynomial 1.
+	 */
+	private static <RE extends IRingElement<RE>> boolean isOne(RE[] a)
+	{
+		return degree(a) == 0 && a[0].isOne();
+	}
+
+	/**
+	 * @return the degree of a (-1 for the zero polynomial).
+	 */
+	private static <RE extends IRingElement<RE>> int degree(RE[] a)
+	{
+		int d = a.length - 1;
+		while (d >= 0 && a[d].isZero()) {
+			d--;
+		}
+		return d;
+	}
+
+	/**
+	 * @return a * b
+	 */
+	private static <RE extends IRingElement<RE>> RE[] multiply(RE[] a,
+			RE[] b, IRingElementFactory<RE> factory)
+	{
+		int da = degree(a), db = degree(b);
+		if (da < 0 || db < 0) {
+			RE[] zero = factory.getArray(1);
+			zero[0] = factory.zero();
+			return zero;
+		}
+		RE[] c = factory.getArray(da + db + 1);
+		Arrays.fill(c, factory.zero());
+		for (int i = 0; i <= da; i++) {
+			if (a[i].isZero()) continue;
+			for (int j = 0; j <= db; j++) {
+				c[i + j] = c[i + j].add(a[i].multiply(b[j]));
+			}
+		}
+		return c;
+	}
+
+	/**
+	 * @return a - b
+	 */
+	private static <RE extends IRingElement<RE>> RE[] subtract(RE[] a,
+			RE[] b, IRingElementFactory<RE> factory)
+	{
+		RE[] c = factory.getArray(Math.max(a.length, b.length));
+		for (int i = 0; i < c.length; i++) {
+			RE ai = i < a.length ? a[i] : factory.zero();
+			c[i] = i < b.length ? ai.subtract(b[i]) : ai;
+		}
+		return c;
+	}
+
+	/**
+	 * @return the remainder of a divided by m (m non-zero).
+	 */
+	private static <RE extends IRingElement<RE>> RE[] mod(RE[] a, RE[] m,
+			IRingElementFactory<RE> factory)
+	{
+		return divide(a, m, factory, false);
+	}
+
+	/**
+	 * @return the quotient of a divided by m (m non-zero).
+	 */
+	private static <RE extends IRingElement<RE>> RE[] divide(RE[] a, RE[] m,
+			IRingElementFactory<RE> factory)
+	{
+		return divide(a, m, factory, true);
+	}
+
+	/**
+	 * @return the quotient or the remainder of a divided by m.
+	 */
+	private static <RE extends IRingElement<RE>> RE[] divide(RE[] a, RE[] m,
+			IRingElementFactory<RE> factory, boolean quotient)
+	{
+		int dm = degree(m), da = degree(a);
+		RE[] r = Arrays.copyOf(a, Math.max(da + 1, 1));
+		if (da < 0) r[0] = factory.zero();
+		RE[] q = factory.getArray(Math.max(da - dm + 1, 1));
+		Arrays.fill(q, factory.zero());
+		RE lead = m[dm].invert();
+		for (int k = da; k >= dm; k--) {
+			if (r[k].isZero()) continue;
+			RE c = r[k].multiply(lead);
+			q[k - dm] = c;
+			for (int j = 0; j <= dm; j++) {
+				r[k - dm + j] = r[k - dm + j].subtract(c.multiply(m[j]));
+			}
+		}
+		if (quotient) return q;
+		return Arrays.copyOf(r, Math.max(Math.min(r.length, dm), 1));
+	}
+
+	/**
+	 * @return the monic greatest common divisor of a and b.
+	 */
+	private static <RE extends IRingElement<RE>> RE[] gcd(RE[] a, RE[] b,
+			IRingElementFactory<RE> factory)
+	{
+		while (degree(b) >= 0) {
+			RE[] r = mod(a, b, factory);
+			a = b;
+			b = r;
+		}
+		int d = degree(a);
+		if (d < 0) return a;
+		RE[] g = factory.getArray(d + 1);
+		RE lead = a[d].invert();
+		for (int i = 0; i <= d; i++) {
+			g[i] = a[i].multiply(lead);
+		}
+		return g;
+	}
+}
@@ -0,0 +1,628 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ *
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+/**
+ * A window onto the entries of a {@link Matrix} that does not copy them.
+ * Rows and columns of a view are selected either by an offset and a stride,
+ * or by an explicit index map (as obtained by removing or permuting rows and
+ * columns). A view can also present its window transposed.
+ * <P>
+ * All views created from a matrix share the entry array of that matrix:
+ * {@link #set(int, int, IRingElement)} writes through to the matrix, and
+ * changes of the matrix are visible in the view. Use {@link #copy()} if a
+ * matrix owning its entries is needed.
+ * <P>
+ * As for {@link Matrix}, the indices of {@link #get(int, int)} and
+ * {@link #set(int, int, IRingElement)} start with 1, whereas
+ * {@link #getView(int, int, int, int)} follows the 0-based convention of
+ * {@link Matrix#getMatrix(int, int, int, int)}.
+ *
+ * @param <RE>
+ *            the type of the elements in the matrix.
+ */
+public class MatrixView<RE extends IRingElement<RE>>
+{
+	/**
+	 * the entries of the underlying matrix.
+	 */
+	private final RE[][] data;
+
+	private final IRingElementFactory<RE> factory;
+
+	/**
+	 * the rows (in <code>data</code>) addressed by this view.
+	 */
+	private final Index rowIndex;
+
+	/**
+	 * the columns (in <code>data</code>) addressed by this view.
+	 */
+	private final Index colIndex;
+
+	/**
+	 * true if rows and columns are exchanged.
+	 */
+	private final boolean transposed;
+
+	/**
+	 * Create a view on a complete matrix.
+	 *
+	 * @param matrix
+	 *            the matrix whose entries are accessed by the view.
+	 */
+	public MatrixView(Matrix<RE> matrix)
+	{
+		this(matrix.getEntries(), matrix.getFactory(),
+				new Index(0, 1, matrix.getRows()),
+				new Index(0, 1, matrix.getCols()), false);
+	}
+
+	private MatrixView(RE[][] data, IRingElementFactory<RE> factory,
+			Index rowIndex, Index colIndex, boolean transposed)
+	{
+		this.data = data;
+		this.factory = factory;
+		this.rowIndex = rowIndex;
+		this.colIndex = colIndex;
+		this.transposed = transposed;
+	}
+
+	/**
+	 * @return the number of rows in this view.
+	 */
+	public int getRows()
+	{
+		return transposed ? colIndex.length : rowIndex.length;
+	}
+
+	/**
+	 * @return the number of columns in this view.
+	 */
+	public int getCols()
+	{
+		return transposed ? rowIndex.length : colIndex.length;
+	}
+
+	/**
+	 * @return the factory of the elements in the view.
+	 */
+	public IRingElementFactory<RE> getFactory()
+	{
+		return factory;
+	}
+
+	/**
+	 * Gets the entry of this view at a certain row - and col index.
+	 *
+	 * @param rowIndex
+	 *            a row index between 1 and {@link #getRows()}
+	 * @param colIndex
+	 *            a column index between 1 and {@link #getCols()}
+	 * @return the element at this position.
+	 * @throws InvalidOperationException
+	 *             if one of the indices is invalid.
+	 */
+	public RE get(int rowIndex, int colIndex) throws InvalidOperationException
+	{
+		checkIndices(rowIndex, colIndex);
+		if (transposed)
+			return data[this.rowIndex.at(colIndex - 1)][this.colIndex
+					.at(rowIndex - 1)];
+		return data[this.rowIndex.at(rowIndex - 1)][this.colIndex
+				.at(colIndex - 1)];
+	}
+
+	/**
+	 * Sets the entry at a certain row - and col index. The underlying matrix
+	 * is modified.
+	 *
+	 * @param rowIndex
+	 *            a row index between 1 and {@link #getRows()}
+	 * @param colIndex
+	 *            a column index between 1 and {@link #getCols()}
+	 * @param element
+	 *            the new element
+	 * @throws InvalidOperationException
+	 *             if one of the indices is invalid.
+	 */
+	public void set(int rowIndex, int colIndex, RE element)
+			throws InvalidOperationException
+	{
+		checkIndices(rowIndex, colIndex);
+		if (transposed)
+			data[this.rowIndex.at(colIndex - 1)][this.colIndex
+					.at(rowIndex - 1)] = element;
+		else
+			data[this.rowIndex.at(rowIndex - 1)][this.colIndex
+					.at(colIndex - 1)] = element;
+	}
+
+	/**
+	 * Get a view on a rectangular part of this view.
+	 *
+	 * @param i0
+	 *            Initial row index (starting with 0)
+	 * @param i1
+	 *            Final row index
+	 * @param j0
+	 *            Initial column index (starting with 0)
+	 * @param j1
+	 *            Final column index
+	 * @return A(i0:i1,j0:j1) without copying the elements
+	 * @exception ArrayIndexOutOfBoundsException
+	 *                if the submatrix exceeds this view
+	 */
+	public MatrixView<RE> getView(int i0, int i1, int j0, int j1)
+	{
+		return getView(i0, 1, i1 - i0 + 1, j0, 1, j1 - j0 + 1);
+	}
+
+	/**
+	 * Get a view on the rows <code>rowOffset, rowOffset+rowStride, ...</code>
+	 * and columns <code>colOffset, colOffset+colStride, ...</code> of this
+	 * view.
+	 *
+	 * @param rowOffset
+	 *            the first row (starting with 0)
+	 * @param rowStride
+	 *            the distance between two selected rows
+	 * @param rows
+	 *            the number of rows in the new view
+	 * @param colOffset
+	 *            the first column (starting with 0)
+	 * @param colStride
+	 *            the distance between two selected columns
+	 * @param cols
+	 *            the number of columns in the new view
+	 * @return the view
+	 * @exception ArrayIndexOutOfBoundsException
+	 *                if the submatrix exceeds this view
+	 */
+	public MatrixView<RE> getView(int rowOffset, int rowStride, int rows,
+			int colOffset, int colStride, int cols)
+	{
+		if (rowOffset < 0 || colOffset < 0 || rows < 0 || cols < 0
+				|| (rows > 0 && rowOffset + (rows - 1) * rowStride >= getRows())
+				|| (cols > 0
+						&& colOffset + (cols - 1) * colStride >= getCols()))
+		{
+			throw new ArrayIndexOutOfBoundsException("Submatrix exceeds matrix");
+		}
+		if (transposed) {
+			return new MatrixView<>(data, factory,
+					rowIndex.select(colOffset, colStride, cols),
+					colIndex.select(rowOffset, rowStride, rows), true);
+		}
+		return new MatrixView<>(data, factory,
+				rowIndex.select(rowOffset, rowStride, rows),
+				colIndex.select(colOffset, colStride, cols), false);
+	}
+
+	/**
+	 * @param rowIndex
+	 *            the index (starting with 1) of the row to be removed
+	 * @return a view on this view without the row at the row index.
+	 */
+	public MatrixView<RE> withoutRow(int rowIndex)
+	{
+		checkIndices(rowIndex, 1);
+		if (transposed) {
+			return new MatrixView<>(data, factory, this.rowIndex,
+					colIndex.without(rowIndex - 1), true);
+		}
+		return new MatrixView<>(data, factory,
+				this.rowIndex.without(rowIndex - 1), colIndex, false);
+	}
+
+	/**
+	 * @param colIndex
+	 *            the index (starting with 1) of the column to be removed
+	 * @return a view on this view without the column at the column index.
+	 */
+	public MatrixView<RE> withoutCol(int colIndex)
+	{
+		checkIndices(1, colIndex);
+		if (transposed) {
+			return new MatrixView<>(data, factory,
+					rowIndex.without(colIndex - 1), this.colIndex, true);
+		}
+		return new MatrixView<>(data, factory, rowIndex,
+				this.colIndex.without(colIndex - 1), false);
+	}
+
+	/**
+	 * @return a transposed view on this view.
+	 */
+	public MatrixView<RE> transpose()
+	{
+		return new MatrixView<>(data, factory, rowIndex, colIndex,
+				!transposed);
+	}
+
+	/**
+	 * @param rowIndex
+	 *            the index of the row (starting with 1)
+	 * @return a view on one row of this view (a 1xN view).
+	 */
+	public MatrixView<RE> row(int rowIndex)
+	{
+		return getView(rowIndex - 1, rowIndex - 1, 0, getCols() - 1);
+	}
+
+	/**
+	 * @param colIndex
+	 *            the index of the column (starting with 1)
+	 * @return a view on one column of this view (a Nx1 view).
+	 */
+	public MatrixView<RE> col(int colIndex)
+	{
+		return getView(0, getRows() - 1, colIndex - 1, colIndex - 1);
+	}
+
+	/**
+	 * @param rowPermutation
+	 *            the rows (in this view and starting with 1) in the order in
+	 *            which they appear in the new view. Rows may be omitted or
+	 *            repeated.
+	 * @return a view with the rows of this view in the given order.
+	 */
+	public MatrixView<RE> permuteRows(int[] rowPermutation)
+	{
+		if (transposed) {
+			return new MatrixView<>(data, factory, rowIndex,
+					colIndex.permute(rowPermutation), true);
+		}
+		return new MatrixView<>(data, factory,
+				rowIndex.permute(rowPermutation), colIndex, false);
+	}
+
+	/**
+	 * @param colPermutation
+	 *            the columns (in this view and starting with 1) in the order in
+	 *            which they appear in the new view. Columns may be omitted or
+	 *            repeated.
+	 * @return a view with the columns of this view in the given order.
+	 */
+	public MatrixView<RE> permuteCols(int[] colPermutation)
+	{
+		if (transposed) {
+			return new MatrixView<>(data, factory,
+					rowIndex.permute(colPermutation), colIndex, true);
+		}
+		return new MatrixView<>(data, factory, rowIndex,
+				colIndex.permute(colPermutation), false);
+	}
+
+	/**
+	 * @param rowIndex1
+	 *            index of first swap partner.
+	 * @param rowIndex2
+	 *            index of second swap partner.
+	 * @return a view on the same entries in which two rows are exchanged. No
+	 *         elements are moved.
+	 */
+	public MatrixView<RE> swapRows(int rowIndex1, int rowIndex2)
+	{
+		return permuteRows(swap(getRows(), rowIndex1, rowIndex2));
+	}
+
+	/**
+	 * @param colIndex1
+	 *            index of first swap partner.
+	 * @param colIndex2
+	 *            index of second swap partner.
+	 * @return a view on the same entries in which two columns are exchanged.
+	 *         No elements are moved.
+	 */
+	public MatrixView<RE> swapCols(int colIndex1, int colIndex2)
+	{
+		return permuteCols(swap(getCols(), colIndex1, colIndex2));
+	}
+
+	/**
+	 * Sets all entries of this view to the entries of <code>view</code>. The
+	 * underlying matrix is modified.
+	 *
+	 * @param view
+	 *            a view with the same dimensions as this view.
+	 * @throws InvalidOperationException
+	 *             if the dimensions differ.
+	 */
+	public void setAll(MatrixView<RE> view) throws InvalidOperationException
+	{
+		checkSizes(view, "assign");
+		for (int r = 1; r <= getRows(); r++) {
+			for (int c = 1; c <= getCols(); c++) {
+				set(r, c, view.get(r, c));
+			}
+		}
+	}
+
+	/**
+	 * @param view
+	 *            the second operand
+	 * @return a new matrix holding the sum of this view and
+	 *         <code>view</code>.
+	 */
+	public Matrix<RE> add(MatrixView<RE> view)
+	{
+		checkSizes(view, "add");
+		Matrix<RE> result = new Matrix<>(getRows(), getCols(), factory);
+		RE[][] resultEntries = result.getEntries();
+		for (int r = 1; r <= getRows(); r++) {
+			for (int c = 1; c <= getCols(); c++) {
+				resultEntries[r - 1][c - 1] = get(r, c).add(view.get(r, c));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param view
+	 *            the second operand
+	 * @return a new matrix holding this view minus <code>view</code>.
+	 */
+	public Matrix<RE> subtract(MatrixView<RE> view)
+	{
+		checkSizes(view, "subtract");
+		Matrix<RE> result = new Matrix<>(getRows(), getCols(), factory);
+		RE[][] resultEntries = result.getEntries();
+		for (int r = 1; r <= getRows(); r++) {
+			for (int c = 1; c <= getCols(); c++) {
+				resultEntries[r - 1][c - 1] = get(r, c)
+						.subtract(view.get(r, c));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the elements of <code>view</code> to the elements in this view.
+	 * The underlying matrix is modified.
+	 *
+	 * @param view
+	 *            the second operand
+	 */
+	public void addReplace(MatrixView<RE> view)
+	{
+		checkSizes(view, "add");
+		for (int r = 1; r <= getRows(); r++) {
+			for (int c = 1; c <= getCols(); c++) {
+				set(r, c, get(r, c).add(view.get(r, c)));
+			}
+		}
+	}
+
+	/**
+	 * Subtracts the elements of <code>view</code> from the elements in this
+	 * view. The underlying matrix is modified.
+	 *
+	 * @param view
+	 *            the second operand
+	 */
+	public void subtractReplace(MatrixView<RE> view)
+	{
+		checkSizes(view, "subtract");
+		for (int r = 1; r <= getRows(); r++) {
+			for (int c = 1; c <= getCols(); c++) {
+				set(r, c, get(r, c).subtract(view.get(r, c)));
+			}
+		}
+	}
+
+	/**
+	 * @param rowIndex
+	 *            the index of the row (starting with 1)
+	 * @return true if the row contains only zeros.
+	 */
+	public boolean isZeroRow(int rowIndex)
+	{
+		for (int c = 1; c <= getCols(); c++) {
+			if (!get(rowIndex, c).isZero()) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return a matrix with a copy of the entries in this view. The entries
+	 *         of the copy are independent from the underlying matrix.
+	 */
+	public Matrix<RE> copy()
+	{
+		RE[][] entries = factory.getArray(getRows(), getCols());
+		if (!transposed && colIndex.map == null && colIndex.stride == 1) {
+			for (int r = 0; r < rowIndex.length; r++) {
+				System.arraycopy(data[rowIndex.at(r)], colIndex.offset,
+						entries[r], 0, colIndex.length);
+			}
+		}
+		else {
+			for (int r = 1; r <= getRows(); r++) {
+				for (int c = 1; c <= getCols(); c++) {
+					entries[r - 1][c - 1] = get(r, c);
+				}
+			}
+		}
+		return new Matrix<>(entries, getRows(), getCols(), factory);
+	}
+
+	/**
+	 * @param rowIndex
+	 *            the index of the row (starting with 1)
+	 * @return a vector with a copy of a row in this view.
+	 */
+	public Vector<RE> getRow(int rowIndex)
+	{
+		Vector<RE> result = new Vector<>(getCols(), factory);
+		for (int c = 1; c <= getCols(); c++) {
+			result.entries[c - 1] = get(rowIndex, c);
+		}
+		return result;
+	}
+
+	/**
+	 * @param colIndex
+	 *            the index of the column (starting with 1)
+	 * @return a vector with a copy of a column in this view.
+	 */
+	public Vector<RE> getCol(int colIndex)
+	{
+		Vector<RE> result = new Vector<>(getRows(), factory);
+		for (int r = 1; r <= getRows(); r++) {
+			result.entries[r - 1] = get(r, colIndex);
+		}
+		return result;
+	}
+
+	/**
+	 * @return a String representation of the elements in this view.
+	 * @see Matrix#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return copy().toString();
+	}
+
+	/**
+	 * @param length
+	 *            the number of rows or columns
+	 * @param i1
+	 *            the first index (starting with 1)
+	 * @param i2
+	 *            the second index (starting with 1)
+	 * @return the permutation exchanging i1 and i2
+	 */
+	private static int[] swap(int length, int i1, int i2)
+	{
+		int[] permutation = new int[length];
+		for (int i = 0; i < length; i++) {
+			permutation[i] = i + 1;
+		}
+		permutation[i1 - 1] = i2;
+		permutation[i2 - 1] = i1;
+		return permutation;
+	}
+
+	private void checkIndices(int rowIndex, int colIndex)
+			throws InvalidOperationException
+	{
+		if (rowIndex < 1 || rowIndex > getRows()) {
+			throw new InvalidOperationException("Accessed invalid row index "
+					+ rowIndex + ". Only row indices from 1 to " + getRows()
+					+ " valid");
+		}
+		if (colIndex < 1 || colIndex > getCols()) {
+			throw new InvalidOperationException("Accessed invalid column index "
+					+ colIndex + ". Only column indices from 1 to " + getCols()
+					+ " valid");
+		}
+	}
+
+	private void checkSizes(MatrixView<RE> view, String op)
+			throws InvalidOperationException
+	{
+		if (getRows() != view.getRows() || getCols() != view.getCols()) {
+			throw new InvalidOperationException("Tried to " + op + " a "
+					+ getRows() + "x" + getCols() + " and a " + view.getRows()
+					+ "x" + view.getCols() + " matrix");
+		}
+	}
+
+	/**
+	 * Maps the rows or columns of a view to rows or columns of the underlying
+	 * entry array: either by <code>offset + i * stride</code>, or by an
+	 * explicit map. Instances are immutable and can be shared between views.
+	 */
+	private static final class Index
+	{
+		final int offset;
+
+		final int stride;
+
+		final int length;
+
+		/**
+		 * the explicit mapping (null if offset and stride are used).
+		 */
+		final int[] map;
+
+		Index(int offset, int stride, int length)
+		{
+			this.offset = offset;
+			this.stride = stride;
+			this.length = length;
+			this.map = null;
+		}
+
+		Index(int[] map)
+		{
+			this.offset = 0;
+			this.stride = 1;
+			this.length = map.length;
+			this.map = map;
+		}
+
+		/**
+		 * @param i
+		 *            a 0-based position in the view
+		 * @return the corresponding 0-based position in the entry array
+		 */
+		int at(int i)
+		{
+			return map == null ? offset + i * stride : map[i];
+		}
+
+		Index select(int first, int step, int count)
+		{
+			if (map == null) {
+				return new Index(offset + first * stride, stride * step,
+						count);
+			}
+			int[] newMap = new int[count];
+			for (int i = 0; i < count; i++) {
+				newMap[i] = map[first + i * step];
+			}
+			return new Index(newMap);
+		}
+
+		Index without(int i)
+		{
+			int[] newMap = new int[length - 1];
+			for (int j = 0, k = 0; j < length; j++) {
+				if (j != i) newMap[k++] = at(j);
+			}
+			return new Index(newMap);
+		}
+
+		Index permute(int[] permutation)
+		{
+			int[] newMap = new int[permutation.length];
+			for (int j = 0; j < permutation.length; j++) {
+				if (permutation[j] < 1 || permutation[j] > length) {
+					throw new InvalidOperationException(
+							"Invalid index " + permutation[j]
+									+ " in permutation. Only indices from 1 to "
+									+ length + " valid");
+				}
+				newMap[j] = at(permutation[j] - 1);
+			}
+			return new Index(newMap);
+		}
+	}
+}
@@ -0,0 +1,345 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.math.BigInteger;
+
+import org.jlinalg.bigdecimalwrapper.BigDecimalWrapper;
+import org.jlinalg.bigdecimalwrapper.BigDecimalWrapperFactory;
+import org.jlinalg.doublewrapper.DoubleWrapperFactory;
+import org.jlinalg.rational.Rational;
+
+/**
+ * Solves linear equation systems A*x=b over precise types such as
+ * {@link Rational} or {@link BigDecimalWrapper} by iterative refinement: A is
+ * factorised once as P A = L U in double precision, and the solution is
+ * improved by x = x + d, where d solves L U d = P r with the residual r = b -
+ * A x computed in the type of the matrix. Each step costs one
+ * matrix-vector product in the precise type and double arithmetic otherwise,
+ * and gains about -log<sub>10</sub>(cond(A) * 2<sup>-53</sup>) digits.
+ * <P>
+ * The refinement stops when the correction is smaller than the tolerance
+ * relative to the solution (by default the precision of a
+ * {@link BigDecimalWrapperFactory}, and the square of the double precision
+ * otherwise). If the matrix is singular in double precision, or the
+ * corrections stop shrinking before the double precision is exceeded (which
+ * happens for ill-conditioned matrices), the system is solved by
+ * {@link LinSysSolver#solve(Matrix, Vector)} instead.
+ * <P>
+ * Instances are not thread safe.
+ * 
+ * @param <RE>
+ *            the type of the elements of the matrix.
+ */
+public class MixedPrecisionSolver<RE extends IRingElement<RE>>
+{
+	/**
+	 * the default for the maximal number of refinement steps.
+	 */
+	public static final int DEFAULT_MAX_ITERATIONS = 100;
+
+	/**
+	 * the matrix
+	 */
+	private final Matrix<RE> a;
+
+	/**
+	 * L (below the diagonal) and U in double precision, or null if the matrix
+	 * is singular in double precision.
+	 */
+	private final double[][] lu;
+
+	/**
+	 * the row exchanged with row k in step k of the factorisation
+	 */
+	private final int[] pivots;
+
+	/**
+	 * the tolerance for the relative size of the last correction.
+	 */
+	private double tolerance;
+
+	/**
+	 * the maximal number of refinement steps.
+	 */
+	private int maxIterations = DEFAULT_MAX_ITERATIONS;
+
+	/**
+	 * the number of refinement steps of the last call of
+	 * {@link #solve(Vector)}
+	 */
+	private int iterations;
+
+	/**
+	 * whether the last call of {@link #solve(Vector)} used
+	 * {@link LinSysSolver}.
+	 */
+	private boolean fallbackUsed;
+
+	/**
+	 * Factorise the matrix in double precision.
+	 * 
+	 * @param a
+	 *            a square matrix
+	 * @throws InvalidOperationException
+	 *             if a is not square.
+	 */
+	public MixedPrecisionSolver(Matrix<RE> a) throws InvalidOperationException
+	{
+		if (a.getRows() != a.getCols()) {
+			throw new InvalidOperationException(
+					"Tried to solve an equation system with a "
+							+ a.getRows() + "x" + a.getCols() + " matrix");
+		}
+		this.a = a;
+		int n = a.getRows();
+		double[][] m = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				m[i][j] = toDouble(a.get(i + 1, j + 1));
+			}
+		}
+		pivots = new int[n];
+		lu = decompose(m, pivots) ? m : null;
+		IRingElementFactory<RE> factory = a.getFactory();
+		if (factory instanceof BigDecimalWrapperFactory) {
+			tolerance = Math.pow(10, -((BigDecimalWrapperFactory) factory)
+					.getMathContext().getPrecision());
+		}
+		else {
+			tolerance = Math.ulp(1.0) * Math.ulp(1.0);
+		}
+	}
+
+	/**
+	 * Calculate a solution of A*x=b by iterative refinement, or by
+	 * {@link LinSysSolver#solve(Matrix, Vector)} if the refinement fails.
+	 * 
+	 * @param <RE>
+	 *            the type of the elements in the matrix and the vector.
+	 * @param a
+	 *            coefficient matrix
+	 * @param b
+	 *            result vector
+	 * @return the solution, or null if there is none.
+	 * @throws InvalidOperationException
+	 *             if a is not square or the sizes mismatch.
+	 */
+	public static <RE extends IRingElement<RE>> Vector<RE> solve(Matrix<RE> a,
+			Vector<RE> b) throws InvalidOperationException
+	{
+		return new MixedPrecisionSolver<>(a).solve(b);
+	}
+
+	/**
+	 * @param b
+	 *            the result vector
+	 * @return the solution of A*x=b, or null if there is none.
+	 * @throws InvalidOperationException
+	 *             if the size of b does not match the matrix.
+	 */
+	public Vector<RE> solve(Vector<RE> b) throws InvalidOperationException
+	{
+		int n = a.getRows();
+		if (b.length() != n) {
+			throw new InvalidOperationException(
+					"Tried to solve an equation system with a coefficient matrix"
+							+ " with " + n + " rows and a vector with length "
+							+ b.length() + ". Not correct format!");
+		}
+		iterations = 0;
+		fallbackUsed = false;
+		if (lu != null) {
+			Vector<RE> x = refine(b);
+			if (x != null) return x;
+		}
+		fallbackUsed = true;
+		return LinSysSolver.solve(a, b);
+	}
+
+	/**
+	 * @return the solution by iterative refinement, or null if the refinement
+	 *         does not converge.
+	 */
+	private Vector<RE> refine(Vector<RE> b)
+	{
+		int n = a.getRows();
+		IRingElementFactory<RE> factory = a.getFactory();
+		Vector<RE> x = new Vector<>(n, factory.zero());
+		double[] xd = new double[n];
+		double[] d = new double[n];
+		double last = Double.POSITIVE_INFINITY;
+		while (iterations++ < maxIterations) {
+			Vector<RE> r = iterations == 1 ? b : b.subtract(a.multiply(x));
+			boolean zero = true;
+			for (int i = 0; i < n; i++) {
+				RE ri = r.getEntry(i + 1);
+				zero &= ri.isZero();
+				d[i] = toDouble(ri);
+			}
+			if (zero) return x;
+			solve(lu, pivots, d);
+			double norm = 0, xnorm = 0;
+			for (int i = 0; i < n; i++) {
+				if (!Double.isFinite(d[i])) return null;
+				if (d[i] != 0) {
+					x.set(i + 1, x.getEntry(i + 1).add(factory.get(d[i])));
+				}
+				xd[i] += d[i];
+				norm = Math.max(norm, Math.abs(d[i]));
+				xnorm = Math.max(xnorm, Math.abs(xd[i]));
+			}
+			if (norm <= tolerance * xnorm) return x;
+			if (norm > last / 2) {
+				// the corrections stopped shrinking: the limit of the
+				// precision of the residuals is reached, or the matrix is too
+				// ill-conditioned for the factorisation in double precision
+				return norm <= Math.ulp(1.0) * xnorm ? x : null;
+			}
+			last = norm;
+		}
+		return null;
+	}
+
+	/**
+	 * @return the value of e as double, which is also correct for
+	 *         {@link Rational}s whose numerator and denominator exceed the
+	 *         range of doubles.
+	 */
+	private static double toDouble(IRingElement<?> e)
+	{
+		if (e instanceof Rational) {
+			BigInteger n = ((Rational) e).getNumerator();
+			BigInteger d = ((Rational) e).getDenominator();
+			if (n.signum() == 0) return 0;
+			// a quotient of 64 to 65 bits
+			int shift = 64 - n.bitLength() + d.bitLength();
+			BigInteger q = shift >= 0 ? n.shiftLeft(shift).divide(d) : n
+					.divide(d.shiftLeft(-shift));
+			return Math.scalb(q.doubleValue(), -shift);
+		}
+		if (e instanceof BigDecimalWrapper) {
+			return ((BigDecimalWrapper) e).doubleValue();
+		}
+		return DoubleWrapperFactory.INSTANCE.get(e).getValue();
+	}
+
+	/**
+	 * Decompose P A = L U with partial pivoting, in place.
+	 * 
+	 * @return false if the matrix is singular.
+	 */
+	private static boolean decompose(double[][] a, int[] pivots)
+	{
+		int n = a.length;
+		for (int k = 0; k < n; k++) {
+			int p = k;
+			for (int i = k + 1; i < n; i++) {
+				if (Math.abs(a[i][k]) > Math.abs(a[p][k])) p = i;
+			}
+			pivots[k] = p;
+			if (a[p][k] == 0 || !Double.isFinite(a[p][k])) return false;
+			double[] t = a[p];
+			a[p] = a[k];
+			a[k] = t;
+			double[] rk = a[k];
+			for (int i = k + 1; i < n; i++) {
+				double[] ri = a[i];
+				double l = ri[k] /= rk[k];
+				if (l == 0) continue;
+				for (int j = k + 1; j < n; j++) {
+					ri[j] -= l * rk[j];
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Solve L U x = P b, in place.
+	 */
+	private static void solve(double[][] lu, int[] pivots, double[] b)
+	{
+		int n = lu.length;
+		for (int k = 0; k < n; k++) {
+			double t = b[pivots[k]];
+			b[pivots[k]] = b[k];
+			b[k] = t;
+		}
+		for (int i = 1; i < n; i++) {
+			double s = b[i];
+			for (int j = 0; j < i; j++) {
+				s -= lu[i][j] * b[j];
+			}
+			b[i] = s;
+		}
+		for (int i = n - 1; i >= 0; i--) {
+			double s = b[i];
+			for (int j = i + 1; j < n; j++) {
+				s -= lu[i][j] * b[j];
+			}
+			b[i] = s / lu[i][i];
+		}
+	}
+
+	/**
+	 * @return the tolerance for the size of the last correction relative to
+	 *         the solution.
+	 */
+	public double getTolerance()
+	{
+		return tolerance;
+	}
+
+	/**
+	 * @param tolerance
+	 *            the tolerance for the size of the last correction relative
+	 *            to the solution.
+	 */
+	public void setTolerance(double tolerance)
+	{
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * @param maxIterations
+	 *            the maximal number of refinement steps before the system is
+	 *            solved by {@link LinSysSolver}.
+	 */
+	public void setMaxIterations(int maxIterations)
+	{
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * @return the number of refinement steps of the last call of
+	 *         {@link #solve(Vector)}.
+	 */
+	public int getIterations()
+	{
+		return iterations;
+	}
+
+	/**
+	 * @return true if the last call of {@link #solve(Vector)} fell back to
+	 *         {@link LinSysSolver#solve(Matrix, Vector)}.
+	 */
+	public boolean isFallbackUsed()
+	{
+		return fallbackUsed;
+	}
+}
@@ -0,0 +1,401 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jlinalg.bigdecimalwrapper.BigDecimalWrapperFactory;
+
+/**
+ * The QR decomposition A = Q R of a matrix with at least as many rows as
+ * columns by Householder reflections, where Q has orthonormal columns and R is
+ * upper triangular. The elements must implement a method <code>sqrt()</code>
+ * (like {@link org.jlinalg.doublewrapper.DoubleWrapper} and
+ * {@link org.jlinalg.bigdecimalwrapper.BigDecimalWrapper}).
+ * <p>
+ * The columns are processed in blocks of {@link #BLOCK_SIZE}. The reflections
+ * H<sub>i</sub> = I - &tau;<sub>i</sub> v<sub>i</sub>
+ * v<sub>i</sub><sup>T</sup> of a block are combined in the compact WY
+ * representation I - V T V<sup>T</sup> (with T upper triangular) and applied
+ * to the remaining columns (and later to right hand sides) at once. The
+ * vectors v<sub>i</sub> are stored below the diagonal of R.
+ * <p>
+ * {@link #solve(Matrix)} calculates least squares solutions of
+ * overdetermined systems without forming A<sup>T</sup>A, whose condition
+ * number is the square of that of A.
+ * 
+ * @param <RE>
+ *            the type of the elements.
+ */
+public class QRDecomposition<RE extends IRingElement<RE>>
+		implements
+		Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * the number of columns processed as one block.
+	 */
+	static final int BLOCK_SIZE = 32;
+
+	/**
+	 * R on and above the diagonal, the Householder vectors (without their
+	 * leading 1) below.
+	 */
+	private final RE[][] a;
+
+	/**
+	 * the T factors of the blocks
+	 */
+	private final List<RE[][]> ts = new ArrayList<>();
+
+	/**
+	 * the number of rows
+	 */
+	private final int m;
+
+	/**
+	 * the number of columns
+	 */
+	private final int n;
+
+	/**
+	 * the factory of the elements
+	 */
+	private final IRingElementFactory<RE> factory;
+
+	/**
+	 * Decompose a matrix.
+	 * 
+	 * @param matrix
+	 *            a matrix with at least as many rows as columns
+	 * @throws InvalidOperationException
+	 *             if the matrix has more columns than rows or its elements do
+	 *             not implement <code>sqrt()</code>.
+	 */
+	public QRDecomposition(Matrix<RE> matrix) throws InvalidOperationException
+	{
+		m = matrix.getRows();
+		n = matrix.getCols();
+		if (m < n) {
+			throw new InvalidOperationException(
+					"QR decomposition needs at least as many rows as columns, not "
+							+ m + "x" + n);
+		}
+		factory = matrix.getFactory();
+		a = factory.getArray(m, n);
+		RE[][] entries = matrix.getEntries();
+		for (int i = 0; i < m; i++) {
+			System.arraycopy(entries[i], 0, a[i], 0, n);
+		}
+
+		RE[] tau = factory.getArray(BLOCK_SIZE);
+		for (int k0 = 0; k0 < n; k0 += BLOCK_SIZE) {
+			int k1 = Math.min(k0 + BLOCK_SIZE, n);
+			for (int j = k0; j < k1; j++) {
+				tau[j - k0] = householder(j);
+				applyReflection(j, tau[j - k0], j + 1, k1);
+			}
+			RE[][] t = blockFactor(k0, k1, tau);
+			ts.add(t);
+			applyBlock(a, k1, n, k0, t, true);
+		}
+	}
+
+	/**
+	 * Compute the reflection which zeros column j below the diagonal, store
+	 * the vector below the diagonal and the new diagonal element.
+	 * 
+	 * @return the factor &tau; of the reflection (zero, if the column is
+	 *         already zero below the diagonal).
+	 */
+	private RE householder(int j)
+	{
+		RE zero = factory.zero();
+		RE xnorm2 = zero;
+		for (int i = j + 1; i < m; i++) {
+			xnorm2 = xnorm2.add(a[i][j].multiply(a[i][j]));
+		}
+		if (xnorm2.isZero()) {
+			return zero;
+		}
+		RE alpha = a[j][j];
+		RE norm = CholeskyDecomposition.sqrt(alpha.multiply(alpha).add(xnorm2));
+		RE beta = alpha.lt(zero) ? norm : norm.negate();
+		RE scale = alpha.subtract(beta).invert();
+		for (int i = j + 1; i < m; i++) {
+			a[i][j] = a[i][j].multiply(scale);
+		}
+		a[j][j] = beta;
+		return beta.subtract(alpha).divide(beta);
+	}
+
+	/**
+	 * Apply the reflection stored in column j to the columns c0..c1-1.
+	 */
+	private void applyReflection(int j, RE tau, int c0, int c1)
+	{
+		if (tau.isZero()) {
+			return;
+		}
+		for (int c = c0; c < c1; c++) {
+			RE s = a[j][c];
+			for (int i = j + 1; i < m; i++) {
+				s = s.add(a[i][j].multiply(a[i][c]));
+			}
+			s = s.multiply(tau);
+			a[j][c] = a[j][c].subtract(s);
+			for (int i = j + 1; i < m; i++) {
+				a[i][c] = a[i][c].subtract(a[i][j].multiply(s));
+			}
+		}
+	}
+
+	/**
+	 * @return the entry of the Householder vector of column j in row r
+	 */
+	private RE v(int r, int j)
+	{
+		return r < j ? factory.zero() : r == j ? factory.one() : a[r][j];
+	}
+
+	/**
+	 * Form the upper triangular T with H<sub>k0</sub> ...
+	 * H<sub>k1-1</sub> = I - V T V<sup>T</sup>.
+	 */
+	private RE[][] blockFactor(int k0, int k1, RE[] tau)
+	{
+		int kb = k1 - k0;
+		RE[][] t = factory.getArray(kb, kb);
+		RE zero = factory.zero();
+		RE[] w = factory.getArray(kb);
+		for (int i = 0; i < kb; i++) {
+			int j = k0 + i;
+			for (int l = 0; l < i; l++) {
+				// w = -tau_i V(:,0:i-1)^T v_i
+				RE s = a[j][k0 + l];
+				for (int r = j + 1; r < m; r++) {
+					s = s.add(a[r][k0 + l].multiply(a[r][j]));
+				}
+				w[l] = s.multiply(tau[i]).negate();
+			}
+			for (int l = 0; l < i; l++) {
+				RE s = zero;
+				for (int p = l; p < i; p++) {
+					s = s.add(t[l][p].multiply(w[p]));
+				}
+				t[l][i] = s;
+			}
+			t[i][i] = tau[i];
+			for (int l = i + 1; l < kb; l++) {
+				t[l][i] = zero;
+			}
+		}
+		return t;
+	}
+
+	/**
+	 * Apply the block reflector I - V T V<sup>T</sup> (or its transpose) of
+	 * the block starting at column k0 to the columns c0..c1-1 of c.
+	 */
+	private void applyBlock(RE[][] c, int c0, int c1, int k0, RE[][] t,
+			boolean transpose)
+	{
+		int kb = t.length;
+		if (c0 >= c1) {
+			return;
+		}
+		RE zero = factory.zero();
+		RE[][] w = factory.getArray(kb, c1 - c0);
+		// W = V^T C
+		for (int l = 0; l < kb; l++) {
+			int j = k0 + l;
+			for (int col = c0; col < c1; col++) {
+				RE s = c[j][col];
+				for (int r = j + 1; r < m; r++) {
+					s = s.add(a[r][j].multiply(c[r][col]));
+				}
+				w[l][col - c0] = s;
+			}
+		}
+		// W = T^T W or W = T W
+		for (int col = 0; col < c1 - c0; col++) {
+			if (transpose) {
+				for (int i = kb - 1; i >= 0; i--) {
+					RE s = zero;
+					for (int l = 0; l <= i; l++) {
+						s = s.add(t[l][i].multiply(w[l][col]));
+					}
+					w[i][col] = s;
+				}
+			}
+			else {
+				for (int i = 0; i < kb; i++) {
+					RE s = zero;
+					for (int l = i; l < kb; l++) {
+						s = s.add(t[i][l].multiply(w[l][col]));
+					}
+					w[i][col] = s;
+				}
+			}
+		}
+		// C = C - V W
+		for (int r = k0; r < m; r++) {
+			int lmax = Math.min(kb - 1, r - k0);
+			for (int col = c0; col < c1; col++) {
+				RE s = c[r][col];
+				for (int l = 0; l <= lmax; l++) {
+					s = s.subtract(v(r, k0 + l).multiply(w[l][col - c0]));
+				}
+				c[r][col] = s;
+			}
+		}
+	}
+
+	/**
+	 * @return the n x n upper triangular factor R.
+	 */
+	public Matrix<RE> getR()
+	{
+		RE[][] r = factory.getArray(n, n);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				r[i][j] = j >= i ? a[i][j] : factory.zero();
+			}
+		}
+		return new Matrix<>(r, n, n, factory);
+	}
+
+	/**
+	 * @return the m x n factor Q with orthonormal columns.
+	 */
+	public Matrix<RE> getQ()
+	{
+		RE[][] q = factory.getArray(m, n);
+		for (int i = 0; i < m; i++) {
+			for (int j = 0; j < n; j++) {
+				q[i][j] = i == j ? factory.one() : factory.zero();
+			}
+		}
+		for (int b = ts.size() - 1; b >= 0; b--) {
+			applyBlock(q, 0, n, b * BLOCK_SIZE, ts.get(b), false);
+		}
+		return new Matrix<>(q, m, n, factory);
+	}
+
+	/**
+	 * @return true if R has no zero on the diagonal, that is, A has full
+	 *         column rank. For inexact element types (see
+	 *         {@link JLinAlgTypeProperties#isExact()}), a diagonal element
+	 *         r<sub>jj</sub> counts as zero if |r<sub>jj</sub>| &le; m
+	 *         &epsilon; max<sub>i</sub>|r<sub>ii</sub>|, where &epsilon; is
+	 *         the precision of the type (2<sup>-52</sup> for doubles).
+	 */
+	public boolean isFullRank()
+	{
+		RE max = factory.zero();
+		for (int j = 0; j < n; j++) {
+			if (a[j][j].isZero()) {
+				return false;
+			}
+			RE abs = a[j][j].abs();
+			if (abs.gt(max)) {
+				max = abs;
+			}
+		}
+		JLinAlgTypeProperties properties = factory.getClass().getAnnotation(
+				JLinAlgTypeProperties.class);
+		if (properties == null || properties.isExact()) {
+			return true;
+		}
+		double epsilon = factory instanceof BigDecimalWrapperFactory ? Math
+				.pow(10, -((BigDecimalWrapperFactory) factory)
+						.getMathContext().getPrecision()) : Math.ulp(1.0);
+		RE threshold = max.multiply(factory.get(m * epsilon));
+		for (int j = 0; j < n; j++) {
+			if (a[j][j].abs().le(threshold)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Calculate the least squares solution of A x = b.
+	 * 
+	 * @param b
+	 *            the right hand side
+	 * @return the x minimising the Euclidean norm of A x - b.
+	 * @throws InvalidOperationException
+	 *             if the length of b does not match the matrix or A does not
+	 *             have full column rank
+	 *             (see {@link #isFullRank()}).
+	 */
+	public Vector<RE> solve(Vector<RE> b) throws InvalidOperationException
+	{
+		Matrix<RE> bm = new Matrix<>(b.length(), 1, factory);
+		bm.setCol(1, b);
+		return solve(bm).getCol(1);
+	}
+
+	/**
+	 * Calculate the least squares solutions of A X = B.
+	 * 
+	 * @param b
+	 *            the right hand sides as columns of a matrix
+	 * @return the X minimising the Euclidean norm of each column of A X - B.
+	 * @throws InvalidOperationException
+	 *             if the number of rows of b does not match the matrix or A
+	 *             does not have full column rank
+	 *             (see {@link #isFullRank()}).
+	 */
+	public Matrix<RE> solve(Matrix<RE> b) throws InvalidOperationException
+	{
+		if (b.getRows() != m) {
+			throw new InvalidOperationException("Tried to solve a system with "
+					+ m + " rows for " + b.getRows() + " right hand sides");
+		}
+		if (!isFullRank()) {
+			throw new InvalidOperationException(
+					"Matrix does not have full column rank");
+		}
+		int k = b.getCols();
+		RE[][] c = factory.getArray(m, k);
+		RE[][] entries = b.getEntries();
+		for (int i = 0; i < m; i++) {
+			System.arraycopy(entries[i], 0, c[i], 0, k);
+		}
+		// C = Q^T B
+		for (int i = 0; i < ts.size(); i++) {
+			applyBlock(c, 0, k, i * BLOCK_SIZE, ts.get(i), true);
+		}
+		// solve R X = C(0:n-1, :)
+		RE[][] x = factory.getArray(n, k);
+		for (int col = 0; col < k; col++) {
+			for (int i = n - 1; i >= 0; i--) {
+				RE s = c[i][col];
+				for (int j = i + 1; j < n; j++) {
+					s = s.subtract(a[i][j].multiply(x[j][col]));
+				}
+				x[i][col] = s.divide(a[i][i]);
+			}
+		}
+		return new Matrix<>(x, n, k, factory);
+	}
+}
@@ -0,0 +1,788 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.util.Random;
+
+import org.jlinalg.doublewrapper.DoubleWrapper;
+import org.jlinalg.doublewrapper.DoubleWrapperFactory;
+
+/**
+ * The singular value decomposition A = U S V<sup>T</sup> of a matrix of
+ * {@link DoubleWrapper}s, where U and V have orthonormal columns and S is
+ * diagonal with non-negative, descending entries (the singular values). For
+ * an m x n matrix and r = min(m, n), U is m x r, S is r x r and V is n x r.
+ * <p>
+ * The entries of the matrix are converted to doubles once. The decomposition
+ * is then calculated by Householder bidiagonalisation followed by the
+ * implicitly shifted QR algorithm of Golub and Kahan (in the formulation of
+ * the procedure SVD of the Handbook, see {@link Handbook}).
+ * {@link #truncated(Matrix, int, int, int, Random)} calculates an
+ * approximation of the k largest singular values and vectors by random
+ * projection, which is much faster if k is small compared to r.
+ * <p>
+ * Unlike {@link Matrix#rank()}, which tests the result of a gaussian
+ * elimination for exact zeros, {@link #rank()} counts the singular values
+ * above a tolerance and is hence meaningful for noisy data.
+ */
+public class SingularValueDecomposition
+{
+	/**
+	 * the relative machine precision.
+	 */
+	private static final double EPS = Math.ulp(1.0);
+
+	/**
+	 * the left singular vectors, stored column-wise
+	 */
+	private final double[][] u;
+
+	/**
+	 * the singular values
+	 */
+	private final double[] s;
+
+	/**
+	 * the right singular vectors, stored column-wise
+	 */
+	private final double[][] v;
+
+	/**
+	 * the number of rows
+	 */
+	private final int m;
+
+	/**
+	 * the number of columns
+	 */
+	private final int n;
+
+	/**
+	 * Calculate the singular value decomposition of a matrix.
+	 * 
+	 * @param matrix
+	 *            a matrix of {@link DoubleWrapper}s
+	 * @throws InvalidOperationException
+	 *             if the matrix does not contain DoubleWrappers, or the QR
+	 *             iteration does not converge.
+	 */
+	public <RE extends IRingElement<RE>> SingularValueDecomposition(
+			Matrix<RE> matrix) throws InvalidOperationException
+	{
+		this(doubleValues(matrix), matrix.getRows(), matrix.getCols());
+	}
+
+	/**
+	 * Calculate the singular value decomposition of an array.
+	 * 
+	 * @param a
+	 *            the m x n array, destroyed
+	 */
+	private SingularValueDecomposition(double[][] a, int m, int n)
+	{
+		this.m = m;
+		this.n = n;
+		if (m >= n) {
+			u = new double[m][n];
+			v = new double[n][n];
+			s = new double[n];
+			decompose(a, m, n, u, s, v);
+		}
+		else {
+			// decompose the transpose and swap the singular vectors
+			double[][] at = new double[n][m];
+			for (int i = 0; i < m; i++) {
+				for (int j = 0; j < n; j++) {
+					at[j][i] = a[i][j];
+				}
+			}
+			v = new double[n][m];
+			u = new double[m][m];
+			s = new double[m];
+			decompose(at, n, m, v, s, u);
+		}
+	}
+
+	/**
+	 * Create a decomposition from its parts.
+	 */
+	private SingularValueDecomposition(double[][] u, double[] s,
+			double[][] v, int m, int n)
+	{
+		this.u = u;
+		this.s = s;
+		this.v = v;
+		this.m = m;
+		this.n = n;
+	}
+
+	/**
+	 * @return the entries of a matrix of DoubleWrappers.
+	 * @throws InvalidOperationException
+	 *             if the matrix does not contain DoubleWrappers.
+	 */
+	private static <RE extends IRingElement<RE>> double[][] doubleValues(
+			Matrix<RE> matrix) throws InvalidOperationException
+	{
+		try {
+			return Handbook.doubleValues(matrix);
+		} catch (Exception e) {
+			throw new InvalidOperationException(
+					"Matrix must contain only DoubleWrappers");
+		}
+	}
+
+	/**
+	 * Approximate the k largest singular values and the corresponding
+	 * singular vectors by random projection (Halko, Martinsson and Tropp): the
+	 * range of A is sampled with k + oversampling random vectors, refined by
+	 * power iterations, and the SVD of the projection of A onto this range is
+	 * calculated.
+	 * 
+	 * @param matrix
+	 *            a matrix of {@link DoubleWrapper}s
+	 * @param k
+	 *            the number of singular values
+	 * @param oversampling
+	 *            the number of additional samples (typically 5 to 10)
+	 * @param powerIterations
+	 *            the number of power iterations (typically 1 or 2; more for
+	 *            slowly decaying singular values)
+	 * @param random
+	 *            the source of the random projection
+	 * @return a decomposition with (at most) k singular values.
+	 * @throws InvalidOperationException
+	 *             if the matrix does not contain DoubleWrappers, or k is not
+	 *             positive.
+	 */
+	public static <RE extends IRingElement<RE>> SingularValueDecomposition truncated(
+			Matrix<RE> matrix, int k, int oversampling, int powerIterations,
+			Random random) throws InvalidOperationException
+	{
+		if (k < 1) {
+			throw new InvalidOperationException("illegal rank " + k);
+		}
+		double[][] a = doubleValues(matrix);
+		int m = matrix.getRows(), n = matrix.getCols();
+		int l = Math.min(k + Math.max(0, oversampling), Math.min(m, n));
+
+		double[][] omega = new double[n][l];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < l; j++) {
+				omega[i][j] = random.nextGaussian();
+			}
+		}
+		double[][] q = multiply(a, omega, false);
+		orthonormalise(q);
+		for (int it = 0; it < powerIterations; it++) {
+			double[][] z = multiply(a, q, true);
+			orthonormalise(z);
+			q = multiply(a, z, false);
+			orthonormalise(q);
+		}
+
+		// B = Q^T A is l x n with l <= n
+		double[][] b = new double[l][n];
+		for (int i = 0; i < m; i++) {
+			for (int p = 0; p < l; p++) {
+				double qip = q[i][p];
+				if (qip != 0.0) {
+					for (int j = 0; j < n; j++) {
+						b[p][j] += qip * a[i][j];
+					}
+				}
+			}
+		}
+		SingularValueDecomposition svd = new SingularValueDecomposition(b, l,
+				n);
+
+		int r = Math.min(k, l);
+		double[][] u = new double[m][r];
+		for (int i = 0; i < m; i++) {
+			for (int j = 0; j < r; j++) {
+				double sum = 0;
+				for (int p = 0; p < l; p++) {
+					sum += q[i][p] * svd.u[p][j];
+				}
+				u[i][j] = sum;
+			}
+		}
+		double[][] v = new double[n][r];
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(svd.v[i], 0, v[i], 0, r);
+		}
+		double[] s = new double[r];
+		System.arraycopy(svd.s, 0, s, 0, r);
+		return new SingularValueDecomposition(u, s, v, m, n);
+	}
+
+	/**
+	 * @return A X (or A<sup>T</sup> X, if transpose is true)
+	 */
+	private static double[][] multiply(double[][] a, double[][] x,
+			boolean transpose)
+	{
+		int m = a.length, n = a[0].length, l = x[0].length;
+		double[][] y = new double[transpose ? n : m][l];
+		for (int i = 0; i < m; i++) {
+			for (int j = 0; j < n; j++) {
+				double aij = a[i][j];
+				if (aij == 0.0) {
+					continue;
+				}
+				double[] src = transpose ? x[i] : x[j];
+				double[] dst = transpose ? y[j] : y[i];
+				for (int p = 0; p < l; p++) {
+					dst[p] += aij * src[p];
+				}
+			}
+		}
+		return y;
+	}
+
+	/**
+	 * Orthonormalise the columns of x by the modified Gram-Schmidt method,
+	 * applied twice for numerical stability. Columns that are linearly
+	 * dependent on the previous ones, i.e. whose norm drops below rows
+	 * &epsilon; times the norm they had before the projection, are set to
+	 * zero. The test is relative, so that the scale of x does not matter.
+	 */
+	private static void orthonormalise(double[][] x)
+	{
+		int rows = x.length, cols = x[0].length;
+		for (int pass = 0; pass < 2; pass++) {
+			for (int j = 0; j < cols; j++) {
+				double before = 0;
+				for (int i = 0; i < rows; i++) {
+					before = Math.hypot(before, x[i][j]);
+				}
+				for (int p = 0; p < j; p++) {
+					double dot = 0;
+					for (int i = 0; i < rows; i++) {
+						dot += x[i][p] * x[i][j];
+					}
+					for (int i = 0; i < rows; i++) {
+						x[i][j] -= dot * x[i][p];
+					}
+				}
+				double norm = 0;
+				for (int i = 0; i < rows; i++) {
+					norm = Math.hypot(norm, x[i][j]);
+				}
+				double scale = norm > rows * EPS * before ? 1 / norm : 0;
+				for (int i = 0; i < rows; i++) {
+					x[i][j] *= scale;
+				}
+			}
+		}
+	}
+
+	/**
+	 * The Golub-Kahan SVD of an m x n array with m &ge; n.
+	 * 
+	 * @param a
+	 *            the array, destroyed
+	 * @param u
+	 *            receives the m x n left singular vectors
+	 * @param s
+	 *            receives the n singular values
+	 * @param v
+	 *            receives the n x n right singular vectors
+	 */
+	private static void decompose(double[][] a, int m, int n, double[][] u,
+			double[] s, double[][] v)
+	{
+		double[] e = new double[n];
+		double[] work = new double[m];
+
+		// reduce a to bidiagonal form, storing the diagonal in s and the
+		// super-diagonal in e
+		int nct = Math.min(m - 1, n);
+		int nrt = Math.max(0, Math.min(n - 2, m));
+		for (int k = 0; k < Math.max(nct, nrt); k++) {
+			if (k < nct) {
+				// the transformation for the k-th column
+				s[k] = 0;
+				for (int i = k; i < m; i++) {
+					s[k] = Math.hypot(s[k], a[i][k]);
+				}
+				if (s[k] != 0.0) {
+					if (a[k][k] < 0.0) {
+						s[k] = -s[k];
+					}
+					for (int i = k; i < m; i++) {
+						a[i][k] /= s[k];
+					}
+					a[k][k] += 1.0;
+				}
+				s[k] = -s[k];
+			}
+			for (int j = k + 1; j < n; j++) {
+				if (k < nct && s[k] != 0.0) {
+					double t = 0;
+					for (int i = k; i < m; i++) {
+						t += a[i][k] * a[i][j];
+					}
+					t = -t / a[k][k];
+					for (int i = k; i < m; i++) {
+						a[i][j] += t * a[i][k];
+					}
+				}
+				e[j] = a[k][j];
+			}
+			if (k < nct) {
+				for (int i = k; i < m; i++) {
+					u[i][k] = a[i][k];
+				}
+			}
+			if (k < nrt) {
+				// the transformation for the k-th row
+				e[k] = 0;
+				for (int i = k + 1; i < n; i++) {
+					e[k] = Math.hypot(e[k], e[i]);
+				}
+				if (e[k] != 0.0) {
+					if (e[k + 1] < 0.0) {
+						e[k] = -e[k];
+					}
+					for (int i = k + 1; i < n; i++) {
+						e[i] /= e[k];
+					}
+					e[k + 1] += 1.0;
+				}
+				e[k] = -e[k];
+				if (k + 1 < m && e[k] != 0.0) {
+					for (int i = k + 1; i < m; i++) {
+						work[i] = 0.0;
+					}
+					for (int j = k + 1; j < n; j++) {
+						for (int i = k + 1; i < m; i++) {
+							work[i] += e[j] * a[i][j];
+						}
+					}
+					for (int j = k + 1; j < n; j++) {
+						double t = -e[j] / e[k + 1];
+						for (int i = k + 1; i < m; i++) {
+							a[i][j] += t * work[i];
+						}
+					}
+				}
+				for (int i = k + 1; i < n; i++) {
+					v[i][k] = e[i];
+				}
+			}
+		}
+
+		// the final bidiagonal matrix of order p
+		int p = Math.min(n, m + 1);
+		if (nct < n) {
+			s[nct] = a[nct][nct];
+		}
+		if (m < p) {
+			s[p - 1] = 0.0;
+		}
+		if (nrt + 1 < p) {
+			e[nrt] = a[nrt][p - 1];
+		}
+		e[p - 1] = 0.0;
+
+		// generate u
+		for (int j = nct; j < n; j++) {
+			for (int i = 0; i < m; i++) {
+				u[i][j] = 0.0;
+			}
+			u[j][j] = 1.0;
+		}
+		for (int k = nct - 1; k >= 0; k--) {
+			if (s[k] != 0.0) {
+				for (int j = k + 1; j < n; j++) {
+					double t = 0;
+					for (int i = k; i < m; i++) {
+						t += u[i][k] * u[i][j];
+					}
+					t = -t / u[k][k];
+					for (int i = k; i < m; i++) {
+						u[i][j] += t * u[i][k];
+					}
+				}
+				for (int i = k; i < m; i++) {
+					u[i][k] = -u[i][k];
+				}
+				u[k][k] = 1.0 + u[k][k];
+				for (int i = 0; i < k; i++) {
+					u[i][k] = 0.0;
+				}
+			}
+			else {
+				for (int i = 0; i < m; i++) {
+					u[i][k] = 0.0;
+				}
+				u[k][k] = 1.0;
+			}
+		}
+
+		// generate v
+		for (int k = n - 1; k >= 0; k--) {
+			if (k < nrt && e[k] != 0.0) {
+				for (int j = k + 1; j < n; j++) {
+					double t = 0;
+					for (int i = k + 1; i < n; i++) {
+						t += v[i][k] * v[i][j];
+					}
+					t = -t / v[k + 1][k];
+					for (int i = k + 1; i < n; i++) {
+						v[i][j] += t * v[i][k];
+					}
+				}
+			}
+			for (int i = 0; i < n; i++) {
+				v[i][k] = 0.0;
+			}
+			v[k][k] = 1.0;
+		}
+
+		// the QR iteration for the singular values
+		int pp = p - 1;
+		int iter = 0;
+		double tiny = Math.pow(2.0, -966.0);
+		while (p > 0) {
+			int k, kase;
+			// inspect for negligible elements in s and e:
+			// kase = 1: s(p) and e[k-1] are negligible and k<p
+			// kase = 2: s(k) is negligible and k<p
+			// kase = 3: e[k-1] is negligible, k<p, and s(k), ..., s(p) are
+			// not negligible (QR step)
+			// kase = 4: e(p-1) is negligible (convergence)
+			for (k = p - 2; k >= 0; k--) {
+				if (Math.abs(e[k]) <= tiny + EPS
+						* (Math.abs(s[k]) + Math.abs(s[k + 1])))
+				{
+					e[k] = 0.0;
+					break;
+				}
+			}
+			if (k == p - 2) {
+				kase = 4;
+			}
+			else {
+				int ks;
+				for (ks = p - 1; ks > k; ks--) {
+					double t = (ks != p ? Math.abs(e[ks]) : 0.)
+							+ (ks != k + 1 ? Math.abs(e[ks - 1]) : 0.);
+					if (Math.abs(s[ks]) <= tiny + EPS * t) {
+						s[ks] = 0.0;
+						break;
+					}
+				}
+				if (ks == k) {
+					kase = 3;
+				}
+				else if (ks == p - 1) {
+					kase = 1;
+				}
+				else {
+					kase = 2;
+					k = ks;
+				}
+			}
+			k++;
+
+			switch (kase) {
+				case 1: {
+					// deflate negligible s(p)
+					double f = e[p - 2];
+					e[p - 2] = 0.0;
+					for (int j = p - 2; j >= k; j--) {
+						double t = Math.hypot(s[j], f);
+						double cs = s[j] / t;
+						double sn = f / t;
+						s[j] = t;
+						if (j != k) {
+							f = -sn * e[j - 1];
+							e[j - 1] = cs * e[j - 1];
+						}
+						for (int i = 0; i < n; i++) {
+							t = cs * v[i][j] + sn * v[i][p - 1];
+							v[i][p - 1] = -sn * v[i][j] + cs * v[i][p - 1];
+							v[i][j] = t;
+						}
+					}
+				}
+					break;
+				case 2: {
+					// split at negligible s(k)
+					double f = e[k - 1];
+					e[k - 1] = 0.0;
+					for (int j = k; j < p; j++) {
+						double t = Math.hypot(s[j], f);
+						double cs = s[j] / t;
+						double sn = f / t;
+						s[j] = t;
+						f = -sn * e[j];
+						e[j] = cs * e[j];
+						for (int i = 0; i < m; i++) {
+							t = cs * u[i][j] + sn * u[i][k - 1];
+							u[i][k - 1] = -sn * u[i][j] + cs * u[i][k - 1];
+							u[i][j] = t;
+						}
+					}
+				}
+					break;
+				case 3: {
+					// one QR step
+					if (++iter > 75) {
+						throw new InvalidOperationException(
+								"Singular value decomposition did not converge");
+					}
+					double scale = Math.max(Math.max(Math.max(Math.max(
+							Math.abs(s[p - 1]), Math.abs(s[p - 2])), Math
+							.abs(e[p - 2])), Math.abs(s[k])), Math.abs(e[k]));
+					double sp = s[p - 1] / scale;
+					double spm1 = s[p - 2] / scale;
+					double epm1 = e[p - 2] / scale;
+					double sk = s[k] / scale;
+					double ek = e[k] / scale;
+					double b = ((spm1 + sp) * (spm1 - sp) + epm1 * epm1) / 2.0;
+					double c = sp * epm1 * (sp * epm1);
+					double shift = 0.0;
+					if (b != 0.0 || c != 0.0) {
+						shift = Math.sqrt(b * b + c);
+						if (b < 0.0) {
+							shift = -shift;
+						}
+						shift = c / (b + shift);
+					}
+					double f = (sk + sp) * (sk - sp) + shift;
+					double g = sk * ek;
+
+					// chase zeros
+					for (int j = k; j < p - 1; j++) {
+						double t = Math.hypot(f, g);
+						double cs = f / t;
+						double sn = g / t;
+						if (j != k) {
+							e[j - 1] = t;
+						}
+						f = cs * s[j] + sn * e[j];
+						e[j] = cs * e[j] - sn * s[j];
+						g = sn * s[j + 1];
+						s[j + 1] = cs * s[j + 1];
+						for (int i = 0; i < n; i++) {
+							t = cs * v[i][j] + sn * v[i][j + 1];
+							v[i][j + 1] = -sn * v[i][j] + cs * v[i][j + 1];
+							v[i][j] = t;
+						}
+						t = Math.hypot(f, g);
+						cs = f / t;
+						sn = g / t;
+						s[j] = t;
+						f = cs * e[j] + sn * s[j + 1];
+						s[j + 1] = -sn * e[j] + cs * s[j + 1];
+						g = sn * e[j + 1];
+						e[j + 1] = cs * e[j + 1];
+						if (j < m - 1) {
+							for (int i = 0; i < m; i++) {
+								t = cs * u[i][j] + sn * u[i][j + 1];
+								u[i][j + 1] = -sn * u[i][j] + cs * u[i][j + 1];
+								u[i][j] = t;
+							}
+						}
+					}
+					e[p - 2] = f;
+				}
+					break;
+				default: {
+					// convergence: make the singular value positive
+					if (s[k] <= 0.0) {
+						s[k] = s[k] < 0.0 ? -s[k] : 0.0;
+						for (int i = 0; i <= pp; i++) {
+							v[i][k] = -v[i][k];
+						}
+					}
+					// and sort it into place
+					while (k < pp) {
+						if (s[k] >= s[k + 1]) {
+							break;
+						}
+						double t = s[k];
+						s[k] = s[k + 1];
+						s[k + 1] = t;
+						if (k < n - 1) {
+							for (int i = 0; i < n; i++) {
+								t = v[i][k + 1];
+								v[i][k + 1] = v[i][k];
+								v[i][k] = t;
+							}
+						}
+						if (k < m - 1) {
+							for (int i = 0; i < m; i++) {
+								t = u[i][k + 1];
+								u[i][k + 1] = u[i][k];
+								u[i][k] = t;
+							}
+						}
+						k++;
+					}
+					iter = 0;
+					p--;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return a matrix of DoubleWrappers with the entries of x.
+	 */
+	private static Matrix<DoubleWrapper> toMatrix(double[][] x, int rows,
+			int cols)
+	{
+		Matrix<DoubleWrapper> result = new Matrix<>(rows, cols,
+				DoubleWrapperFactory.INSTANCE);
+		DoubleWrapper[][] entries = result.getEntries();
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				entries[i][j] = DoubleWrapperFactory.INSTANCE.get(x[i][j]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the matrix U of left singular vectors.
+	 */
+	public Matrix<DoubleWrapper> getU()
+	{
+		return toMatrix(u, m, s.length);
+	}
+
+	/**
+	 * @return the matrix V of right singular vectors.
+	 */
+	public Matrix<DoubleWrapper> getV()
+	{
+		return toMatrix(v, n, s.length);
+	}
+
+	/**
+	 * @return the diagonal matrix S of singular values.
+	 */
+	public Matrix<DoubleWrapper> getS()
+	{
+		double[][] d = new double[s.length][s.length];
+		for (int i = 0; i < s.length; i++) {
+			d[i][i] = s[i];
+		}
+		return toMatrix(d, s.length, s.length);
+	}
+
+	/**
+	 * @return the singular values in descending order (a copy).
+	 */
+	public double[] getSingularValues()
+	{
+		return s.clone();
+	}
+
+	/**
+	 * @return the two-norm, the largest singular value.
+	 */
+	public double norm2()
+	{
+		return s.length == 0 ? 0 : s[0];
+	}
+
+	/**
+	 * @return the two-norm condition number, the ratio of the largest and the
+	 *         smallest singular value.
+	 */
+	public double cond()
+	{
+		return s[0] / s[Math.min(m, n) - 1];
+	}
+
+	/**
+	 * @return the default tolerance max(m, n) s<sub>max</sub> &epsilon; below
+	 *         which singular values are considered to be zero.
+	 */
+	public double getTolerance()
+	{
+		return Math.max(m, n) * norm2() * EPS;
+	}
+
+	/**
+	 * @return the numerical rank with the default tolerance.
+	 * @see #getTolerance()
+	 */
+	public int rank()
+	{
+		return rank(getTolerance());
+	}
+
+	/**
+	 * @param tolerance
+	 *            the value below which a singular value is considered to be
+	 *            zero
+	 * @return the number of singular values greater than the tolerance.
+	 */
+	public int rank(double tolerance)
+	{
+		int r = 0;
+		for (double d : s) {
+			if (d > tolerance) {
+				r++;
+			}
+		}
+		return r;
+	}
+
+	/**
+	 * @return the Moore-Penrose pseudo-inverse with the default tolerance.
+	 * @see #getTolerance()
+	 */
+	public Matrix<DoubleWrapper> pseudoInverse()
+	{
+		return pseudoInverse(getTolerance());
+	}
+
+	/**
+	 * @param tolerance
+	 *            the value below which a singular value is considered to be
+	 *            zero
+	 * @return the n x m Moore-Penrose pseudo-inverse V S<sup>+</sup>
+	 *         U<sup>T</sup>.
+	 */
+	public Matrix<DoubleWrapper> pseudoInverse(double tolerance)
+	{
+		double[][] x = new double[n][m];
+		for (int k = 0; k < s.length; k++) {
+			if (s[k] <= tolerance) {
+				continue;
+			}
+			double inv = 1 / s[k];
+			for (int i = 0; i < n; i++) {
+				double vik = v[i][k] * inv;
+				if (vik == 0.0) {
+					continue;
+				}
+				for (int j = 0; j < m; j++) {
+					x[i][j] += vik * u[j][k];
+				}
+			}
+		}
+		return toMatrix(x, n, m);
+	}
+}
@@ -0,0 +1,302 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+/**
+ * Closed-form kernels for matrices with at most {@link #MAX_SIZE} rows and
+ * columns: determinants by cofactor expansion, inverses as adjugate divided by
+ * the determinant, and products with unrolled inner products. These only use
+ * additions, subtractions and multiplications (and, for the inverse, one
+ * inversion of the determinant), and hence work for all ring elements. They
+ * are selected automatically by {@link Matrix} and
+ * {@link MatrixMultiplication}.
+ */
+final class SmallMatrixKernels
+{
+	/**
+	 * the largest dimension handled by the kernels.
+	 */
+	static final int MAX_SIZE = 4;
+
+	/**
+	 * no instances.
+	 */
+	private SmallMatrixKernels()
+	{
+	}
+
+	/**
+	 * @param rows
+	 * @param cols
+	 * @return true if a matrix of this size is handled by the kernels.
+	 */
+	static boolean isSmall(int rows, int cols)
+	{
+		return rows <= MAX_SIZE && cols <= MAX_SIZE;
+	}
+
+	/**
+	 * @return a*d - b*c
+	 */
+	private static <RE extends IRingElement<RE>> RE cross(RE a, RE d, RE b,
+			RE c)
+	{
+		return a.multiply(d).subtract(b.multiply(c));
+	}
+
+	/**
+	 * The inner product of a row of a and a column of b.
+	 * 
+	 * @param a
+	 *            the row
+	 * @param b
+	 *            the matrix containing the column
+	 * @param j
+	 *            the index of the column (starting at 0)
+	 * @param n
+	 *            the length of the inner product (1 to {@link #MAX_SIZE})
+	 */
+	private static <RE extends IRingElement<RE>> RE dot(RE[] a, RE[][] b,
+			int j, int n)
+	{
+		switch (n) {
+			case 1:
+				return a[0].multiply(b[0][j]);
+			case 2:
+				return a[0].multiply(b[0][j]).add(a[1].multiply(b[1][j]));
+			case 3:
+				return a[0].multiply(b[0][j]).add(a[1].multiply(b[1][j]))
+						.add(a[2].multiply(b[2][j]));
+			default:
+				return a[0].multiply(b[0][j]).add(a[1].multiply(b[1][j]))
+						.add(a[2].multiply(b[2][j]))
+						.add(a[3].multiply(b[3][j]));
+		}
+	}
+
+	/**
+	 * The inner product of two arrays.
+	 * 
+	 * @param n
+	 *            the length of the inner product (1 to {@link #MAX_SIZE})
+	 */
+	private static <RE extends IRingElement<RE>> RE dot(RE[] a, RE[] x, int n)
+	{
+		switch (n) {
+			case 1:
+				return a[0].multiply(x[0]);
+			case 2:
+				return a[0].multiply(x[0]).add(a[1].multiply(x[1]));
+			case 3:
+				return a[0].multiply(x[0]).add(a[1].multiply(x[1]))
+						.add(a[2].multiply(x[2]));
+			default:
+				return a[0].multiply(x[0]).add(a[1].multiply(x[1]))
+						.add(a[2].multiply(x[2])).add(a[3].multiply(x[3]));
+		}
+	}
+
+	/**
+	 * The product of two small matrices. All dimensions must be between 1 and
+	 * {@link #MAX_SIZE}.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @return m1 multiplied by m2
+	 */
+	static <RE extends IRingElement<RE>> Matrix<RE> multiply(Matrix<RE> m1,
+			Matrix<RE> m2)
+	{
+		int rows = m1.getRows(), inner = m1.getCols(), cols = m2.getCols();
+		RE[][] a = m1.getEntries(), b = m2.getEntries();
+		RE[][] c = m1.getFactory().getArray(rows, cols);
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				c[i][j] = dot(a[i], b, j, inner);
+			}
+		}
+		return new Matrix<>(c, rows, cols, m1.getFactory());
+	}
+
+	/**
+	 * The product of a small matrix and a vector. The dimensions of the
+	 * matrix must be between 1 and {@link #MAX_SIZE}.
+	 * 
+	 * @param m
+	 * @param v
+	 * @return m multiplied by v
+	 */
+	static <RE extends IRingElement<RE>> Vector<RE> multiply(Matrix<RE> m,
+			Vector<RE> v)
+	{
+		int rows = m.getRows(), cols = m.getCols();
+		RE[][] a = m.getEntries();
+		RE[] x = v.entries;
+		RE[] y = m.getFactory().getArray(rows);
+		for (int i = 0; i < rows; i++) {
+			y[i] = dot(a[i], x, cols);
+		}
+		return new Vector<>(y, m.getFactory());
+	}
+
+	/**
+	 * The determinant of a square matrix by cofactor expansion.
+	 * 
+	 * @param m
+	 *            a square matrix with 1 to {@link #MAX_SIZE} rows.
+	 * @return the determinant
+	 */
+	static <RE extends IRingElement<RE>> RE det(Matrix<RE> m)
+	{
+		RE[][] a = m.getEntries();
+		switch (m.getRows()) {
+			case 1:
+				return a[0][0];
+			case 2:
+				return cross(a[0][0], a[1][1], a[0][1], a[1][0]);
+			case 3:
+				return a[0][0].multiply(
+						cross(a[1][1], a[2][2], a[1][2], a[2][1])).add(
+						a[0][1].multiply(cross(a[1][2], a[2][0], a[1][0],
+								a[2][2]))).add(
+						a[0][2].multiply(cross(a[1][0], a[2][1], a[1][1],
+								a[2][0])));
+			default:
+				// expansion along the 2x2 minors of the upper and lower rows
+				RE s0 = cross(a[0][0], a[1][1], a[1][0], a[0][1]);
+				RE s1 = cross(a[0][0], a[1][2], a[1][0], a[0][2]);
+				RE s2 = cross(a[0][0], a[1][3], a[1][0], a[0][3]);
+				RE s3 = cross(a[0][1], a[1][2], a[1][1], a[0][2]);
+				RE s4 = cross(a[0][1], a[1][3], a[1][1], a[0][3]);
+				RE s5 = cross(a[0][2], a[1][3], a[1][2], a[0][3]);
+				RE c5 = cross(a[2][2], a[3][3], a[3][2], a[2][3]);
+				RE c4 = cross(a[2][1], a[3][3], a[3][1], a[2][3]);
+				RE c3 = cross(a[2][1], a[3][2], a[3][1], a[2][2]);
+				RE c2 = cross(a[2][0], a[3][3], a[3][0], a[2][3]);
+				RE c1 = cross(a[2][0], a[3][2], a[3][0], a[2][2]);
+				RE c0 = cross(a[2][0], a[3][1], a[3][0], a[2][1]);
+				return s0.multiply(c5).subtract(s1.multiply(c4))
+						.add(s2.multiply(c3)).add(s3.multiply(c2))
+						.subtract(s4.multiply(c1)).add(s5.multiply(c0));
+		}
+	}
+
+	/**
+	 * The inverse of a square matrix as its adjugate divided by its
+	 * determinant.
+	 * 
+	 * @param m
+	 *            a square matrix with 1 to {@link #MAX_SIZE} rows.
+	 * @return the inverse
+	 * @throws InvalidOperationException
+	 *             if the determinant is zero.
+	 */
+	static <RE extends IRingElement<RE>> Matrix<RE> inverse(Matrix<RE> m)
+			throws InvalidOperationException
+	{
+		int n = m.getRows();
+		RE[][] a = m.getEntries();
+		RE[][] r = m.getFactory().getArray(n, n);
+		RE det;
+		switch (n) {
+			case 1:
+				det = a[0][0];
+				r[0][0] = m.getFactory().one();
+				break;
+			case 2:
+				det = cross(a[0][0], a[1][1], a[0][1], a[1][0]);
+				r[0][0] = a[1][1];
+				r[0][1] = a[0][1].negate();
+				r[1][0] = a[1][0].negate();
+				r[1][1] = a[0][0];
+				break;
+			case 3:
+				r[0][0] = cross(a[1][1], a[2][2], a[1][2], a[2][1]);
+				r[0][1] = cross(a[0][2], a[2][1], a[0][1], a[2][2]);
+				r[0][2] = cross(a[0][1], a[1][2], a[0][2], a[1][1]);
+				r[1][0] = cross(a[1][2], a[2][0], a[1][0], a[2][2]);
+				r[1][1] = cross(a[0][0], a[2][2], a[0][2], a[2][0]);
+				r[1][2] = cross(a[0][2], a[1][0], a[0][0], a[1][2]);
+				r[2][0] = cross(a[1][0], a[2][1], a[1][1], a[2][0]);
+				r[2][1] = cross(a[0][1], a[2][0], a[0][0], a[2][1]);
+				r[2][2] = cross(a[0][0], a[1][1], a[0][1], a[1][0]);
+				det = a[0][0].multiply(r[0][0]).add(a[0][1].multiply(r[1][0]))
+						.add(a[0][2].multiply(r[2][0]));
+				break;
+			default:
+				RE s0 = cross(a[0][0], a[1][1], a[1][0], a[0][1]);
+				RE s1 = cross(a[0][0], a[1][2], a[1][0], a[0][2]);
+				RE s2 = cross(a[0][0], a[1][3], a[1][0], a[0][3]);
+				RE s3 = cross(a[0][1], a[1][2], a[1][1], a[0][2]);
+				RE s4 = cross(a[0][1], a[1][3], a[1][1], a[0][3]);
+				RE s5 = cross(a[0][2], a[1][3], a[1][2], a[0][3]);
+				RE c5 = cross(a[2][2], a[3][3], a[3][2], a[2][3]);
+				RE c4 = cross(a[2][1], a[3][3], a[3][1], a[2][3]);
+				RE c3 = cross(a[2][1], a[3][2], a[3][1], a[2][2]);
+				RE c2 = cross(a[2][0], a[3][3], a[3][0], a[2][3]);
+				RE c1 = cross(a[2][0], a[3][2], a[3][0], a[2][2]);
+				RE c0 = cross(a[2][0], a[3][1], a[3][0], a[2][1]);
+				det = s0.multiply(c5).subtract(s1.multiply(c4))
+						.add(s2.multiply(c3)).add(s3.multiply(c2))
+						.subtract(s4.multiply(c1)).add(s5.multiply(c0));
+				r[0][0] = a[1][1].multiply(c5).subtract(a[1][2].multiply(c4))
+						.add(a[1][3].multiply(c3));
+				r[0][1] = a[0][2].multiply(c4).subtract(a[0][1].multiply(c5))
+						.subtract(a[0][3].multiply(c3));
+				r[0][2] = a[3][1].multiply(s5).subtract(a[3][2].multiply(s4))
+						.add(a[3][3].multiply(s3));
+				r[0][3] = a[2][2].multiply(s4).subtract(a[2][1].multiply(s5))
+						.subtract(a[2][3].multiply(s3));
+				r[1][0] = a[1][2].multiply(c2).subtract(a[1][0].multiply(c5))
+						.subtract(a[1][3].multiply(c1));
+				r[1][1] = a[0][0].multiply(c5).subtract(a[0][2].multiply(c2))
+						.add(a[0][3].multiply(c1));
+				r[1][2] = a[3][2].multiply(s2).subtract(a[3][0].multiply(s5))
+						.subtract(a[3][3].multiply(s1));
+				r[1][3] = a[2][0].multiply(s5).subtract(a[2][2].multiply(s2))
+						.add(a[2][3].multiply(s1));
+				r[2][0] = a[1][0].multiply(c4).subtract(a[1][1].multiply(c2))
+						.add(a[1][3].multiply(c0));
+				r[2][1] = a[0][1].multiply(c2).subtract(a[0][0].multiply(c4))
+						.subtract(a[0][3].multiply(c0));
+				r[2][2] = a[3][0].multiply(s4).subtract(a[3][1].multiply(s2))
+						.add(a[3][3].multiply(s0));
+				r[2][3] = a[2][1].multiply(s2).subtract(a[2][0].multiply(s4))
+						.subtract(a[2][3].multiply(s0));
+				r[3][0] = a[1][1].multiply(c1).subtract(a[1][0].multiply(c3))
+						.subtract(a[1][2].multiply(c0));
+				r[3][1] = a[0][0].multiply(c3).subtract(a[0][1].multiply(c1))
+						.add(a[0][2].multiply(c0));
+				r[3][2] = a[3][1].multiply(s1).subtract(a[3][0].multiply(s3))
+						.subtract(a[3][2].multiply(s0));
+				r[3][3] = a[2][0].multiply(s3).subtract(a[2][1].multiply(s1))
+						.add(a[2][2].multiply(s0));
+				break;
+		}
+		if (det.isZero()) {
+			throw new InvalidOperationException("The matrix \n" + m
+					+ "\ncannot be inverted.");
+		}
+		RE inv = det.invert();
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				r[i][j] = r[i][j].multiply(inv);
+			}
+		}
+		return new Matrix<>(r, n, n, m.getFactory());
+	}
+}
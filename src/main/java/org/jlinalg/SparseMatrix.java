@@ -0,0 +1,304 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A sparse matrix in compressed row storage: the non-zero entries of row i
+ * (starting at 0) are <code>values[rowStart[i]] ... values[rowStart[i+1]-1]</code>,
+ * in the columns <code>columns[rowStart[i]] ... </code>, sorted by column. As
+ * for {@link Matrix}, {@link #get(int, int)} and
+ * {@link #fromTriplets(int, int, int[], int[], IRingElement[], IRingElementFactory)}
+ * count rows and columns from 1.
+ * <p>
+ * Products with vectors touch only the stored entries; the rows of
+ * {@link #apply(Vector)} are computed in parallel if the default
+ * {@link ExecutionPolicy} is parallel.
+ * 
+ * @param <RE>
+ *            the type of the elements.
+ */
+public class SparseMatrix<RE extends IRingElement<RE>>
+		implements
+		BlackBox<RE>,
+		Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * the number of rows
+	 */
+	private final int rows;
+
+	/**
+	 * the number of columns
+	 */
+	private final int cols;
+
+	/**
+	 * the start of each row in {@link #columns} and {@link #values}, with an
+	 * additional entry for the end of the last row
+	 */
+	private final int[] rowStart;
+
+	/**
+	 * the column (starting at 0) of each stored entry
+	 */
+	private final int[] columns;
+
+	/**
+	 * the stored entries
+	 */
+	private final RE[] values;
+
+	/**
+	 * the factory of the elements
+	 */
+	private final IRingElementFactory<RE> factory;
+
+	/**
+	 * @param rows
+	 * @param cols
+	 * @param rowStart
+	 * @param columns
+	 * @param values
+	 * @param factory
+	 */
+	private SparseMatrix(int rows, int cols, int[] rowStart, int[] columns,
+			RE[] values, IRingElementFactory<RE> factory)
+	{
+		this.rows = rows;
+		this.cols = cols;
+		this.rowStart = rowStart;
+		this.columns = columns;
+		this.values = values;
+		this.factory = factory;
+	}
+
+	/**
+	 * Create a sparse matrix from the non-zero entries of a dense one.
+	 * 
+	 * @param <RE>
+	 *            the type of the elements.
+	 * @param matrix
+	 *            the matrix
+	 * @return the sparse matrix
+	 */
+	public static <RE extends IRingElement<RE>> SparseMatrix<RE> fromMatrix(
+			Matrix<RE> matrix)
+	{
+		int rows = matrix.getRows(), cols = matrix.getCols();
+		RE[][] entries = matrix.getEntries();
+		int nnz = 0;
+		for (RE[] row : entries) {
+			for (RE e : row) {
+				if (!e.isZero()) {
+					nnz++;
+				}
+			}
+		}
+		int[] rowStart = new int[rows + 1];
+		int[] columns = new int[nnz];
+		RE[] values = matrix.getFactory().getArray(nnz);
+		int k = 0;
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				if (!entries[i][j].isZero()) {
+					columns[k] = j;
+					values[k++] = entries[i][j];
+				}
+			}
+			rowStart[i + 1] = k;
+		}
+		return new SparseMatrix<>(rows, cols, rowStart, columns, values,
+				matrix.getFactory());
+	}
+
+	/**
+	 * Create a sparse matrix from (row, column, value) triplets. Values for
+	 * the same position are added.
+	 * 
+	 * @param <RE>
+	 *            the type of the elements.
+	 * @param rows
+	 * @param cols
+	 * @param rowIndices
+	 *            the rows (starting at 1)
+	 * @param colIndices
+	 *            the columns (starting at 1)
+	 * @param values
+	 *            the values
+	 * @param factory
+	 *            the factory of the elements
+	 * @return the sparse matrix
+	 * @throws InvalidOperationException
+	 *             if the arrays have different lengths or an index is out of
+	 *             range.
+	 */
+	public static <RE extends IRingElement<RE>> SparseMatrix<RE> fromTriplets(
+			int rows, int cols, int[] rowIndices, int[] colIndices,
+			RE[] values, IRingElementFactory<RE> factory)
+			throws InvalidOperationException
+	{
+		int n = values.length;
+		if (rowIndices.length != n || colIndices.length != n) {
+			throw new InvalidOperationException(
+					"Triplet arrays of different lengths");
+		}
+		Integer[] order = new Integer[n];
+		for (int k = 0; k < n; k++) {
+			if (rowIndices[k] < 1 || rowIndices[k] > rows || colIndices[k] < 1
+					|| colIndices[k] > cols)
+			{
+				throw new InvalidOperationException("Index (" + rowIndices[k]
+						+ "," + colIndices[k] + ") out of range");
+			}
+			order[k] = k;
+		}
+		Arrays.sort(order, (a, b) -> rowIndices[a] != rowIndices[b]
+				? rowIndices[a] - rowIndices[b]
+				: colIndices[a] - colIndices[b]);
+
+		int[] rowStart = new int[rows + 1];
+		int[] columns = new int[n];
+		RE[] vals = factory.getArray(n);
+		int nnz = 0;
+		for (int k = 0; k < n; k++) {
+			int idx = order[k];
+			int r = rowIndices[idx] - 1, c = colIndices[idx] - 1;
+			if (nnz > 0 && k > 0 && rowIndices[order[k - 1]] - 1 == r
+					&& columns[nnz - 1] == c)
+			{
+				vals[nnz - 1] = vals[nnz - 1].add(values[idx]);
+			}
+			else {
+				columns[nnz] = c;
+				vals[nnz++] = values[idx];
+				rowStart[r + 1] = nnz;
+			}
+		}
+		// rows without entries end where the previous row ends
+		for (int i = 1; i <= rows; i++) {
+			rowStart[i] = Math.max(rowStart[i], rowStart[i - 1]);
+		}
+		return new SparseMatrix<>(rows, cols, rowStart, Arrays.copyOf(columns,
+				nnz), Arrays.copyOf(vals, nnz), factory);
+	}
+
+	@Override
+	public int getRows()
+	{
+		return rows;
+	}
+
+	@Override
+	public int getCols()
+	{
+		return cols;
+	}
+
+	@Override
+	public IRingElementFactory<RE> getFactory()
+	{
+		return factory;
+	}
+
+	/**
+	 * @return the number of stored entries.
+	 */
+	public int getNonZeros()
+	{
+		return values.length;
+	}
+
+	/**
+	 * @param row
+	 *            the row (starting at 1)
+	 * @param col
+	 *            the column (starting at 1)
+	 * @return the entry at (row, col).
+	 */
+	public RE get(int row, int col)
+	{
+		int k = Arrays.binarySearch(columns, rowStart[row - 1],
+				rowStart[row], col - 1);
+		return k < 0 ? factory.zero() : values[k];
+	}
+
+	/**
+	 * @return a dense copy of this matrix.
+	 */
+	public Matrix<RE> toMatrix()
+	{
+		RE[][] entries = factory.getArray(rows, cols);
+		RE zero = factory.zero();
+		for (int i = 0; i < rows; i++) {
+			Arrays.fill(entries[i], zero);
+			for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+				entries[i][columns[k]] = values[k];
+			}
+		}
+		return new Matrix<>(entries, rows, cols, factory);
+	}
+
+	@Override
+	public Vector<RE> apply(Vector<RE> x)
+	{
+		if (x.length() != cols) {
+			throw new InvalidOperationException("Tried to multiply a " + rows
+					+ "x" + cols + " matrix and a vector of length "
+					+ x.length());
+		}
+		RE[] xe = x.entries;
+		Vector<RE> result = new Vector<>(rows, factory);
+		RE[] y = result.entries;
+		RE zero = factory.zero();
+		ExecutionPolicy.getDefault().forEachRow(rows,
+				Math.max(1, values.length / Math.max(1, rows)), row -> {
+					int i = row - 1;
+					RE s = zero;
+					for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+						s = s.add(values[k].multiply(xe[columns[k]]));
+					}
+					y[i] = s;
+				});
+		return result;
+	}
+
+	@Override
+	public Vector<RE> applyTranspose(Vector<RE> y)
+	{
+		if (y.length() != rows) {
+			throw new InvalidOperationException("Tried to multiply a vector "
+					+ "of length " + y.length() + " and a " + rows + "x"
+					+ cols + " matrix");
+		}
+		RE[] ye = y.entries;
+		Vector<RE> result = new Vector<>(cols, factory);
+		RE[] x = result.entries;
+		Arrays.fill(x, factory.zero());
+		for (int i = 0; i < rows; i++) {
+			if (ye[i].isZero()) continue;
+			for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+				x[columns[k]] = x[columns[k]].add(values[k].multiply(ye[i]));
+			}
+		}
+		return result;
+	}
+}
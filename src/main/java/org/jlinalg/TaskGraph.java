@@ -0,0 +1,189 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A set of tasks with dependencies between them (a directed acyclic graph).
+ * Once all tasks a task depends on are finished, it is scheduled in the
+ * {@link ForkJoinPool} of an {@link ExecutionPolicy}, so that independent
+ * tasks run concurrently without global synchronisation points. Tasks have to
+ * be added after the tasks they depend on, hence the order in which they are
+ * added is a valid sequential order, which is used by
+ * {@link ExecutionPolicy#SEQUENTIAL}.
+ */
+final class TaskGraph
+{
+	/**
+	 * A task in the graph.
+	 */
+	static final class Node
+	{
+		/**
+		 * the work of this task
+		 */
+		final Runnable action;
+
+		/**
+		 * the tasks depending on this task
+		 */
+		final List<Node> successors = new ArrayList<>(4);
+
+		/**
+		 * the number of tasks this task depends on
+		 */
+		int dependencies;
+
+		/**
+		 * the number of unfinished tasks this task depends on, during
+		 * execution
+		 */
+		AtomicInteger pending;
+
+		Node(Runnable action)
+		{
+			this.action = action;
+		}
+	}
+
+	/**
+	 * all tasks in the order they were added
+	 */
+	private final List<Node> nodes = new ArrayList<>();
+
+	/**
+	 * Add a task.
+	 * 
+	 * @param action
+	 *            the work of the task
+	 * @param dependsOn
+	 *            the tasks which have to be finished before this one starts
+	 *            (null entries are ignored).
+	 * @return the new task
+	 */
+	Node add(Runnable action, Node... dependsOn)
+	{
+		Node node = new Node(action);
+		for (Node d : dependsOn) {
+			dependOn(node, d);
+		}
+		nodes.add(node);
+		return node;
+	}
+
+	/**
+	 * Let <code>node</code> depend on <code>other</code>, which has to be
+	 * added before.
+	 */
+	void dependOn(Node node, Node other)
+	{
+		if (other == null) return;
+		other.successors.add(node);
+		node.dependencies++;
+	}
+
+	/**
+	 * @return the number of tasks
+	 */
+	int size()
+	{
+		return nodes.size();
+	}
+
+	/**
+	 * Execute all tasks and wait for them to finish. An exception thrown by a
+	 * task is re-thrown; tasks not yet started are then skipped.
+	 * 
+	 * @param policy
+	 *            determines whether the tasks are executed in parallel
+	 */
+	void execute(ExecutionPolicy policy)
+	{
+		ForkJoinPool pool = policy.getPool();
+		if (pool == null || nodes.size() < 2) {
+			for (Node node : nodes) {
+				node.action.run();
+			}
+			return;
+		}
+		for (Node node : nodes) {
+			node.pending = new AtomicInteger(node.dependencies);
+		}
+		pool.invoke(new Root());
+	}
+
+	/**
+	 * Completes once all tasks are finished.
+	 */
+	private final class Root
+			extends
+			CountedCompleter<Void>
+	{
+		private static final long serialVersionUID = 1L;
+
+		Root()
+		{
+			super(null, nodes.size());
+		}
+
+		@Override
+		public void compute()
+		{
+			for (Node node : nodes) {
+				if (node.dependencies == 0) {
+					new Step(this, node).fork();
+				}
+			}
+			tryComplete();
+		}
+	}
+
+	/**
+	 * Executes a task and schedules the successors which become ready.
+	 */
+	private static final class Step
+			extends
+			CountedCompleter<Void>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Node node;
+
+		Step(CountedCompleter<?> root, Node node)
+		{
+			super(root);
+			this.node = node;
+		}
+
+		@Override
+		public void compute()
+		{
+			node.action.run();
+			for (Node successor : node.successors) {
+				if (successor.pending.decrementAndGet() == 0) {
+					new Step(getCompleter(), successor).fork();
+				}
+			}
+			tryComplete();
+		}
+	}
+}
@@ -18,12 +18,12 @@ package org.jlinalg;
 
 import java.io.Serializable;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Spliterator;
 
 import org.jlinalg.operator.DyadicOperator;
 import org.jlinalg.operator.FEComparator;
-import org.jlinalg.operator.MaxReduction;
-import org.jlinalg.operator.MinReduction;
 import org.jlinalg.operator.MonadicOperator;
 import org.jlinalg.operator.Reduction;
 
@@ -511,10 +511,10 @@ public class Vector<RE extends IRingElement<RE>>
 
 		check_lengths(anotherVector, "multiply");
 
+		RE[] other = anotherVector.entries;
 		RE result = getElementFactory().zero();
-		for (int i = 1; i <= entries.length; i++) {
-			result = result
-					.add(entries[i - 1].multiply(anotherVector.getEntry(i)));
+		for (int i = 0; i < entries.length; i++) {
+			result = result.add(entries[i].multiply(other[i]));
 		}
 
 		return result;
@@ -662,7 +662,28 @@ public class Vector<RE extends IRingElement<RE>>
 	 */
 	public RE apply(Reduction<RE> fun)
 	{
-		return fun.apply(this);
+		return apply(fun, ExecutionPolicy.getDefault());
+	}
+
+	/**
+	 * Returns the result of reducing this Vector.
+	 * 
+	 * @param fun
+	 *            the function to apply
+	 * @param policy
+	 *            determines whether parts of the vector are reduced in
+	 *            parallel.
+	 * @return result of applying <tt>fun</tt> to this Vector
+	 */
+	public RE apply(Reduction<RE> fun, ExecutionPolicy policy)
+	{
+		if (entries.length == 0) {
+			RE identity = fun.identity(factory);
+			if (identity != null) {
+				return identity;
+			}
+		}
+		return fun.apply(this, policy);
 	}
 
 	/**
@@ -947,7 +968,7 @@ public class Vector<RE extends IRingElement<RE>>
 	 */
 	public RE min()
 	{
-		return apply(new MinReduction<RE>());
+		return apply(getElementFactory().getMinOperator());
 	}
 
 	/**
@@ -957,7 +978,7 @@ public class Vector<RE extends IRingElement<RE>>
 	 */
 	public RE max()
 	{
-		return apply(new MaxReduction<RE>());
+		return apply(getElementFactory().getMaxOperator());
 	}
 
 	/**
@@ -1065,13 +1086,21 @@ public class Vector<RE extends IRingElement<RE>>
 							+ "Inner dimensions do not match!");
 		}
 
+		// the rows of the matrix are added up, each scaled by the
+		// corresponding entry of this vector, so that every entry is read
+		// once and in the order of its storage
+		RE[][] a = theMatrix.getEntries();
 		Vector<RE> result = new Vector<>(theMatrix.getCols(),
 				theMatrix.getFactory());
-
-		for (int i = 1; i <= theMatrix.getCols(); ++i) {
-			result.set(i, this.multiply(theMatrix.getCol(i)));
+		RE[] sum = result.entries;
+		Arrays.fill(sum, theMatrix.getFactory().zero());
+		for (int i = 0; i < entries.length; i++) {
+			RE xi = entries[i];
+			RE[] row = a[i];
+			for (int j = 0; j < sum.length; j++) {
+				sum[j] = sum[j].add(xi.multiply(row[j]));
+			}
 		}
-
 		return result;
 	}
 
@@ -1403,6 +1432,15 @@ public class Vector<RE extends IRingElement<RE>>
 		};
 	}
 
+	/**
+	 * A spliterator over the elements in this vector.
+	 */
+	@Override
+	public Spliterator<RE> spliterator()
+	{
+		return Arrays.spliterator(entries);
+	}
+
 	public IRingElementFactory<RE> getElementFactory()
 	{
 		return factory;
@@ -0,0 +1,585 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import java.math.BigInteger;
+
+import org.jlinalg.f2.F2;
+import org.jlinalg.field_p.FieldPAbstractFactory;
+import org.jlinalg.polynomial.Polynomial;
+import org.jlinalg.polynomial.PolynomialFactoryMap;
+
+/**
+ * Wiedemann's algorithm for linear algebra with a {@link BlackBox} over a
+ * finite field (for instance a {@link SparseMatrix} of
+ * {@link org.jlinalg.field_p.FieldPLong} or {@link org.jlinalg.f2.F2}). Only
+ * products of the matrix with vectors are needed, so that no fill-in occurs
+ * and the memory used is a few vectors.
+ * <p>
+ * The minimal polynomial of a vector v with respect to A is found from the
+ * scalar sequences u<sup>T</sup> A<sup>i</sup> v for a block of random
+ * projections u by {@link BerlekampMassey}: the projections of one Krylov
+ * vector A<sup>i</sup> v are computed together (in parallel if the default
+ * {@link ExecutionPolicy} is parallel), and the least common multiple of
+ * their minimal polynomials is taken. The result is checked by evaluating
+ * it at A; if it does not annihilate v, the remainder is treated the same
+ * way. The minimal polynomials of vectors are therefore exact, while
+ * {@link #minimalPolynomial()} and {@link #rank()} are correct with high
+ * probability. For {@link #rank()}, the random values are drawn from an
+ * extension of the field if it is small compared to the dimension (as
+ * {@link org.jlinalg.f2.F2} always is), as otherwise the probability of a
+ * correct result would be low.
+ * <p>
+ * The generation of a sequence stops early once the recurrence has not
+ * changed for {@link #EARLY_TERMINATION} terms, so that vectors with a
+ * minimal polynomial of low degree are cheap.
+ * 
+ * @param <RE>
+ *            the type of the elements, which must form a field.
+ */
+public class WiedemannSolver<RE extends IRingElement<RE>>
+{
+	/**
+	 * the number of terms confirming a recurrence before the generation of a
+	 * sequence stops.
+	 */
+	public static final int EARLY_TERMINATION = 20;
+
+	/**
+	 * the default number of random projections of each sequence.
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 4;
+
+	/**
+	 * the maximal number of attempts to find a non-zero projection.
+	 */
+	private static final int MAX_ATTEMPTS = 100;
+
+	/**
+	 * {@link #rank()} draws its random values from a field with at least this
+	 * number times n<sup>2</sup> elements for an n x n matrix.
+	 */
+	private static final int RANK_FIELD_FACTOR = 1000;
+
+	/**
+	 * the matrix
+	 */
+	private final BlackBox<RE> a;
+
+	/**
+	 * the factory of the elements
+	 */
+	private final IRingElementFactory<RE> factory;
+
+	/**
+	 * the number of random projections of each sequence
+	 */
+	private final int blockSize;
+
+	/**
+	 * the number of random vectors tried by {@link #kernelVector()}
+	 */
+	private int attempts = 1;
+
+	/**
+	 * @param a
+	 *            the matrix
+	 */
+	public WiedemannSolver(BlackBox<RE> a)
+	{
+		this(a, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * @param a
+	 *            the matrix
+	 * @param blockSize
+	 *            the number of random projections of each sequence
+	 * @throws InvalidOperationException
+	 *             if the block size is not positive.
+	 */
+	public WiedemannSolver(BlackBox<RE> a, int blockSize)
+			throws InvalidOperationException
+	{
+		if (blockSize < 1) {
+			throw new InvalidOperationException("illegal block size "
+					+ blockSize);
+		}
+		this.a = a;
+		this.factory = a.getFactory();
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * @return the number of random vectors tried by {@link #kernelVector()}.
+	 */
+	public int getAttempts()
+	{
+		return attempts;
+	}
+
+	/**
+	 * A random vector reveals a kernel vector unless its component in the
+	 * generalised null space of A vanishes, which happens with probability
+	 * at most 1/q for a field with q elements. For small fields like
+	 * {@link org.jlinalg.f2.F2}, several vectors should hence be tried.
+	 * 
+	 * @param attempts
+	 *            the number of random vectors tried by
+	 *            {@link #kernelVector()} (1 by default).
+	 * @throws InvalidOperationException
+	 *             if attempts is not positive.
+	 */
+	public void setAttempts(int attempts) throws InvalidOperationException
+	{
+		if (attempts < 1) {
+			throw new InvalidOperationException("illegal number of attempts "
+					+ attempts);
+		}
+		this.attempts = attempts;
+	}
+
+	/**
+	 * Solve A x = b for a square matrix A.
+	 * 
+	 * @param b
+	 *            the right hand side
+	 * @return a solution x
+	 * @throws InvalidOperationException
+	 *             if A is not square, the length of b does not match, or no
+	 *             solution lies in the Krylov space of b, which is always the
+	 *             case if A is non-singular and may happen if A is singular.
+	 */
+	public Vector<RE> solve(Vector<RE> b) throws InvalidOperationException
+	{
+		checkSquare();
+		if (b.length() != a.getRows()) {
+			throw new InvalidOperationException("Tried to solve a system with "
+					+ a.getRows() + " rows for a vector of length "
+					+ b.length());
+		}
+		Polynomial<RE> f = minimalPolynomial(a, b);
+		RE f0 = f.getCoefficinet(0);
+		if (f0.isZero()) {
+			throw new InvalidOperationException(
+					"The system has no solution in the Krylov space of the "
+							+ "right hand side (the matrix is singular)");
+		}
+		// b = -1/f0 (f1 A + f2 A^2 + ...) b, hence x = -1/f0 h(A) b with
+		// h(x) = (f(x) - f0) / x
+		int degree = f.getDegree();
+		RE[] h = factory.getArray(degree);
+		RE scale = f0.invert().negate();
+		for (int i = 1; i <= degree; i++) {
+			h[i - 1] = f.getCoefficinet(i).multiply(scale);
+		}
+		return evaluate(a, h, b);
+	}
+
+	/**
+	 * @return a non-zero vector x with A x = 0 for a square matrix A, or null
+	 *         if A is non-singular (with high probability, see
+	 *         {@link #setAttempts(int)}).
+	 * @throws InvalidOperationException
+	 *             if A is not square.
+	 */
+	public Vector<RE> kernelVector() throws InvalidOperationException
+	{
+		checkSquare();
+		for (int attempt = 0; attempt < attempts; attempt++) {
+			Vector<RE> k = kernelVector(randomVector(a.getCols()));
+			if (k != null) return k;
+		}
+		return null;
+	}
+
+	/**
+	 * @param w
+	 *            a vector
+	 * @return a kernel vector in the Krylov space of w, or null if there is
+	 *         none.
+	 */
+	private Vector<RE> kernelVector(Vector<RE> w)
+	{
+		Polynomial<RE> f = minimalPolynomial(a, w);
+		// f = x^k g with g(0) != 0: A^k g(A) w = 0, but A^(k-1) g(A) w != 0
+		int k = 0;
+		while (k < f.getDegree() && f.getCoefficinet(k).isZero()) {
+			k++;
+		}
+		if (k == 0) return null;
+		RE[] g = factory.getArray(f.getDegree() - k + 1);
+		for (int i = 0; i < g.length; i++) {
+			g[i] = f.getCoefficinet(i + k);
+		}
+		Vector<RE> v = evaluate(a, g, w);
+		// f may be a proper multiple of the minimal polynomial of w if the
+		// generation of a sequence stopped early, so that A^(k-1) g(A) w may
+		// vanish: return the last non-zero vector instead
+		if (isZero(v)) return null;
+		for (int i = 1; i < k; i++) {
+			Vector<RE> av = a.apply(v);
+			if (isZero(av)) return v;
+			v = av;
+		}
+		return v;
+	}
+
+	/**
+	 * @return true if the square matrix A is singular (with high
+	 *         probability, see {@link #setAttempts(int)}).
+	 * @throws InvalidOperationException
+	 *             if A is not square.
+	 */
+	public boolean isSingular() throws InvalidOperationException
+	{
+		return kernelVector() != null;
+	}
+
+	/**
+	 * @return the minimal polynomial of the square matrix A (with high
+	 *         probability; otherwise a factor of it).
+	 * @throws InvalidOperationException
+	 *             if A is not square.
+	 */
+	public Polynomial<RE> minimalPolynomial() throws InvalidOperationException
+	{
+		checkSquare();
+		return minimalPolynomial(a, randomVector(a.getCols()));
+	}
+
+	/**
+	 * @param v
+	 *            a vector
+	 * @return the monic polynomial f of least degree with f(A) v = 0.
+	 * @throws InvalidOperationException
+	 *             if A is not square.
+	 */
+	public Polynomial<RE> minimalPolynomial(Vector<RE> v)
+			throws InvalidOperationException
+	{
+		checkSquare();
+		return minimalPolynomial(a, v);
+	}
+
+	/**
+	 * Calculate the rank by the preconditioning of Eberly and Kaltofen: for
+	 * random diagonal matrices D<sub>1</sub> and D<sub>2</sub>, the minimal
+	 * polynomial of B = D<sub>1</sub> A<sup>T</sup> D<sub>2</sub> A
+	 * D<sub>1</sub> has, with high probability if the field is large compared
+	 * to the dimension, the degree rank(A) + 1 if B is singular and rank(A)
+	 * otherwise. The result is never larger than the rank. If the field has
+	 * fewer than {@value #RANK_FIELD_FACTOR} n<sup>2</sup> elements for n the
+	 * larger dimension of A, the random values are drawn from an extension
+	 * field of this size; this multiplies the cost of a product with A by
+	 * the degree of the extension.
+	 * 
+	 * @return the rank of A (with high probability).
+	 */
+	public int rank()
+	{
+		int extension = extensionDegree();
+		if (extension > 1) {
+			return new WiedemannSolver<>(lift(new ExtensionField<>(factory,
+					fieldSize(factory), extension)), blockSize).rank();
+		}
+		final Vector<RE> d1 = randomVector(a.getCols());
+		final Vector<RE> d2 = randomVector(a.getRows());
+		BlackBox<RE> bb = new BlackBox<RE>() {
+			@Override
+			public int getRows()
+			{
+				return a.getCols();
+			}
+
+			@Override
+			public int getCols()
+			{
+				return a.getCols();
+			}
+
+			@Override
+			public IRingElementFactory<RE> getFactory()
+			{
+				return factory;
+			}
+
+			@Override
+			public Vector<RE> apply(Vector<RE> x)
+			{
+				Vector<RE> y = a.apply(x.arrayMultiply(d1));
+				return a.applyTranspose(y.arrayMultiply(d2))
+						.arrayMultiply(d1);
+			}
+
+			@Override
+			public Vector<RE> applyTranspose(Vector<RE> y)
+			{
+				return apply(y);
+			}
+		};
+		Polynomial<RE> f = minimalPolynomial(bb, randomVector(a.getCols()));
+		int degree = f.getDegree();
+		return f.getCoefficinet(0).isZero() ? degree - 1 : degree;
+	}
+
+	/**
+	 * @return the least degree k such that the extension of degree k of the
+	 *         field has at least {@link #RANK_FIELD_FACTOR} n<sup>2</sup>
+	 *         elements, or 1 if the field is infinite or large enough.
+	 */
+	private int extensionDegree()
+	{
+		BigInteger q = fieldSize(factory);
+		if (q == null) return 1;
+		long n = Math.max(a.getRows(), a.getCols());
+		BigInteger required = BigInteger.valueOf(RANK_FIELD_FACTOR * n * n);
+		int degree = 1;
+		for (BigInteger size = q; size.compareTo(required) < 0; size = size
+				.multiply(q))
+		{
+			degree++;
+		}
+		return degree;
+	}
+
+	/**
+	 * @return the number of elements of the field of the factory, or null if
+	 *         it is infinite or unknown.
+	 */
+	private static BigInteger fieldSize(IRingElementFactory<?> factory)
+	{
+		if (factory instanceof F2.F2Factory) {
+			return BigInteger.valueOf(2);
+		}
+		if (factory instanceof FieldPAbstractFactory) {
+			return new BigInteger(((FieldPAbstractFactory) factory)
+					.getFieldSize().toString());
+		}
+		if (factory instanceof ExtensionField) {
+			return ((ExtensionField<?>) factory).getFieldSize();
+		}
+		return null;
+	}
+
+	/**
+	 * @return A as a black box over the extension field: the products are
+	 *         calculated by multiplying A with the coefficient vectors.
+	 */
+	private BlackBox<ExtensionField.Element<RE>> lift(
+			final ExtensionField<RE> field)
+	{
+		return new BlackBox<ExtensionField.Element<RE>>() {
+			@Override
+			public int getRows()
+			{
+				return a.getRows();
+			}
+
+			@Override
+			public int getCols()
+			{
+				return a.getCols();
+			}
+
+			@Override
+			public IRingElementFactory<ExtensionField.Element<RE>> getFactory()
+			{
+				return field;
+			}
+
+			@Override
+			public Vector<ExtensionField.Element<RE>> apply(
+					Vector<ExtensionField.Element<RE>> x)
+			{
+				return componentwise(x, a.getRows(), false);
+			}
+
+			@Override
+			public Vector<ExtensionField.Element<RE>> applyTranspose(
+					Vector<ExtensionField.Element<RE>> y)
+			{
+				return componentwise(y, a.getCols(), true);
+			}
+
+			/**
+			 * @return A x or A<sup>T</sup> x, one coefficient at a time.
+			 */
+			private Vector<ExtensionField.Element<RE>> componentwise(
+					Vector<ExtensionField.Element<RE>> x, int length,
+					boolean transpose)
+			{
+				int k = field.getDegree();
+				RE[][] c = factory.getArray(length, k);
+				for (int t = 0; t < k; t++) {
+					Vector<RE> xt = new Vector<>(x.length(), factory);
+					for (int i = 0; i < xt.entries.length; i++) {
+						xt.entries[i] = x.entries[i].getCoefficient(t);
+					}
+					Vector<RE> yt = transpose ? a.applyTranspose(xt) : a
+							.apply(xt);
+					for (int i = 0; i < length; i++) {
+						c[i][t] = yt.entries[i];
+					}
+				}
+				Vector<ExtensionField.Element<RE>> y = new Vector<>(length,
+						field);
+				for (int i = 0; i < length; i++) {
+					y.entries[i] = field.get(c[i]);
+				}
+				return y;
+			}
+		};
+	}
+
+	/**
+	 * @throws InvalidOperationException
+	 *             if A is not square.
+	 */
+	private void checkSquare() throws InvalidOperationException
+	{
+		if (a.getRows() != a.getCols()) {
+			throw new InvalidOperationException("The matrix has to be square, "
+					+ "but is " + a.getRows() + "x" + a.getCols());
+		}
+	}
+
+	/**
+	 * @return the minimal polynomial of v with respect to op.
+	 */
+	private Polynomial<RE> minimalPolynomial(BlackBox<RE> op, Vector<RE> v)
+	{
+		Polynomial<RE> f = PolynomialFactoryMap.getFactory(factory).one();
+		Vector<RE> r = v;
+		int attempts = 0;
+		while (!isZero(r)) {
+			Polynomial<RE> g = projectedMinimalPolynomial(op, r);
+			if (g.getDegree() == 0) {
+				// all projections vanished: retry with others
+				if (++attempts == MAX_ATTEMPTS) {
+					throw new InvalidOperationException(
+							"No non-zero projection found");
+				}
+				continue;
+			}
+			f = f.multiply(g);
+			RE[] coefficients = factory.getArray(g.getDegree() + 1);
+			for (int i = 0; i < coefficients.length; i++) {
+				coefficients[i] = g.getCoefficinet(i);
+			}
+			r = evaluate(op, coefficients, r);
+		}
+		return f;
+	}
+
+	/**
+	 * @return the least common multiple of the minimal polynomials of the
+	 *         sequences u<sup>T</sup> A<sup>i</sup> v for
+	 *         {@link #blockSize} random vectors u. It divides the minimal
+	 *         polynomial of v.
+	 */
+	private Polynomial<RE> projectedMinimalPolynomial(BlackBox<RE> op,
+			Vector<RE> v)
+	{
+		int n = op.getCols();
+		@SuppressWarnings({
+				"unchecked", "rawtypes"
+		})
+		BerlekampMassey<RE>[] bm = new BerlekampMassey[blockSize];
+		@SuppressWarnings({
+				"unchecked", "rawtypes"
+		})
+		Vector<RE>[] u = new Vector[blockSize];
+		for (int j = 0; j < blockSize; j++) {
+			bm[j] = new BerlekampMassey<>(factory);
+			u[j] = randomVector(n);
+		}
+		RE[] projections = factory.getArray(blockSize);
+		Vector<RE> krylov = v;
+		for (int i = 0; i < 2 * n; i++) {
+			final Vector<RE> current = krylov;
+			ExecutionPolicy.getDefault().forEachRow(blockSize, n,
+					j -> projections[j - 1] = u[j - 1].multiply(current));
+			boolean stable = true;
+			for (int j = 0; j < blockSize; j++) {
+				bm[j].add(projections[j]);
+				stable &= bm[j].isStable(EARLY_TERMINATION);
+			}
+			if (stable) break;
+			if (i + 1 < 2 * n) {
+				krylov = op.apply(krylov);
+			}
+		}
+		Polynomial<RE> lcm = bm[0].getMinimalPolynomial();
+		for (int j = 1; j < blockSize; j++) {
+			Polynomial<RE> g = bm[j].getMinimalPolynomial();
+			if (g.getDegree() == 0) continue;
+			if (lcm.getDegree() == 0) {
+				lcm = g;
+				continue;
+			}
+			Polynomial<RE> product = lcm.multiply(g);
+			lcm = product.divide(lcm.gcd(g));
+			lcm = lcm.divideByScalar(lcm.getHighestCoefficient());
+		}
+		return lcm;
+	}
+
+	/**
+	 * @param op
+	 *            the matrix
+	 * @param coefficients
+	 *            the coefficients f<sub>0</sub>, f<sub>1</sub>, ... of a
+	 *            polynomial f
+	 * @param v
+	 *            a vector
+	 * @return f(op) v, calculated by the Horner scheme.
+	 */
+	private Vector<RE> evaluate(BlackBox<RE> op, RE[] coefficients,
+			Vector<RE> v)
+	{
+		int degree = coefficients.length - 1;
+		Vector<RE> y = v.multiply(coefficients[degree]);
+		for (int i = degree - 1; i >= 0; i--) {
+			y = op.apply(y).add(v.multiply(coefficients[i]));
+		}
+		return y;
+	}
+
+	/**
+	 * @return true if all entries of v are zero.
+	 */
+	private static <RE extends IRingElement<RE>> boolean isZero(Vector<RE> v)
+	{
+		for (RE e : v.entries) {
+			if (!e.isZero()) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return a vector with random entries.
+	 */
+	private Vector<RE> randomVector(int n)
+	{
+		Vector<RE> v = new Vector<>(n, factory);
+		for (int i = 0; i < n; i++) {
+			v.entries[i] = factory.randomValue();
+		}
+		return v;
+	}
+}
@@ -24,7 +24,8 @@ import org.jlinalg.Vector;
 /**
  * An explicit implementation of <code>Matrix&lt;Complex&gt;</code>in order to
  * cater for the
- * special behaviour of the method {@link #hermitian()}
+ * special behaviour of the method {@link #hermitian()}, and to compute the
+ * eigenvalues in double precision by {@link DoubleComplexMatrix}.
  * 
  * @author ???, Georg Thimm
  */
@@ -87,4 +88,17 @@ public class ComplexMatrix
 		return tmp;
 	}
 
+	/**
+	 * Calculates the eigenvalues of this matrix in double precision (see
+	 * {@link DoubleComplexMatrix#eigenvalues()}).
+	 * 
+	 * @return the eigenvalues.
+	 * @throws InvalidOperationException
+	 *             if this matrix is not square.
+	 */
+	@Override
+	public Vector<Complex> eig() throws InvalidOperationException
+	{
+		return new DoubleComplexMatrix(this).eig();
+	}
 }
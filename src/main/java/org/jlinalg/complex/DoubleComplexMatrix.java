@@ -0,0 +1,758 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.complex;
+
+import java.io.Serializable;
+
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.Matrix;
+import org.jlinalg.Vector;
+
+/**
+ * A dense complex matrix of doubles, stored row by row in one primitive array
+ * in which the real and imaginary part of each entry follow each other.
+ * {@link ComplexMatrix} holds {@link Complex} numbers with rational parts, and
+ * every operation on them creates new objects; this class is meant for
+ * numerical work where double precision suffices. The products, the LU
+ * decomposition, the inverse, the determinant and the conjugate transpose
+ * work on the arrays and allocate nothing but their results.
+ * <P>
+ * The eigenvalues are computed by a reduction to upper Hessenberg form with
+ * Householder reflections, followed by the QR algorithm with Wilkinson
+ * shifts, both in complex arithmetic. As for {@link Matrix}, rows and columns
+ * are numbered from 1.
+ */
+public class DoubleComplexMatrix
+		implements
+		Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * the maximal number of QR iterations per eigenvalue.
+	 */
+	private static final int MAX_ITERATIONS = 30;
+
+	/**
+	 * the number of rows
+	 */
+	private final int rows;
+
+	/**
+	 * the number of columns
+	 */
+	private final int cols;
+
+	/**
+	 * the entries: the real part of the entry (i, j) (from 1) is at index
+	 * <code>2 * ((i - 1) * cols + j - 1)</code>, and the imaginary part
+	 * follows it.
+	 */
+	private final double[] values;
+
+	/**
+	 * Create a matrix filled with zeros.
+	 * 
+	 * @param rows
+	 *            the number of rows
+	 * @param cols
+	 *            the number of columns
+	 */
+	public DoubleComplexMatrix(int rows, int cols)
+	{
+		this(rows, cols, new double[2 * rows * cols]);
+	}
+
+	/**
+	 * Create a matrix backed by the given array (which is not copied).
+	 * 
+	 * @param rows
+	 *            the number of rows
+	 * @param cols
+	 *            the number of columns
+	 * @param values
+	 *            the real and imaginary parts of the entries, row by row.
+	 */
+	public DoubleComplexMatrix(int rows, int cols, double[] values)
+	{
+		if (rows < 0 || cols < 0 || values == null
+				|| values.length != 2 * rows * cols)
+		{
+			throw new InvalidOperationException("Tried to construct a " + rows
+					+ "x" + cols + " matrix from "
+					+ (values == null ? "null" : values.length + " values"));
+		}
+		this.rows = rows;
+		this.cols = cols;
+		this.values = values;
+	}
+
+	/**
+	 * Create a matrix with the values of the entries of a matrix of
+	 * {@link Complex} numbers.
+	 * 
+	 * @param matrix
+	 */
+	public DoubleComplexMatrix(Matrix<Complex> matrix)
+	{
+		this(matrix.getRows(), matrix.getCols());
+		int k = 0;
+		for (int i = 1; i <= rows; i++) {
+			for (int j = 1; j <= cols; j++) {
+				Complex c = matrix.get(i, j);
+				values[k++] = c.getReal().doubleValue();
+				values[k++] = c.getImaginary().doubleValue();
+			}
+		}
+	}
+
+	/**
+	 * @param n
+	 *            the number of rows and columns
+	 * @return the n x n identity matrix.
+	 */
+	public static DoubleComplexMatrix identity(int n)
+	{
+		DoubleComplexMatrix m = new DoubleComplexMatrix(n, n);
+		for (int i = 0; i < n; i++) {
+			m.values[2 * (i * n + i)] = 1;
+		}
+		return m;
+	}
+
+	/**
+	 * @return the number of rows
+	 */
+	public int getRows()
+	{
+		return rows;
+	}
+
+	/**
+	 * @return the number of columns
+	 */
+	public int getCols()
+	{
+		return cols;
+	}
+
+	/**
+	 * @return the array backing this matrix (not a copy).
+	 */
+	public double[] getValues()
+	{
+		return values;
+	}
+
+	/**
+	 * @return the index of the real part of the entry (row, col) in
+	 *         {@link #values}.
+	 */
+	private int index(int row, int col)
+	{
+		if (row < 1 || row > rows || col < 1 || col > cols) {
+			throw new InvalidOperationException("Tried to access (" + row
+					+ ", " + col + ") of a " + rows + "x" + cols + " matrix");
+		}
+		return 2 * ((row - 1) * cols + col - 1);
+	}
+
+	/**
+	 * @return the real part of the entry (row, col)
+	 */
+	public double getReal(int row, int col)
+	{
+		return values[index(row, col)];
+	}
+
+	/**
+	 * @return the imaginary part of the entry (row, col)
+	 */
+	public double getImaginary(int row, int col)
+	{
+		return values[index(row, col) + 1];
+	}
+
+	/**
+	 * @return the entry (row, col) as a {@link Complex} number.
+	 */
+	public Complex get(int row, int col)
+	{
+		int k = index(row, col);
+		return Complex.FACTORY.get(values[k], values[k + 1]);
+	}
+
+	/**
+	 * Set the entry (row, col).
+	 * 
+	 * @param row
+	 * @param col
+	 * @param re
+	 *            the real part
+	 * @param im
+	 *            the imaginary part
+	 */
+	public void set(int row, int col, double re, double im)
+	{
+		int k = index(row, col);
+		values[k] = re;
+		values[k + 1] = im;
+	}
+
+	/**
+	 * Set the entry (row, col) to the value of a {@link Complex} number.
+	 * 
+	 * @param row
+	 * @param col
+	 * @param value
+	 */
+	public void set(int row, int col, Complex value)
+	{
+		set(row, col, value.getReal().doubleValue(), value.getImaginary()
+				.doubleValue());
+	}
+
+	/**
+	 * @return a {@link ComplexMatrix} with the same entries.
+	 */
+	public ComplexMatrix toMatrix()
+	{
+		Complex[][] entries = Complex.FACTORY.getArray(rows, cols);
+		for (int i = 0, k = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++, k += 2) {
+				entries[i][j] = Complex.FACTORY.get(values[k], values[k + 1]);
+			}
+		}
+		return new ComplexMatrix(entries, rows, cols);
+	}
+
+	/**
+	 * @return a deep copy of this matrix
+	 */
+	public DoubleComplexMatrix copy()
+	{
+		return new DoubleComplexMatrix(rows, cols, values.clone());
+	}
+
+	/**
+	 * @return the conjugate transpose of this matrix.
+	 */
+	public DoubleComplexMatrix hermitian()
+	{
+		DoubleComplexMatrix h = new DoubleComplexMatrix(cols, rows);
+		double[] t = h.values;
+		for (int i = 0, k = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++, k += 2) {
+				int l = 2 * (j * rows + i);
+				t[l] = values[k];
+				t[l + 1] = -values[k + 1];
+			}
+		}
+		return h;
+	}
+
+	/**
+	 * @param other
+	 *            a matrix with as many rows as this matrix has columns.
+	 * @return the product of this matrix and other.
+	 */
+	public DoubleComplexMatrix multiply(DoubleComplexMatrix other)
+	{
+		DoubleComplexMatrix c = new DoubleComplexMatrix(rows, other.cols);
+		multiply(this, other, c);
+		return c;
+	}
+
+	/**
+	 * Calculate the product c = a b without allocating anything. The rows of
+	 * b and c are traversed in the order of their storage.
+	 * 
+	 * @param a
+	 * @param b
+	 *            a matrix with as many rows as a has columns
+	 * @param c
+	 *            the result, with as many rows as a and as many columns as b,
+	 *            which must not be a or b.
+	 */
+	public static void multiply(DoubleComplexMatrix a, DoubleComplexMatrix b,
+			DoubleComplexMatrix c)
+	{
+		if (a.cols != b.rows || c.rows != a.rows || c.cols != b.cols) {
+			throw new InvalidOperationException("Tried to multiply a "
+					+ a.rows + "x" + a.cols + " and a " + b.rows + "x"
+					+ b.cols + " matrix into a " + c.rows + "x" + c.cols
+					+ " matrix");
+		}
+		if (c == a || c == b) {
+			throw new InvalidOperationException(
+					"The result can not be stored in an operand");
+		}
+		double[] x = a.values, y = b.values, z = c.values;
+		int n = b.cols;
+		java.util.Arrays.fill(z, 0);
+		for (int i = 0; i < a.rows; i++) {
+			int zi = 2 * i * n;
+			for (int k = 0; k < a.cols; k++) {
+				int xk = 2 * (i * a.cols + k);
+				double re = x[xk], im = x[xk + 1];
+				if (re == 0 && im == 0) continue;
+				int yk = 2 * k * n;
+				for (int j = 0; j < 2 * n; j += 2) {
+					double yr = y[yk + j], yi = y[yk + j + 1];
+					z[zi + j] += re * yr - im * yi;
+					z[zi + j + 1] += re * yi + im * yr;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @throws InvalidOperationException
+	 *             if this matrix is not square.
+	 */
+	private void checkSquare(String operation)
+	{
+		if (rows != cols) {
+			throw new InvalidOperationException("Can not calculate the "
+					+ operation + " of a " + rows + "x" + cols + " matrix");
+		}
+	}
+
+	/**
+	 * Decompose P A = L U with partial pivoting, in place.
+	 * 
+	 * @param a
+	 *            the n x n matrix, which is replaced by L (below the diagonal,
+	 *            with an implicit unit diagonal) and U.
+	 * @param pivots
+	 *            receives the row exchanged with row k in step k
+	 * @return the sign of the permutation, or 0 if the matrix is singular.
+	 */
+	private static int decompose(double[] a, int n, int[] pivots)
+	{
+		int sign = 1;
+		for (int k = 0; k < n; k++) {
+			int p = k;
+			double max = -1;
+			for (int i = k; i < n; i++) {
+				int ik = 2 * (i * n + k);
+				double v = Math.abs(a[ik]) + Math.abs(a[ik + 1]);
+				if (v > max) {
+					max = v;
+					p = i;
+				}
+			}
+			pivots[k] = p;
+			if (max == 0) return 0;
+			if (p != k) {
+				sign = -sign;
+				for (int j = 2 * p * n, l = 2 * k * n, e = l + 2 * n; l < e; j++, l++) {
+					double t = a[j];
+					a[j] = a[l];
+					a[l] = t;
+				}
+			}
+			int kk = 2 * (k * n + k);
+			double d = a[kk] * a[kk] + a[kk + 1] * a[kk + 1];
+			double pr = a[kk] / d, pi = -a[kk + 1] / d;
+			for (int i = k + 1; i < n; i++) {
+				int ik = 2 * (i * n + k);
+				double lr = a[ik] * pr - a[ik + 1] * pi;
+				double li = a[ik] * pi + a[ik + 1] * pr;
+				a[ik] = lr;
+				a[ik + 1] = li;
+				if (lr == 0 && li == 0) continue;
+				for (int j = ik + 2, l = kk + 2, e = 2 * (i + 1) * n; j < e; j += 2, l += 2) {
+					a[j] -= lr * a[l] - li * a[l + 1];
+					a[j + 1] -= lr * a[l + 1] + li * a[l];
+				}
+			}
+		}
+		return sign;
+	}
+
+	/**
+	 * @return the determinant of this matrix, by an LU decomposition.
+	 * @throws InvalidOperationException
+	 *             if this matrix is not square.
+	 */
+	public Complex det()
+	{
+		checkSquare("determinant");
+		int n = rows;
+		double[] a = values.clone();
+		int sign = decompose(a, n, new int[n]);
+		double re = sign, im = 0;
+		if (sign != 0) {
+			for (int k = 0; k < n; k++) {
+				int kk = 2 * (k * n + k);
+				double t = re * a[kk] - im * a[kk + 1];
+				im = re * a[kk + 1] + im * a[kk];
+				re = t;
+			}
+		}
+		return Complex.FACTORY.get(re, im);
+	}
+
+	/**
+	 * @param b
+	 *            a matrix with as many rows as this matrix
+	 * @return the solution x of this x = b.
+	 * @throws InvalidOperationException
+	 *             if this matrix is not square or singular.
+	 */
+	public DoubleComplexMatrix solve(DoubleComplexMatrix b)
+	{
+		checkSquare("solution");
+		if (b.rows != rows) {
+			throw new InvalidOperationException("Can not solve a system with "
+					+ rows + " rows for " + b.rows + " rows");
+		}
+		int n = rows, m = b.cols;
+		double[] a = values.clone();
+		int[] pivots = new int[n];
+		if (decompose(a, n, pivots) == 0) {
+			throw new InvalidOperationException("The matrix \n" + this
+					+ "\ncannot be inverted.");
+		}
+		DoubleComplexMatrix x = b.copy();
+		double[] z = x.values;
+		for (int k = 0; k < n; k++) {
+			int p = pivots[k];
+			if (p == k) continue;
+			for (int j = 2 * p * m, l = 2 * k * m, e = l + 2 * m; l < e; j++, l++) {
+				double t = z[j];
+				z[j] = z[l];
+				z[l] = t;
+			}
+		}
+		// forward substitution with the unit lower triangle
+		for (int k = 0; k < n; k++) {
+			for (int i = k + 1; i < n; i++) {
+				int ik = 2 * (i * n + k);
+				eliminate(z, 2 * i * m, 2 * k * m, m, a[ik], a[ik + 1]);
+			}
+		}
+		// backward substitution with the upper triangle
+		for (int k = n - 1; k >= 0; k--) {
+			int kk = 2 * (k * n + k);
+			double d = a[kk] * a[kk] + a[kk + 1] * a[kk + 1];
+			double pr = a[kk] / d, pi = -a[kk + 1] / d;
+			for (int j = 2 * k * m, e = j + 2 * m; j < e; j += 2) {
+				double t = z[j] * pr - z[j + 1] * pi;
+				z[j + 1] = z[j] * pi + z[j + 1] * pr;
+				z[j] = t;
+			}
+			for (int i = 0; i < k; i++) {
+				int ik = 2 * (i * n + k);
+				eliminate(z, 2 * i * m, 2 * k * m, m, a[ik], a[ik + 1]);
+			}
+		}
+		return x;
+	}
+
+	/**
+	 * Subtract (re + i im) times the row starting at k from the row starting
+	 * at i, both of length m.
+	 */
+	private static void eliminate(double[] z, int i, int k, int m, double re,
+			double im)
+	{
+		if (re == 0 && im == 0) return;
+		for (int e = i + 2 * m; i < e; i += 2, k += 2) {
+			z[i] -= re * z[k] - im * z[k + 1];
+			z[i + 1] -= re * z[k + 1] + im * z[k];
+		}
+	}
+
+	/**
+	 * @return the inverse of this matrix.
+	 * @throws InvalidOperationException
+	 *             if this matrix is not square or singular.
+	 */
+	public DoubleComplexMatrix inverse()
+	{
+		checkSquare("inverse");
+		return solve(identity(rows));
+	}
+
+	/**
+	 * @return the eigenvalues, with the real part of the k-th eigenvalue at
+	 *         index 2 k and its imaginary part at index 2 k + 1.
+	 * @throws InvalidOperationException
+	 *             if this matrix is not square or the QR algorithm does not
+	 *             converge.
+	 */
+	public double[] eigenvalues()
+	{
+		checkSquare("eigenvalues");
+		int n = rows;
+		double[] h = values.clone();
+		hessenberg(h, n);
+		double[] lambda = new double[2 * n];
+		double[] shift = new double[2];
+		int hi = n - 1, iterations = 0;
+		while (hi >= 0) {
+			// find a negligible subdiagonal entry
+			int l = hi;
+			while (l > 0) {
+				int d = 2 * (l * n + l);
+				int s = d - 2 * n - 2;
+				double sub = Math.abs(h[d - 2]) + Math.abs(h[d - 1]);
+				double diag = Math.abs(h[d]) + Math.abs(h[d + 1])
+						+ Math.abs(h[s]) + Math.abs(h[s + 1]);
+				if (sub <= Math.ulp(1.0) * diag || sub < Double.MIN_NORMAL) {
+					h[d - 2] = h[d - 1] = 0;
+					break;
+				}
+				l--;
+			}
+			if (l == hi) {
+				int d = 2 * (hi * n + hi);
+				lambda[2 * hi] = h[d];
+				lambda[2 * hi + 1] = h[d + 1];
+				hi--;
+				iterations = 0;
+				continue;
+			}
+			if (++iterations > MAX_ITERATIONS) {
+				throw new InvalidOperationException(
+						"The eigenvalues do not converge");
+			}
+			if (iterations % 10 == 0) {
+				// an exceptional shift to break cycles
+				int d = 2 * (hi * n + hi);
+				shift[0] = h[d] + 0.75 * (Math.abs(h[d - 2]) + Math
+						.abs(h[d - 1]));
+				shift[1] = h[d + 1];
+			}
+			else {
+				wilkinsonShift(h, n, hi, shift);
+			}
+			qrStep(h, n, l, hi, shift[0], shift[1]);
+		}
+		return lambda;
+	}
+
+	/**
+	 * @return the eigenvalues as a vector of {@link Complex} numbers.
+	 * @see #eigenvalues()
+	 */
+	public Vector<Complex> eig()
+	{
+		double[] lambda = eigenvalues();
+		Complex[] entries = new Complex[rows];
+		for (int k = 0; k < rows; k++) {
+			entries[k] = Complex.FACTORY.get(lambda[2 * k], lambda[2 * k + 1]);
+		}
+		return new Vector<>(entries);
+	}
+
+	/**
+	 * Reduce the n x n matrix a to upper Hessenberg form by unitary
+	 * similarity transformations with Householder reflections I - 2 v
+	 * v<sup>H</sup>, in place.
+	 */
+	private static void hessenberg(double[] a, int n)
+	{
+		double[] v = new double[2 * n];
+		for (int k = 0; k < n - 2; k++) {
+			double norm = 0;
+			for (int i = k + 1; i < n; i++) {
+				int ik = 2 * (i * n + k);
+				norm = Math.hypot(norm, Math.hypot(a[ik], a[ik + 1]));
+			}
+			if (norm == 0) continue;
+			// alpha = -exp(i arg(x0)) ||x|| avoids cancellation in x0 - alpha
+			int k1 = 2 * ((k + 1) * n + k);
+			double x0 = Math.hypot(a[k1], a[k1 + 1]);
+			double ar = x0 == 0 ? -norm : -a[k1] / x0 * norm;
+			double ai = x0 == 0 ? 0 : -a[k1 + 1] / x0 * norm;
+			double vnorm = 0;
+			for (int i = k + 1; i < n; i++) {
+				int ik = 2 * (i * n + k);
+				v[2 * i] = a[ik];
+				v[2 * i + 1] = a[ik + 1];
+			}
+			v[2 * (k + 1)] -= ar;
+			v[2 * (k + 1) + 1] -= ai;
+			for (int i = k + 1; i < n; i++) {
+				vnorm = Math.hypot(vnorm, Math.hypot(v[2 * i], v[2 * i + 1]));
+			}
+			for (int i = k + 1; i < n; i++) {
+				v[2 * i] /= vnorm;
+				v[2 * i + 1] /= vnorm;
+			}
+			// from the left: a = a - 2 v (v^H a)
+			for (int j = k; j < n; j++) {
+				double tr = 0, ti = 0;
+				for (int i = k + 1; i < n; i++) {
+					int ij = 2 * (i * n + j);
+					tr += v[2 * i] * a[ij] + v[2 * i + 1] * a[ij + 1];
+					ti += v[2 * i] * a[ij + 1] - v[2 * i + 1] * a[ij];
+				}
+				tr *= 2;
+				ti *= 2;
+				for (int i = k + 1; i < n; i++) {
+					int ij = 2 * (i * n + j);
+					a[ij] -= v[2 * i] * tr - v[2 * i + 1] * ti;
+					a[ij + 1] -= v[2 * i] * ti + v[2 * i + 1] * tr;
+				}
+			}
+			// from the right: a = a - 2 (a v) v^H
+			for (int i = 0; i < n; i++) {
+				int row = 2 * i * n;
+				double tr = 0, ti = 0;
+				for (int j = k + 1; j < n; j++) {
+					int ij = row + 2 * j;
+					tr += a[ij] * v[2 * j] - a[ij + 1] * v[2 * j + 1];
+					ti += a[ij] * v[2 * j + 1] + a[ij + 1] * v[2 * j];
+				}
+				tr *= 2;
+				ti *= 2;
+				for (int j = k + 1; j < n; j++) {
+					int ij = row + 2 * j;
+					a[ij] -= tr * v[2 * j] + ti * v[2 * j + 1];
+					a[ij + 1] -= ti * v[2 * j] - tr * v[2 * j + 1];
+				}
+			}
+			a[k1] = ar;
+			a[k1 + 1] = ai;
+			for (int i = k + 2; i < n; i++) {
+				int ik = 2 * (i * n + k);
+				a[ik] = a[ik + 1] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Store in shift the eigenvalue of the trailing 2 x 2 block of rows and
+	 * columns hi - 1 and hi of the Hessenberg matrix h that is closer to
+	 * h(hi, hi).
+	 */
+	private static void wilkinsonShift(double[] h, int n, int hi,
+			double[] shift)
+	{
+		int d = 2 * (hi * n + hi);
+		int a = d - 2 * n - 2, b = a + 2, c = d - 2;
+		// half the difference of the diagonal entries
+		double er = (h[a] - h[d]) / 2, ei = (h[a + 1] - h[d + 1]) / 2;
+		// the discriminant e^2 + b c
+		double qr = er * er - ei * ei + h[b] * h[c] - h[b + 1] * h[c + 1];
+		double qi = 2 * er * ei + h[b] * h[c + 1] + h[b + 1] * h[c];
+		// the principal square root of the discriminant
+		double r = Math.hypot(qr, qi);
+		double sr = Math.sqrt((r + qr) / 2);
+		double si = Math.copySign(Math.sqrt((r - qr) / 2), qi);
+		// the eigenvalues are h(hi, hi) + e +- s; take the one closer to
+		// h(hi, hi)
+		double pr = er + sr, pi = ei + si;
+		double mr = er - sr, mi = ei - si;
+		if (Math.hypot(pr, pi) <= Math.hypot(mr, mi)) {
+			shift[0] = h[d] + pr;
+			shift[1] = h[d + 1] + pi;
+		}
+		else {
+			shift[0] = h[d] + mr;
+			shift[1] = h[d + 1] + mi;
+		}
+	}
+
+	/**
+	 * One step of the shifted QR algorithm on the rows and columns lo to hi
+	 * of the Hessenberg matrix h: H - mu I = Q R is computed by Givens
+	 * rotations, and H is replaced by R Q + mu I.
+	 */
+	private static void qrStep(double[] h, int n, int lo, int hi, double mr,
+			double mi)
+	{
+		for (int k = lo; k <= hi; k++) {
+			int kk = 2 * (k * n + k);
+			h[kk] -= mr;
+			h[kk + 1] -= mi;
+		}
+		// the rotations [c s; -conj(s) c] with real c
+		double[] cs = new double[3 * (hi - lo)];
+		for (int k = lo; k < hi; k++) {
+			int x = 2 * (k * n + k), y = x + 2 * n;
+			double ax = Math.hypot(h[x], h[x + 1]);
+			double r = Math.hypot(ax, Math.hypot(h[y], h[y + 1]));
+			double c, sr, si;
+			if (r == 0) {
+				c = 1;
+				sr = si = 0;
+			}
+			else if (ax == 0) {
+				c = 0;
+				sr = h[y] / r;
+				si = -h[y + 1] / r;
+			}
+			else {
+				// s = (x / |x|) conj(y) / r
+				double ur = h[x] / ax, ui = h[x + 1] / ax;
+				c = ax / r;
+				sr = (ur * h[y] + ui * h[y + 1]) / r;
+				si = (ui * h[y] - ur * h[y + 1]) / r;
+			}
+			int t = 3 * (k - lo);
+			cs[t] = c;
+			cs[t + 1] = sr;
+			cs[t + 2] = si;
+			for (int j = x, l = y, e = 2 * (k * n + hi); j <= e; j += 2, l += 2) {
+				double pr = h[j], pi = h[j + 1], qr = h[l], qi = h[l + 1];
+				// row k: c p + s q; row k + 1: -conj(s) p + c q
+				h[j] = c * pr + sr * qr - si * qi;
+				h[j + 1] = c * pi + sr * qi + si * qr;
+				h[l] = c * qr - sr * pr - si * pi;
+				h[l + 1] = c * qi - sr * pi + si * pr;
+			}
+		}
+		for (int k = lo; k < hi; k++) {
+			int t = 3 * (k - lo);
+			double c = cs[t], sr = cs[t + 1], si = cs[t + 2];
+			for (int i = lo, last = Math.min(k + 1, hi); i <= last; i++) {
+				int j = 2 * (i * n + k), l = j + 2;
+				double pr = h[j], pi = h[j + 1], qr = h[l], qi = h[l + 1];
+				// column k: c p + conj(s) q; column k + 1: -s p + c q
+				h[j] = c * pr + sr * qr + si * qi;
+				h[j + 1] = c * pi + sr * qi - si * qr;
+				h[l] = c * qr - sr * pr + si * pi;
+				h[l + 1] = c * qi - sr * pi - si * pr;
+			}
+		}
+		for (int k = lo; k <= hi; k++) {
+			int kk = 2 * (k * n + k);
+			h[kk] += mr;
+			h[kk + 1] += mi;
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0, k = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++, k += 2) {
+				sb.append(j == 0 ? "" : "\t").append(values[k]);
+				sb.append(values[k + 1] < 0 ? "" : "+").append(values[k + 1])
+						.append('i');
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,328 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.doublewrapper;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.Matrix;
+import org.jlinalg.Vector;
+
+/**
+ * A vector of doubles backed by a primitive array, for code performing many
+ * matrix-vector products, which a {@link Vector} of {@link DoubleWrapper}s
+ * would carry out with one object per operation.
+ * <P>
+ * The kernels {@link #gemv(double, Matrix, DoubleVector, double, DoubleVector)}
+ * and {@link #gevm(double, DoubleVector, Matrix, double, DoubleVector)} follow
+ * the BLAS conventions: they write into a vector supplied by the caller, read
+ * each entry of the matrix once and in the order of its storage, and allocate
+ * nothing. As for {@link Vector}, entries are numbered from 1.
+ */
+public class DoubleVector
+		implements
+		Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * the entries
+	 */
+	private final double[] values;
+
+	/**
+	 * Create a vector filled with zeros.
+	 * 
+	 * @param length
+	 */
+	public DoubleVector(int length)
+	{
+		values = new double[length];
+	}
+
+	/**
+	 * Create a vector backed by the given array (which is not copied).
+	 * 
+	 * @param values
+	 */
+	public DoubleVector(double... values)
+	{
+		if (values == null) {
+			throw new InvalidOperationException(
+					"Tried to construct vector but entry array was null");
+		}
+		this.values = values;
+	}
+
+	/**
+	 * Create a vector with the values of the entries of a {@link Vector}.
+	 * 
+	 * @param vector
+	 */
+	public DoubleVector(Vector<DoubleWrapper> vector)
+	{
+		values = new double[vector.length()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = vector.getEntry(i + 1).value;
+		}
+	}
+
+	/**
+	 * @return the number of entries
+	 */
+	public int length()
+	{
+		return values.length;
+	}
+
+	/**
+	 * @param index
+	 *            the index of the entry (from 1)
+	 * @return the entry
+	 */
+	public double get(int index)
+	{
+		return values[index - 1];
+	}
+
+	/**
+	 * @param index
+	 *            the index of the entry (from 1)
+	 * @param value
+	 *            the new value of the entry
+	 */
+	public void set(int index, double value)
+	{
+		values[index - 1] = value;
+	}
+
+	/**
+	 * @return the array backing this vector (not a copy).
+	 */
+	public double[] getValues()
+	{
+		return values;
+	}
+
+	/**
+	 * @return a {@link Vector} with the same entries.
+	 */
+	public Vector<DoubleWrapper> toVector()
+	{
+		Vector<DoubleWrapper> v = new Vector<>(values.length,
+				DoubleWrapperFactory.INSTANCE);
+		for (int i = 0; i < values.length; i++) {
+			v.set(i + 1, new DoubleWrapper(values[i]));
+		}
+		return v;
+	}
+
+	/**
+	 * @return a deep copy of this vector
+	 */
+	public DoubleVector copy()
+	{
+		return new DoubleVector(values.clone());
+	}
+
+	/**
+	 * @param x
+	 *            a vector of the same length
+	 * @return the dot product of this vector and x
+	 */
+	public double dot(DoubleVector x)
+	{
+		checkLength(x, values.length);
+		double[] b = x.values;
+		double s = 0;
+		for (int i = 0; i < values.length; i++) {
+			s += values[i] * b[i];
+		}
+		return s;
+	}
+
+	/**
+	 * @return the euclidean norm of this vector.
+	 */
+	public double L2Norm()
+	{
+		double s = 0;
+		for (double v : values) {
+			s += v * v;
+		}
+		return Math.sqrt(s);
+	}
+
+	/**
+	 * Add a multiple of another vector to this one: this = this + alpha x.
+	 * 
+	 * @param alpha
+	 * @param x
+	 *            a vector of the same length
+	 */
+	public void axpy(double alpha, DoubleVector x)
+	{
+		checkLength(x, values.length);
+		double[] b = x.values;
+		for (int i = 0; i < values.length; i++) {
+			values[i] += alpha * b[i];
+		}
+	}
+
+	/**
+	 * Multiply this vector by a scalar.
+	 * 
+	 * @param alpha
+	 */
+	public void scale(double alpha)
+	{
+		for (int i = 0; i < values.length; i++) {
+			values[i] *= alpha;
+		}
+	}
+
+	/**
+	 * @param a
+	 *            a matrix with as many columns as this vector has entries
+	 * @return the product A x of the matrix and this vector
+	 */
+	public DoubleVector multiplyFromLeft(Matrix<DoubleWrapper> a)
+	{
+		DoubleVector y = new DoubleVector(a.getRows());
+		gemv(1, a, this, 0, y);
+		return y;
+	}
+
+	/**
+	 * @param a
+	 *            a matrix with as many rows as this vector has entries
+	 * @return the product x<sup>T</sup> A of this (row) vector and the matrix,
+	 *         i.e. A<sup>T</sup> x.
+	 */
+	public DoubleVector multiply(Matrix<DoubleWrapper> a)
+	{
+		DoubleVector y = new DoubleVector(a.getCols());
+		gevm(1, this, a, 0, y);
+		return y;
+	}
+
+	/**
+	 * Calculate y = alpha A x + beta y. If beta is 0, the previous entries of
+	 * y are ignored (even if not finite).
+	 * 
+	 * @param alpha
+	 * @param a
+	 *            an m x n matrix
+	 * @param x
+	 *            a vector of length n
+	 * @param beta
+	 * @param y
+	 *            a vector of length m, which must not be x
+	 */
+	public static void gemv(double alpha, Matrix<DoubleWrapper> a,
+			DoubleVector x, double beta, DoubleVector y)
+	{
+		checkLength(x, a.getCols());
+		checkLength(y, a.getRows());
+		DoubleWrapper[][] entries = a.getEntries();
+		double[] xv = x.values;
+		double[] yv = y.values;
+		int cols = a.getCols();
+		for (int i = 0; i < yv.length; i++) {
+			DoubleWrapper[] row = entries[i];
+			double s = 0;
+			for (int j = 0; j < cols; j++) {
+				s += row[j].value * xv[j];
+			}
+			yv[i] = beta == 0 ? alpha * s : alpha * s + beta * yv[i];
+		}
+	}
+
+	/**
+	 * Calculate y = alpha x<sup>T</sup> A + beta y, i.e. the transposed
+	 * product y = alpha A<sup>T</sup> x + beta y. The rows of A are added to
+	 * y one after the other, so that A is read in the order of its storage.
+	 * If beta is 0, the previous entries of y are ignored (even if not
+	 * finite).
+	 * 
+	 * @param alpha
+	 * @param x
+	 *            a vector of length m
+	 * @param a
+	 *            an m x n matrix
+	 * @param beta
+	 * @param y
+	 *            a vector of length n, which must not be x
+	 */
+	public static void gevm(double alpha, DoubleVector x,
+			Matrix<DoubleWrapper> a, double beta, DoubleVector y)
+	{
+		checkLength(x, a.getRows());
+		checkLength(y, a.getCols());
+		DoubleWrapper[][] entries = a.getEntries();
+		double[] xv = x.values;
+		double[] yv = y.values;
+		if (beta == 0) {
+			Arrays.fill(yv, 0);
+		}
+		else if (beta != 1) {
+			for (int j = 0; j < yv.length; j++) {
+				yv[j] *= beta;
+			}
+		}
+		for (int i = 0; i < xv.length; i++) {
+			DoubleWrapper[] row = entries[i];
+			double s = alpha * xv[i];
+			for (int j = 0; j < yv.length; j++) {
+				yv[j] += s * row[j].value;
+			}
+		}
+	}
+
+	/**
+	 * @throws InvalidOperationException
+	 *             if the length of v is not length
+	 */
+	private static void checkLength(DoubleVector v, int length)
+	{
+		if (v.values.length != length) {
+			throw new InvalidOperationException("A vector of length "
+					+ v.values.length + " where one of length " + length
+					+ " is needed");
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		return obj instanceof DoubleVector
+				&& Arrays.equals(values, ((DoubleVector) obj).values);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Arrays.hashCode(values);
+	}
+
+	@Override
+	public String toString()
+	{
+		return Arrays.toString(values);
+	}
+}
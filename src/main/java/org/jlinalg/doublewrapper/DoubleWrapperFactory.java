@@ -25,6 +25,7 @@ import org.jlinalg.IRingElementFactory;
 import org.jlinalg.InvalidOperationException;
 import org.jlinalg.JLinAlgTypeProperties;
 import org.jlinalg.RingElementFactory;
+import org.jlinalg.operator.Reduction;
 import org.jlinalg.rational.Rational;
 
 /**
@@ -55,6 +56,11 @@ public class DoubleWrapperFactory
 	 */
 	static final DoubleWrapper ZERO = new DoubleWrapper(0);
 
+	/**
+	 * the reduction returned by {@link #getSumOperator()}
+	 */
+	private static final Reduction<DoubleWrapper> SUM_OPERATOR = new PairwiseSumReduction();
+
 	/**
 	 * only used (once) by {@link DoubleWrapper} to instantiate
 	 * {@link DoubleWrapper#FACTORY}
@@ -186,4 +192,14 @@ public class DoubleWrapperFactory
 	{
 		return new DoubleWrapper(random.nextDouble());
 	}
+
+	/**
+	 * @return a reduction using pairwise summation.
+	 * @see PairwiseSumReduction
+	 */
+	@Override
+	public Reduction<DoubleWrapper> getSumOperator()
+	{
+		return SUM_OPERATOR;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,763 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.doublewrapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.Matrix;
+import org.jlinalg.Vector;
+
+/**
+ * A matrix of doubles stored in a file and accessed through memory mapping,
+ * for matrices too large to be held as {@link DoubleWrapper}[][] in the heap.
+ * <P>
+ * The file is split into square tiles of <code>tileSize</code> x
+ * <code>tileSize</code> doubles (edge tiles are padded). Tiles are mapped on
+ * demand and at most <code>maxResidentTiles</code> of them are kept mapped;
+ * the least recently used tile is dropped when this bound is exceeded. The
+ * tile size hence determines the size of the pages mapped, and the product of
+ * the two parameters bounds the address space in use.
+ * <P>
+ * As for {@link Matrix}, rows and columns are numbered from 1. Instances are
+ * not thread safe. A transposed view created by {@link #transpose()} shares
+ * the file and the cache of tiles with the matrix it is created from.
+ */
+public class MappedDoubleMatrix
+		implements
+		Closeable
+{
+	/**
+	 * the first int in a file ("JLMD").
+	 */
+	private static final int MAGIC = 0x4A4C4D44;
+
+	/**
+	 * the version of the file format.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * the number of bytes reserved for the header; the tiles start
+	 * page-aligned after it.
+	 */
+	private static final int HEADER_SIZE = 4096;
+
+	/**
+	 * the largest tile size, for which a tile fits into an array and into
+	 * one mapping (both are limited to {@link Integer#MAX_VALUE} elements or
+	 * bytes).
+	 */
+	public static final int MAX_TILE_SIZE = (int) Math
+			.sqrt(Integer.MAX_VALUE / Double.BYTES);
+
+	/**
+	 * the file and the cache of tiles.
+	 */
+	private final Storage storage;
+
+	/**
+	 * true if this is a transposed view on {@link #storage}.
+	 */
+	private final boolean transposed;
+
+	/**
+	 * @param storage
+	 * @param transposed
+	 */
+	private MappedDoubleMatrix(Storage storage, boolean transposed)
+	{
+		this.storage = storage;
+		this.transposed = transposed;
+	}
+
+	/**
+	 * Create a new file for a matrix filled with zeros. An existing file is
+	 * overwritten.
+	 * 
+	 * @param file
+	 * @param rows
+	 * @param cols
+	 * @param tileSize
+	 *            the number of rows and columns of a tile, at most
+	 *            {@link #MAX_TILE_SIZE}.
+	 * @param maxResidentTiles
+	 *            the maximal number of tiles mapped at any time.
+	 * @return the matrix
+	 * @throws IOException
+	 * @throws InvalidOperationException
+	 *             if a parameter is not positive or the tile size is too
+	 *             large.
+	 */
+	public static MappedDoubleMatrix create(Path file, int rows, int cols,
+			int tileSize, int maxResidentTiles) throws IOException
+	{
+		if (rows < 1 || cols < 1 || tileSize < 1 || tileSize > MAX_TILE_SIZE
+				|| maxResidentTiles < 1)
+		{
+			throw new InvalidOperationException("illegal dimensions " + rows
+					+ "x" + cols + " with tile size " + tileSize + " and "
+					+ maxResidentTiles + " resident tiles");
+		}
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		ByteBuffer header = ByteBuffer.allocate(5 * 4);
+		header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(cols)
+				.putInt(tileSize).flip();
+		while (header.hasRemaining()) {
+			channel.write(header);
+		}
+		Storage storage = new Storage(channel, MapMode.READ_WRITE, rows, cols,
+				tileSize, maxResidentTiles);
+		// extend the file to its full size
+		channel.write(ByteBuffer.allocate(1), storage.fileSize() - 1);
+		return new MappedDoubleMatrix(storage, false);
+	}
+
+	/**
+	 * Create a new file containing the entries of <code>m</code>.
+	 * 
+	 * @see #create(Path, int, int, int, int)
+	 */
+	public static MappedDoubleMatrix create(Path file, Matrix<DoubleWrapper> m,
+			int tileSize, int maxResidentTiles) throws IOException
+	{
+		MappedDoubleMatrix result = create(file, m.getRows(), m.getCols(),
+				tileSize, maxResidentTiles);
+		BlockReader reader = blockReader(m);
+		int ts = tileSize;
+		double[] block = new double[ts * ts];
+		for (int r0 = 0; r0 < m.getRows(); r0 += ts) {
+			for (int c0 = 0; c0 < m.getCols(); c0 += ts) {
+				int nr = Math.min(ts, m.getRows() - r0);
+				int nc = Math.min(ts, m.getCols() - c0);
+				reader.read(r0, c0, nr, nc, block);
+				result.storage.writeBlock(r0, c0, nr, nc, block);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Open a file created by {@link #create(Path, int, int, int, int)}.
+	 * 
+	 * @param file
+	 * @param maxResidentTiles
+	 *            the maximal number of tiles mapped at any time.
+	 * @param writable
+	 *            if false, the file is mapped read only and {@link #set} fails.
+	 * @return the matrix
+	 * @throws IOException
+	 *             if the file cannot be read or has not the expected format.
+	 */
+	public static MappedDoubleMatrix open(Path file, int maxResidentTiles,
+			boolean writable) throws IOException
+	{
+		FileChannel channel = writable ? FileChannel.open(file,
+				StandardOpenOption.READ, StandardOpenOption.WRITE) : FileChannel
+				.open(file, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(5 * 4);
+			while (header.hasRemaining()) {
+				if (channel.read(header) < 0) {
+					throw new IOException(file + " is too short");
+				}
+			}
+			header.flip();
+			if (header.getInt() != MAGIC) {
+				throw new IOException(file + " is not a mapped matrix");
+			}
+			int version = header.getInt();
+			if (version != VERSION) {
+				throw new IOException("unsupported version " + version);
+			}
+			int rows = header.getInt();
+			int cols = header.getInt();
+			int tileSize = header.getInt();
+			if (rows < 1 || cols < 1 || tileSize < 1
+					|| tileSize > MAX_TILE_SIZE)
+			{
+				throw new IOException(file + " has illegal dimensions " + rows
+						+ "x" + cols + " with tile size " + tileSize);
+			}
+			Storage storage = new Storage(channel,
+					writable ? MapMode.READ_WRITE : MapMode.READ_ONLY, rows,
+					cols, tileSize, maxResidentTiles);
+			if (channel.size() < storage.fileSize()) {
+				throw new IOException(file + " is truncated");
+			}
+			return new MappedDoubleMatrix(storage, false);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the number of rows
+	 */
+	public int getRows()
+	{
+		return transposed ? storage.cols : storage.rows;
+	}
+
+	/**
+	 * @return the number of columns
+	 */
+	public int getCols()
+	{
+		return transposed ? storage.rows : storage.cols;
+	}
+
+	/**
+	 * @return the number of rows and columns of a tile.
+	 */
+	public int getTileSize()
+	{
+		return storage.tileSize;
+	}
+
+	/**
+	 * @return the number of tiles currently mapped.
+	 */
+	public int getResidentTiles()
+	{
+		return storage.tiles.size();
+	}
+
+	/**
+	 * @param row
+	 * @param col
+	 * @return the entry at (row, col)
+	 * @throws InvalidOperationException
+	 *             if the position is not within the matrix.
+	 */
+	public double get(int row, int col)
+	{
+		checkIndices(row, col);
+		return transposed ? storage.get(col - 1, row - 1) : storage.get(
+				row - 1, col - 1);
+	}
+
+	/**
+	 * @param row
+	 * @param col
+	 * @param value
+	 *            the new entry at (row, col)
+	 * @throws InvalidOperationException
+	 *             if the position is not within the matrix.
+	 */
+	public void set(int row, int col, double value)
+	{
+		checkIndices(row, col);
+		if (transposed) {
+			storage.set(col - 1, row - 1, value);
+		}
+		else {
+			storage.set(row - 1, col - 1, value);
+		}
+	}
+
+	/**
+	 * @return a transposed view on this matrix. No data is copied.
+	 */
+	public MappedDoubleMatrix transpose()
+	{
+		return new MappedDoubleMatrix(storage, !transposed);
+	}
+
+	/**
+	 * @param row
+	 * @return a copy of the row with index <code>row</code>
+	 */
+	public double[] getRow(int row)
+	{
+		checkIndices(row, 1);
+		double[] result = new double[getCols()];
+		readBlock(row - 1, 0, 1, getCols(), result);
+		return result;
+	}
+
+	/**
+	 * Iterate over the rows of this matrix. Each call to
+	 * {@link Iterator#next()} returns a new array. Rows are read in order, so
+	 * that the tiles of a band of rows remain mapped while the band is
+	 * traversed if <code>maxResidentTiles</code> is at least the number of
+	 * tiles in a row.
+	 * 
+	 * @return an iterator over the rows.
+	 */
+	public Iterator<double[]> rowIterator()
+	{
+		return new Iterator<double[]>() {
+			int row = 1;
+
+			@Override
+			public boolean hasNext()
+			{
+				return row <= getRows();
+			}
+
+			@Override
+			public double[] next()
+			{
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return getRow(row++);
+			}
+		};
+	}
+
+	/**
+	 * Multiply this matrix with a vector. Each tile is read once.
+	 * 
+	 * @param x
+	 *            a vector of length {@link #getCols()}
+	 * @return this * x
+	 */
+	public double[] multiply(double[] x)
+	{
+		if (x.length != getCols()) {
+			throw new InvalidOperationException("Tried to multiply a "
+					+ getRows() + "x" + getCols()
+					+ " matrix with a vector of length " + x.length);
+		}
+		int ts = storage.tileSize;
+		double[] y = new double[getRows()];
+		double[] block = new double[ts * ts];
+		for (int r0 = 0; r0 < getRows(); r0 += ts) {
+			int nr = Math.min(ts, getRows() - r0);
+			for (int c0 = 0; c0 < getCols(); c0 += ts) {
+				int nc = Math.min(ts, getCols() - c0);
+				readBlock(r0, c0, nr, nc, block);
+				for (int i = 0; i < nr; i++) {
+					double sum = 0;
+					int offset = i * nc;
+					for (int j = 0; j < nc; j++) {
+						sum += block[offset + j] * x[c0 + j];
+					}
+					y[r0 + i] += sum;
+				}
+			}
+		}
+		return y;
+	}
+
+	/**
+	 * @param v
+	 * @return this * v
+	 * @see #multiply(double[])
+	 */
+	public Vector<DoubleWrapper> multiply(Vector<DoubleWrapper> v)
+	{
+		double[] x = new double[v.length()];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = v.getEntry(i + 1).getValue();
+		}
+		double[] y = multiply(x);
+		DoubleWrapper[] entries = DoubleWrapperFactory.INSTANCE
+				.getArray(y.length);
+		for (int i = 0; i < y.length; i++) {
+			entries[i] = DoubleWrapperFactory.INSTANCE.get(y[i]);
+		}
+		return new Vector<>(entries);
+	}
+
+	/**
+	 * Multiply this matrix with another mapped matrix. The product is computed
+	 * tile by tile and written to a new file with the tile size and number of
+	 * resident tiles of this matrix.
+	 * 
+	 * @param other
+	 * @param target
+	 *            the file for the product.
+	 * @return this * other
+	 * @throws IOException
+	 */
+	public MappedDoubleMatrix multiply(MappedDoubleMatrix other, Path target)
+			throws IOException
+	{
+		return multiply(other::readBlock, other.getRows(), other.getCols(),
+				target);
+	}
+
+	/**
+	 * Multiply this matrix with a matrix in the heap.
+	 * 
+	 * @see #multiply(MappedDoubleMatrix, Path)
+	 */
+	public MappedDoubleMatrix multiply(Matrix<DoubleWrapper> other, Path target)
+			throws IOException
+	{
+		return multiply(blockReader(other), other.getRows(), other.getCols(),
+				target);
+	}
+
+	/**
+	 * @return this matrix as a matrix in the heap.
+	 */
+	public Matrix<DoubleWrapper> toMatrix()
+	{
+		Matrix<DoubleWrapper> m = new Matrix<>(getRows(), getCols(),
+				DoubleWrapperFactory.INSTANCE);
+		DoubleWrapper[][] entries = m.getEntries();
+		double[] row = new double[getCols()];
+		for (int r = 0; r < getRows(); r++) {
+			readBlock(r, 0, 1, getCols(), row);
+			for (int c = 0; c < row.length; c++) {
+				entries[r][c] = DoubleWrapperFactory.INSTANCE.get(row[c]);
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * Write all changes to the file. Changes to tiles which are no longer
+	 * resident were written when the tiles were dropped.
+	 */
+	public void flush()
+	{
+		for (Tile t : storage.tiles.values()) {
+			t.bytes.force();
+		}
+	}
+
+	/**
+	 * Flush and close the file. Transposed views on this matrix become
+	 * unusable.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (storage.mode == MapMode.READ_WRITE) {
+			flush();
+		}
+		storage.tiles.clear();
+		storage.channel.close();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "MappedDoubleMatrix " + getRows() + "x" + getCols()
+				+ (transposed ? " (transposed)" : "") + ", tile size "
+				+ storage.tileSize;
+	}
+
+	/**
+	 * the tiled multiplication.
+	 */
+	private MappedDoubleMatrix multiply(BlockReader other, int otherRows,
+			int otherCols, Path target) throws IOException
+	{
+		if (getCols() != otherRows) {
+			throw new InvalidOperationException("Tried to multiply a "
+					+ getRows() + "x" + getCols() + " matrix with a "
+					+ otherRows + "x" + otherCols + " matrix");
+		}
+		int ts = storage.tileSize;
+		MappedDoubleMatrix result = create(target, getRows(), otherCols, ts,
+				storage.maxResidentTiles);
+		double[] a = new double[ts * ts];
+		double[] b = new double[ts * ts];
+		double[] c = new double[ts * ts];
+		for (int r0 = 0; r0 < getRows(); r0 += ts) {
+			int nr = Math.min(ts, getRows() - r0);
+			for (int c0 = 0; c0 < otherCols; c0 += ts) {
+				int nc = Math.min(ts, otherCols - c0);
+				Arrays.fill(c, 0, nr * nc, 0.0);
+				for (int k0 = 0; k0 < getCols(); k0 += ts) {
+					int nk = Math.min(ts, getCols() - k0);
+					readBlock(r0, k0, nr, nk, a);
+					other.read(k0, c0, nk, nc, b);
+					for (int i = 0; i < nr; i++) {
+						for (int k = 0; k < nk; k++) {
+							double aik = a[i * nk + k];
+							if (aik == 0.0) {
+								continue;
+							}
+							int bOffset = k * nc;
+							int cOffset = i * nc;
+							for (int j = 0; j < nc; j++) {
+								c[cOffset + j] += aik * b[bOffset + j];
+							}
+						}
+					}
+				}
+				result.storage.writeBlock(r0, c0, nr, nc, c);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Read a block of this matrix (0-based indices) into <code>buf</code>,
+	 * row by row with <code>nc</code> entries per row.
+	 */
+	private void readBlock(int r0, int c0, int nr, int nc, double[] buf)
+	{
+		if (transposed) {
+			storage.readBlock(c0, r0, nc, nr, buf, true);
+		}
+		else {
+			storage.readBlock(r0, c0, nr, nc, buf, false);
+		}
+	}
+
+	/**
+	 * @throws InvalidOperationException
+	 *             if the position is not within the matrix.
+	 */
+	private void checkIndices(int row, int col)
+	{
+		if (row < 1 || row > getRows() || col < 1 || col > getCols()) {
+			throw new InvalidOperationException("Tried to access (" + row
+					+ ", " + col + ") in a " + getRows() + "x" + getCols()
+					+ " matrix");
+		}
+	}
+
+	/**
+	 * @return a reader for blocks of a matrix in the heap.
+	 */
+	private static BlockReader blockReader(Matrix<DoubleWrapper> m)
+	{
+		DoubleWrapper[][] entries = m.getEntries();
+		return (r0, c0, nr, nc, buf) -> {
+			for (int i = 0; i < nr; i++) {
+				DoubleWrapper[] row = entries[r0 + i];
+				for (int j = 0; j < nc; j++) {
+					buf[i * nc + j] = row[c0 + j].getValue();
+				}
+			}
+		};
+	}
+
+	/**
+	 * reads a block of a matrix with 0-based indices into an array, row by
+	 * row.
+	 */
+	private interface BlockReader
+	{
+		void read(int r0, int c0, int nr, int nc, double[] buf);
+	}
+
+	/**
+	 * A mapped tile.
+	 */
+	private static final class Tile
+	{
+		/**
+		 * the mapping
+		 */
+		final MappedByteBuffer bytes;
+
+		/**
+		 * a view of {@link #bytes} as doubles.
+		 */
+		final DoubleBuffer values;
+
+		Tile(MappedByteBuffer bytes)
+		{
+			this.bytes = bytes;
+			bytes.order(ByteOrder.LITTLE_ENDIAN);
+			values = bytes.asDoubleBuffer();
+		}
+	}
+
+	/**
+	 * The file and the cache of mapped tiles. All indices are 0-based and
+	 * refer to the matrix as stored.
+	 */
+	private static final class Storage
+	{
+		final FileChannel channel;
+
+		final MapMode mode;
+
+		final int rows, cols, tileSize, maxResidentTiles;
+
+		/**
+		 * the number of tiles in a row of tiles.
+		 */
+		final int tilesPerRow;
+
+		/**
+		 * the mapped tiles in the order of their last use.
+		 */
+		final LinkedHashMap<Long, Tile> tiles;
+
+		Storage(FileChannel channel, MapMode mode, int rows, int cols,
+				int tileSize, final int maxResidentTiles)
+		{
+			this.channel = channel;
+			this.mode = mode;
+			this.rows = rows;
+			this.cols = cols;
+			this.tileSize = tileSize;
+			this.maxResidentTiles = maxResidentTiles;
+			tilesPerRow = (cols + tileSize - 1) / tileSize;
+			tiles = new LinkedHashMap<Long, Tile>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Long, Tile> e)
+				{
+					if (size() <= maxResidentTiles) return false;
+					if (Storage.this.mode == MapMode.READ_WRITE) {
+						// the changes must not be lost with the mapping
+						e.getValue().bytes.force();
+					}
+					return true;
+				}
+			};
+		}
+
+		/**
+		 * @return the size of the file in bytes.
+		 */
+		long fileSize()
+		{
+			long tileRows = (rows + tileSize - 1) / tileSize;
+			return HEADER_SIZE + tileRows * tilesPerRow * tileBytes();
+		}
+
+		/**
+		 * @return the number of bytes in a tile.
+		 */
+		long tileBytes()
+		{
+			return (long) tileSize * tileSize * Double.BYTES;
+		}
+
+		/**
+		 * @return the tile containing the entry (row, col), mapping it if
+		 *         necessary.
+		 */
+		Tile tile(int row, int col)
+		{
+			long index = (long) (row / tileSize) * tilesPerRow + col
+					/ tileSize;
+			Tile t = tiles.get(index);
+			if (t == null) {
+				try {
+					t = new Tile(channel.map(mode, HEADER_SIZE + index
+							* tileBytes(), tileBytes()));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				tiles.put(index, t);
+			}
+			return t;
+		}
+
+		/**
+		 * @return the position of the entry (row, col) within its tile.
+		 */
+		int offset(int row, int col)
+		{
+			return (row % tileSize) * tileSize + col % tileSize;
+		}
+
+		double get(int row, int col)
+		{
+			return tile(row, col).values.get(offset(row, col));
+		}
+
+		void set(int row, int col, double value)
+		{
+			if (mode != MapMode.READ_WRITE) {
+				throw new InvalidOperationException(
+						"the matrix was opened read only");
+			}
+			tile(row, col).values.put(offset(row, col), value);
+		}
+
+		/**
+		 * Read a block into <code>buf</code>. If <code>transpose</code> is
+		 * true, the transposed block is written into <code>buf</code> (with
+		 * <code>nr</code> entries per row).
+		 */
+		void readBlock(int r0, int c0, int nr, int nc, double[] buf,
+				boolean transpose)
+		{
+			for (int tr = r0; tr < r0 + nr; tr = (tr / tileSize + 1)
+					* tileSize) {
+				int rEnd = Math.min(r0 + nr, (tr / tileSize + 1) * tileSize);
+				for (int tc = c0; tc < c0 + nc; tc = (tc / tileSize + 1)
+						* tileSize) {
+					int cEnd = Math
+							.min(c0 + nc, (tc / tileSize + 1) * tileSize);
+					DoubleBuffer values = tile(tr, tc).values;
+					for (int r = tr; r < rEnd; r++) {
+						int offset = offset(r, tc);
+						if (transpose) {
+							for (int c = tc; c < cEnd; c++) {
+								buf[(c - c0) * nr + r - r0] = values
+										.get(offset + c - tc);
+							}
+						}
+						else {
+							DoubleBuffer src = values.duplicate();
+							src.position(offset);
+							src.get(buf, (r - r0) * nc + tc - c0, cEnd - tc);
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Write a block given row by row in <code>buf</code>.
+		 */
+		void writeBlock(int r0, int c0, int nr, int nc, double[] buf)
+		{
+			for (int tr = r0; tr < r0 + nr; tr = (tr / tileSize + 1)
+					* tileSize) {
+				int rEnd = Math.min(r0 + nr, (tr / tileSize + 1) * tileSize);
+				for (int tc = c0; tc < c0 + nc; tc = (tc / tileSize + 1)
+						* tileSize) {
+					int cEnd = Math
+							.min(c0 + nc, (tc / tileSize + 1) * tileSize);
+					DoubleBuffer values = tile(tr, tc).values;
+					for (int r = tr; r < rEnd; r++) {
+						DoubleBuffer dst = values.duplicate();
+						dst.position(offset(r, tc));
+						dst.put(buf, (r - r0) * nc + tc - c0, cEnd - tc);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.doublewrapper;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+
+import org.jlinalg.operator.SumReduction;
+
+/**
+ * Sums {@link DoubleWrapper}s by pairwise (cascade) summation: the values are
+ * copied into an array of doubles, which is summed by recursively adding the
+ * sums of its halves. Compared with adding from left to right, this reduces
+ * the growth of the rounding error from O(n) to O(log n) and avoids creating
+ * an intermediate {@link DoubleWrapper} per element.
+ */
+class PairwiseSumReduction
+		extends
+		SumReduction<DoubleWrapper>
+{
+	/**
+	 * the size of the blocks summed from left to right.
+	 */
+	private static final int BLOCK = 32;
+
+	@Override
+	protected DoubleWrapper reduce(Spliterator<DoubleWrapper> elements)
+	{
+		long size = elements.getExactSizeIfKnown();
+		double[] values = new double[size >= 0 && size <= Integer.MAX_VALUE
+				? (int) size : 16];
+		int n = 0;
+		DoubleWrapper[] next = new DoubleWrapper[1];
+		while (elements.tryAdvance(e -> next[0] = e)) {
+			if (n == values.length) {
+				values = Arrays.copyOf(values, 2 * n + 1);
+			}
+			values[n++] = next[0].value;
+		}
+		if (n == 0) {
+			return null;
+		}
+		return DoubleWrapperFactory.INSTANCE.get(sum(values, 0, n));
+	}
+
+	/**
+	 * @return the sum of values[from] to values[to - 1]
+	 */
+	static double sum(double[] values, int from, int to)
+	{
+		if (to - from <= BLOCK) {
+			double s = 0;
+			for (int i = from; i < to; i++) {
+				s += values[i];
+			}
+			return s;
+		}
+		int middle = (from + to) >>> 1;
+		return sum(values, from, middle) + sum(values, middle, to);
+	}
+}
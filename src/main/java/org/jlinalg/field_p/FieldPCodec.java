@@ -0,0 +1,96 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.field_p;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigInteger;
+
+import org.jlinalg.IRingElementFactory;
+import org.jlinalg.io.ElementCodec;
+import org.jlinalg.io.Varint;
+
+/**
+ * The {@link ElementCodec} for {@link FieldP}. The field size is written with
+ * the factory, the elements as unsigned variable length longs (for
+ * {@link FieldPLong}) or as big integers (for {@link FieldPBig}).
+ * 
+ * @see org.jlinalg.io.ElementCodecs
+ */
+public class FieldPCodec
+		implements
+		ElementCodec<FieldP>
+{
+	@Override
+	public byte getId()
+	{
+		return 6;
+	}
+
+	@Override
+	public boolean accepts(IRingElementFactory<?> factory)
+	{
+		return factory instanceof FieldPAbstractFactory;
+	}
+
+	@Override
+	public void writeFactory(IRingElementFactory<FieldP> factory,
+			DataOutput out) throws IOException
+	{
+		Number p = ((FieldPAbstractFactory) factory).getFieldSize();
+		Varint.writeBigInteger(new BigInteger(p.toString()), out);
+	}
+
+	@Override
+	public IRingElementFactory<FieldP> readFactory(DataInput in)
+			throws IOException
+	{
+		return FieldPFactoryMap.getFactory(Varint.readBigInteger(in)
+				.toString());
+	}
+
+	@Override
+	public void write(FieldP[] row, DataOutput out) throws IOException
+	{
+		for (FieldP e : row) {
+			Number value = e.getInternalValue();
+			if (value instanceof Long) {
+				Varint.writeUnsigned(value.longValue(), out);
+			}
+			else {
+				Varint.writeBigInteger((BigInteger) value, out);
+			}
+		}
+	}
+
+	@Override
+	public void read(FieldP[] row, IRingElementFactory<FieldP> factory,
+			DataInput in) throws IOException
+	{
+		if (factory instanceof FieldPLongFactory) {
+			for (int i = 0; i < row.length; i++) {
+				row[i] = factory.get(Varint.readUnsigned(in));
+			}
+		}
+		else {
+			for (int i = 0; i < row.length; i++) {
+				row[i] = factory.get(Varint.readBigInteger(in));
+			}
+		}
+	}
+}
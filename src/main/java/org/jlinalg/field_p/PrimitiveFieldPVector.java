@@ -0,0 +1,395 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.field_p;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.Matrix;
+import org.jlinalg.Vector;
+
+/**
+ * A vector over F<sub>p</sub> for p &lt; 2<sup>31.5</sup> (see
+ * {@link FieldPLong}) whose entries are stored as longs in the range 0..p-1.
+ * Sums of products are accumulated without reduction modulo p for as long as
+ * they cannot overflow, which for small p means that a dot product needs a
+ * single division.
+ * <P>
+ * The kernels
+ * {@link #gemv(long, Matrix, PrimitiveFieldPVector, long, PrimitiveFieldPVector)}
+ * and
+ * {@link #gevm(long, PrimitiveFieldPVector, Matrix, long, PrimitiveFieldPVector)}
+ * follow the BLAS conventions: they write into a vector supplied by the
+ * caller, read each entry of the matrix once and in the order of its storage,
+ * and allocate nothing. As for {@link Vector}, entries are numbered from 1.
+ */
+public class PrimitiveFieldPVector
+		implements
+		Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * the field
+	 */
+	private final FieldPLongFactory factory;
+
+	/**
+	 * the entries, each in the range 0..p-1
+	 */
+	private final long[] values;
+
+	/**
+	 * Create a vector filled with zeros.
+	 * 
+	 * @param length
+	 * @param factory
+	 *            the field
+	 */
+	public PrimitiveFieldPVector(int length, FieldPLongFactory factory)
+	{
+		this.factory = factory;
+		values = new long[length];
+	}
+
+	/**
+	 * Create a vector with the given entries, which are reduced modulo p.
+	 * 
+	 * @param factory
+	 *            the field
+	 * @param values
+	 *            the entries
+	 */
+	public PrimitiveFieldPVector(FieldPLongFactory factory, long... values)
+	{
+		this.factory = factory;
+		long p = factory.getFieldSize();
+		this.values = new long[values.length];
+		for (int i = 0; i < values.length; i++) {
+			this.values[i] = FieldPLongFactory.normalize(values[i], p);
+		}
+	}
+
+	/**
+	 * Create a vector with the values of the entries of a {@link Vector}.
+	 * 
+	 * @param vector
+	 *            a vector with elements from a {@link FieldPLongFactory}
+	 * @throws InvalidOperationException
+	 *             if the elements are from a field for which the
+	 *             {@link FieldPBig} is used.
+	 */
+	public PrimitiveFieldPVector(Vector<FieldP> vector)
+	{
+		factory = longFactory(vector.getElementFactory());
+		values = new long[vector.length()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = ((FieldPLong) vector.getEntry(i + 1)).value;
+		}
+	}
+
+	/**
+	 * @return the factory as FieldPLongFactory.
+	 */
+	private static FieldPLongFactory longFactory(Object factory)
+	{
+		if (!(factory instanceof FieldPLongFactory)) {
+			throw new InvalidOperationException(
+					"Only fields with elements of type FieldPLong are "
+							+ "supported, not " + factory);
+		}
+		return (FieldPLongFactory) factory;
+	}
+
+	/**
+	 * @return the factory of the field
+	 */
+	public FieldPLongFactory getFactory()
+	{
+		return factory;
+	}
+
+	/**
+	 * @return the number of entries
+	 */
+	public int length()
+	{
+		return values.length;
+	}
+
+	/**
+	 * @param index
+	 *            the index of the entry (from 1)
+	 * @return the entry (in the range 0..p-1)
+	 */
+	public long get(int index)
+	{
+		return values[index - 1];
+	}
+
+	/**
+	 * @param index
+	 *            the index of the entry (from 1)
+	 * @param value
+	 *            the new value of the entry, which is reduced modulo p.
+	 */
+	public void set(int index, long value)
+	{
+		values[index - 1] = FieldPLongFactory.normalize(value, factory
+				.getFieldSize());
+	}
+
+	/**
+	 * @return a {@link Vector} with the same entries.
+	 */
+	public Vector<FieldP> toVector()
+	{
+		Vector<FieldP> v = new Vector<>(values.length, factory);
+		for (int i = 0; i < values.length; i++) {
+			v.set(i + 1, new FieldPLong(values[i], factory));
+		}
+		return v;
+	}
+
+	/**
+	 * @return a deep copy of this vector
+	 */
+	public PrimitiveFieldPVector copy()
+	{
+		PrimitiveFieldPVector c = new PrimitiveFieldPVector(values.length, factory);
+		System.arraycopy(values, 0, c.values, 0, values.length);
+		return c;
+	}
+
+	/**
+	 * @return the number of products of two elements which can be added to a
+	 *         value less than p without overflowing a long.
+	 */
+	private static long batch(long p)
+	{
+		return (Long.MAX_VALUE - p) / ((p - 1) * (p - 1));
+	}
+
+	/**
+	 * @param x
+	 *            a vector of the same length over the same field
+	 * @return the dot product of this vector and x
+	 */
+	public long dot(PrimitiveFieldPVector x)
+	{
+		check(x, values.length);
+		long p = factory.getFieldSize();
+		long batch = batch(p);
+		long[] b = x.values;
+		long s = 0;
+		long k = 0;
+		for (int i = 0; i < values.length; i++) {
+			s += values[i] * b[i];
+			if (++k == batch) {
+				s %= p;
+				k = 0;
+			}
+		}
+		return s % p;
+	}
+
+	/**
+	 * Add a multiple of another vector to this one: this = this + alpha x.
+	 * 
+	 * @param alpha
+	 * @param x
+	 *            a vector of the same length over the same field
+	 */
+	public void axpy(long alpha, PrimitiveFieldPVector x)
+	{
+		check(x, values.length);
+		long p = factory.getFieldSize();
+		alpha = FieldPLongFactory.normalize(alpha, p);
+		long[] b = x.values;
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (values[i] + alpha * b[i]) % p;
+		}
+	}
+
+	/**
+	 * @param a
+	 *            a matrix with as many columns as this vector has entries
+	 * @return the product A x of the matrix and this vector
+	 */
+	public PrimitiveFieldPVector multiplyFromLeft(Matrix<FieldP> a)
+	{
+		PrimitiveFieldPVector y = new PrimitiveFieldPVector(a.getRows(), factory);
+		gemv(1, a, this, 0, y);
+		return y;
+	}
+
+	/**
+	 * @param a
+	 *            a matrix with as many rows as this vector has entries
+	 * @return the product x<sup>T</sup> A of this (row) vector and the matrix,
+	 *         i.e. A<sup>T</sup> x.
+	 */
+	public PrimitiveFieldPVector multiply(Matrix<FieldP> a)
+	{
+		PrimitiveFieldPVector y = new PrimitiveFieldPVector(a.getCols(), factory);
+		gevm(1, this, a, 0, y);
+		return y;
+	}
+
+	/**
+	 * Calculate y = alpha A x + beta y in F<sub>p</sub>.
+	 * 
+	 * @param alpha
+	 * @param a
+	 *            an m x n matrix over the field of x and y
+	 * @param x
+	 *            a vector of length n
+	 * @param beta
+	 * @param y
+	 *            a vector of length m, which must not be x
+	 */
+	public static void gemv(long alpha, Matrix<FieldP> a,
+			PrimitiveFieldPVector x, long beta, PrimitiveFieldPVector y)
+	{
+		checkMatrix(a, x.factory);
+		x.check(y, a.getRows());
+		x.check(x, a.getCols());
+		FieldP[][] entries = a.getEntries();
+		long p = x.factory.getFieldSize();
+		long batch = batch(p);
+		alpha = FieldPLongFactory.normalize(alpha, p);
+		beta = FieldPLongFactory.normalize(beta, p);
+		long[] xv = x.values;
+		long[] yv = y.values;
+		int cols = a.getCols();
+		for (int i = 0; i < yv.length; i++) {
+			FieldP[] row = entries[i];
+			long s = 0;
+			long k = 0;
+			for (int j = 0; j < cols; j++) {
+				s += ((FieldPLong) row[j]).value * xv[j];
+				if (++k == batch) {
+					s %= p;
+					k = 0;
+				}
+			}
+			yv[i] = (alpha * (s % p) % p + beta * yv[i]) % p;
+		}
+	}
+
+	/**
+	 * Calculate y = alpha x<sup>T</sup> A + beta y in F<sub>p</sub>, i.e. the
+	 * transposed product y = alpha A<sup>T</sup> x + beta y. The rows of A are
+	 * added to y one after the other, so that A is read in the order of its
+	 * storage.
+	 * 
+	 * @param alpha
+	 * @param x
+	 *            a vector of length m
+	 * @param a
+	 *            an m x n matrix over the field of x and y
+	 * @param beta
+	 * @param y
+	 *            a vector of length n, which must not be x
+	 */
+	public static void gevm(long alpha, PrimitiveFieldPVector x,
+			Matrix<FieldP> a, long beta, PrimitiveFieldPVector y)
+	{
+		checkMatrix(a, x.factory);
+		x.check(x, a.getRows());
+		x.check(y, a.getCols());
+		FieldP[][] entries = a.getEntries();
+		long p = x.factory.getFieldSize();
+		long batch = batch(p);
+		alpha = FieldPLongFactory.normalize(alpha, p);
+		beta = FieldPLongFactory.normalize(beta, p);
+		long[] xv = x.values;
+		long[] yv = y.values;
+		for (int j = 0; j < yv.length; j++) {
+			yv[j] = beta * yv[j] % p;
+		}
+		long k = 0;
+		for (int i = 0; i < xv.length; i++) {
+			FieldP[] row = entries[i];
+			long c = alpha * xv[i] % p;
+			for (int j = 0; j < yv.length; j++) {
+				yv[j] += c * ((FieldPLong) row[j]).value;
+			}
+			if (++k == batch) {
+				for (int j = 0; j < yv.length; j++) {
+					yv[j] %= p;
+				}
+				k = 0;
+			}
+		}
+		for (int j = 0; j < yv.length; j++) {
+			yv[j] %= p;
+		}
+	}
+
+	/**
+	 * @throws InvalidOperationException
+	 *             if the elements of the matrix are not from the given field.
+	 */
+	private static void checkMatrix(Matrix<FieldP> a,
+			FieldPLongFactory factory)
+	{
+		if (a.getFactory() != factory) {
+			throw new InvalidOperationException("The matrix is over "
+					+ a.getFactory() + " and not over " + factory);
+		}
+	}
+
+	/**
+	 * @throws InvalidOperationException
+	 *             if v is not over the field of this vector or its length is
+	 *             not length
+	 */
+	private void check(PrimitiveFieldPVector v, int length)
+	{
+		if (v.factory != factory) {
+			throw new InvalidOperationException("The vectors are over "
+					+ factory + " and " + v.factory);
+		}
+		if (v.values.length != length) {
+			throw new InvalidOperationException("A vector of length "
+					+ v.values.length + " where one of length " + length
+					+ " is needed");
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (!(obj instanceof PrimitiveFieldPVector)) return false;
+		PrimitiveFieldPVector v = (PrimitiveFieldPVector) obj;
+		return factory == v.factory && Arrays.equals(values, v.values);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Arrays.hashCode(values);
+	}
+
+	@Override
+	public String toString()
+	{
+		return Arrays.toString(values);
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.jlinalg.IRingElement;
+import org.jlinalg.IRingElementFactory;
+
+/**
+ * Translates the elements of one type (and their factory) to and from a
+ * compact binary representation. Codecs are used by {@link MatrixIO} and are
+ * looked up by {@link ElementCodecs}; each codec is identified in the stream
+ * by the byte returned by {@link #getId()}.
+ * <P>
+ * Elements are written and read a row at a time, which permits codecs to pack
+ * several elements into one byte (see the codec for
+ * {@link org.jlinalg.f2.F2}).
+ * 
+ * @param <RE>
+ *            the type of the elements handled by this codec.
+ */
+public interface ElementCodec<RE extends IRingElement<RE>>
+{
+	/**
+	 * @return the identifier of this codec in a stream. Identifiers below 64
+	 *         are reserved for the codecs in JLinAlg.
+	 */
+	byte getId();
+
+	/**
+	 * @param factory
+	 * @return true if this codec can write the elements created by
+	 *         <code>factory</code>.
+	 */
+	boolean accepts(IRingElementFactory<?> factory);
+
+	/**
+	 * Write the parameters needed to re-create <code>factory</code>, for
+	 * example the size of a finite field.
+	 * 
+	 * @param factory
+	 * @param out
+	 * @throws IOException
+	 */
+	void writeFactory(IRingElementFactory<RE> factory, DataOutput out)
+			throws IOException;
+
+	/**
+	 * @param in
+	 * @return the factory written by
+	 *         {@link #writeFactory(IRingElementFactory, DataOutput)}
+	 * @throws IOException
+	 */
+	IRingElementFactory<RE> readFactory(DataInput in) throws IOException;
+
+	/**
+	 * Write all elements in <code>row</code>.
+	 * 
+	 * @param row
+	 * @param out
+	 * @throws IOException
+	 */
+	void write(RE[] row, DataOutput out) throws IOException;
+
+	/**
+	 * Read <code>row.length</code> elements into the given array.
+	 * 
+	 * @param row
+	 *            the array to be filled.
+	 * @param factory
+	 *            the factory returned by {@link #readFactory(DataInput)}.
+	 * @param in
+	 * @throws IOException
+	 */
+	void read(RE[] row, IRingElementFactory<RE> factory, DataInput in)
+			throws IOException;
+}
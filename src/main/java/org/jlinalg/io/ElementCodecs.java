@@ -0,0 +1,484 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jlinalg.IRingElement;
+import org.jlinalg.IRingElementFactory;
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.bigdecimalwrapper.BigDecimalWrapper;
+import org.jlinalg.bigdecimalwrapper.BigDecimalWrapperFactory;
+import org.jlinalg.complex.Complex;
+import org.jlinalg.doublewrapper.DoubleWrapper;
+import org.jlinalg.doublewrapper.DoubleWrapperFactory;
+import org.jlinalg.f2.F2;
+import org.jlinalg.fastrational.FastRational;
+import org.jlinalg.fastrational.FastRationalFactory;
+import org.jlinalg.field_p.FieldPCodec;
+import org.jlinalg.rational.Rational;
+
+/**
+ * The registry of {@link ElementCodec}s. Codecs for all element types of
+ * JLinAlg except {@link org.jlinalg.polynomial.Polynomial} and
+ * {@link org.jlinalg.rationalFunction.RationalFunction} are registered by
+ * default; further codecs can be added with {@link #register(ElementCodec)}.
+ */
+public final class ElementCodecs
+{
+	/**
+	 * the registered codecs.
+	 */
+	private static final List<ElementCodec<?>> codecs = new ArrayList<>();
+
+	static {
+		register(new DoubleWrapperCodec());
+		register(new FastRationalCodec());
+		register(new RationalCodec());
+		register(new BigDecimalWrapperCodec());
+		register(new F2Codec());
+		register(new FieldPCodec());
+		register(new ComplexCodec());
+	}
+
+	/**
+	 * no instances.
+	 */
+	private ElementCodecs()
+	{
+	}
+
+	/**
+	 * Add a codec to the registry.
+	 * 
+	 * @param codec
+	 * @throws InvalidOperationException
+	 *             if a codec with the same identifier is registered already.
+	 */
+	public static synchronized void register(ElementCodec<?> codec)
+	{
+		for (ElementCodec<?> c : codecs) {
+			if (c.getId() == codec.getId()) {
+				throw new InvalidOperationException("a codec with id "
+						+ codec.getId() + " is registered already: " + c);
+			}
+		}
+		codecs.add(codec);
+	}
+
+	/**
+	 * @param <RE>
+	 *            the type of the elements
+	 * @param factory
+	 * @return the codec for the elements created by <code>factory</code>.
+	 * @throws InvalidOperationException
+	 *             if there is no such codec.
+	 */
+	@SuppressWarnings("unchecked")
+	public static synchronized <RE extends IRingElement<RE>> ElementCodec<RE> getCodec(
+			IRingElementFactory<RE> factory)
+	{
+		for (ElementCodec<?> c : codecs) {
+			if (c.accepts(factory)) {
+				return (ElementCodec<RE>) c;
+			}
+		}
+		throw new InvalidOperationException("no codec for elements of "
+				+ factory);
+	}
+
+	/**
+	 * @param id
+	 * @return the codec with the identifier <code>id</code> or null if there is
+	 *         none.
+	 */
+	public static synchronized ElementCodec<?> getCodec(byte id)
+	{
+		for (ElementCodec<?> c : codecs) {
+			if (c.getId() == id) {
+				return c;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the raw IEEE 754 values.
+	 */
+	static class DoubleWrapperCodec
+			implements
+			ElementCodec<DoubleWrapper>
+	{
+		@Override
+		public byte getId()
+		{
+			return 1;
+		}
+
+		@Override
+		public boolean accepts(IRingElementFactory<?> factory)
+		{
+			return factory instanceof DoubleWrapperFactory;
+		}
+
+		@Override
+		public void writeFactory(IRingElementFactory<DoubleWrapper> factory,
+				DataOutput out)
+		{
+			// nothing to write: there is only one factory
+		}
+
+		@Override
+		public IRingElementFactory<DoubleWrapper> readFactory(DataInput in)
+		{
+			return DoubleWrapperFactory.INSTANCE;
+		}
+
+		@Override
+		public void write(DoubleWrapper[] row, DataOutput out)
+				throws IOException
+		{
+			for (DoubleWrapper e : row) {
+				out.writeDouble(e.getValue());
+			}
+		}
+
+		@Override
+		public void read(DoubleWrapper[] row,
+				IRingElementFactory<DoubleWrapper> factory, DataInput in)
+				throws IOException
+		{
+			for (int i = 0; i < row.length; i++) {
+				row[i] = factory.get(in.readDouble());
+			}
+		}
+	}
+
+	/**
+	 * Writes numerator and denominator as signed variable length longs. The
+	 * special values {@link FastRationalFactory#UNKNOWN} and
+	 * {@link FastRationalFactory#NOTANUMBER} are preserved.
+	 */
+	static class FastRationalCodec
+			implements
+			ElementCodec<FastRational>
+	{
+		@Override
+		public byte getId()
+		{
+			return 2;
+		}
+
+		@Override
+		public boolean accepts(IRingElementFactory<?> factory)
+		{
+			return factory instanceof FastRationalFactory;
+		}
+
+		@Override
+		public void writeFactory(IRingElementFactory<FastRational> factory,
+				DataOutput out)
+		{
+			// nothing to write: there is only one factory
+		}
+
+		@Override
+		public IRingElementFactory<FastRational> readFactory(DataInput in)
+		{
+			return FastRationalFactory.INSTANCE;
+		}
+
+		@Override
+		public void write(FastRational[] row, DataOutput out)
+				throws IOException
+		{
+			for (FastRational e : row) {
+				Varint.writeSigned(e.getNumerator(), out);
+				Varint.writeSigned(e.getDenominator(), out);
+			}
+		}
+
+		@Override
+		public void read(FastRational[] row,
+				IRingElementFactory<FastRational> factory, DataInput in)
+				throws IOException
+		{
+			for (int i = 0; i < row.length; i++) {
+				long n = Varint.readSigned(in);
+				long d = Varint.readSigned(in);
+				if (d > 0) {
+					row[i] = FastRationalFactory.INSTANCE.get(n, d, false);
+				}
+				else if (n == FastRationalFactory.UNKNOWN.getNumerator()) {
+					row[i] = FastRationalFactory.UNKNOWN;
+				}
+				else {
+					row[i] = FastRationalFactory.NOTANUMBER;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes numerator and denominator with
+	 * {@link Varint#writeBigInteger(BigInteger, DataOutput)}.
+	 */
+	static class RationalCodec
+			implements
+			ElementCodec<Rational>
+	{
+		@Override
+		public byte getId()
+		{
+			return 3;
+		}
+
+		@Override
+		public boolean accepts(IRingElementFactory<?> factory)
+		{
+			return factory == Rational.FACTORY;
+		}
+
+		@Override
+		public void writeFactory(IRingElementFactory<Rational> factory,
+				DataOutput out)
+		{
+			// nothing to write: there is only one factory
+		}
+
+		@Override
+		public IRingElementFactory<Rational> readFactory(DataInput in)
+		{
+			return Rational.FACTORY;
+		}
+
+		@Override
+		public void write(Rational[] row, DataOutput out) throws IOException
+		{
+			for (Rational e : row) {
+				write(e, out);
+			}
+		}
+
+		@Override
+		public void read(Rational[] row, IRingElementFactory<Rational> factory,
+				DataInput in) throws IOException
+		{
+			for (int i = 0; i < row.length; i++) {
+				row[i] = read(in);
+			}
+		}
+
+		/**
+		 * write one rational number.
+		 */
+		static void write(Rational e, DataOutput out) throws IOException
+		{
+			Varint.writeBigInteger(e.getNumerator(), out);
+			Varint.writeBigInteger(e.getDenominator(), out);
+		}
+
+		/**
+		 * read one rational number. The fraction is not cancelled again.
+		 */
+		static Rational read(DataInput in) throws IOException
+		{
+			BigInteger n = Varint.readBigInteger(in);
+			BigInteger d = Varint.readBigInteger(in);
+			return Rational.FACTORY.get(n, d, false);
+		}
+	}
+
+	/**
+	 * Writes the precision of the factory, and the unscaled value and scale
+	 * of the elements.
+	 */
+	static class BigDecimalWrapperCodec
+			implements
+			ElementCodec<BigDecimalWrapper>
+	{
+		@Override
+		public byte getId()
+		{
+			return 4;
+		}
+
+		@Override
+		public boolean accepts(IRingElementFactory<?> factory)
+		{
+			return factory instanceof BigDecimalWrapperFactory;
+		}
+
+		@Override
+		public void writeFactory(
+				IRingElementFactory<BigDecimalWrapper> factory, DataOutput out)
+				throws IOException
+		{
+			Varint.writeUnsigned(((BigDecimalWrapperFactory) factory)
+					.getMathContext().getPrecision(), out);
+		}
+
+		@Override
+		public IRingElementFactory<BigDecimalWrapper> readFactory(DataInput in)
+				throws IOException
+		{
+			return new BigDecimalWrapperFactory((int) Varint.readUnsigned(in));
+		}
+
+		@Override
+		public void write(BigDecimalWrapper[] row, DataOutput out)
+				throws IOException
+		{
+			for (BigDecimalWrapper e : row) {
+				BigDecimal value = e.getValue();
+				Varint.writeBigInteger(value.unscaledValue(), out);
+				Varint.writeSigned(value.scale(), out);
+			}
+		}
+
+		@Override
+		public void read(BigDecimalWrapper[] row,
+				IRingElementFactory<BigDecimalWrapper> factory, DataInput in)
+				throws IOException
+		{
+			for (int i = 0; i < row.length; i++) {
+				BigInteger unscaled = Varint.readBigInteger(in);
+				int scale = (int) Varint.readSigned(in);
+				row[i] = factory.get(new BigDecimal(unscaled, scale)
+						.toString());
+			}
+		}
+	}
+
+	/**
+	 * Packs eight elements into one byte.
+	 */
+	static class F2Codec
+			implements
+			ElementCodec<F2>
+	{
+		@Override
+		public byte getId()
+		{
+			return 5;
+		}
+
+		@Override
+		public boolean accepts(IRingElementFactory<?> factory)
+		{
+			return factory == F2.FACTORY;
+		}
+
+		@Override
+		public void writeFactory(IRingElementFactory<F2> factory,
+				DataOutput out)
+		{
+			// nothing to write: there is only one factory
+		}
+
+		@Override
+		public IRingElementFactory<F2> readFactory(DataInput in)
+		{
+			return F2.FACTORY;
+		}
+
+		@Override
+		public void write(F2[] row, DataOutput out) throws IOException
+		{
+			for (int i = 0; i < row.length; i += 8) {
+				int bits = 0;
+				for (int j = i; j < i + 8 && j < row.length; j++) {
+					if (row[j] == F2.ONE) {
+						bits |= 1 << (j - i);
+					}
+				}
+				out.writeByte(bits);
+			}
+		}
+
+		@Override
+		public void read(F2[] row, IRingElementFactory<F2> factory,
+				DataInput in) throws IOException
+		{
+			for (int i = 0; i < row.length; i += 8) {
+				int bits = in.readUnsignedByte();
+				for (int j = i; j < i + 8 && j < row.length; j++) {
+					row[j] = (bits & (1 << (j - i))) != 0 ? F2.ONE : F2.ZERO;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the real and imaginary part as with {@link RationalCodec}.
+	 */
+	static class ComplexCodec
+			implements
+			ElementCodec<Complex>
+	{
+		@Override
+		public byte getId()
+		{
+			return 7;
+		}
+
+		@Override
+		public boolean accepts(IRingElementFactory<?> factory)
+		{
+			return factory == Complex.FACTORY;
+		}
+
+		@Override
+		public void writeFactory(IRingElementFactory<Complex> factory,
+				DataOutput out)
+		{
+			// nothing to write: there is only one factory
+		}
+
+		@Override
+		public IRingElementFactory<Complex> readFactory(DataInput in)
+		{
+			return Complex.FACTORY;
+		}
+
+		@Override
+		public void write(Complex[] row, DataOutput out) throws IOException
+		{
+			for (Complex e : row) {
+				RationalCodec.write(e.getReal(), out);
+				RationalCodec.write(e.getImaginary(), out);
+			}
+		}
+
+		@Override
+		public void read(Complex[] row, IRingElementFactory<Complex> factory,
+				DataInput in) throws IOException
+		{
+			for (int i = 0; i < row.length; i++) {
+				Rational real = RationalCodec.read(in);
+				Rational imaginary = RationalCodec.read(in);
+				row[i] = Complex.FACTORY.get(real, imaginary);
+			}
+		}
+	}
+}
@@ -0,0 +1,548 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.jlinalg.IRingElement;
+import org.jlinalg.IRingElementFactory;
+import org.jlinalg.Matrix;
+import org.jlinalg.Vector;
+
+/**
+ * Reads and writes matrices and vectors in a compact, versioned binary
+ * format. This format is considerably smaller and faster to read than the
+ * default Java serialisation, as no class descriptors or per-element objects
+ * are written.
+ * <P>
+ * A record consists of
+ * <ul>
+ * <li>the magic number {@link #MAGIC} and the version {@link #VERSION} of the
+ * format,</li>
+ * <li>the kind of record (matrix or vector), a byte of flags (currently
+ * only whether the elements are compressed) and the identifier of the
+ * {@link ElementCodec} used,</li>
+ * <li>the parameters of the factory as written by the codec,</li>
+ * <li>the number of rows and columns as variable length integers
+ * ({@link Varint}), and</li>
+ * <li>the elements, row by row, as written by the codec and optionally
+ * deflated. They are split into chunks of at most 64 KiB, each preceded by
+ * its length as a variable length integer; a chunk of length zero ends the
+ * record.</li>
+ * </ul>
+ * The streams and channels passed to the methods in this class are neither
+ * closed nor flushed beyond the end of the record. The readers consume
+ * exactly one record, such that several records can be read in sequence
+ * from the same stream or channel.
+ */
+public final class MatrixIO
+{
+	/**
+	 * the first four bytes of a record ("JLAB").
+	 */
+	public static final int MAGIC = 0x4A4C4142;
+
+	/**
+	 * the version of the format written.
+	 */
+	public static final byte VERSION = 1;
+
+	/**
+	 * the kind of a record containing a matrix.
+	 */
+	private static final byte MATRIX = 'M';
+
+	/**
+	 * the kind of a record containing a vector.
+	 */
+	private static final byte VECTOR = 'V';
+
+	/**
+	 * the flag indicating deflated elements.
+	 */
+	private static final int DEFLATED = 1;
+
+	/**
+	 * the size of the buffers used.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * no instances.
+	 */
+	private MatrixIO()
+	{
+	}
+
+	/**
+	 * Write a matrix.
+	 * 
+	 * @param <RE>
+	 *            the type of the elements
+	 * @param m
+	 * @param out
+	 * @param compress
+	 *            if true, the elements are deflated.
+	 * @throws IOException
+	 * @throws org.jlinalg.InvalidOperationException
+	 *             if there is no codec for the elements of <code>m</code>.
+	 */
+	public static <RE extends IRingElement<RE>> void write(Matrix<RE> m,
+			OutputStream out, boolean compress) throws IOException
+	{
+		write(MATRIX, m.getEntries(), m.getRows(), m.getCols(),
+				m.getFactory(), out, compress);
+	}
+
+	/**
+	 * Write a matrix to a channel.
+	 * 
+	 * @see #write(Matrix, OutputStream, boolean)
+	 */
+	public static <RE extends IRingElement<RE>> void write(Matrix<RE> m,
+			WritableByteChannel channel, boolean compress) throws IOException
+	{
+		write(m, Channels.newOutputStream(channel), compress);
+	}
+
+	/**
+	 * Write a vector.
+	 * 
+	 * @param <RE>
+	 *            the type of the elements
+	 * @param v
+	 * @param out
+	 * @param compress
+	 *            if true, the elements are deflated.
+	 * @throws IOException
+	 * @throws org.jlinalg.InvalidOperationException
+	 *             if there is no codec for the elements of <code>v</code>.
+	 */
+	public static <RE extends IRingElement<RE>> void write(Vector<RE> v,
+			OutputStream out, boolean compress) throws IOException
+	{
+		IRingElementFactory<RE> factory = v.getElementFactory();
+		RE[][] row = factory.getArray(1, v.length());
+		for (int i = 0; i < v.length(); i++) {
+			row[0][i] = v.getEntry(i + 1);
+		}
+		write(VECTOR, row, 1, v.length(), factory, out, compress);
+	}
+
+	/**
+	 * Write a vector to a channel.
+	 * 
+	 * @see #write(Vector, OutputStream, boolean)
+	 */
+	public static <RE extends IRingElement<RE>> void write(Vector<RE> v,
+			WritableByteChannel channel, boolean compress) throws IOException
+	{
+		write(v, Channels.newOutputStream(channel), compress);
+	}
+
+	/**
+	 * Read a matrix. The entries of the matrix are allocated once and filled
+	 * row by row from the stream.
+	 * 
+	 * @param <RE>
+	 *            the type of the elements
+	 * @param in
+	 * @return the matrix
+	 * @throws IOException
+	 *             if the stream does not contain a matrix in this format or
+	 *             the codec of the elements is not registered.
+	 */
+	public static <RE extends IRingElement<RE>> Matrix<RE> readMatrix(
+			InputStream in) throws IOException
+	{
+		Reader<RE> reader = new Reader<>(in, MATRIX);
+		Matrix<RE> m = new Matrix<>(reader.rows, reader.cols, reader.factory);
+		reader.readRows(m.getEntries());
+		return m;
+	}
+
+	/**
+	 * Read a matrix from a channel.
+	 * 
+	 * @see #readMatrix(InputStream)
+	 */
+	public static <RE extends IRingElement<RE>> Matrix<RE> readMatrix(
+			ReadableByteChannel channel) throws IOException
+	{
+		return readMatrix(Channels.newInputStream(channel));
+	}
+
+	/**
+	 * Read a vector.
+	 * 
+	 * @param <RE>
+	 *            the type of the elements
+	 * @param in
+	 * @return the vector
+	 * @throws IOException
+	 *             if the stream does not contain a vector in this format or
+	 *             the codec of the elements is not registered.
+	 */
+	public static <RE extends IRingElement<RE>> Vector<RE> readVector(
+			InputStream in) throws IOException
+	{
+		Reader<RE> reader = new Reader<>(in, VECTOR);
+		RE[][] row = reader.factory.getArray(1, reader.cols);
+		reader.readRows(row);
+		return new Vector<>(row[0]);
+	}
+
+	/**
+	 * Read a vector from a channel.
+	 * 
+	 * @see #readVector(InputStream)
+	 */
+	public static <RE extends IRingElement<RE>> Vector<RE> readVector(
+			ReadableByteChannel channel) throws IOException
+	{
+		return readVector(Channels.newInputStream(channel));
+	}
+
+	/**
+	 * Write a record.
+	 */
+	private static <RE extends IRingElement<RE>> void write(byte kind,
+			RE[][] rows, int numOfRows, int numOfCols,
+			IRingElementFactory<RE> factory, OutputStream out,
+			boolean compress) throws IOException
+	{
+		ElementCodec<RE> codec = ElementCodecs.getCodec(factory);
+		BufferedOutputStream buffered = new BufferedOutputStream(out,
+				BUFFER_SIZE);
+		DataOutputStream header = new DataOutputStream(buffered);
+		header.writeInt(MAGIC);
+		header.writeByte(VERSION);
+		header.writeByte(kind);
+		header.writeByte(compress ? DEFLATED : 0);
+		header.writeByte(codec.getId());
+		codec.writeFactory(factory, header);
+		Varint.writeUnsigned(numOfRows, header);
+		Varint.writeUnsigned(numOfCols, header);
+
+		header.flush();
+
+		ChunkedOutputStream chunks = new ChunkedOutputStream(header);
+		if (!compress) {
+			DataOutputStream body = new DataOutputStream(chunks);
+			for (int i = 0; i < numOfRows; i++) {
+				codec.write(rows[i], body);
+			}
+			chunks.finish();
+			buffered.flush();
+			return;
+		}
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			DeflaterOutputStream deflated = new DeflaterOutputStream(chunks,
+					deflater, BUFFER_SIZE);
+			DataOutputStream body = new DataOutputStream(deflated);
+			for (int i = 0; i < numOfRows; i++) {
+				codec.write(rows[i], body);
+			}
+			body.flush();
+			deflated.finish();
+			chunks.finish();
+			buffered.flush();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Splits the bytes written into chunks preceded by their length.
+	 */
+	private static final class ChunkedOutputStream
+			extends
+			OutputStream
+	{
+		/**
+		 * the stream the chunks are written to.
+		 */
+		private final DataOutputStream out;
+
+		/**
+		 * the current chunk.
+		 */
+		private final byte[] chunk = new byte[BUFFER_SIZE];
+
+		/**
+		 * the number of bytes in the current chunk.
+		 */
+		private int length;
+
+		ChunkedOutputStream(DataOutputStream out)
+		{
+			this.out = out;
+		}
+
+		@Override
+		public void write(int b) throws IOException
+		{
+			if (length == chunk.length) {
+				writeChunk();
+			}
+			chunk[length++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException
+		{
+			while (len > 0) {
+				if (length == chunk.length) {
+					writeChunk();
+				}
+				int n = Math.min(len, chunk.length - length);
+				System.arraycopy(b, off, chunk, length, n);
+				length += n;
+				off += n;
+				len -= n;
+			}
+		}
+
+		/**
+		 * write the last chunk and the end marker.
+		 */
+		void finish() throws IOException
+		{
+			writeChunk();
+			Varint.writeUnsigned(0, out);
+		}
+
+		private void writeChunk() throws IOException
+		{
+			if (length > 0) {
+				Varint.writeUnsigned(length, out);
+				out.write(chunk, 0, length);
+				length = 0;
+			}
+		}
+	}
+
+	/**
+	 * Reads the chunks written by {@link ChunkedOutputStream}, without
+	 * reading beyond the end marker.
+	 */
+	private static final class ChunkedInputStream
+			extends
+			InputStream
+	{
+		/**
+		 * the stream the chunks are read from.
+		 */
+		private final DataInputStream in;
+
+		/**
+		 * the current chunk.
+		 */
+		private final byte[] chunk = new byte[BUFFER_SIZE];
+
+		/**
+		 * the number of bytes in and the read position in the current
+		 * chunk.
+		 */
+		private int length, position;
+
+		/**
+		 * true when the end marker was read.
+		 */
+		private boolean end;
+
+		ChunkedInputStream(DataInputStream in)
+		{
+			this.in = in;
+		}
+
+		@Override
+		public int read() throws IOException
+		{
+			if (!available(1)) {
+				return -1;
+			}
+			return chunk[position++] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException
+		{
+			if (len == 0) {
+				return 0;
+			}
+			if (!available(1)) {
+				return -1;
+			}
+			int n = Math.min(len, length - position);
+			System.arraycopy(chunk, position, b, off, n);
+			position += n;
+			return n;
+		}
+
+		/**
+		 * skip the remainder of the record, including the end marker.
+		 */
+		void skipToEnd() throws IOException
+		{
+			while (available(1)) {
+				position = length;
+			}
+		}
+
+		/**
+		 * @return true if at least n bytes of the current chunk are
+		 *         available, reading the next chunk if the current one is
+		 *         exhausted.
+		 */
+		private boolean available(int n) throws IOException
+		{
+			while (!end && length - position < n) {
+				long l = Varint.readUnsigned(in);
+				if (l == 0) {
+					end = true;
+				}
+				else if (l > BUFFER_SIZE) {
+					throw new IOException("illegal chunk length " + l);
+				}
+				else {
+					length = (int) l;
+					position = 0;
+					in.readFully(chunk, 0, length);
+				}
+			}
+			return length - position >= n;
+		}
+	}
+
+	/**
+	 * Reads the header of a record and subsequently the elements.
+	 */
+	private static class Reader<RE extends IRingElement<RE>>
+	{
+		/**
+		 * the stream the header is read from.
+		 */
+		private final DataInputStream header;
+
+		/**
+		 * true if the elements are deflated.
+		 */
+		private final boolean deflated;
+
+		/**
+		 * the codec for the elements.
+		 */
+		private final ElementCodec<RE> codec;
+
+		/**
+		 * the factory read by the codec.
+		 */
+		final IRingElementFactory<RE> factory;
+
+		/**
+		 * the dimensions of the record.
+		 */
+		final int rows, cols;
+
+		/**
+		 * Read the header.
+		 * 
+		 * @param in
+		 * @param kind
+		 *            the expected kind of record.
+		 */
+		@SuppressWarnings("unchecked")
+		Reader(InputStream in, byte kind) throws IOException
+		{
+			// the header is read unbuffered, such that no bytes after the
+			// record are consumed.
+			header = new DataInputStream(in);
+			if (header.readInt() != MAGIC) {
+				throw new IOException("not a JLinAlg record");
+			}
+			byte version = header.readByte();
+			if (version > VERSION || version < 1) {
+				throw new IOException("unsupported version " + version);
+			}
+			byte k = header.readByte();
+			if (k != kind) {
+				throw new IOException("expected a "
+						+ (kind == MATRIX ? "matrix" : "vector")
+						+ " but found record of kind " + (char) k);
+			}
+			deflated = (header.readByte() & DEFLATED) != 0;
+			byte id = header.readByte();
+			codec = (ElementCodec<RE>) ElementCodecs.getCodec(id);
+			if (codec == null) {
+				throw new IOException("no codec registered for id " + id);
+			}
+			factory = codec.readFactory(header);
+			long r = Varint.readUnsigned(header);
+			long c = Varint.readUnsigned(header);
+			if (r > Integer.MAX_VALUE || c > Integer.MAX_VALUE) {
+				throw new IOException("illegal dimensions " + r + "x" + c);
+			}
+			rows = (int) r;
+			cols = (int) c;
+		}
+
+		/**
+		 * Read the elements into the pre-allocated rows.
+		 * 
+		 * @param entries
+		 *            an array with {@link #rows} rows of length {@link #cols}
+		 */
+		void readRows(RE[][] entries) throws IOException
+		{
+			ChunkedInputStream chunks = new ChunkedInputStream(header);
+			if (!deflated) {
+				DataInputStream body = new DataInputStream(chunks);
+				for (int i = 0; i < rows; i++) {
+					codec.read(entries[i], factory, body);
+				}
+			}
+			else {
+				Inflater inflater = new Inflater();
+				try {
+					DataInputStream body = new DataInputStream(
+							new InflaterInputStream(chunks, inflater,
+									BUFFER_SIZE));
+					for (int i = 0; i < rows; i++) {
+						codec.read(entries[i], factory, body);
+					}
+				} finally {
+					inflater.end();
+				}
+			}
+			chunks.skipToEnd();
+		}
+	}
+}
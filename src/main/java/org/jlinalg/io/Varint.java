@@ -0,0 +1,136 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigInteger;
+
+/**
+ * Variable length encodings of integers. Non-negative numbers are written in
+ * groups of 7 bits, least significant group first, with the high bit of a
+ * byte set if more bytes follow. Signed numbers are zig-zag encoded first so
+ * that numbers with a small absolute value use few bytes.
+ */
+public final class Varint
+{
+	/**
+	 * no instances.
+	 */
+	private Varint()
+	{
+	}
+
+	/**
+	 * @param value
+	 *            a number interpreted as unsigned.
+	 * @param out
+	 * @throws IOException
+	 */
+	public static void writeUnsigned(long value, DataOutput out)
+			throws IOException
+	{
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	/**
+	 * @param in
+	 * @return a number written by {@link #writeUnsigned(long, DataOutput)}
+	 * @throws IOException
+	 */
+	public static long readUnsigned(DataInput in) throws IOException
+	{
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("malformed variable length integer");
+	}
+
+	/**
+	 * @param value
+	 * @param out
+	 * @throws IOException
+	 */
+	public static void writeSigned(long value, DataOutput out)
+			throws IOException
+	{
+		writeUnsigned((value << 1) ^ (value >> 63), out);
+	}
+
+	/**
+	 * @param in
+	 * @return a number written by {@link #writeSigned(long, DataOutput)}
+	 * @throws IOException
+	 */
+	public static long readSigned(DataInput in) throws IOException
+	{
+		long value = readUnsigned(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Write a big integer as its length followed by its two's-complement
+	 * bytes. Integers fitting into a long are written as a signed varint
+	 * (marked by a length of 0).
+	 * 
+	 * @param value
+	 * @param out
+	 * @throws IOException
+	 */
+	public static void writeBigInteger(BigInteger value, DataOutput out)
+			throws IOException
+	{
+		if (value.bitLength() < 64) {
+			writeUnsigned(0, out);
+			writeSigned(value.longValue(), out);
+			return;
+		}
+		byte[] bytes = value.toByteArray();
+		writeUnsigned(bytes.length, out);
+		out.write(bytes);
+	}
+
+	/**
+	 * @param in
+	 * @return a number written by
+	 *         {@link #writeBigInteger(BigInteger, DataOutput)}
+	 * @throws IOException
+	 */
+	public static BigInteger readBigInteger(DataInput in) throws IOException
+	{
+		long length = readUnsigned(in);
+		if (length == 0) {
+			return BigInteger.valueOf(readSigned(in));
+		}
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("integer with " + length + " bytes");
+		}
+		byte[] bytes = new byte[(int) length];
+		in.readFully(bytes);
+		return new BigInteger(bytes);
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.iterative;
+
+/**
+ * The stabilised bi-conjugate gradient method (van der Vorst) for general
+ * square systems, preconditioned from the right. The iteration stops early if
+ * the method breaks down.
+ */
+public class BiCGSTAB
+		extends IterativeSolver
+{
+	@Override
+	protected void iterate(Monitor monitor, double[] b, double[] x)
+	{
+		int n = b.length;
+		double[] r = new double[n];
+		double[] rHat = new double[n];
+		double[] p = new double[n];
+		double[] pHat = new double[n];
+		double[] v = new double[n];
+		double[] s = new double[n];
+		double[] sHat = new double[n];
+		double[] t = new double[n];
+
+		monitor.residual(b, x, r);
+		if (monitor.record(norm(r))) return;
+		System.arraycopy(r, 0, rHat, 0, n);
+		double rho = 1.0, alpha = 1.0, omega = 1.0;
+
+		while (true) {
+			double rhoNew = dot(rHat, r);
+			if (rhoNew == 0.0) return;
+			double beta = (rhoNew / rho) * (alpha / omega);
+			rho = rhoNew;
+			for (int i = 0; i < n; i++) {
+				p[i] = r[i] + beta * (p[i] - omega * v[i]);
+			}
+			monitor.precondition(p, pHat);
+			monitor.apply(pHat, v);
+			double rHatV = dot(rHat, v);
+			if (rHatV == 0.0) return;
+			alpha = rho / rHatV;
+			for (int i = 0; i < n; i++) {
+				s[i] = r[i] - alpha * v[i];
+			}
+			double sNorm = norm(s);
+			if (sNorm <= getTolerance() * monitor.rhsNorm) {
+				for (int i = 0; i < n; i++) {
+					x[i] += alpha * pHat[i];
+				}
+				monitor.record(sNorm);
+				return;
+			}
+			monitor.precondition(s, sHat);
+			monitor.apply(sHat, t);
+			double tt = dot(t, t);
+			if (tt == 0.0) return;
+			omega = dot(t, s) / tt;
+			for (int i = 0; i < n; i++) {
+				x[i] += alpha * pHat[i] + omega * sHat[i];
+				r[i] = s[i] - omega * t[i];
+			}
+			if (monitor.record(norm(r)) || omega == 0.0) return;
+		}
+	}
+}
@@ -0,0 +1,276 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.iterative;
+
+import java.util.Arrays;
+
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.Matrix;
+import org.jlinalg.doublewrapper.DoubleWrapper;
+
+/**
+ * A sparse matrix of doubles in compressed row storage (CSR): the non-zero
+ * entries of row i (starting at 0) are
+ * <code>values[rowStart[i]] ... values[rowStart[i+1]-1]</code>, in the columns
+ * <code>columns[rowStart[i]] ... </code>, sorted by column. As for
+ * {@link Matrix}, the methods {@link #get(int, int)} and
+ * {@link #fromTriplets(int, int, int[], int[], double[])} count rows and
+ * columns from 1.
+ */
+public class CompressedRowMatrix
+		implements
+		LinearOperator
+{
+	/**
+	 * the number of rows
+	 */
+	private final int rows;
+
+	/**
+	 * the number of columns
+	 */
+	private final int cols;
+
+	/**
+	 * the start of each row in {@link #columns} and {@link #values}, with an
+	 * additional entry for the end of the last row
+	 */
+	final int[] rowStart;
+
+	/**
+	 * the column (starting at 0) of each stored entry
+	 */
+	final int[] columns;
+
+	/**
+	 * the stored entries
+	 */
+	final double[] values;
+
+	/**
+	 * Create a matrix from its compressed row representation. The arrays are
+	 * not copied.
+	 * 
+	 * @param rows
+	 * @param cols
+	 * @param rowStart
+	 *            rows+1 indices into columns and values
+	 * @param columns
+	 *            the columns of the entries, increasing in each row
+	 * @param values
+	 *            the entries
+	 * @throws InvalidOperationException
+	 *             if the arrays are not consistent.
+	 */
+	public CompressedRowMatrix(int rows, int cols, int[] rowStart,
+			int[] columns, double[] values) throws InvalidOperationException
+	{
+		if (rowStart.length != rows + 1 || rowStart[0] != 0
+				|| rowStart[rows] != columns.length
+				|| columns.length != values.length)
+		{
+			throw new InvalidOperationException(
+					"Inconsistent compressed row storage");
+		}
+		for (int i = 0; i < rows; i++) {
+			for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+				if (columns[k] < 0 || columns[k] >= cols
+						|| k > rowStart[i] && columns[k] <= columns[k - 1])
+				{
+					throw new InvalidOperationException(
+							"Columns in row " + (i + 1)
+									+ " are not increasing or out of range");
+				}
+			}
+		}
+		this.rows = rows;
+		this.cols = cols;
+		this.rowStart = rowStart;
+		this.columns = columns;
+		this.values = values;
+	}
+
+	/**
+	 * Create a sparse matrix from the non-zero entries of a dense one.
+	 * 
+	 * @param matrix
+	 *            the matrix
+	 * @return the sparse matrix
+	 */
+	public static CompressedRowMatrix fromMatrix(Matrix<DoubleWrapper> matrix)
+	{
+		int rows = matrix.getRows(), cols = matrix.getCols();
+		DoubleWrapper[][] entries = matrix.getEntries();
+		int nnz = 0;
+		for (DoubleWrapper[] row : entries) {
+			for (DoubleWrapper e : row) {
+				if (e.getValue() != 0.0) {
+					nnz++;
+				}
+			}
+		}
+		int[] rowStart = new int[rows + 1];
+		int[] columns = new int[nnz];
+		double[] values = new double[nnz];
+		int k = 0;
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				double v = entries[i][j].getValue();
+				if (v != 0.0) {
+					columns[k] = j;
+					values[k++] = v;
+				}
+			}
+			rowStart[i + 1] = k;
+		}
+		return new CompressedRowMatrix(rows, cols, rowStart, columns, values);
+	}
+
+	/**
+	 * Create a sparse matrix from (row, column, value) triplets. Values for
+	 * the same position are added.
+	 * 
+	 * @param rows
+	 * @param cols
+	 * @param rowIndices
+	 *            the rows (starting at 1)
+	 * @param colIndices
+	 *            the columns (starting at 1)
+	 * @param values
+	 *            the values
+	 * @return the sparse matrix
+	 * @throws InvalidOperationException
+	 *             if the arrays have different lengths or an index is out of
+	 *             range.
+	 */
+	public static CompressedRowMatrix fromTriplets(int rows, int cols,
+			int[] rowIndices, int[] colIndices, double[] values)
+			throws InvalidOperationException
+	{
+		int n = values.length;
+		if (rowIndices.length != n || colIndices.length != n) {
+			throw new InvalidOperationException(
+					"Triplet arrays of different lengths");
+		}
+		Integer[] order = new Integer[n];
+		for (int k = 0; k < n; k++) {
+			if (rowIndices[k] < 1 || rowIndices[k] > rows || colIndices[k] < 1
+					|| colIndices[k] > cols)
+			{
+				throw new InvalidOperationException("Index (" + rowIndices[k]
+						+ "," + colIndices[k] + ") out of range");
+			}
+			order[k] = k;
+		}
+		Arrays.sort(order, (a, b) -> rowIndices[a] != rowIndices[b]
+				? rowIndices[a] - rowIndices[b]
+				: colIndices[a] - colIndices[b]);
+
+		int[] rowStart = new int[rows + 1];
+		int[] columns = new int[n];
+		double[] vals = new double[n];
+		int nnz = 0;
+		for (int k = 0; k < n; k++) {
+			int idx = order[k];
+			int r = rowIndices[idx] - 1, c = colIndices[idx] - 1;
+			if (nnz > 0 && k > 0 && rowIndices[order[k - 1]] - 1 == r
+					&& columns[nnz - 1] == c)
+			{
+				vals[nnz - 1] += values[idx];
+			}
+			else {
+				columns[nnz] = c;
+				vals[nnz++] = values[idx];
+				rowStart[r + 1] = nnz;
+			}
+		}
+		// rows without entries end where the previous row ends
+		for (int i = 1; i <= rows; i++) {
+			rowStart[i] = Math.max(rowStart[i], rowStart[i - 1]);
+		}
+		return new CompressedRowMatrix(rows, cols, rowStart, Arrays.copyOf(
+				columns, nnz), Arrays.copyOf(vals, nnz));
+	}
+
+	@Override
+	public int getRows()
+	{
+		return rows;
+	}
+
+	@Override
+	public int getCols()
+	{
+		return cols;
+	}
+
+	/**
+	 * @return the number of stored entries.
+	 */
+	public int getNonZeros()
+	{
+		return values.length;
+	}
+
+	/**
+	 * @param row
+	 *            the row (starting at 1)
+	 * @param col
+	 *            the column (starting at 1)
+	 * @return the entry at (row, col).
+	 */
+	public double get(int row, int col)
+	{
+		int k = find(row - 1, col - 1);
+		return k < 0 ? 0.0 : values[k];
+	}
+
+	/**
+	 * @return the index of the entry at (i, j) (starting at 0) in
+	 *         {@link #values} or a negative value if it is not stored.
+	 */
+	int find(int i, int j)
+	{
+		int k = Arrays.binarySearch(columns, rowStart[i], rowStart[i + 1], j);
+		return k >= 0 ? k : -1;
+	}
+
+	/**
+	 * @return the diagonal of the matrix.
+	 */
+	public double[] getDiagonal()
+	{
+		double[] d = new double[Math.min(rows, cols)];
+		for (int i = 0; i < d.length; i++) {
+			int k = find(i, i);
+			d[i] = k < 0 ? 0.0 : values[k];
+		}
+		return d;
+	}
+
+	@Override
+	public void apply(double[] x, double[] y)
+	{
+		for (int i = 0; i < rows; i++) {
+			double s = 0;
+			for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+				s += values[k] * x[columns[k]];
+			}
+			y[i] = s;
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.iterative;
+
+/**
+ * The preconditioned conjugate gradient method for symmetric positive definite
+ * systems. The preconditioner has to be symmetric positive definite, too (as
+ * are {@link JacobiPreconditioner} and, for symmetric matrices of M-matrix
+ * type, {@link ILU0Preconditioner}).
+ */
+public class ConjugateGradient
+		extends IterativeSolver
+{
+	@Override
+	protected void iterate(Monitor monitor, double[] b, double[] x)
+	{
+		int n = b.length;
+		double[] r = new double[n];
+		double[] z = new double[n];
+		double[] p = new double[n];
+		double[] q = new double[n];
+
+		monitor.residual(b, x, r);
+		if (monitor.record(norm(r))) return;
+		monitor.precondition(r, z);
+		System.arraycopy(z, 0, p, 0, n);
+		double rz = dot(r, z);
+
+		while (true) {
+			monitor.apply(p, q);
+			double pq = dot(p, q);
+			if (pq == 0.0) return;
+			double alpha = rz / pq;
+			for (int i = 0; i < n; i++) {
+				x[i] += alpha * p[i];
+				r[i] -= alpha * q[i];
+			}
+			if (monitor.record(norm(r))) return;
+			monitor.precondition(r, z);
+			double rzNew = dot(r, z);
+			double beta = rzNew / rz;
+			rz = rzNew;
+			for (int i = 0; i < n; i++) {
+				p[i] = z[i] + beta * p[i];
+			}
+		}
+	}
+}
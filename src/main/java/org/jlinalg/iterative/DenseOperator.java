@@ -0,0 +1,92 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.iterative;
+
+import org.jlinalg.Matrix;
+import org.jlinalg.doublewrapper.DoubleWrapper;
+
+/**
+ * A {@link LinearOperator} for a dense matrix. The entries are copied into a
+ * primitive array once.
+ */
+public class DenseOperator
+		implements
+		LinearOperator
+{
+	/**
+	 * the entries of the matrix
+	 */
+	private final double[][] a;
+
+	/**
+	 * the number of columns
+	 */
+	private final int cols;
+
+	/**
+	 * @param matrix
+	 *            the matrix
+	 */
+	public DenseOperator(Matrix<DoubleWrapper> matrix)
+	{
+		cols = matrix.getCols();
+		DoubleWrapper[][] entries = matrix.getEntries();
+		a = new double[matrix.getRows()][cols];
+		for (int i = 0; i < a.length; i++) {
+			for (int j = 0; j < cols; j++) {
+				a[i][j] = entries[i][j].getValue();
+			}
+		}
+	}
+
+	/**
+	 * @return the diagonal of the matrix.
+	 */
+	public double[] getDiagonal()
+	{
+		double[] d = new double[Math.min(a.length, cols)];
+		for (int i = 0; i < d.length; i++) {
+			d[i] = a[i][i];
+		}
+		return d;
+	}
+
+	@Override
+	public int getRows()
+	{
+		return a.length;
+	}
+
+	@Override
+	public int getCols()
+	{
+		return cols;
+	}
+
+	@Override
+	public void apply(double[] x, double[] y)
+	{
+		for (int i = 0; i < a.length; i++) {
+			double[] row = a[i];
+			double s = 0;
+			for (int j = 0; j < cols; j++) {
+				s += row[j] * x[j];
+			}
+			y[i] = s;
+		}
+	}
+}
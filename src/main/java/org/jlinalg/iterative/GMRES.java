@@ -0,0 +1,174 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.iterative;
+
+import java.util.Arrays;
+
+import org.jlinalg.InvalidOperationException;
+
+/**
+ * The restarted generalised minimal residual method GMRES(m) for general
+ * square systems, preconditioned from the right. The Krylov basis is built by
+ * the modified Gram-Schmidt process and the least squares problems are solved
+ * by Givens rotations. Each iteration costs one product with the matrix; the
+ * memory needed grows with the restart length m.
+ * <p>
+ * A cycle ends early if the new basis vector vanishes relative to the product
+ * it was derived from, and diagonal elements of the triangular factor which
+ * are negligible relative to the largest one are treated as zero. The true
+ * residual is computed after each cycle and an update that does not reduce
+ * it is discarded, which ends the iteration. Hence, the iteration stagnates
+ * instead of diverging on singular systems.
+ */
+public class GMRES
+		extends IterativeSolver
+{
+	/**
+	 * the number of iterations after which the method is restarted
+	 */
+	private final int restart;
+
+	/**
+	 * Create a GMRES solver restarting every 30 iterations.
+	 */
+	public GMRES()
+	{
+		this(30);
+	}
+
+	/**
+	 * @param restart
+	 *            the number of iterations after which the method is restarted
+	 */
+	public GMRES(int restart)
+	{
+		if (restart < 1) {
+			throw new InvalidOperationException(
+					"The restart length has to be positive: " + restart);
+		}
+		this.restart = restart;
+	}
+
+	/**
+	 * @return the number of iterations after which the method is restarted
+	 */
+	public int getRestart()
+	{
+		return restart;
+	}
+
+	@Override
+	protected void iterate(Monitor monitor, double[] b, double[] x)
+	{
+		int n = b.length;
+		int m = Math.min(restart, n);
+		double[][] v = new double[m + 1][n];
+		double[][] z = new double[m][];
+		double[][] h = new double[m + 1][m];
+		double[] cs = new double[m];
+		double[] sn = new double[m];
+		double[] g = new double[m + 1];
+		double[] y = new double[m];
+		double[] t = new double[n];
+		double breakdown = n * Math.ulp(1.0);
+
+		monitor.residual(b, x, v[0]);
+		double beta = norm(v[0]);
+		if (monitor.record(beta)) return;
+
+		while (true) {
+			if (beta == 0.0) return;
+			for (int i = 0; i < n; i++) {
+				v[0][i] /= beta;
+			}
+			Arrays.fill(g, 0.0);
+			g[0] = beta;
+			int k = 0;
+			boolean stop = false;
+			while (k < m && !stop) {
+				int j = k++;
+				if (z[j] == null) z[j] = new double[n];
+				monitor.precondition(v[j], z[j]);
+				double[] w = v[j + 1];
+				monitor.apply(z[j], w);
+				double wNorm = norm(w);
+				for (int i = 0; i <= j; i++) {
+					double hij = dot(w, v[i]);
+					h[i][j] = hij;
+					for (int l = 0; l < n; l++) {
+						w[l] -= hij * v[i][l];
+					}
+				}
+				double hNext = norm(w);
+				for (int i = 0; i < j; i++) {
+					double temp = cs[i] * h[i][j] + sn[i] * h[i + 1][j];
+					h[i + 1][j] = -sn[i] * h[i][j] + cs[i] * h[i + 1][j];
+					h[i][j] = temp;
+				}
+				double rr = Math.hypot(h[j][j], hNext);
+				if (rr == 0.0) {
+					cs[j] = 1.0;
+					sn[j] = 0.0;
+				}
+				else {
+					cs[j] = h[j][j] / rr;
+					sn[j] = hNext / rr;
+				}
+				h[j][j] = rr;
+				g[j + 1] = -sn[j] * g[j];
+				g[j] = cs[j] * g[j];
+				stop = monitor.record(Math.abs(g[j + 1]));
+				if (hNext <= breakdown * wNorm) {
+					// the Krylov space is (numerically) invariant
+					break;
+				}
+				for (int l = 0; l < n; l++) {
+					w[l] /= hNext;
+				}
+			}
+			// y = H^-1 g, update x = x + Z y
+			double hMax = 0.0;
+			for (int i = 0; i < k; i++) {
+				hMax = Math.max(hMax, Math.abs(h[i][i]));
+			}
+			for (int i = k - 1; i >= 0; i--) {
+				double s = g[i];
+				for (int l = i + 1; l < k; l++) {
+					s -= h[i][l] * y[l];
+				}
+				y[i] = Math.abs(h[i][i]) <= breakdown * hMax ? 0.0 : s
+						/ h[i][i];
+			}
+			System.arraycopy(x, 0, t, 0, n);
+			for (int i = 0; i < k; i++) {
+				for (int l = 0; l < n; l++) {
+					t[l] += y[i] * z[i][l];
+				}
+			}
+			monitor.residual(b, t, v[0]);
+			double betaNew = norm(v[0]);
+			if (!(betaNew < beta)) {
+				// no progress: keep x
+				monitor.converged = false;
+				return;
+			}
+			System.arraycopy(t, 0, x, 0, n);
+			beta = betaNew;
+			if (stop) return;
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.iterative;
+
+import org.jlinalg.InvalidOperationException;
+
+/**
+ * The incomplete LU factorisation without fill-in, ILU(0), of a sparse
+ * matrix: M = L U where L (unit lower triangular) and U (upper triangular)
+ * have the sparsity pattern of A and (L U)<sub>ij</sub> = A<sub>ij</sub> for
+ * all stored entries.
+ */
+public class ILU0Preconditioner
+		implements
+		Preconditioner
+{
+	/**
+	 * the pattern of A
+	 */
+	private final CompressedRowMatrix a;
+
+	/**
+	 * L (below the diagonal) and U (on and above the diagonal) in the pattern
+	 * of A
+	 */
+	private final double[] lu;
+
+	/**
+	 * the index of the diagonal entry of each row in {@link #lu}
+	 */
+	private final int[] diagonal;
+
+	/**
+	 * @param a
+	 *            a square sparse matrix with all diagonal entries stored
+	 * @throws InvalidOperationException
+	 *             if the matrix is not square, a diagonal entry is not stored,
+	 *             or a zero pivot occurs.
+	 */
+	public ILU0Preconditioner(CompressedRowMatrix a)
+			throws InvalidOperationException
+	{
+		int n = a.getRows();
+		if (n != a.getCols()) {
+			throw new InvalidOperationException(
+					"ILU(0) needs a square matrix");
+		}
+		this.a = a;
+		lu = a.values.clone();
+		diagonal = new int[n];
+		int[] rowStart = a.rowStart, columns = a.columns;
+		for (int i = 0; i < n; i++) {
+			diagonal[i] = a.find(i, i);
+			if (diagonal[i] < 0) {
+				throw new InvalidOperationException("No diagonal entry in row "
+						+ (i + 1));
+			}
+		}
+		for (int i = 1; i < n; i++) {
+			for (int k = rowStart[i]; k < diagonal[i]; k++) {
+				int p = columns[k];
+				// l_ip = a_ip / u_pp
+				if (lu[diagonal[p]] == 0.0) {
+					throw new InvalidOperationException("Zero pivot in row "
+							+ (p + 1));
+				}
+				lu[k] /= lu[diagonal[p]];
+				// subtract l_ip * u_pj for the stored entries (i, j), j > p
+				int kk = k + 1;
+				for (int q = diagonal[p] + 1; q < rowStart[p + 1]; q++) {
+					int j = columns[q];
+					while (kk < rowStart[i + 1] && columns[kk] < j) {
+						kk++;
+					}
+					if (kk < rowStart[i + 1] && columns[kk] == j) {
+						lu[kk] -= lu[k] * lu[q];
+					}
+				}
+			}
+			if (lu[diagonal[i]] == 0.0) {
+				throw new InvalidOperationException("Zero pivot in row "
+						+ (i + 1));
+			}
+		}
+	}
+
+	@Override
+	public void apply(double[] r, double[] z)
+	{
+		int n = diagonal.length;
+		int[] rowStart = a.rowStart, columns = a.columns;
+		// forward substitution with L
+		for (int i = 0; i < n; i++) {
+			double s = r[i];
+			for (int k = rowStart[i]; k < diagonal[i]; k++) {
+				s -= lu[k] * z[columns[k]];
+			}
+			z[i] = s;
+		}
+		// back substitution with U
+		for (int i = n - 1; i >= 0; i--) {
+			double s = z[i];
+			for (int k = diagonal[i] + 1; k < rowStart[i + 1]; k++) {
+				s -= lu[k] * z[columns[k]];
+			}
+			z[i] = s / lu[diagonal[i]];
+		}
+	}
+}
@@ -0,0 +1,314 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.iterative;
+
+import java.util.Arrays;
+
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.Vector;
+import org.jlinalg.doublewrapper.DoubleWrapper;
+
+/**
+ * The common part of iterative solvers for linear systems A x = b of doubles.
+ * The solvers only use products of A with vectors (see
+ * {@link LinearOperator}) and stop if the norm of the residual b - A x
+ * relative to that of b is below the tolerance, or after the maximal number
+ * of iterations.
+ */
+public abstract class IterativeSolver
+{
+	/**
+	 * the relative residual at which the iteration stops
+	 */
+	private double tolerance = 1e-10;
+
+	/**
+	 * the maximal number of iterations
+	 */
+	private int maxIterations = 1000;
+
+	/**
+	 * the preconditioner
+	 */
+	private Preconditioner preconditioner = Preconditioner.IDENTITY;
+
+	/**
+	 * receives the progress, if not null
+	 */
+	private IterationListener listener;
+
+	/**
+	 * @return the relative residual at which the iteration stops.
+	 */
+	public double getTolerance()
+	{
+		return tolerance;
+	}
+
+	/**
+	 * @param tolerance
+	 *            the relative residual at which the iteration stops.
+	 */
+	public void setTolerance(double tolerance)
+	{
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * @return the maximal number of iterations.
+	 */
+	public int getMaxIterations()
+	{
+		return maxIterations;
+	}
+
+	/**
+	 * @param maxIterations
+	 *            the maximal number of iterations.
+	 */
+	public void setMaxIterations(int maxIterations)
+	{
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * @return the preconditioner.
+	 */
+	public Preconditioner getPreconditioner()
+	{
+		return preconditioner;
+	}
+
+	/**
+	 * @param preconditioner
+	 *            the preconditioner ({@link Preconditioner#IDENTITY} for none)
+	 */
+	public void setPreconditioner(Preconditioner preconditioner)
+	{
+		this.preconditioner = preconditioner;
+	}
+
+	/**
+	 * @param listener
+	 *            receives the progress of the iteration (or null)
+	 */
+	public void setIterationListener(IterationListener listener)
+	{
+		this.listener = listener;
+	}
+
+	/**
+	 * Solve A x = b starting with x = 0.
+	 * 
+	 * @see #solve(LinearOperator, double[], double[])
+	 */
+	public SolverResult solve(LinearOperator a, double[] b)
+			throws InvalidOperationException
+	{
+		return solve(a, b, new double[a.getCols()]);
+	}
+
+	/**
+	 * Solve A x = b starting with x = 0.
+	 * 
+	 * @see #solve(LinearOperator, double[], double[])
+	 */
+	public SolverResult solve(LinearOperator a, Vector<DoubleWrapper> b)
+			throws InvalidOperationException
+	{
+		double[] rhs = new double[b.length()];
+		for (int i = 0; i < rhs.length; i++) {
+			rhs[i] = b.getEntry(i + 1).getValue();
+		}
+		return solve(a, rhs);
+	}
+
+	/**
+	 * Solve A x = b.
+	 * 
+	 * @param a
+	 *            the square matrix of the system
+	 * @param b
+	 *            the right hand side
+	 * @param x0
+	 *            the initial guess (not modified)
+	 * @return the approximate solution and the convergence metrics.
+	 * @throws InvalidOperationException
+	 *             if the dimensions do not match.
+	 */
+	public SolverResult solve(LinearOperator a, double[] b, double[] x0)
+			throws InvalidOperationException
+	{
+		int n = a.getRows();
+		if (n != a.getCols() || b.length != n || x0.length != n) {
+			throw new InvalidOperationException("Tried to solve a system of "
+					+ a.getRows() + "x" + a.getCols() + " with "
+					+ b.length + " right hand sides and " + x0.length
+					+ " initial values");
+		}
+		Monitor monitor = new Monitor(a, norm(b));
+		double[] x = x0.clone();
+		iterate(monitor, b, x);
+
+		double[] r = new double[n];
+		a.apply(x, r);
+		for (int i = 0; i < n; i++) {
+			r[i] = b[i] - r[i];
+		}
+		return new SolverResult(x, monitor.converged, monitor.iterations,
+				monitor.applications, norm(r), monitor.rhsNorm, Arrays.copyOf(
+						monitor.history, monitor.iterations + 1));
+	}
+
+	/**
+	 * Perform the iteration.
+	 * 
+	 * @param monitor
+	 *            provides the operator and the preconditioner, and must be
+	 *            informed of the residual after each iteration by
+	 *            {@link Monitor#record(double)}.
+	 * @param b
+	 *            the right hand side
+	 * @param x
+	 *            the initial guess, overwritten with the solution
+	 */
+	protected abstract void iterate(Monitor monitor, double[] b, double[] x);
+
+	/**
+	 * @return the Euclidean norm of x.
+	 */
+	protected static double norm(double[] x)
+	{
+		return Math.sqrt(dot(x, x));
+	}
+
+	/**
+	 * @return the inner product of x and y.
+	 */
+	protected static double dot(double[] x, double[] y)
+	{
+		double s = 0;
+		for (int i = 0; i < x.length; i++) {
+			s += x[i] * y[i];
+		}
+		return s;
+	}
+
+	/**
+	 * The state of one call to solve: counts the operator applications and
+	 * iterations, and records the residuals.
+	 */
+	protected final class Monitor
+	{
+		/**
+		 * the operator
+		 */
+		private final LinearOperator a;
+
+		/**
+		 * the norm of the right hand side
+		 */
+		final double rhsNorm;
+
+		/**
+		 * the relative residuals
+		 */
+		double[] history = new double[16];
+
+		/**
+		 * the number of iterations
+		 */
+		int iterations = -1;
+
+		/**
+		 * the number of products with the matrix
+		 */
+		int applications;
+
+		/**
+		 * whether the tolerance was reached
+		 */
+		boolean converged;
+
+		Monitor(LinearOperator a, double rhsNorm)
+		{
+			this.a = a;
+			this.rhsNorm = rhsNorm;
+		}
+
+		/**
+		 * Calculate y = A x.
+		 */
+		public void apply(double[] x, double[] y)
+		{
+			applications++;
+			a.apply(x, y);
+		}
+
+		/**
+		 * Calculate z = M<sup>-1</sup> r.
+		 */
+		public void precondition(double[] r, double[] z)
+		{
+			preconditioner.apply(r, z);
+		}
+
+		/**
+		 * Calculate r = b - A x.
+		 */
+		public void residual(double[] b, double[] x, double[] r)
+		{
+			apply(x, r);
+			for (int i = 0; i < r.length; i++) {
+				r[i] = b[i] - r[i];
+			}
+		}
+
+		/**
+		 * Record the residual of the initial guess (the first call) or after
+		 * an iteration (all further calls).
+		 * 
+		 * @param residualNorm
+		 *            the norm of the residual
+		 * @return true if the iteration has to stop, as the tolerance or the
+		 *         maximal number of iterations is reached.
+		 */
+		public boolean record(double residualNorm)
+		{
+			iterations++;
+			double relative = rhsNorm == 0.0 ? residualNorm : residualNorm
+					/ rhsNorm;
+			if (iterations == history.length) {
+				history = Arrays.copyOf(history, 2 * history.length);
+			}
+			history[iterations] = relative;
+			if (listener != null) {
+				listener.iteration(iterations, relative);
+			}
+			converged = relative <= tolerance;
+			return converged || iterations >= maxIterations;
+		}
+
+		/**
+		 * @return the number of iterations recorded so far.
+		 */
+		public int getIterations()
+		{
+			return Math.max(0, iterations);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.iterative;
+
+import org.jlinalg.InvalidOperationException;
+
+/**
+ * The Jacobi (or diagonal) preconditioner M = diag(A).
+ */
+public class JacobiPreconditioner
+		implements
+		Preconditioner
+{
+	/**
+	 * the inverses of the diagonal entries
+	 */
+	private final double[] inverse;
+
+	/**
+	 * @param diagonal
+	 *            the diagonal of A
+	 * @throws InvalidOperationException
+	 *             if a diagonal entry is zero.
+	 */
+	public JacobiPreconditioner(double[] diagonal)
+			throws InvalidOperationException
+	{
+		inverse = new double[diagonal.length];
+		for (int i = 0; i < diagonal.length; i++) {
+			if (diagonal[i] == 0.0) {
+				throw new InvalidOperationException("Zero diagonal entry in row "
+						+ (i + 1));
+			}
+			inverse[i] = 1 / diagonal[i];
+		}
+	}
+
+	/**
+	 * @param a
+	 *            the matrix
+	 * @throws InvalidOperationException
+	 *             if a diagonal entry is zero.
+	 */
+	public JacobiPreconditioner(CompressedRowMatrix a)
+			throws InvalidOperationException
+	{
+		this(a.getDiagonal());
+	}
+
+	@Override
+	public void apply(double[] r, double[] z)
+	{
+		for (int i = 0; i < inverse.length; i++) {
+			z[i] = r[i] * inverse[i];
+		}
+	}
+}
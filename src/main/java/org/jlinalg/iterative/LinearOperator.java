@@ -0,0 +1,48 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.iterative;
+
+/**
+ * A linear map from R<sup>cols</sup> to R<sup>rows</sup> given only by its
+ * product with a vector. This is all the iterative solvers in this package
+ * need from the matrix of a linear system, so that dense matrices (see
+ * {@link DenseOperator}), sparse matrices (see {@link CompressedRowMatrix})
+ * and operators that are never stored as a matrix can be used alike.
+ */
+public interface LinearOperator
+{
+	/**
+	 * @return the dimension of the range.
+	 */
+	public int getRows();
+
+	/**
+	 * @return the dimension of the domain.
+	 */
+	public int getCols();
+
+	/**
+	 * Calculate y = A x.
+	 * 
+	 * @param x
+	 *            an array of length {@link #getCols()}, not modified
+	 * @param y
+	 *            an array of length {@link #getRows()} which receives the
+	 *            result
+	 */
+	public void apply(double[] x, double[] y);
+}
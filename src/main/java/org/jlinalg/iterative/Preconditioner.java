@@ -0,0 +1,40 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.iterative;
+
+/**
+ * A preconditioner M for a linear system A x = b, that is, an approximation of
+ * A whose systems M z = r are cheap to solve.
+ */
+public interface Preconditioner
+{
+	/**
+	 * The preconditioner M = I, which leaves the system unchanged.
+	 */
+	public static final Preconditioner IDENTITY = (r, z) -> System
+			.arraycopy(r, 0, z, 0, r.length);
+
+	/**
+	 * Solve M z = r.
+	 * 
+	 * @param r
+	 *            the right hand side, not modified
+	 * @param z
+	 *            receives the solution
+	 */
+	public void apply(double[] r, double[] z);
+}
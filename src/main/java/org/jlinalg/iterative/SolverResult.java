@@ -0,0 +1,166 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.iterative;
+
+import org.jlinalg.Vector;
+import org.jlinalg.doublewrapper.DoubleWrapper;
+import org.jlinalg.doublewrapper.DoubleWrapperFactory;
+
+/**
+ * The outcome of a call to
+ * {@link IterativeSolver#solve(LinearOperator, double[], double[])}: the
+ * approximate solution and metrics about the convergence.
+ */
+public class SolverResult
+{
+	/**
+	 * the approximate solution
+	 */
+	private final double[] solution;
+
+	/**
+	 * whether the tolerance was reached
+	 */
+	private final boolean converged;
+
+	/**
+	 * the number of iterations
+	 */
+	private final int iterations;
+
+	/**
+	 * the number of products with the matrix
+	 */
+	private final int operatorApplications;
+
+	/**
+	 * the norm of the final residual b - A x
+	 */
+	private final double residualNorm;
+
+	/**
+	 * the norm of b
+	 */
+	private final double rhsNorm;
+
+	/**
+	 * the relative residual after each iteration
+	 */
+	private final double[] history;
+
+	/**
+	 * @param solution
+	 * @param converged
+	 * @param iterations
+	 * @param operatorApplications
+	 * @param residualNorm
+	 * @param rhsNorm
+	 * @param history
+	 */
+	SolverResult(double[] solution, boolean converged, int iterations,
+			int operatorApplications, double residualNorm, double rhsNorm,
+			double[] history)
+	{
+		this.solution = solution;
+		this.converged = converged;
+		this.iterations = iterations;
+		this.operatorApplications = operatorApplications;
+		this.residualNorm = residualNorm;
+		this.rhsNorm = rhsNorm;
+		this.history = history;
+	}
+
+	/**
+	 * @return the approximate solution (not a copy).
+	 */
+	public double[] getSolution()
+	{
+		return solution;
+	}
+
+	/**
+	 * @return the approximate solution as a Vector.
+	 */
+	public Vector<DoubleWrapper> getSolutionVector()
+	{
+		DoubleWrapper[] entries = DoubleWrapperFactory.INSTANCE
+				.getArray(solution.length);
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = DoubleWrapperFactory.INSTANCE.get(solution[i]);
+		}
+		return new Vector<>(entries, DoubleWrapperFactory.INSTANCE);
+	}
+
+	/**
+	 * @return true if the relative residual reached the tolerance of the
+	 *         solver.
+	 */
+	public boolean isConverged()
+	{
+		return converged;
+	}
+
+	/**
+	 * @return the number of iterations performed.
+	 */
+	public int getIterations()
+	{
+		return iterations;
+	}
+
+	/**
+	 * @return the number of products of the matrix with a vector.
+	 */
+	public int getOperatorApplications()
+	{
+		return operatorApplications;
+	}
+
+	/**
+	 * @return the norm of the residual b - A x of the solution, recomputed at
+	 *         the end.
+	 */
+	public double getResidualNorm()
+	{
+		return residualNorm;
+	}
+
+	/**
+	 * @return the norm of the residual divided by the norm of b.
+	 */
+	public double getRelativeResidual()
+	{
+		return rhsNorm == 0.0 ? residualNorm : residualNorm / rhsNorm;
+	}
+
+	/**
+	 * @return the relative residual after each iteration; entry 0 is that of
+	 *         the initial guess.
+	 */
+	public double[] getResidualHistory()
+	{
+		return history.clone();
+	}
+
+	@Override
+	public String toString()
+	{
+		return (converged ? "converged" : "not converged") + " after "
+				+ iterations + " iterations, relative residual "
+				+ getRelativeResidual();
+	}
+}
@@ -16,10 +16,6 @@
  */
 package org.jlinalg.operator;
 
-import java.util.Iterator;
-import java.util.concurrent.atomic.AtomicReference;
-
-import org.jlinalg.IReducible;
 import org.jlinalg.IRingElement;
 
 /**
@@ -33,20 +29,12 @@ public class MaxReduction<RE extends IRingElement<RE>>
 		extends
 		Reduction<RE>
 {
+	/**
+	 * @return the larger of a and b, or a if they are equal.
+	 */
 	@Override
-	public RE apply(IReducible<RE> reducible)
+	public RE combine(RE a, RE b)
 	{
-		final Iterator<RE> iterator = reducible.iterator();
-		final RE firstElement = iterator.next();
-		final FEComparator<RE> comparator = firstElement.getFactory()
-				.getLessThanComparator();
-		final AtomicReference<RE> result = new AtomicReference<>(firstElement);
-		iterator.forEachRemaining(e -> {
-			if (comparator.compare(result.get(), e)) {
-				result.set(e);
-			}
-		});
-		return result.get();
+		return a.lt(b) ? b : a;
 	}
-
 }
@@ -16,13 +16,26 @@
  */
 package org.jlinalg.operator;
 
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
 import java.util.function.Function;
 
+import org.jlinalg.ExecutionPolicy;
 import org.jlinalg.IReducible;
 import org.jlinalg.IRingElement;
+import org.jlinalg.IRingElementFactory;
 
 /**
  * Performs reductions (sum, max, min) on Matrix and Vector objects
+ * <P>
+ * A reduction is defined by an associative operation {@link #combine} and,
+ * where available, its neutral element {@link #identity}. This permits the
+ * elements of an {@link IReducible} to be split (using its
+ * {@link IReducible#spliterator()}) into parts that are reduced independently,
+ * possibly in parallel (see {@link #apply(IReducible, ExecutionPolicy)}). The
+ * partial results are combined in the order of the parts, so that the result
+ * of a reduction depends only on the execution policy, not on the scheduling
+ * of the tasks.
  * 
  * @author Simon Levy, Andreas Keilhauer
  */
@@ -30,5 +43,75 @@ public abstract class Reduction<RE extends IRingElement<RE>>
 		implements
 		Function<IReducible<RE>, RE>
 {
+	/**
+	 * @param a
+	 * @param b
+	 *            an element following a
+	 * @return the reduction of a and b. This operation has to be associative.
+	 */
+	public abstract RE combine(RE a, RE b);
 
+	/**
+	 * @param factory
+	 * @return the neutral element of {@link #combine} or null if there is none
+	 *         (as for the minimum and the maximum).
+	 */
+	public RE identity(IRingElementFactory<RE> factory)
+	{
+		return null;
+	}
+
+	/**
+	 * Reduce the elements of <code>reducible</code> using the default
+	 * execution policy ({@link ExecutionPolicy#getDefault()}).
+	 * 
+	 * @throws NoSuchElementException
+	 *             if <code>reducible</code> contains no elements.
+	 */
+	@Override
+	public RE apply(IReducible<RE> reducible)
+	{
+		return apply(reducible, ExecutionPolicy.getDefault());
+	}
+
+	/**
+	 * Reduce the elements of <code>reducible</code>.
+	 * 
+	 * @param reducible
+	 * @param policy
+	 *            determines whether parts of <code>reducible</code> are
+	 *            reduced in parallel.
+	 * @return the reduction of all elements
+	 * @throws NoSuchElementException
+	 *             if <code>reducible</code> contains no elements.
+	 */
+	public RE apply(IReducible<RE> reducible, ExecutionPolicy policy)
+	{
+		RE result = policy.reduce(reducible.spliterator(), this::reduce,
+				this::combine);
+		if (result == null) {
+			throw new NoSuchElementException("nothing to reduce");
+		}
+		return result;
+	}
+
+	/**
+	 * Reduce a part of the elements sequentially. This implementation
+	 * combines the elements from left to right.
+	 * 
+	 * @param elements
+	 * @return the reduction of the elements or null if there are none.
+	 */
+	protected RE reduce(Spliterator<RE> elements)
+	{
+		final Object[] result = new Object[1];
+		elements.forEachRemaining(e -> {
+			@SuppressWarnings("unchecked")
+			RE r = (RE) result[0];
+			result[0] = r == null ? e : combine(r, e);
+		});
+		@SuppressWarnings("unchecked")
+		RE r = (RE) result[0];
+		return r;
+	}
 }
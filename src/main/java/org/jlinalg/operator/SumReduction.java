@@ -16,10 +16,7 @@
  */
 package org.jlinalg.operator;
 
-import java.util.Iterator;
-import java.util.concurrent.atomic.AtomicReference;
-
-import org.jlinalg.IReducible;
+import org.jlinalg.IRingElementFactory;
 import org.jlinalg.IRingElement;
 
 /**
@@ -32,15 +29,17 @@ public class SumReduction<RE extends IRingElement<RE>>
 		Reduction<RE>
 {
 	@Override
-	public RE apply(IReducible<RE> reducible)
+	public RE combine(RE a, RE b)
+	{
+		return a.add(b);
+	}
+
+	/**
+	 * @return zero
+	 */
+	@Override
+	public RE identity(IRingElementFactory<RE> factory)
 	{
-		final Iterator<RE> iterator = reducible.iterator();
-		final RE firstElement = iterator.next();
-		final DyadicOperator<RE> operator = firstElement.getFactory()
-				.getAddOperator();
-		final AtomicReference<RE> result = new AtomicReference<>(firstElement);
-		iterator.forEachRemaining(
-				e -> result.set(operator.apply(e, result.get())));
-		return result.get();
+		return factory.zero();
 	}
 }
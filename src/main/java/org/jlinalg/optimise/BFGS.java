@@ -0,0 +1,102 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+import org.jlinalg.IRingElement;
+
+/**
+ * The quasi-Newton method of Broyden, Fletcher, Goldfarb and Shanno, which
+ * keeps a dense n x n approximation of the inverse Hessian. Each step needs
+ * n evaluations of the residual for the gradient and at least one for the
+ * line search; close to a minimum, the convergence is superlinear. For many
+ * parameters, {@link LBFGS} needs less memory.
+ * 
+ * @param <RESIDUAL>
+ *            the type of the residual.
+ */
+public class BFGS<RESIDUAL extends IRingElement<RESIDUAL>>
+		extends
+		QuasiNewton<RESIDUAL>
+{
+	/**
+	 * the approximation of the inverse Hessian, or null if it is (a multiple
+	 * of) the identity.
+	 */
+	private double[][] h;
+
+	/**
+	 * Initialise the optimiser. No optimisation is done; this is started by
+	 * {@link #optimise()}.
+	 * 
+	 * @param target
+	 *            the target to be optimised.
+	 */
+	public BFGS(Target<RESIDUAL> target)
+	{
+		super(target);
+	}
+
+	@Override
+	void reset(int n)
+	{
+		h = null;
+	}
+
+	@Override
+	double[] direction(double[] g)
+	{
+		int n = g.length;
+		double[] d = new double[n];
+		for (int i = 0; i < n; i++) {
+			if (h == null) {
+				d[i] = -g[i];
+			}
+			else {
+				d[i] = -dot(h[i], g);
+			}
+		}
+		return d;
+	}
+
+	@Override
+	void update(double[] s, double[] y, double sy)
+	{
+		int n = s.length;
+		if (h == null) {
+			// scale the identity before the first update
+			double gamma = sy / dot(y, y);
+			h = new double[n][n];
+			for (int i = 0; i < n; i++) {
+				h[i][i] = gamma;
+			}
+		}
+		// H = (I - rho s y^T) H (I - rho y s^T) + rho s s^T
+		double rho = 1 / sy;
+		double[] hy = new double[n];
+		for (int i = 0; i < n; i++) {
+			hy[i] = dot(h[i], y);
+		}
+		double yhy = dot(y, hy);
+		double c = rho * (1 + rho * yhy);
+		for (int i = 0; i < n; i++) {
+			double[] row = h[i];
+			for (int j = 0; j < n; j++) {
+				row[j] += c * s[i] * s[j] - rho * (hy[i] * s[j] + s[i] * hy[j]);
+			}
+		}
+	}
+}
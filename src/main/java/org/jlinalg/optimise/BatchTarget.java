@@ -0,0 +1,52 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+import org.jlinalg.IRingElement;
+
+/**
+ * A {@link Target} which evaluates the residuals of several sets of
+ * parameters in one call, without the detour over
+ * {@link Target#setParameter(int, IRingElement)}. Implementations can
+ * evaluate the sets in parallel, or compute them together by matrix
+ * operations.
+ * <P>
+ * {@link RandomGradientDescent} uses this to probe the steps in both
+ * directions for all parameters at once, and the quasi-Newton optimisers
+ * ({@link BFGS}, {@link LBFGS}) to evaluate the finite differences of a
+ * gradient.
+ * 
+ * @param <RE>
+ *            The type of the residual.
+ */
+public interface BatchTarget<RE extends IRingElement<RE>>
+		extends
+		Target<RE>
+{
+	/**
+	 * Calculate the residuals for several sets of parameters. The parameters
+	 * stored in the target are not changed.
+	 * 
+	 * @param parameters
+	 *            <code>parameters[k]</code> is a complete set of parameters,
+	 *            in the order of {@link #getParameters()}.
+	 * @return the residuals, where <code>residuals[k]</code> belongs to
+	 *         <code>parameters[k]</code> and is <code>null</code> if these
+	 *         parameters are not a valid state for the target.
+	 */
+	public RE[] getResiduals(IRingElement<?>[][] parameters);
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+import org.jlinalg.IRingElement;
+
+/**
+ * Cyclic coordinate descent without derivatives: each step searches the
+ * parameters one after the other. For a parameter x with step size h, the
+ * residual is evaluated at x - h and x + h, and additionally at the minimum
+ * of the parabola through the three points if it is convex. The best of
+ * these points is kept; the step size is doubled if the parameter changed
+ * and halved otherwise. Compared with {@link RandomGradientDescent}, which
+ * halves its steps until no improvement is found, this needs two or three
+ * evaluations per parameter and step. The optimisation ends when a step
+ * changes the residual by less than the tolerance and all step sizes are
+ * below the tolerance relative to their parameter.
+ * 
+ * @param <RESIDUAL>
+ *            the type of the residual.
+ */
+public class CoordinateDescent<RESIDUAL extends IRingElement<RESIDUAL>>
+		extends
+		DoubleOptimiser<RESIDUAL>
+{
+	/**
+	 * Initialise the optimiser. No optimisation is done; this is started by
+	 * {@link #optimise()}.
+	 * 
+	 * @param target
+	 *            the target to be optimised.
+	 */
+	public CoordinateDescent(Target<RESIDUAL> target)
+	{
+		super(target);
+	}
+
+	@Override
+	void minimise(Objective<RESIDUAL> f, double[] x, double fx)
+	{
+		int n = x.length;
+		double[] h = new double[n];
+		double[] maxStep = new double[n];
+		for (int i = 0; i < n; i++) {
+			double range = f.upper[i] - f.lower[i];
+			maxStep[i] = range < Double.POSITIVE_INFINITY ? 0.5 * range
+					: Double.POSITIVE_INFINITY;
+			h[i] = range < Double.POSITIVE_INFINITY ? 0.1 * range
+					: Math.max(0.1 * Math.abs(x[i]), 0.1);
+		}
+		double[] p = x.clone();
+		while (nextStep()) {
+			double start = fx;
+			boolean small = true;
+			for (int i = 0; i < n; i++) {
+				double xi = x[i];
+				double best = xi;
+				double fBest = fx;
+
+				p[i] = xi - h[i];
+				double fMinus = f.value(p);
+				double minus = p[i];
+				if (fMinus < fBest) {
+					best = minus;
+					fBest = fMinus;
+				}
+				p[i] = xi + h[i];
+				double fPlus = f.value(p);
+				double plus = p[i];
+				if (fPlus < fBest) {
+					best = plus;
+					fBest = fPlus;
+				}
+				// the vertex of the parabola through the three points, from
+				// the divided differences
+				if (plus > xi && xi > minus) {
+					double slope = (fx - fMinus) / (xi - minus);
+					double curvature = ((fPlus - fx) / (plus - xi) - slope)
+							/ (plus - minus);
+					double vertex = 0.5 * (minus + xi) - 0.5 * slope
+							/ curvature;
+					if (curvature > 0 && Math.abs(vertex - xi) <= 4 * h[i]) {
+						p[i] = vertex;
+						double fVertex = f.value(p);
+						if (fVertex < fBest) {
+							best = p[i];
+							fBest = fVertex;
+						}
+					}
+				}
+				if (best != xi) {
+					h[i] = Math.min(2 * Math.max(h[i], Math.abs(best - xi)),
+							maxStep[i]);
+				}
+				else {
+					h[i] *= 0.5;
+				}
+				x[i] = best;
+				p[i] = best;
+				fx = fBest;
+				small &= h[i] <= tolerance * Math.max(Math.abs(x[i]), 1);
+			}
+			if (small && converged(start, fx)) break;
+		}
+	}
+}
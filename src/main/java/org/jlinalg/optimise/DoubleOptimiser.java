@@ -0,0 +1,238 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+import org.jlinalg.IRingElement;
+
+/**
+ * The common part of the optimisers which treat the parameters of a
+ * {@link Target} as a vector of doubles: {@link NelderMead}, {@link BFGS},
+ * {@link LBFGS} and {@link CoordinateDescent}. The residual is evaluated for a
+ * whole vector of parameters at once (see {@link Objective}), and the
+ * algorithms work on primitive arrays. The parameters with the lowest
+ * residual found are stored in the target when the optimisation ends.
+ * <P>
+ * An optimisation step is an iteration of the respective algorithm, which
+ * usually needs several evaluations of the residual (see
+ * {@link #getEvaluations()}). The optimisation ends when the maximal number
+ * of steps is reached, the algorithm has converged (see
+ * {@link #setTolerance(double)}), or the thread is interrupted.
+ * 
+ * @param <RESIDUAL>
+ *            the type of the residual.
+ */
+public abstract class DoubleOptimiser<RESIDUAL extends IRingElement<RESIDUAL>>
+		implements
+		Optimiser<RESIDUAL>
+{
+	/**
+	 * the object to be optimised
+	 */
+	private Target<RESIDUAL> target;
+
+	/**
+	 * the state of the optimiser
+	 */
+	private volatile State state = State.UNINITIALISED;
+
+	/**
+	 * the maximal number of optimisation steps to be taken.
+	 */
+	private int maxOptimisationSteps = 1000;
+
+	/**
+	 * The number of optimisation steps taken during the last optimisation.
+	 */
+	private volatile int steps = -1;
+
+	/**
+	 * the relative change of the residual below which the algorithm is
+	 * considered converged.
+	 */
+	double tolerance = 1e-12;
+
+	/**
+	 * the view on the target of the current optimisation
+	 */
+	private volatile Objective<RESIDUAL> objective;
+
+	/**
+	 * the thread doing the optimisation
+	 */
+	private Thread worker;
+
+	/**
+	 * Initialise the optimiser. No optimisation is done; this is started by
+	 * {@link #optimise()}.
+	 * 
+	 * @param target
+	 *            the target to be optimised.
+	 */
+	protected DoubleOptimiser(Target<RESIDUAL> target)
+	{
+		this.target = target;
+		state = State.INITIALISED;
+	}
+
+	/**
+	 * Minimise the objective, starting from x.
+	 * 
+	 * @param f
+	 *            the residual as a function of the parameters
+	 * @param x
+	 *            the starting point
+	 * @param fx
+	 *            the residual at x
+	 */
+	abstract void minimise(Objective<RESIDUAL> f, double[] x, double fx);
+
+	/**
+	 * Count an optimisation step.
+	 * 
+	 * @return false if the optimisation is to end because the maximal number
+	 *         of steps is reached or the thread is interrupted.
+	 */
+	boolean nextStep()
+	{
+		if (Thread.currentThread().isInterrupted()
+				|| steps >= maxOptimisationSteps)
+		{
+			return false;
+		}
+		steps++;
+		return true;
+	}
+
+	/**
+	 * @return true if the change from the residual a to b is below the
+	 *         tolerance.
+	 */
+	boolean converged(double a, double b)
+	{
+		return Math.abs(a - b) <= tolerance
+				* (Math.abs(a) + Math.abs(b) + Double.MIN_NORMAL);
+	}
+
+	@Override
+	public Thread optimise()
+	{
+		if (worker != null)
+			throw new InternalError("can run only one optimsation at a time.");
+		// the worker may already be reset when the optimisation is finished
+		Thread thread = new Thread(this::run, getClass().getSimpleName());
+		worker = thread;
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * run the optimisation in the current thread.
+	 */
+	private void run()
+	{
+		try {
+			steps = 0;
+			Objective<RESIDUAL> f = new Objective<>(target);
+			objective = f;
+			state = State.RUNNING;
+			double[] x = f.start();
+			double start = f.value(x);
+			minimise(f, x, start);
+			f.restoreBest();
+			state = f.bestValue() < start ? State.FINISHED_SUCCESSFULL
+					: State.FINISHED_UNSUCESSFUL;
+		} catch (Throwable e) {
+			System.err.println(e.getMessage());
+			state = State.ERROR;
+		} finally {
+			worker = null;
+		}
+	}
+
+	@Override
+	public void setTarget(Target<RESIDUAL> target)
+	{
+		if (worker != null) throw new OptimiserError(
+				"setTarget can not be called while an optimsation is ongoing.");
+		this.target = target;
+	}
+
+	@Override
+	public State getState()
+	{
+		return state;
+	}
+
+	/**
+	 * @return the lowest residual found so far, or null if the optimisation
+	 *         did not start yet.
+	 */
+	@Override
+	public RESIDUAL getResidual()
+	{
+		Objective<RESIDUAL> f = objective;
+		return f == null ? null : f.bestResidual();
+	}
+
+	@Override
+	public int getMaxOptimisationSteps()
+	{
+		return maxOptimisationSteps;
+	}
+
+	@Override
+	public void setMaxOptimisationSteps(int maxOptimisationSteps)
+	{
+		this.maxOptimisationSteps = maxOptimisationSteps;
+	}
+
+	@Override
+	public int getOptimisationStepsTaken()
+	{
+		return steps;
+	}
+
+	/**
+	 * @return the number of evaluations of the residual during the last call
+	 *         of {@link #optimise()}, or -1 if no optimisation was executed.
+	 */
+	public int getEvaluations()
+	{
+		Objective<RESIDUAL> f = objective;
+		return f == null ? -1 : f.evaluations();
+	}
+
+	/**
+	 * @return the relative change of the residual below which the
+	 *         optimisation is considered converged.
+	 */
+	public double getTolerance()
+	{
+		return tolerance;
+	}
+
+	/**
+	 * @param tolerance
+	 *            the relative change of the residual below which the
+	 *            optimisation is considered converged (the default is
+	 *            1e-12).
+	 */
+	public void setTolerance(double tolerance)
+	{
+		this.tolerance = tolerance;
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+import org.jlinalg.IRingElement;
+
+/**
+ * The limited-memory variant of {@link BFGS}: the approximation of the
+ * inverse Hessian is given implicitly by the last m steps and changes of the
+ * gradient, and is applied to the gradient by the two-loop recursion in
+ * O(m n) operations. This suits targets with many parameters.
+ * 
+ * @param <RESIDUAL>
+ *            the type of the residual.
+ */
+public class LBFGS<RESIDUAL extends IRingElement<RESIDUAL>>
+		extends
+		QuasiNewton<RESIDUAL>
+{
+	/**
+	 * the default number of steps remembered.
+	 */
+	public static final int DEFAULT_MEMORY = 10;
+
+	/**
+	 * the number of steps remembered
+	 */
+	private final int memory;
+
+	/**
+	 * the last steps (in a ring buffer)
+	 */
+	private double[][] s;
+
+	/**
+	 * the corresponding changes of the gradient
+	 */
+	private double[][] y;
+
+	/**
+	 * the inverses of the dot products of s and y.
+	 */
+	private double[] rho;
+
+	/**
+	 * the number of stored steps
+	 */
+	private int count;
+
+	/**
+	 * the position of the next step in the ring buffer.
+	 */
+	private int next;
+
+	/**
+	 * Initialise the optimiser with a memory of {@link #DEFAULT_MEMORY}
+	 * steps. No optimisation is done; this is started by {@link #optimise()}.
+	 * 
+	 * @param target
+	 *            the target to be optimised.
+	 */
+	public LBFGS(Target<RESIDUAL> target)
+	{
+		this(target, DEFAULT_MEMORY);
+	}
+
+	/**
+	 * Initialise the optimiser. No optimisation is done; this is started by
+	 * {@link #optimise()}.
+	 * 
+	 * @param target
+	 *            the target to be optimised.
+	 * @param memory
+	 *            the number of steps remembered.
+	 */
+	public LBFGS(Target<RESIDUAL> target, int memory)
+	{
+		super(target);
+		if (memory < 1) {
+			throw new OptimiserError("the memory must be positive, not "
+					+ memory);
+		}
+		this.memory = memory;
+	}
+
+	@Override
+	void reset(int n)
+	{
+		s = new double[memory][];
+		y = new double[memory][];
+		rho = new double[memory];
+		count = 0;
+		next = 0;
+	}
+
+	@Override
+	double[] direction(double[] g)
+	{
+		double[] q = g.clone();
+		double[] alpha = new double[memory];
+		for (int k = 1; k <= count; k++) {
+			int i = (next - k + memory) % memory;
+			alpha[i] = rho[i] * dot(s[i], q);
+			axpy(-alpha[i], y[i], q);
+		}
+		if (count > 0) {
+			int last = (next - 1 + memory) % memory;
+			double gamma = 1 / (rho[last] * dot(y[last], y[last]));
+			for (int j = 0; j < q.length; j++) {
+				q[j] *= gamma;
+			}
+		}
+		for (int k = count; k >= 1; k--) {
+			int i = (next - k + memory) % memory;
+			double beta = rho[i] * dot(y[i], q);
+			axpy(alpha[i] - beta, s[i], q);
+		}
+		for (int j = 0; j < q.length; j++) {
+			q[j] = -q[j];
+		}
+		return q;
+	}
+
+	@Override
+	void update(double[] s, double[] y, double sy)
+	{
+		this.s[next] = s;
+		this.y[next] = y;
+		rho[next] = 1 / sy;
+		next = (next + 1) % memory;
+		if (count < memory) count++;
+	}
+
+	/**
+	 * b = b + a x
+	 */
+	private static void axpy(double a, double[] x, double[] b)
+	{
+		for (int j = 0; j < b.length; j++) {
+			b[j] += a * x[j];
+		}
+	}
+}
@@ -0,0 +1,343 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jlinalg.IRingElement;
+
+/**
+ * An optimiser running several {@link RandomGradientDescent}s from different
+ * starting points concurrently. Each descent works on a copy of the target
+ * (see {@link Target#copy()}), so that no synchronisation between them is
+ * needed. The first copy starts from the parameters of the target; the others
+ * from parameters chosen randomly between the minimal and maximal values (a
+ * parameter without both limits keeps its value, so that only the random
+ * order of the search differs).
+ * <P>
+ * The lowest residual found so far is shared between the descents without
+ * locking. Once it is at most the target residual (see
+ * {@link #setTargetResidual(IRingElement)}), all descents stop. Finally, the
+ * parameters of the best copy are stored in the target.
+ * <P>
+ * The descents are run on an executor, by default one with a virtual thread
+ * per descent if the Java runtime supports these, otherwise a pool with a
+ * thread per processor.
+ * 
+ * @param <RESIDUAL>
+ *            the type of the residual.
+ */
+public class MultiStartGradientDescent<RESIDUAL extends IRingElement<RESIDUAL>>
+		implements
+		Optimiser<RESIDUAL>
+{
+	/**
+	 * the object to be optimised
+	 */
+	private Target<RESIDUAL> target;
+
+	/**
+	 * the number of descents
+	 */
+	private final int starts;
+
+	/**
+	 * the executor supplied by the user, or null for the default.
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * the residual at which the optimisation ends, or null.
+	 */
+	private RESIDUAL targetResidual;
+
+	/**
+	 * the maximal number of optimisation steps of each descent.
+	 */
+	private int maxOptimisationSteps = 1000;
+
+	/**
+	 * the state of the optimiser
+	 */
+	private volatile State state = State.UNINITIALISED;
+
+	/**
+	 * the lowest residual found by any of the descents.
+	 */
+	private final AtomicReference<RESIDUAL> best = new AtomicReference<>();
+
+	/**
+	 * the number of steps of all descents.
+	 */
+	private final AtomicInteger steps = new AtomicInteger(-1);
+
+	/**
+	 * the thread coordinating the optimisation
+	 */
+	private Thread coordinator;
+
+	/**
+	 * Initialise the optimiser. No optimisation is done; this is started by
+	 * {@link #optimise()}.
+	 * 
+	 * @param target
+	 *            the target to be optimised, which must support
+	 *            {@link Target#copy()}.
+	 * @param starts
+	 *            the number of descents.
+	 */
+	public MultiStartGradientDescent(Target<RESIDUAL> target, int starts)
+	{
+		if (starts < 1) {
+			throw new OptimiserError("at least one start is needed, not "
+					+ starts);
+		}
+		this.target = target;
+		this.starts = starts;
+		state = State.INITIALISED;
+	}
+
+	/**
+	 * @param executor
+	 *            the executor running the descents, which is not shut down by
+	 *            this optimiser, or null for the default (see
+	 *            {@link MultiStartGradientDescent}).
+	 */
+	public void setExecutor(ExecutorService executor)
+	{
+		this.executor = executor;
+	}
+
+	/**
+	 * @param targetResidual
+	 *            the optimisation ends as soon as one descent reaches a
+	 *            residual less than or equal to this, or runs until all
+	 *            descents are finished if this is null (the default).
+	 */
+	public void setTargetResidual(RESIDUAL targetResidual)
+	{
+		this.targetResidual = targetResidual;
+	}
+
+	/**
+	 * @return the number of descents
+	 */
+	public int getStarts()
+	{
+		return starts;
+	}
+
+	@Override
+	public void setTarget(Target<RESIDUAL> target)
+	{
+		if (coordinator != null) throw new OptimiserError(
+				"setTarget can not be called while an optimsation is ongoing.");
+		this.target = target;
+	}
+
+	/**
+	 * @return the maximal number of optimisation steps of each descent.
+	 */
+	@Override
+	public int getMaxOptimisationSteps()
+	{
+		return maxOptimisationSteps;
+	}
+
+	@Override
+	public void setMaxOptimisationSteps(int maxOptimisationSteps)
+	{
+		this.maxOptimisationSteps = maxOptimisationSteps;
+	}
+
+	/**
+	 * @return the number of steps taken by all descents together.
+	 */
+	@Override
+	public int getOptimisationStepsTaken()
+	{
+		return steps.get();
+	}
+
+	@Override
+	public State getState()
+	{
+		return state;
+	}
+
+	/**
+	 * @return the lowest residual found so far.
+	 */
+	@Override
+	public RESIDUAL getResidual()
+	{
+		return best.get();
+	}
+
+	@Override
+	public Thread optimise()
+	{
+		if (coordinator != null)
+			throw new InternalError("can run only one optimsation at a time.");
+		best.set(target.getResidual());
+		steps.set(0);
+		state = State.RUNNING;
+		Thread thread = new Thread(this::coordinate,
+				"MultiStartGradientDescent");
+		coordinator = thread;
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * Run the descents, wait for them, and copy the best parameters into the
+	 * target.
+	 */
+	private void coordinate()
+	{
+		ExecutorService service = executor != null ? executor
+				: defaultExecutor(starts);
+		List<Target<RESIDUAL>> copies = new ArrayList<>();
+		List<Future<?>> futures = new ArrayList<>();
+		boolean error = false;
+		try {
+			RESIDUAL startingResidual = target.getResidual();
+			for (int i = 0; i < starts; i++) {
+				Target<RESIDUAL> copy = target.copy();
+				if (i > 0) randomise(copy);
+				copies.add(copy);
+				RandomGradientDescent<RESIDUAL> descent;
+				descent = new RandomGradientDescent<>(copy);
+				descent.setMaxOptimisationSteps(maxOptimisationSteps);
+				descent.stopCondition = this::targetReached;
+				descent.improvementListener = this::offer;
+				offer(copy.getResidual());
+				futures.add(service.submit(() -> {
+					descent.run();
+					steps.addAndGet(Math.max(descent.steps, 0));
+					if (descent.state == State.ERROR) {
+						throw new OptimiserError("a descent failed");
+					}
+				}));
+			}
+			for (Future<?> f : futures) {
+				try {
+					f.get();
+				} catch (ExecutionException e) {
+					error = true;
+				}
+			}
+
+			Target<RESIDUAL> bestCopy = null;
+			RESIDUAL bestResidual = startingResidual;
+			for (Target<RESIDUAL> copy : copies) {
+				RESIDUAL r = copy.getResidual();
+				if (r != null && (bestResidual == null || r.lt(bestResidual)))
+				{
+					bestResidual = r;
+					bestCopy = copy;
+				}
+			}
+			if (bestCopy != null) {
+				target.setParameters(bestCopy.getParameters());
+				state = State.FINISHED_SUCCESSFULL;
+			}
+			else {
+				state = error ? State.ERROR : State.FINISHED_UNSUCESSFUL;
+			}
+		} catch (InterruptedException | CancellationException e) {
+			for (Future<?> f : futures) {
+				f.cancel(true);
+			}
+			state = State.FINISHED_UNSUCESSFUL;
+		} catch (RuntimeException e) {
+			System.err.println(e.getMessage());
+			state = State.ERROR;
+		} finally {
+			if (service != executor) service.shutdownNow();
+			coordinator = null;
+		}
+	}
+
+	/**
+	 * Choose random values for the parameters of a copy of the target that
+	 * have a minimal and a maximal value. The values of the target are kept if
+	 * this results in an invalid state.
+	 */
+	private void randomise(Target<RESIDUAL> copy)
+	{
+		RESIDUAL[] min = copy.minParameterValues();
+		RESIDUAL[] max = copy.maxParameterValues();
+		if (min == null || max == null) return;
+		for (int i = 0; i < min.length && i < max.length; i++) {
+			if (min[i] != null && max[i] != null) {
+				copy.setParameter(i, min[i].getFactory().randomValue(min[i],
+						max[i]));
+			}
+		}
+		if (copy.getResidual() == null) {
+			copy.setParameters(target.getParameters());
+		}
+	}
+
+	/**
+	 * Replace the best residual by r if r is lower.
+	 */
+	private void offer(RESIDUAL r)
+	{
+		if (r == null) return;
+		RESIDUAL current;
+		do {
+			current = best.get();
+			if (current != null && !r.lt(current)) return;
+		} while (!best.compareAndSet(current, r));
+	}
+
+	/**
+	 * @return true if a descent has reached the target residual.
+	 */
+	private boolean targetReached()
+	{
+		RESIDUAL b = best.get();
+		return targetResidual != null && b != null && b.le(targetResidual);
+	}
+
+	/**
+	 * @return an executor with a virtual thread per task if these are
+	 *         available (Java 21 and later), otherwise a fixed pool.
+	 */
+	static ExecutorService defaultExecutor(int tasks)
+	{
+		try {
+			Method m = Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) m.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(Math.min(tasks, Runtime
+					.getRuntime().availableProcessors()));
+		}
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+import org.jlinalg.IRingElement;
+
+/**
+ * The downhill simplex method of Nelder and Mead, which needs no derivatives
+ * and usually one or two evaluations of the residual per step. A simplex of
+ * n + 1 points is moved through the parameter space by reflecting, expanding
+ * and contracting its worst point, and shrunk towards its best point if none
+ * of these helps. The optimisation ends when the residuals at the points of
+ * the simplex, or the points themselves, differ by less than the tolerance.
+ * <P>
+ * The initial simplex extends from the starting point by a tenth of the
+ * range between the minimal and maximal value of each parameter, or by 5% of
+ * the parameter if the range is not limited.
+ * 
+ * @param <RESIDUAL>
+ *            the type of the residual.
+ */
+public class NelderMead<RESIDUAL extends IRingElement<RESIDUAL>>
+		extends
+		DoubleOptimiser<RESIDUAL>
+{
+	/**
+	 * Initialise the optimiser. No optimisation is done; this is started by
+	 * {@link #optimise()}.
+	 * 
+	 * @param target
+	 *            the target to be optimised.
+	 */
+	public NelderMead(Target<RESIDUAL> target)
+	{
+		super(target);
+	}
+
+	@Override
+	void minimise(Objective<RESIDUAL> f, double[] x0, double f0)
+	{
+		int n = x0.length;
+		double[][] simplex = new double[n + 1][];
+		double[] values = new double[n + 1];
+		simplex[0] = x0.clone();
+		values[0] = f0;
+		for (int i = 0; i < n; i++) {
+			double[] p = x0.clone();
+			double step = f.upper[i] - f.lower[i] < Double.POSITIVE_INFINITY
+					? 0.1 * (f.upper[i] - f.lower[i])
+					: p[i] != 0 ? 0.05 * p[i] : 0.00025;
+			p[i] += step;
+			if (p[i] > f.upper[i]) p[i] = x0[i] - step;
+			simplex[i + 1] = p;
+			values[i + 1] = f.value(p);
+		}
+
+		double[] centroid = new double[n];
+		while (nextStep()) {
+			sort(simplex, values);
+			if (converged(values[0], values[n]) || collapsed(simplex)) break;
+			for (int j = 0; j < n; j++) {
+				double s = 0;
+				for (int i = 0; i < n; i++) {
+					s += simplex[i][j];
+				}
+				centroid[j] = s / n;
+			}
+			double[] worst = simplex[n];
+			double[] reflected = towards(centroid, worst, -1);
+			double fr = f.value(reflected);
+			if (fr < values[0]) {
+				double[] expanded = towards(centroid, worst, -2);
+				double fe = f.value(expanded);
+				if (fe < fr) {
+					simplex[n] = expanded;
+					values[n] = fe;
+				}
+				else {
+					simplex[n] = reflected;
+					values[n] = fr;
+				}
+			}
+			else if (fr < values[n - 1]) {
+				simplex[n] = reflected;
+				values[n] = fr;
+			}
+			else {
+				// contract outside if the reflected point is better than the
+				// worst, otherwise inside
+				double[] contracted = fr < values[n]
+						? towards(centroid, worst, -0.5)
+						: towards(centroid, worst, 0.5);
+				double fc = f.value(contracted);
+				if (fc < Math.min(fr, values[n])) {
+					simplex[n] = contracted;
+					values[n] = fc;
+				}
+				else {
+					for (int i = 1; i <= n; i++) {
+						simplex[i] = towards(simplex[0], simplex[i], 0.5);
+						values[i] = f.value(simplex[i]);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return true if all points of the simplex are within the tolerance of
+	 *         the best one.
+	 */
+	private boolean collapsed(double[][] simplex)
+	{
+		double[] best = simplex[0];
+		for (int i = 1; i < simplex.length; i++) {
+			for (int j = 0; j < best.length; j++) {
+				if (Math.abs(simplex[i][j] - best[j]) > tolerance
+						* (Math.abs(best[j]) + tolerance))
+				{
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return c + t (p - c)
+	 */
+	private static double[] towards(double[] c, double[] p, double t)
+	{
+		double[] r = new double[c.length];
+		for (int j = 0; j < c.length; j++) {
+			r[j] = c[j] + t * (p[j] - c[j]);
+		}
+		return r;
+	}
+
+	/**
+	 * Sort the points of the simplex by their residuals (insertion sort, as
+	 * only the replaced points are out of order).
+	 */
+	private static void sort(double[][] simplex, double[] values)
+	{
+		for (int i = 1; i < values.length; i++) {
+			double v = values[i];
+			double[] p = simplex[i];
+			int j = i - 1;
+			while (j >= 0 && values[j] > v) {
+				values[j + 1] = values[j];
+				simplex[j + 1] = simplex[j];
+				j--;
+			}
+			values[j + 1] = v;
+			simplex[j + 1] = p;
+		}
+	}
+}
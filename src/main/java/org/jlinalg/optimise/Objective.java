@@ -0,0 +1,310 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+import java.util.Arrays;
+
+import org.jlinalg.IRingElement;
+import org.jlinalg.doublewrapper.DoubleWrapper;
+import org.jlinalg.doublewrapper.DoubleWrapperFactory;
+
+/**
+ * The view of a {@link Target} used by the optimisers derived from
+ * {@link DoubleOptimiser}: a function from double[] to double. Points outside
+ * the minimal and maximal parameter values are projected onto these before
+ * they are evaluated, and a residual of <code>null</code> is mapped to
+ * infinity.
+ * <P>
+ * If the parameters and the residual are {@link DoubleWrapper}s, their values
+ * are accessed directly; otherwise they are converted with
+ * {@link DoubleWrapperFactory#get(Object)} and the factories of the
+ * parameters. After the first evaluation, only parameters that changed since
+ * the last evaluation are passed to the target.
+ * 
+ * @param <RESIDUAL>
+ *            the type of the residual.
+ */
+final class Objective<RESIDUAL extends IRingElement<RESIDUAL>>
+{
+	/**
+	 * the object to be optimised
+	 */
+	private final Target<RESIDUAL> target;
+
+	/**
+	 * true if the parameters are {@link DoubleWrapper}s.
+	 */
+	private final boolean primitive;
+
+	/**
+	 * the lower limits for the parameters (-infinity if there is none)
+	 */
+	final double[] lower;
+
+	/**
+	 * the upper limits for the parameters (infinity if there is none)
+	 */
+	final double[] upper;
+
+	/**
+	 * the parameters as they are stored in the target (NaN before the first
+	 * evaluation, so that all parameters are set then).
+	 */
+	private final double[] current;
+
+	/**
+	 * the parameters of the target when this objective was created.
+	 */
+	private final double[] initial;
+
+	/**
+	 * the parameters with the lowest residual found so far.
+	 */
+	private final double[] bestPoint;
+
+	/**
+	 * the lowest residual found so far.
+	 */
+	private double bestValue = Double.POSITIVE_INFINITY;
+
+	/**
+	 * the lowest residual found so far, as returned by the target.
+	 */
+	private volatile RESIDUAL bestResidual;
+
+	/**
+	 * the number of evaluations of the residual.
+	 */
+	private volatile int evaluations;
+
+	/**
+	 * @param target
+	 */
+	Objective(Target<RESIDUAL> target)
+	{
+		this.target = target;
+		int n = target.getParameters().length;
+		boolean doubles = true;
+		initial = new double[n];
+		for (int i = 0; i < n; i++) {
+			RESIDUAL p = target.getParameter(i);
+			doubles &= p instanceof DoubleWrapper;
+			initial[i] = toDouble(p, false);
+		}
+		current = new double[n];
+		Arrays.fill(current, Double.NaN);
+		primitive = doubles;
+		lower = limits(target.minParameterValues(), n,
+				Double.NEGATIVE_INFINITY);
+		upper = limits(target.maxParameterValues(), n,
+				Double.POSITIVE_INFINITY);
+		bestPoint = initial.clone();
+	}
+
+	/**
+	 * @return the limits as doubles, where missing limits are replaced by
+	 *         none.
+	 */
+	private double[] limits(RESIDUAL[] values, int n, double none)
+	{
+		double[] limits = new double[n];
+		Arrays.fill(limits, none);
+		if (values != null) {
+			for (int i = 0; i < n && i < values.length; i++) {
+				if (values[i] != null) limits[i] = toDouble(values[i], false);
+			}
+		}
+		return limits;
+	}
+
+	/**
+	 * @return the value of an element as a double.
+	 */
+	private static double toDouble(IRingElement<?> value, boolean primitive)
+	{
+		if (primitive || value instanceof DoubleWrapper) {
+			return ((DoubleWrapper) value).getValue();
+		}
+		return DoubleWrapperFactory.INSTANCE.get(value).getValue();
+	}
+
+	/**
+	 * @return the number of parameters
+	 */
+	int dimension()
+	{
+		return current.length;
+	}
+
+	/**
+	 * @return the parameters as they were stored in the target when this
+	 *         objective was created (projected onto the limits).
+	 */
+	double[] start()
+	{
+		double[] x = initial.clone();
+		project(x);
+		return x;
+	}
+
+	/**
+	 * Replace the values in x outside the limits by the nearest limit.
+	 * 
+	 * @param x
+	 *            a point
+	 */
+	void project(double[] x)
+	{
+		for (int i = 0; i < x.length; i++) {
+			if (x[i] < lower[i]) x[i] = lower[i];
+			else if (x[i] > upper[i]) x[i] = upper[i];
+		}
+	}
+
+	/**
+	 * Evaluate the residual of the target.
+	 * 
+	 * @param x
+	 *            the parameters, which are projected onto the limits (in
+	 *            place).
+	 * @return the residual for x, or infinity if the target does not accept
+	 *         the parameters.
+	 */
+	@SuppressWarnings("unchecked")
+	double value(double[] x)
+	{
+		project(x);
+		double v;
+		RESIDUAL residual;
+		synchronized (target) {
+			boolean accepted = true;
+			for (int i = 0; i < x.length; i++) {
+				if (x[i] == current[i]) continue;
+				RESIDUAL p = target.getParameter(i);
+				IRingElement<RESIDUAL> value = primitive
+						? (IRingElement<RESIDUAL>) (Object) DoubleWrapperFactory.INSTANCE
+								.get(x[i])
+						: p.getFactory().get(x[i]);
+				if (target.setParameter(i, value)) {
+					current[i] = x[i];
+				}
+				else {
+					// the target keeps an unknown value
+					accepted = false;
+					current[i] = Double.NaN;
+				}
+			}
+			residual = accepted ? target.getResidual() : null;
+		}
+		evaluations++;
+		v = residual == null ? Double.POSITIVE_INFINITY
+				: toDouble(residual, false);
+		if (Double.isNaN(v)) v = Double.POSITIVE_INFINITY;
+		if (v < bestValue) {
+			bestValue = v;
+			bestResidual = residual;
+			System.arraycopy(x, 0, bestPoint, 0, x.length);
+		}
+		return v;
+	}
+
+	/**
+	 * Evaluate the residual for several points. For a {@link BatchTarget},
+	 * all points are passed in one call to
+	 * {@link BatchTarget#getResiduals(IRingElement[][])} and the parameters
+	 * stored in the target are not changed; otherwise the points are
+	 * evaluated one after the other by {@link #value(double[])}.
+	 * 
+	 * @param xs
+	 *            the points, which are projected onto the limits (in place).
+	 * @return the residuals of the points, infinity for points the target
+	 *         does not accept.
+	 */
+	@SuppressWarnings("unchecked")
+	double[] values(double[][] xs)
+	{
+		double[] v = new double[xs.length];
+		if (!(target instanceof BatchTarget<?>)) {
+			for (int k = 0; k < xs.length; k++) {
+				v[k] = value(xs[k]);
+			}
+			return v;
+		}
+		IRingElement<?>[][] parameters = new IRingElement<?>[xs.length][];
+		RESIDUAL[] residuals;
+		synchronized (target) {
+			IRingElement<RESIDUAL>[] stored = target.getParameters();
+			for (int k = 0; k < xs.length; k++) {
+				double[] x = xs[k];
+				project(x);
+				parameters[k] = new IRingElement<?>[x.length];
+				for (int i = 0; i < x.length; i++) {
+					parameters[k][i] = primitive ? DoubleWrapperFactory.INSTANCE
+							.get(x[i]) : stored[i].getFactory().get(x[i]);
+				}
+			}
+			residuals = ((BatchTarget<RESIDUAL>) target)
+					.getResiduals(parameters);
+		}
+		for (int k = 0; k < xs.length; k++) {
+			evaluations++;
+			RESIDUAL residual = residuals[k];
+			v[k] = residual == null ? Double.POSITIVE_INFINITY : toDouble(
+					residual, false);
+			if (Double.isNaN(v[k])) v[k] = Double.POSITIVE_INFINITY;
+			if (v[k] < bestValue) {
+				bestValue = v[k];
+				bestResidual = residual;
+				System.arraycopy(xs[k], 0, bestPoint, 0, xs[k].length);
+			}
+		}
+		return v;
+	}
+
+	/**
+	 * Store the parameters with the lowest residual in the target.
+	 */
+	void restoreBest()
+	{
+		if (bestResidual != null) value(bestPoint.clone());
+	}
+
+	/**
+	 * @return the lowest residual found so far (as double).
+	 */
+	double bestValue()
+	{
+		return bestValue;
+	}
+
+	/**
+	 * @return the lowest residual found so far, or null if no valid point
+	 *         was evaluated.
+	 */
+	RESIDUAL bestResidual()
+	{
+		return bestResidual;
+	}
+
+	/**
+	 * @return the number of evaluations of the residual.
+	 */
+	int evaluations()
+	{
+		return evaluations;
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+import org.jlinalg.IRingElement;
+
+/**
+ * The common part of {@link BFGS} and {@link LBFGS}: quasi-Newton methods
+ * with a gradient approximated by forward differences (n evaluations of the
+ * residual) and a backtracking line search with the Armijo condition. Steps
+ * leaving the range of the parameters are projected onto it. If a search
+ * direction is not a descent direction or the line search fails, the
+ * approximation of the inverse Hessian is discarded and the next step follows
+ * the negative gradient. The optimisation ends when the residual changes by
+ * less than the tolerance, or a step is shorter than the steps of the finite
+ * differences.
+ * 
+ * @param <RESIDUAL>
+ *            the type of the residual.
+ */
+abstract class QuasiNewton<RESIDUAL extends IRingElement<RESIDUAL>>
+		extends
+		DoubleOptimiser<RESIDUAL>
+{
+	/**
+	 * the fraction of the decrease predicted by the gradient that a step has
+	 * to achieve.
+	 */
+	private static final double ARMIJO = 1e-4;
+
+	/**
+	 * the maximal number of halvings of the step in the line search.
+	 */
+	private static final int MAX_HALVINGS = 40;
+
+	/**
+	 * the relative size of the steps for the finite differences.
+	 */
+	private static final double DIFFERENCE_STEP = Math.sqrt(Math.ulp(1.0));
+
+	/**
+	 * @param target
+	 *            the target to be optimised.
+	 */
+	QuasiNewton(Target<RESIDUAL> target)
+	{
+		super(target);
+	}
+
+	/**
+	 * Start a new approximation of the inverse Hessian (the identity).
+	 * 
+	 * @param n
+	 *            the number of parameters
+	 */
+	abstract void reset(int n);
+
+	/**
+	 * @param g
+	 *            the gradient
+	 * @return the search direction -H g for the current approximation H of
+	 *         the inverse Hessian.
+	 */
+	abstract double[] direction(double[] g);
+
+	/**
+	 * Update the approximation of the inverse Hessian.
+	 * 
+	 * @param s
+	 *            the last step
+	 * @param y
+	 *            the change of the gradient during the step
+	 * @param sy
+	 *            the dot product of s and y, which is positive.
+	 */
+	abstract void update(double[] s, double[] y, double sy);
+
+	@Override
+	void minimise(Objective<RESIDUAL> f, double[] x, double fx)
+	{
+		int n = x.length;
+		double[] g = gradient(f, x, fx);
+		reset(n);
+		boolean fresh = true;
+		while (nextStep()) {
+			double[] d = direction(g);
+			double slope = dot(g, d);
+			if (!(slope < 0)) {
+				reset(n);
+				fresh = true;
+				d = direction(g);
+				slope = dot(g, d);
+				if (!(slope < 0)) break;
+			}
+			// limit the first step along the gradient to the size of x
+			double t = 1;
+			if (fresh) {
+				double dmax = maxNorm(d);
+				t = Math.min(1, Math.max(1, maxNorm(x)) / dmax);
+			}
+			double[] xn = new double[n];
+			double fn = Double.POSITIVE_INFINITY;
+			boolean decreased = false;
+			for (int k = 0; k < MAX_HALVINGS; k++) {
+				for (int i = 0; i < n; i++) {
+					xn[i] = x[i] + t * d[i];
+				}
+				fn = f.value(xn);
+				if (fn <= fx + ARMIJO * t * slope) {
+					decreased = true;
+					break;
+				}
+				t *= 0.5;
+			}
+			if (!decreased) {
+				if (fresh) break;
+				reset(n);
+				fresh = true;
+				continue;
+			}
+			double[] gn = gradient(f, xn, fn);
+			double[] s = new double[n];
+			double[] y = new double[n];
+			for (int i = 0; i < n; i++) {
+				s[i] = xn[i] - x[i];
+				y[i] = gn[i] - g[i];
+			}
+			// steps shorter than those of the finite differences cannot be
+			// told apart from the errors of the gradient
+			boolean done = converged(fx, fn)
+					|| maxNorm(s) <= DIFFERENCE_STEP * Math.max(maxNorm(xn), 1);
+			x = xn;
+			fx = fn;
+			g = gn;
+			if (done) break;
+			double sy = dot(s, y);
+			if (sy > 1e-12 * Math.sqrt(dot(s, s) * dot(y, y))) {
+				update(s, y, sy);
+				fresh = false;
+			}
+		}
+	}
+
+	/**
+	 * @return the gradient of f at x by forward differences (backward
+	 *         differences at the upper limit of a parameter).
+	 */
+	private double[] gradient(Objective<RESIDUAL> f, double[] x, double fx)
+	{
+		int n = x.length;
+		double[] h = new double[n];
+		double[][] points = new double[n][];
+		for (int i = 0; i < n; i++) {
+			h[i] = DIFFERENCE_STEP * Math.max(Math.abs(x[i]), 1);
+			if (x[i] + h[i] > f.upper[i]) h[i] = -h[i];
+			points[i] = x.clone();
+			points[i][i] = x[i] + h[i];
+			f.project(points[i]);
+			h[i] = points[i][i] - x[i];
+		}
+		// all differences in one batch (see BatchTarget)
+		double[] v = f.values(points);
+		double[] g = new double[n];
+		for (int i = 0; i < n; i++) {
+			g[i] = h[i] == 0 ? 0 : (v[i] - fx) / h[i];
+		}
+		return g;
+	}
+
+	/**
+	 * @return the dot product of a and b
+	 */
+	static double dot(double[] a, double[] b)
+	{
+		double s = 0;
+		for (int i = 0; i < a.length; i++) {
+			s += a[i] * b[i];
+		}
+		return s;
+	}
+
+	/**
+	 * @return the largest absolute value in a
+	 */
+	private static double maxNorm(double[] a)
+	{
+		double m = 0;
+		for (double v : a) {
+			m = Math.max(m, Math.abs(v));
+		}
+		return m;
+	}
+}
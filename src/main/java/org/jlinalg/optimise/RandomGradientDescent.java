@@ -18,7 +18,12 @@ package org.jlinalg.optimise;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 import org.jlinalg.IRingElement;
 
@@ -34,6 +39,11 @@ import org.jlinalg.IRingElement;
  * the maximal number of optimisation steps is reached (see
  * {@link #maxOptimisationSteps}).
  * <P>
+ * For a {@link BatchTarget}, the steps in both directions are probed for all
+ * parameters at once instead (see
+ * {@link BatchTarget#getResiduals(IRingElement[][])}), and the best move, or
+ * the combination of all improving moves, is taken.
+ * <P>
  * If syncronisation (i.e. during access to the residal) is necessary, this
  * should be done on the target.
  * </P>
@@ -98,11 +108,32 @@ public class RandomGradientDescent<RESIDUAL extends IRingElement<RESIDUAL>>
 	private final static boolean DEBUG = false;
 
 	/**
-	 * the actual optimiser (a thread)
+	 * an additional condition for ending the optimisation early (besides an
+	 * interrupt of the thread running it), or null.
+	 */
+	BooleanSupplier stopCondition;
+
+	/**
+	 * called with the new residual whenever the residual decreases, or null.
+	 */
+	Consumer<RESIDUAL> improvementListener;
+
+	/**
+	 * @return true if the optimisation is to end.
+	 */
+	private boolean stopped()
+	{
+		return Thread.currentThread().isInterrupted()
+				|| (stopCondition != null && stopCondition.getAsBoolean());
+	}
+
+	/**
+	 * the actual optimiser (run in a thread of its own by {@link #optimise()},
+	 * or in the thread calling {@link RandomGradientDescent#run()}).
 	 */
 	private class Worker
-			extends
-			Thread
+			implements
+			Runnable
 	{
 		private final Random random;
 
@@ -113,13 +144,13 @@ public class RandomGradientDescent<RESIDUAL extends IRingElement<RESIDUAL>>
 
 		Worker()
 		{
-			Thread.currentThread().setName("RandomGradientDescent");
 			random = new Random();
 			currentParameters = currentParameters.clone();
 			nParameters = currentParameters.length;
 		}
 
 		@Override
+		@SuppressWarnings("unchecked")
 		public void run()
 		{
 			steps = 0;
@@ -131,8 +162,13 @@ public class RandomGradientDescent<RESIDUAL extends IRingElement<RESIDUAL>>
 				for (int i = 0; i < nParameters; i++)
 					parameterList.add(Integer.valueOf(i));
 				ArrayList<Integer> tempParameterList = new ArrayList<>();
-				while (!isInterrupted() && steps++ < maxOptimisationSteps) {
+				while (!stopped() && steps++ < maxOptimisationSteps) {
 					RESIDUAL r = currentResidual;
+					if (target instanceof BatchTarget<?>) {
+						changeParameters((BatchTarget<RESIDUAL>) target);
+						if (r.equals(currentResidual)) break;
+						continue;
+					}
 					tempParameterList.addAll(parameterList);
 					while (!tempParameterList.isEmpty()) {
 						int p = tempParameterList
@@ -205,7 +241,7 @@ public class RandomGradientDescent<RESIDUAL extends IRingElement<RESIDUAL>>
 					.divide(oldParam.getFactory().get("1e20"));
 			final RESIDUAL reduce = oldParam.getFactory().get(.5);
 			final RESIDUAL increment = oldParam.getFactory().get(1.5);
-			while (step.gt(stop) && !isInterrupted()) {
+			while (step.gt(stop) && !stopped()) {
 				synchronized (target) {
 					if (DEBUG)
 						System.err.println("step=" + step + "\t" + paraNum + " "
@@ -226,7 +262,7 @@ public class RandomGradientDescent<RESIDUAL extends IRingElement<RESIDUAL>>
 						}
 						else {
 							oldParam = newParam;
-							currentResidual = newResidual;
+							improved(newResidual);
 							RESIDUAL nstep = step.multiply(increment);
 							if (nstep.le(maxStep[paraNum])) step = nstep;
 							continue;
@@ -248,7 +284,7 @@ public class RandomGradientDescent<RESIDUAL extends IRingElement<RESIDUAL>>
 						}
 						else {
 							oldParam = newParam;
-							currentResidual = newResidual;
+							improved(newResidual);
 							RESIDUAL nstep = step.multiply(increment);
 							if (nstep.le(maxStep[paraNum])) step = nstep;
 							continue;
@@ -259,6 +295,140 @@ public class RandomGradientDescent<RESIDUAL extends IRingElement<RESIDUAL>>
 				step = step.multiply(reduce);
 			}
 		}
+
+		/**
+		 * The counterpart of {@link #changeParameter(int)} for a
+		 * {@link BatchTarget}: for all parameters whose step size is not yet
+		 * negligible, the parameter plus and minus the step is evaluated in
+		 * one batch. If several parameters can be improved, the combination
+		 * of these moves is evaluated as well, and the better of it and the
+		 * best single move is taken. The step size of a parameter moved is
+		 * increased, and that of a parameter without improvement reduced.
+		 */
+		@SuppressWarnings("unchecked")
+		private void changeParameters(BatchTarget<RESIDUAL> batch)
+		{
+			RESIDUAL[] step = maxStep.clone();
+			RESIDUAL[] stop = maxStep.clone();
+			for (int p = 0; p < nParameters; p++) {
+				stop[p] = step[p].divide(step[p].getFactory().get("1e20"));
+			}
+			List<IRingElement<?>[]> candidates = new ArrayList<>();
+			List<Integer> moved = new ArrayList<>();
+			while (!stopped()) {
+				IRingElement<?>[] x = new IRingElement<?>[nParameters];
+				for (int p = 0; p < nParameters; p++) {
+					x[p] = target.getParameter(p);
+				}
+				candidates.clear();
+				moved.clear();
+				boolean active = false;
+				for (int p = 0; p < nParameters; p++) {
+					if (!step[p].gt(stop[p])) continue;
+					active = true;
+					RESIDUAL xp = (RESIDUAL) x[p];
+					RESIDUAL up = xp.add(step[p]);
+					if (max == null || max[p] == null || up.le(max[p])) {
+						candidates.add(replace(x, p, up));
+						moved.add(p);
+					}
+					RESIDUAL down = xp.subtract(step[p]);
+					if (min == null || min[p] == null || down.ge(min[p])) {
+						candidates.add(replace(x, p, down));
+						moved.add(p);
+					}
+				}
+				if (!active) break;
+
+				RESIDUAL[] residuals;
+				synchronized (target) {
+					residuals = batch.getResiduals(candidates
+							.toArray(new IRingElement<?>[candidates.size()][]));
+				}
+				// the best move of each parameter improving the residual
+				Map<Integer, Integer> improving = new HashMap<>();
+				int best = -1;
+				for (int k = 0; k < residuals.length; k++) {
+					RESIDUAL r = residuals[k];
+					if (r == null || !r.lt(currentResidual)) continue;
+					Integer other = improving.get(moved.get(k));
+					if (other == null || r.lt(residuals[other])) {
+						improving.put(moved.get(k), k);
+					}
+					if (best < 0 || r.lt(residuals[best])) best = k;
+				}
+				if (best < 0) {
+					for (int p = 0; p < nParameters; p++) {
+						step[p] = step[p].multiply(step[p].getFactory().get(.5));
+					}
+					continue;
+				}
+
+				IRingElement<?>[] next = candidates.get(best);
+				RESIDUAL nextResidual = residuals[best];
+				if (improving.size() > 1) {
+					IRingElement<?>[] combined = x.clone();
+					for (int k : improving.values()) {
+						int p = moved.get(k);
+						combined[p] = candidates.get(k)[p];
+					}
+					RESIDUAL r;
+					synchronized (target) {
+						r = batch.getResiduals(new IRingElement<?>[][] {
+							combined
+						})[0];
+					}
+					if (r != null && r.lt(nextResidual)) {
+						next = combined;
+						nextResidual = r;
+					}
+				}
+				synchronized (target) {
+					for (int p = 0; p < nParameters; p++) {
+						if (next[p] != x[p]) {
+							target.setParameter(p,
+									(IRingElement<RESIDUAL>) next[p]);
+						}
+					}
+				}
+				improved(nextResidual);
+				for (int p = 0; p < nParameters; p++) {
+					if (next[p] != x[p]) {
+						RESIDUAL nstep = step[p].multiply(step[p].getFactory()
+								.get(1.5));
+						if (nstep.le(maxStep[p])) step[p] = nstep;
+					}
+					else if (!improving.containsKey(p)) {
+						step[p] = step[p].multiply(step[p].getFactory().get(.5));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return a copy of x with x[p] replaced by value.
+	 */
+	private static IRingElement<?>[] replace(IRingElement<?>[] x, int p,
+			IRingElement<?> value)
+	{
+		IRingElement<?>[] c = x.clone();
+		c[p] = value;
+		return c;
+	}
+
+	/**
+	 * Set the residual and inform the {@link #improvementListener}.
+	 * 
+	 * @param newResidual
+	 *            a residual lower than the current one.
+	 */
+	private void improved(RESIDUAL newResidual)
+	{
+		currentResidual = newResidual;
+		if (improvementListener != null) {
+			improvementListener.accept(newResidual);
+		}
 	}
 
 	/**
@@ -269,7 +439,7 @@ public class RandomGradientDescent<RESIDUAL extends IRingElement<RESIDUAL>>
 	/**
 	 * the thread doing the optimisation
 	 */
-	private Worker worker;
+	private Thread worker;
 
 	/**
 	 * the minimal values for the parameters.
@@ -296,13 +466,32 @@ public class RandomGradientDescent<RESIDUAL extends IRingElement<RESIDUAL>>
 	{
 		if (worker != null)
 			throw new InternalError("can run only one optimsation at a time.");
+		// the worker may already be reset when the optimisation is finished
+		Thread thread = new Thread(prepare(), "RandomGradientDescent");
+		worker = thread;
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * Run the optimisation in the current thread, which is used by
+	 * {@link MultiStartGradientDescent} to run it on an executor.
+	 */
+	void run()
+	{
+		prepare().run();
+	}
+
+	/**
+	 * @return a worker for the target in its current state.
+	 */
+	private Worker prepare()
+	{
 		min = target.minParameterValues();
 		max = target.maxParameterValues();
 		currentParameters = target.getParameters();
 		currentResidual = target.getResidual();
-		worker = new Worker();
-		worker.start();
-		return worker;
+		return new Worker();
 	}
 
 	@Override
@@ -91,4 +91,20 @@ public interface Target<RE extends IRingElement<RE>>
 	 * @return a parameter
 	 */
 	public RE getParameter(int index);
+
+	/**
+	 * Create an independent copy of this target in its current state, such
+	 * that several copies can be optimised concurrently (see
+	 * {@link MultiStartGradientDescent}). Changing the parameters of the copy
+	 * must not affect this target, and vice versa.
+	 * 
+	 * @return the copy
+	 * @throws UnsupportedOperationException
+	 *             if the target cannot be copied (the default).
+	 */
+	public default Target<RE> copy()
+	{
+		throw new UnsupportedOperationException(getClass().getName()
+				+ " cannot be copied");
+	}
 }
@@ -331,29 +331,62 @@ public class Polynomial<BASE extends IRingElement<BASE>>
 					"Zero polynomial cannot be used as divisor!");
 		}
 		PolynomialFactory<BASE> polynomialFactory = getFactory();
-		if (this.getDegree() >= divisor.getDegree()) {
-
-			final Map<Integer, BASE> factorCoeffs = new HashMap<>();
-			factorCoeffs.put(this.getDegree() - divisor.getDegree(),
-					this.getHighestCoefficient()
-							.divide(divisor.getHighestCoefficient()));
-
-			final Polynomial<BASE> factor = polynomialFactory.get(factorCoeffs,
-					polynomialFactory.getBaseFactory());
-
-			final Polynomial<BASE> subtrahend = factor.multiply(divisor);
-
-			final Polynomial<BASE> newDividend = this.subtract(subtrahend);
-
-			final DivisionResultWithRest<Polynomial<BASE>> newResult = newDividend
-					.euclideanDivision(divisor);
-
-			return new DivisionResultWithRest<>(
-					factor.add(newResult.getQuotient()),
-					newResult.getRemainder());
+		final int divisorDegree = divisor.getDegree();
+		final BASE divisorLead = divisor.getHighestCoefficient();
+		final SortedMap<Integer, BASE> divisorTail = divisor
+				.getCoefficientsForExponents()
+				.headMap(Integer.valueOf(divisorDegree));
+		final Map<Integer, BASE> quotient = new HashMap<>();
+		final TreeMap<Integer, BASE> remainder = new TreeMap<>(
+				this.coefficientsForExponents);
+		// the leading term is removed explicitly in each step, such that the
+		// loop also terminates for inexact coefficient types.
+		while (!remainder.isEmpty()
+				&& remainder.lastKey().intValue() >= divisorDegree)
+		{
+			final int shift = remainder.lastKey().intValue() - divisorDegree;
+			final BASE factor = remainder.remove(remainder.lastKey())
+					.divide(divisorLead);
+			quotient.put(Integer.valueOf(shift), factor);
+			for (final Map.Entry<Integer, BASE> term : divisorTail.entrySet()) {
+				final Integer exponent = Integer
+						.valueOf(term.getKey().intValue() + shift);
+				final BASE subtrahend = term.getValue().multiply(factor);
+				final BASE old = remainder.get(exponent);
+				final BASE difference = old == null ? subtrahend.negate()
+						: old.subtract(subtrahend);
+				if (difference.isZero()) {
+					remainder.remove(exponent);
+				}
+				else {
+					remainder.put(exponent, difference);
+				}
+			}
+		}
+		return new DivisionResultWithRest<>(
+				polynomialFactory.get(quotient,
+						polynomialFactory.getBaseFactory()),
+				polynomialFactory.get(remainder,
+						polynomialFactory.getBaseFactory()));
+	}
 
+	/**
+	 * @param x
+	 *            a value for the variable
+	 * @return the value of this polynomial at x, calculated by Horner's
+	 *         scheme.
+	 */
+	public BASE evaluate(final BASE x)
+	{
+		BASE result = baseFactory.zero();
+		for (int i = getDegree(); i >= 0; i--) {
+			result = result.multiply(x);
+			final BASE c = coefficientsForExponents.get(Integer.valueOf(i));
+			if (c != null) {
+				result = result.add(c);
+			}
 		}
-		return new DivisionResultWithRest<>(polynomialFactory.zero(), this);
+		return result;
 	}
 
 	/**
@@ -500,8 +533,22 @@ public class Polynomial<BASE extends IRingElement<BASE>>
 		return PolynomialFactoryMap.getFactory(baseFactory);
 	}
 
+	/**
+	 * If both polynomials are of degree one or more, the gcd is calculated by
+	 * {@link PolynomialGcd}: by a modular algorithm for Rational and
+	 * FastRational coefficients, by the subresultant remainder sequence for
+	 * other exact coefficients, and by the Euclidean algorithm otherwise.
+	 * 
+	 * @param another
+	 *            a polynomial
+	 * @return the greatest common divisor of this and another, which is monic
+	 *         if its degree is positive and the coefficients form a field.
+	 */
 	public Polynomial<BASE> gcd(final Polynomial<BASE> another)
 	{
+		if (this.getDegree() > 0 && another.getDegree() > 0) {
+			return PolynomialGcd.gcd(this, another);
+		}
 		Polynomial<BASE> gcdWithConstant = EuclideanAlgorithm.gcd(this,
 				another);
 		if (gcdWithConstant.getDegree() > 0) {
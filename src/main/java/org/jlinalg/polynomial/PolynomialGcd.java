@@ -0,0 +1,447 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.polynomial;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.jlinalg.FieldElement;
+import org.jlinalg.IRingElement;
+import org.jlinalg.IRingElementFactory;
+import org.jlinalg.JLinAlgTypeProperties;
+import org.jlinalg.fastrational.FastRational;
+import org.jlinalg.fastrational.FastRationalFactory;
+import org.jlinalg.rational.Rational;
+import org.jlinalg.rational.RationalFactory;
+
+/**
+ * Greatest common divisors of polynomials of degree one or more, as used by
+ * {@link Polynomial#gcd(Polynomial)}. The algorithm depends on the type of the
+ * coefficients:
+ * <ul>
+ * <li>{@link Rational} and {@link FastRational} coefficients: the polynomials
+ * are made integral and primitive, their gcd is computed modulo a number of
+ * primes below 2<sup>31</sup>, the images are combined by Chinese remaindering
+ * and the lifted candidate is verified by trial division. This avoids the
+ * growth of the intermediate coefficients of the Euclidean algorithm.</li>
+ * <li>inexact fields and finite fields: the Euclidean algorithm, for which
+ * coefficient growth is not an issue.</li>
+ * <li>all other coefficient domains: the subresultant polynomial remainder
+ * sequence, which requires exact divisions only and keeps the coefficients
+ * small.</li>
+ * </ul>
+ * All algorithms are iterative, such that polynomials of high degree do not
+ * exhaust the stack.
+ */
+final class PolynomialGcd
+{
+	/**
+	 * the largest prime used by the modular algorithm (2<sup>31</sup>-1). The
+	 * product of two residues fits into a long.
+	 */
+	private static final long FIRST_PRIME = Integer.MAX_VALUE;
+
+	private PolynomialGcd()
+	{
+	}
+
+	/**
+	 * @param a
+	 *            a polynomial of degree one or more
+	 * @param b
+	 *            a polynomial of degree one or more
+	 * @return the gcd of a and b. For fields, the gcd is monic. For other
+	 *         coefficient domains, the gcd is determined up to a factor from
+	 *         the coefficient domain.
+	 */
+	@SuppressWarnings("unchecked")
+	static <BASE extends IRingElement<BASE>> Polynomial<BASE> gcd(
+			Polynomial<BASE> a, Polynomial<BASE> b)
+	{
+		final IRingElementFactory<BASE> baseFactory = a.getFactory()
+				.getBaseFactory();
+		if (baseFactory instanceof RationalFactory
+				|| baseFactory instanceof FastRationalFactory)
+		{
+			final BigInteger[] g = modular(toIntegers(a), toIntegers(b));
+			final Map<Integer, BASE> coefficients = new TreeMap<>();
+			for (int i = 0; i < g.length; i++) {
+				final BASE c = (BASE) fromInteger(g[i], g[g.length - 1],
+						baseFactory);
+				if (c == null) {
+					// not representable as a FastRational.
+					return monic(subresultant(a, b));
+				}
+				coefficients.put(i, c);
+			}
+			return new Polynomial<>(coefficients, baseFactory);
+		}
+		if (!(baseFactory.one() instanceof FieldElement)) {
+			return subresultant(a, b);
+		}
+		final JLinAlgTypeProperties properties = baseFactory.getClass()
+				.getAnnotation(JLinAlgTypeProperties.class);
+		if (properties != null && (!properties.isExact()
+				|| properties.isDiscreet() && !properties.hasNegativeValues()))
+		{
+			return monic(euclid(a, b));
+		}
+		return monic(subresultant(a, b));
+	}
+
+	/**
+	 * the iterative Euclidean algorithm.
+	 */
+	static <BASE extends IRingElement<BASE>> Polynomial<BASE> euclid(
+			Polynomial<BASE> a, Polynomial<BASE> b)
+	{
+		while (!b.isZero()) {
+			final Polynomial<BASE> r = a.euclideanDivision(b).getRemainder();
+			a = b;
+			b = r;
+		}
+		return a;
+	}
+
+	/**
+	 * the subresultant polynomial remainder sequence (see H. Cohen, A Course
+	 * in Computational Algebraic Number Theory, Algorithm 3.3.1).
+	 * 
+	 * @return the last non-zero element of the sequence, which is a gcd of a
+	 *         and b over the field of fractions of the coefficient domain.
+	 */
+	static <BASE extends IRingElement<BASE>> Polynomial<BASE> subresultant(
+			Polynomial<BASE> a, Polynomial<BASE> b)
+	{
+		if (a.getDegree() < b.getDegree()) {
+			final Polynomial<BASE> t = a;
+			a = b;
+			b = t;
+		}
+		final IRingElementFactory<BASE> baseFactory = a.getFactory()
+				.getBaseFactory();
+		BASE g = baseFactory.one();
+		BASE h = baseFactory.one();
+		while (true) {
+			final int delta = a.getDegree() - b.getDegree();
+			final Polynomial<BASE> r = pseudoRemainder(a, b);
+			if (r.isZero()) {
+				return b;
+			}
+			if (r.getDegree() == 0) {
+				return r;
+			}
+			a = b;
+			b = r.divideByScalar(g.multiply(power(h, delta)));
+			g = a.getHighestCoefficient();
+			if (delta > 0) {
+				h = power(g, delta).divide(power(h, delta - 1));
+			}
+		}
+	}
+
+	/**
+	 * @return the remainder of lc(b)<sup>deg(a)-deg(b)+1</sup>a divided by b,
+	 *         computed without divisions.
+	 */
+	static <BASE extends IRingElement<BASE>> Polynomial<BASE> pseudoRemainder(
+			Polynomial<BASE> a, Polynomial<BASE> b)
+	{
+		final TreeMap<Integer, BASE> r = new TreeMap<>(
+				a.getCoefficientsForExponents());
+		final int db = b.getDegree();
+		final SortedMap<Integer, BASE> tail = b.getCoefficientsForExponents()
+				.headMap(Integer.valueOf(db));
+		final BASE lb = b.getHighestCoefficient();
+		int e = a.getDegree() - db + 1;
+		while (!r.isEmpty() && r.lastKey().intValue() >= db) {
+			final int shift = r.lastKey().intValue() - db;
+			final BASE lr = r.remove(r.lastKey());
+			for (final Map.Entry<Integer, BASE> t : r.entrySet()) {
+				t.setValue(t.getValue().multiply(lb));
+			}
+			for (final Map.Entry<Integer, BASE> t : tail.entrySet()) {
+				final Integer k = Integer.valueOf(t.getKey().intValue() + shift);
+				final BASE s = t.getValue().multiply(lr);
+				final BASE v = r.get(k);
+				final BASE n = v == null ? s.negate() : v.subtract(s);
+				if (n.isZero()) {
+					r.remove(k);
+				}
+				else {
+					r.put(k, n);
+				}
+			}
+			e--;
+		}
+		final BASE scale = power(lb, e);
+		for (final Map.Entry<Integer, BASE> t : r.entrySet()) {
+			t.setValue(t.getValue().multiply(scale));
+		}
+		return new Polynomial<>(r, a.getFactory().getBaseFactory());
+	}
+
+	private static <BASE extends IRingElement<BASE>> Polynomial<BASE> monic(
+			Polynomial<BASE> p)
+	{
+		return p.divideByScalar(p.getHighestCoefficient());
+	}
+
+	private static <BASE extends IRingElement<BASE>> BASE power(BASE x, int n)
+	{
+		BASE result = x.getFactory().one();
+		for (int i = 0; i < n; i++) {
+			result = result.multiply(x);
+		}
+		return result;
+	}
+
+	/**
+	 * the modular gcd of two primitive integer polynomials of degree one or
+	 * more.
+	 * 
+	 * @return the primitive gcd with a positive leading coefficient.
+	 */
+	static BigInteger[] modular(BigInteger[] a, BigInteger[] b)
+	{
+		final BigInteger la = a[a.length - 1];
+		final BigInteger lb = b[b.length - 1];
+		final BigInteger lc = la.gcd(lb);
+		int degree = Math.min(a.length, b.length);
+		BigInteger modulus = null;
+		BigInteger[] images = null;
+		BigInteger[] candidate = null;
+		for (long p = FIRST_PRIME;; p = previousPrime(p)) {
+			final BigInteger bp = BigInteger.valueOf(p);
+			if (la.mod(bp).signum() == 0 || lb.mod(bp).signum() == 0) {
+				continue;
+			}
+			final long[] g = gcdModP(reduce(a, p), reduce(b, p), p);
+			final int d = g.length - 1;
+			if (d == 0) {
+				return new BigInteger[] {
+						BigInteger.ONE
+				};
+			}
+			if (d > degree) {
+				// an unlucky prime
+				continue;
+			}
+			final long l = lc.mod(bp).longValue();
+			if (d < degree) {
+				// all previous primes were unlucky
+				degree = d;
+				modulus = bp;
+				images = new BigInteger[d + 1];
+				for (int i = 0; i <= d; i++) {
+					images[i] = BigInteger.valueOf(g[i] * l % p);
+				}
+				candidate = null;
+			}
+			else {
+				final long inverse = modulus.mod(bp).modInverse(bp).longValue();
+				for (int i = 0; i <= d; i++) {
+					final long image = images[i].mod(bp).longValue();
+					long t = (g[i] * l % p - image + p) % p * inverse % p;
+					images[i] = images[i].add(modulus.multiply(BigInteger
+							.valueOf(t)));
+				}
+				modulus = modulus.multiply(bp);
+			}
+			final BigInteger half = modulus.shiftRight(1);
+			final BigInteger[] lifted = new BigInteger[d + 1];
+			for (int i = 0; i <= d; i++) {
+				lifted[i] = images[i].compareTo(half) > 0 ? images[i]
+						.subtract(modulus) : images[i];
+			}
+			primitive(lifted);
+			if (Arrays.equals(lifted, candidate) && divides(lifted, a)
+					&& divides(lifted, b))
+			{
+				return lifted;
+			}
+			candidate = lifted;
+		}
+	}
+
+	private static long previousPrime(long p)
+	{
+		do {
+			p -= 2;
+		} while (!BigInteger.valueOf(p).isProbablePrime(40));
+		return p;
+	}
+
+	/**
+	 * @return the coefficients of a modulo p, without leading zeros.
+	 */
+	private static long[] reduce(BigInteger[] a, long p)
+	{
+		final BigInteger bp = BigInteger.valueOf(p);
+		final long[] r = new long[a.length];
+		for (int i = 0; i < a.length; i++) {
+			r[i] = a[i].mod(bp).longValue();
+		}
+		return trim(r, r.length);
+	}
+
+	private static long[] trim(long[] a, int length)
+	{
+		while (length > 0 && a[length - 1] == 0) {
+			length--;
+		}
+		return length == a.length ? a : Arrays.copyOf(a, length);
+	}
+
+	/**
+	 * @return the monic gcd of a and b modulo p.
+	 */
+	private static long[] gcdModP(long[] a, long[] b, long p)
+	{
+		while (b.length > 0) {
+			final long[] r = a.clone();
+			final int db = b.length - 1;
+			final long inverse = BigInteger.valueOf(b[db])
+					.modInverse(BigInteger.valueOf(p)).longValue();
+			for (int i = r.length - 1; i >= db; i--) {
+				final long c = r[i] * inverse % p;
+				if (c != 0) {
+					for (int j = 0; j <= db; j++) {
+						r[i - db + j] = (r[i - db + j] + (p - c * b[j] % p))
+								% p;
+					}
+				}
+			}
+			a = b;
+			b = trim(r, Math.min(r.length, db));
+		}
+		final long inverse = BigInteger.valueOf(a[a.length - 1])
+				.modInverse(BigInteger.valueOf(p)).longValue();
+		for (int i = 0; i < a.length; i++) {
+			a[i] = a[i] * inverse % p;
+		}
+		return a;
+	}
+
+	/**
+	 * @return true if the integer polynomial h divides a.
+	 */
+	private static boolean divides(BigInteger[] h, BigInteger[] a)
+	{
+		final BigInteger[] r = a.clone();
+		final int dh = h.length - 1;
+		for (int i = r.length - 1; i >= dh; i--) {
+			if (r[i].signum() != 0) {
+				final BigInteger[] qr = r[i].divideAndRemainder(h[dh]);
+				if (qr[1].signum() != 0) {
+					return false;
+				}
+				for (int j = 0; j <= dh; j++) {
+					r[i - dh + j] = r[i - dh + j].subtract(qr[0].multiply(h[j]));
+				}
+			}
+		}
+		for (int i = 0; i < dh; i++) {
+			if (r[i].signum() != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * divide the integer polynomial a by its content, such that its leading
+	 * coefficient is positive.
+	 */
+	private static void primitive(BigInteger[] a)
+	{
+		BigInteger content = BigInteger.ZERO;
+		for (final BigInteger c : a) {
+			content = content.gcd(c);
+		}
+		if (a[a.length - 1].signum() < 0) {
+			content = content.negate();
+		}
+		for (int i = 0; i < a.length; i++) {
+			a[i] = a[i].divide(content);
+		}
+	}
+
+	/**
+	 * @return the primitive integer polynomial that is a multiple of p, which
+	 *         has Rational or FastRational coefficients.
+	 */
+	private static <BASE extends IRingElement<BASE>> BigInteger[] toIntegers(
+			Polynomial<BASE> p)
+	{
+		final BigInteger[] numerators = new BigInteger[p.getDegree() + 1];
+		final BigInteger[] denominators = new BigInteger[numerators.length];
+		Arrays.fill(numerators, BigInteger.ZERO);
+		Arrays.fill(denominators, BigInteger.ONE);
+		BigInteger lcm = BigInteger.ONE;
+		for (final Map.Entry<Integer, BASE> e : p
+				.getCoefficientsForExponents().entrySet())
+		{
+			final int i = e.getKey().intValue();
+			if (e.getValue() instanceof Rational) {
+				final Rational r = (Rational) e.getValue();
+				numerators[i] = r.getNumerator();
+				denominators[i] = r.getDenominator();
+			}
+			else {
+				final FastRational r = (FastRational) e.getValue();
+				numerators[i] = BigInteger.valueOf(r.getNumerator());
+				denominators[i] = BigInteger.valueOf(r.getDenominator());
+			}
+			if (denominators[i].signum() < 0) {
+				numerators[i] = numerators[i].negate();
+				denominators[i] = denominators[i].negate();
+			}
+			lcm = lcm.divide(lcm.gcd(denominators[i]))
+					.multiply(denominators[i]);
+		}
+		for (int i = 0; i < numerators.length; i++) {
+			numerators[i] = numerators[i]
+					.multiply(lcm.divide(denominators[i]));
+		}
+		primitive(numerators);
+		return numerators;
+	}
+
+	/**
+	 * @return the fraction n/d as an element of the given factory, or null if
+	 *         it cannot be represented by a FastRational.
+	 */
+	private static Object fromInteger(BigInteger n, BigInteger d,
+			IRingElementFactory<?> factory)
+	{
+		if (factory instanceof RationalFactory) {
+			return ((RationalFactory) factory).get(n, d, true);
+		}
+		final BigInteger g = n.gcd(d);
+		n = n.divide(g);
+		d = d.divide(g);
+		if (n.bitLength() > 63 || d.bitLength() > 63) {
+			return null;
+		}
+		return ((FastRationalFactory) factory).get(n.longValue(),
+				d.longValue());
+	}
+}
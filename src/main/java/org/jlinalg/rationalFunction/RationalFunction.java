@@ -16,6 +16,10 @@
  */
 package org.jlinalg.rationalFunction;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import org.jlinalg.FieldElement;
 import org.jlinalg.IRingElement;
 import org.jlinalg.IRingElementFactory;
@@ -25,6 +29,12 @@ import org.jlinalg.polynomial.PolynomialFactoryMap;
 
 /**
  * Class that represents a rational function over a given BASE.
+ * <P>
+ * Depending on {@link RationalFunctionFactory#setCancellationDegree(int)},
+ * the results of arithmetic may not be cancelled. Comparisons, hash codes and
+ * the string representation use the cancelled form (see {@link #cancel()}),
+ * whereas {@link #getNumerator()} and {@link #getDenominator()} return the
+ * polynomials as they are stored.
  * 
  * @author Andreas Keilhauer
  * @param <BASE>
@@ -40,6 +50,16 @@ public class RationalFunction<BASE extends IRingElement<BASE>>
 
 	private final IRingElementFactory<BASE> baseFactory;
 
+	/**
+	 * this rational function with the common factors of numerator and
+	 * denominator removed, or null if it is not yet known. Results of
+	 * arithmetic with lazy cancellation start with null; all other rational
+	 * functions are taken as they are. As the field is transient,
+	 * serialisation records whether it is this (see
+	 * {@link #writeObject(ObjectOutputStream)}).
+	 */
+	private transient volatile RationalFunction<BASE> cancelled = this;
+
 	public RationalFunction(BASE value)
 	{
 		if (value == null) {
@@ -82,6 +102,24 @@ public class RationalFunction<BASE extends IRingElement<BASE>>
 	@Override
 	public RationalFunction<BASE> add(RationalFunction<BASE> added)
 	{
+		int degree = cancellationDegree();
+		if (degree != RationalFunctionFactory.EAGER) {
+			if (isZero()) return added;
+			if (added.isZero()) return this;
+			Polynomial<BASE> b = denominator;
+			Polynomial<BASE> d = added.denominator;
+			if (same(b, d)) {
+				return lazy(numerator.add(added.numerator), b);
+			}
+			// the degrees of the sum of the cross products over b * d
+			int bd = b.getDegree() + d.getDegree();
+			int ad = numerator.getDegree() + d.getDegree();
+			int cb = added.numerator.getDegree() + b.getDegree();
+			if (Math.max(ad, cb) + bd <= degree) {
+				return lazy(numerator.multiply(d).add(added.numerator
+						.multiply(b)), b.multiply(d));
+			}
+		}
 		Polynomial<BASE> a, b, c, d, gcdBD, p1, q1;
 		a = this.numerator;
 		b = this.denominator;
@@ -90,27 +128,154 @@ public class RationalFunction<BASE extends IRingElement<BASE>>
 		gcdBD = b.gcd(d);
 		p1 = a.multiply(d.divide(gcdBD)).add(c.multiply(b.divide(gcdBD)));
 		q1 = b.multiply(d).divide(gcdBD);
-		return new RationalFunction<>(p1, q1, baseFactory);
+		return result(p1, q1, added, degree);
 	}
 
 	@Override
 	public RationalFunction<BASE> negate()
 	{
-		return new RationalFunction<>(this.numerator.negate(), this.denominator,
-				baseFactory);
+		return result(this.numerator.negate(), this.denominator, this,
+				RationalFunctionFactory.EAGER);
 	}
 
 	@Override
 	public RationalFunction<BASE> multiply(RationalFunction<BASE> factor)
 	{
-		Polynomial<BASE> d1 = this.numerator.gcd(factor.getDenominator());
-		Polynomial<BASE> d2 = this.denominator.gcd(factor.getNumerator());
-		Polynomial<BASE> newNumerator = this.numerator.divide(d1)
-				.multiply(factor.getNumerator().divide(d2));
-		Polynomial<BASE> newDenominator = this.denominator.divide(d2)
-				.multiply(factor.getDenominator().divide(d1));
-		return new RationalFunction<>(newNumerator, newDenominator,
-				baseFactory);
+		Polynomial<BASE> a = numerator, b = denominator;
+		Polynomial<BASE> c = factor.numerator, d = factor.denominator;
+		int degree = cancellationDegree();
+		if (degree != RationalFunctionFactory.EAGER) {
+			if (isZero()) return this;
+			if (factor.isZero()) return factor;
+			Polynomial<BASE> one = a.getFactory().one();
+			if (same(a, d)) {
+				a = one;
+				d = one;
+			}
+			if (same(b, c)) {
+				b = one;
+				c = one;
+			}
+			if (a.getDegree() + b.getDegree() + c.getDegree()
+					+ d.getDegree() <= degree)
+			{
+				return lazy(a.multiply(c), b.multiply(d));
+			}
+		}
+		Polynomial<BASE> d1 = a.gcd(d);
+		Polynomial<BASE> d2 = b.gcd(c);
+		Polynomial<BASE> newNumerator = a.divide(d1).multiply(c.divide(d2));
+		Polynomial<BASE> newDenominator = b.divide(d2).multiply(d.divide(d1));
+		return result(newNumerator, newDenominator, factor, degree);
+	}
+
+	/**
+	 * @return the cancellation degree set in the factory (see
+	 *         {@link RationalFunctionFactory#setCancellationDegree(int)}).
+	 */
+	private int cancellationDegree()
+	{
+		return RationalFunctionFactory.getFactory(baseFactory)
+				.getCancellationDegree();
+	}
+
+	/**
+	 * @return true if p and q are the same polynomial; this is cheaper than
+	 *         {@link Polynomial#equals(Object)}.
+	 */
+	private static <BASE extends IRingElement<BASE>> boolean same(
+			Polynomial<BASE> p, Polynomial<BASE> q)
+	{
+		if (p == q) return true;
+		if (p.getDegree() != q.getDegree()) return false;
+		for (int i = p.getDegree(); i >= 0; i--) {
+			if (!p.getCoefficinet(i).equals(q.getCoefficinet(i))) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the rational function numerator/denominator, which is cancelled
+	 *         on demand.
+	 */
+	private RationalFunction<BASE> lazy(Polynomial<BASE> numerator,
+			Polynomial<BASE> denominator)
+	{
+		RationalFunction<BASE> r = new RationalFunction<>(numerator,
+				denominator, baseFactory);
+		r.cancelled = null;
+		return r;
+	}
+
+	/**
+	 * @return the rational function numerator/denominator computed from this
+	 *         and other, which is cancelled on demand if one of them is, or if
+	 *         the cancellation is lazy.
+	 */
+	private RationalFunction<BASE> result(Polynomial<BASE> numerator,
+			Polynomial<BASE> denominator, RationalFunction<BASE> other,
+			int degree)
+	{
+		RationalFunction<BASE> r = new RationalFunction<>(numerator,
+				denominator, baseFactory);
+		if (degree != RationalFunctionFactory.EAGER || cancelled != this
+				|| other.cancelled != other)
+		{
+			r.cancelled = null;
+		}
+		return r;
+	}
+
+	/**
+	 * Remove the common factors of numerator and denominator, whose
+	 * cancellation was deferred (see
+	 * {@link RationalFunctionFactory#setCancellationDegree(int)}), and make
+	 * the denominator monic. The result is computed once and kept. Rational
+	 * functions which were not computed with lazy cancellation are taken as
+	 * they are.
+	 * 
+	 * @return this rational function, cancelled.
+	 */
+	public RationalFunction<BASE> cancel()
+	{
+		RationalFunction<BASE> c = cancelled;
+		if (c == null) {
+			Polynomial<BASE> n = numerator, d = denominator;
+			Polynomial<BASE> gcd = n.gcd(d);
+			if (gcd.getDegree() > 0) {
+				n = n.divide(gcd);
+				d = d.divide(gcd);
+			}
+			BASE lead = d.getHighestCoefficient();
+			if (!lead.isOne()) {
+				n = n.divideByScalar(lead);
+				d = d.divideByScalar(lead);
+			}
+			c = n == numerator && d == denominator ? this
+					: new RationalFunction<>(n, d, baseFactory);
+			cancelled = c;
+		}
+		return c;
+	}
+
+	/**
+	 * Write the fields and whether this rational function is taken as it is.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException
+	{
+		out.defaultWriteObject();
+		out.writeBoolean(cancelled == this);
+	}
+
+	/**
+	 * Read the fields and restore {@link #cancelled}, which is not set by the
+	 * field initialiser during deserialisation.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException
+	{
+		in.defaultReadObject();
+		cancelled = in.readBoolean() ? this : null;
 	}
 
 	/**
@@ -121,8 +286,9 @@ public class RationalFunction<BASE extends IRingElement<BASE>>
 	 */
 	public int degree()
 	{
-		int degreeNumerator = this.getNumerator().getDegree();
-		int degreeDenominator = this.getDenominator().getDegree();
+		RationalFunction<BASE> c = cancel();
+		int degreeNumerator = c.getNumerator().getDegree();
+		int degreeDenominator = c.getDenominator().getDegree();
 		if (degreeNumerator > degreeDenominator) {
 			return degreeNumerator;
 		}
@@ -132,6 +298,9 @@ public class RationalFunction<BASE extends IRingElement<BASE>>
 	@Override
 	public int compareTo(RationalFunction<BASE> o)
 	{
+		if (cancelled != this || o.cancelled != o) {
+			return cancel().compareTo(o.cancel());
+		}
 		int degreeNumerator1 = this.getNumerator().getDegree();
 		int degreeDenominator1 = this.getDenominator().getDegree();
 		int degreeNumerator2 = o.getNumerator().getDegree();
@@ -255,20 +424,22 @@ public class RationalFunction<BASE extends IRingElement<BASE>>
 	@Override
 	public RationalFunction<BASE> invert()
 	{
-		return new RationalFunction<>(this.denominator, this.numerator,
-				baseFactory);
+		return result(this.denominator, this.numerator, this,
+				RationalFunctionFactory.EAGER);
 	}
 
 	@Override
 	public String toString()
 	{
-		return "(" + this.numerator.toString() + ") / ("
-				+ this.denominator.toString() + ")";
+		RationalFunction<BASE> c = cancel();
+		return "(" + c.numerator.toString() + ") / ("
+				+ c.denominator.toString() + ")";
 	}
 
 	@Override
 	public int hashCode()
 	{
+		if (cancelled != this) return cancel().hashCode();
 		final int prime = 31;
 		int result = 1;
 		result = prime * result
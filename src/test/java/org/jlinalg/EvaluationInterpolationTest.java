@@ -0,0 +1,237 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.jlinalg.field_p.FieldP;
+import org.jlinalg.field_p.FieldPFactoryMap;
+import org.jlinalg.polynomial.Polynomial;
+import org.jlinalg.polynomial.PolynomialFactory;
+import org.jlinalg.rational.Rational;
+import org.jlinalg.rationalFunction.RationalFunction;
+import org.jlinalg.rationalFunction.RationalFunctionFactory;
+import org.junit.Test;
+
+/**
+ * Tests for {@link EvaluationInterpolation}.
+ */
+public class EvaluationInterpolationTest
+{
+	/**
+	 * @return a polynomial of degree at most maxDegree with random
+	 *         coefficients in [-3,3].
+	 */
+	private static <RE extends IRingElement<RE>> Polynomial<RE> random(
+			IRingElementFactory<RE> f, int maxDegree, Random r)
+	{
+		Map<Integer, RE> coefficients = new HashMap<>();
+		for (int i = 0; i <= r.nextInt(maxDegree + 1); i++) {
+			coefficients.put(i, f.get(r.nextInt(7) - 3));
+		}
+		return new Polynomial<>(coefficients, f);
+	}
+
+	private static <RE extends IRingElement<RE>> Matrix<Polynomial<RE>> random(
+			IRingElementFactory<RE> f, int n, int maxDegree, Random r)
+	{
+		Matrix<Polynomial<RE>> m = new Matrix<>(n, n,
+				PolynomialFactory.getFactory(f));
+		for (int i = 1; i <= n; i++) {
+			for (int j = 1; j <= n; j++) {
+				m.set(i, j, random(f, maxDegree, r));
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * the determinant agrees with the Leibniz method, for Rational and FieldP
+	 * coefficients. Matrix.det() uses the interpolation.
+	 */
+	@Test
+	public void testDet()
+	{
+		Random r = new Random(1);
+		Matrix<Polynomial<Rational>> m = random(Rational.FACTORY, 6, 3, r);
+		Polynomial<Rational> expected = MatrixDeterminant.leibnizMethod(m);
+		assertEquals(expected,
+				new EvaluationInterpolation<>(Rational.FACTORY).det(m));
+		assertEquals(expected, m.det());
+
+		IRingElementFactory<FieldP> fp = FieldPFactoryMap.getFactory(10007L);
+		Matrix<Polynomial<FieldP>> mp = random(fp, 5, 4, r);
+		EvaluationInterpolation<FieldP> e = new EvaluationInterpolation<>(fp);
+		e.setExecutionPolicy(ExecutionPolicy.parallel(ForkJoinPool.commonPool(),
+				1));
+		assertEquals(MatrixDeterminant.leibnizMethod(mp), e.det(mp));
+	}
+
+	/**
+	 * a field with too few elements for the degree bound: Matrix.det() falls
+	 * back to elimination.
+	 */
+	@Test
+	public void testSmallField()
+	{
+		IRingElementFactory<FieldP> fp = FieldPFactoryMap.getFactory(3L);
+		Matrix<Polynomial<FieldP>> m = random(fp, 5, 3, new Random(2));
+		assertEquals(MatrixDeterminant.leibnizMethod(m), m.det());
+	}
+
+	/**
+	 * the characteristic polynomial of a matrix larger than 4x4: its constant
+	 * coefficient is (-1)^n det, the next to highest -trace.
+	 */
+	@Test
+	public void testCharacteristicPolynomial()
+	{
+		Random r = new Random(3);
+		Matrix<Rational> a = new Matrix<>(9, 9, Rational.FACTORY);
+		for (int i = 1; i <= 9; i++) {
+			for (int j = 1; j <= 9; j++) {
+				a.set(i, j, Rational.FACTORY.get(r.nextInt(21) - 10,
+						r.nextInt(3) + 1));
+			}
+		}
+		Polynomial<Rational> p = a.characteristicPolynomial();
+		assertEquals(9, p.getDegree());
+		assertEquals(Rational.FACTORY.one(), p.getHighestCoefficient());
+		assertEquals(a.det().negate(), p.getCoefficinet(0));
+		assertEquals(a.trace().negate(), p.getCoefficinet(8));
+	}
+
+	/**
+	 * with early termination, a degree bound far above the true degree costs
+	 * only a few more evaluations than the true degree: the determinant of U
+	 * B, where U is unimodular with entries of high degree, is constant.
+	 */
+	@Test
+	public void testEarlyTermination()
+	{
+		Random r = new Random(4);
+		PolynomialFactory<Rational> pf = PolynomialFactory
+				.getFactory(Rational.FACTORY);
+		Matrix<Polynomial<Rational>> u = new Matrix<>(5, 5, pf);
+		for (int i = 1; i <= 5; i++) {
+			for (int j = 1; j <= 5; j++) {
+				u.set(i, j, i == j ? pf.one() : i < j ? random(
+						Rational.FACTORY, 8, r).add(pf.get(1)) : pf.zero());
+			}
+		}
+		Matrix<Polynomial<Rational>> b = random(Rational.FACTORY, 5, 0, r);
+		Matrix<Polynomial<Rational>> m = MatrixMultiplication.simple(u, b);
+		EvaluationInterpolation<Rational> e = new EvaluationInterpolation<>(
+				Rational.FACTORY);
+		Polynomial<Rational> expected = e.det(m);
+		assertEquals(0, expected.getDegree());
+		int all = e.getEvaluations();
+		e.setEarlyTermination(3);
+		assertEquals(expected, e.det(m));
+		assertTrue(e.getEvaluations() + " of " + all,
+				e.getEvaluations() < all);
+	}
+
+	/**
+	 * the solution of a system of polynomials and of rational functions
+	 * satisfies the equations.
+	 */
+	@Test
+	public void testSolve()
+	{
+		Random r = new Random(5);
+		Matrix<Polynomial<Rational>> a = random(Rational.FACTORY, 6, 2, r);
+		Vector<Polynomial<Rational>> b = new Vector<>(6,
+				PolynomialFactory.getFactory(Rational.FACTORY));
+		for (int i = 1; i <= 6; i++) {
+			b.set(i, random(Rational.FACTORY, 2, r));
+		}
+		EvaluationInterpolation<Rational> e = new EvaluationInterpolation<>(
+				Rational.FACTORY);
+		Vector<RationalFunction<Rational>> x = e.solve(a, b);
+		RationalFunctionFactory<Rational> rf = RationalFunctionFactory
+				.getFactory(Rational.FACTORY);
+		Matrix<RationalFunction<Rational>> ar = new Matrix<>(6, 6, rf);
+		Vector<RationalFunction<Rational>> br = new Vector<>(6, rf);
+		for (int i = 1; i <= 6; i++) {
+			RationalFunction<Rational> sum = rf.zero();
+			for (int j = 1; j <= 6; j++) {
+				sum = sum.add(rf.get(a.get(i, j), Rational.FACTORY)
+						.multiply(x.getEntry(j)));
+				// divide row i by (i+x) for the system of rational functions
+				ar.set(i, j, rf.get(a.get(i, j), denominator(i),
+						Rational.FACTORY));
+			}
+			assertTrue(sum.subtract(rf.get(b.getEntry(i), Rational.FACTORY))
+					.isZero());
+			br.set(i, rf.get(b.getEntry(i), denominator(i), Rational.FACTORY));
+		}
+		assertEquals(x, e.rationalFunctionSolve(ar, br));
+	}
+
+	/**
+	 * @return the polynomial i+x
+	 */
+	private static Polynomial<Rational> denominator(int i)
+	{
+		Map<Integer, Rational> c = new HashMap<>();
+		c.put(0, Rational.FACTORY.get(i));
+		c.put(1, Rational.FACTORY.one());
+		return new Polynomial<>(c, Rational.FACTORY);
+	}
+
+	/**
+	 * the determinant of a matrix of rational functions agrees with the
+	 * Leibniz method.
+	 */
+	@Test
+	public void testRationalFunctionDet()
+	{
+		Random r = new Random(6);
+		RationalFunctionFactory<Rational> rf = RationalFunctionFactory
+				.getFactory(Rational.FACTORY);
+		Matrix<RationalFunction<Rational>> m = new Matrix<>(5, 5, rf);
+		for (int i = 1; i <= 5; i++) {
+			for (int j = 1; j <= 5; j++) {
+				Polynomial<Rational> d = random(Rational.FACTORY, 1, r);
+				m.set(i, j, rf.get(random(Rational.FACTORY, 2, r),
+						d.isZero() ? denominator(j) : d, Rational.FACTORY));
+			}
+		}
+		assertTrue(MatrixDeterminant.leibnizMethod(m).subtract(m.det())
+				.isZero());
+	}
+
+	/**
+	 * singular systems are rejected.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testSingular()
+	{
+		Matrix<Polynomial<Rational>> a = random(Rational.FACTORY, 5, 2,
+				new Random(7));
+		a.setRow(2, a.getRow(1));
+		new EvaluationInterpolation<>(Rational.FACTORY).solve(a,
+				a.getCol(1));
+	}
+}
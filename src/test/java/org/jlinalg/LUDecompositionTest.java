@@ -0,0 +1,199 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.jlinalg.f2.F2;
+import org.jlinalg.field_p.FieldPFactoryMap;
+import org.jlinalg.rational.Rational;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Tests for the tiled {@link LUDecomposition}, comparing sequential and
+ * parallel execution.
+ */
+@RunWith(value = Parameterized.class)
+public class LUDecompositionTest<RE extends IRingElement<RE>>
+{
+	/**
+	 * fields with exact arithmetic.
+	 */
+	@Parameters
+	public static Collection<Object[]> data()
+	{
+		IRingElementFactory<?>[] factories = {
+				Rational.FACTORY, F2.FACTORY,
+				FieldPFactoryMap.getFactory(113L),
+				FieldPFactoryMap.getFactory(1000003L)
+		};
+		Collection<Object[]> data = new ArrayList<>();
+		for (IRingElementFactory<?> f : factories) {
+			data.add(new Object[] {
+					f
+			});
+		}
+		return data;
+	}
+
+	/**
+	 * executes every task in a pool with several threads, also on machines
+	 * with a single core.
+	 */
+	private static final ExecutionPolicy PARALLEL = ExecutionPolicy.parallel(
+			new ForkJoinPool(4), 1);
+
+	private final IRingElementFactory<RE> factory;
+
+	/**
+	 * @param factory
+	 */
+	public LUDecompositionTest(IRingElementFactory<RE> factory)
+	{
+		this.factory = factory;
+	}
+
+	/**
+	 * the source of the random entries.
+	 */
+	private final Random random = new Random(5);
+
+	/**
+	 * @return a matrix with small random integer entries.
+	 */
+	private Matrix<RE> randomMatrix(int rows, int cols)
+	{
+		Matrix<RE> m = new Matrix<>(rows, cols, factory);
+		for (int r = 1; r <= rows; r++) {
+			for (int c = 1; c <= cols; c++) {
+				m.set(r, c, factory.get(random.nextInt(19) - 9));
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * P A = L U, and the factors do not depend on the policy or the tile
+	 * size.
+	 */
+	@Test
+	public void testDecomposition()
+	{
+		Matrix<RE> a = randomMatrix(30, 30);
+		LUDecomposition<RE> sequential = new LUDecomposition<>(a,
+				ExecutionPolicy.SEQUENTIAL, 7);
+		assertEquals(MatrixMultiplication.simple(sequential.getP(), a),
+				MatrixMultiplication.simple(sequential.getL(), sequential
+						.getU()));
+		for (int tileSize : new int[] { 1, 4, 7, 30, 64 }) {
+			LUDecomposition<RE> parallel = new LUDecomposition<>(a,
+					PARALLEL, tileSize);
+			assertEquals(sequential.getL(), parallel.getL());
+			assertEquals(sequential.getU(), parallel.getU());
+			assertEquals(sequential.getP(), parallel.getP());
+		}
+	}
+
+	/**
+	 * the determinant agrees with the gaussian method, and solutions and
+	 * inverse are correct.
+	 */
+	@Test
+	public void testDetSolveInverse()
+	{
+		LinAlgFactory<RE> laf = new LinAlgFactory<>(factory);
+		for (int k = 0; k < 5; k++) {
+			Matrix<RE> a = randomMatrix(20, 20);
+			LUDecomposition<RE> lu = new LUDecomposition<>(a, PARALLEL, 6);
+			RE det = MatrixDeterminant.gaussianMethod(a);
+			assertEquals(det, lu.det());
+			assertEquals(det.isZero(), lu.isSingular());
+			if (lu.isSingular()) continue;
+			Matrix<RE> b = randomMatrix(20, 3);
+			Matrix<RE> x = lu.solve(b);
+			assertEquals(b, MatrixMultiplication.simple(a, x));
+			assertEquals(b.getCol(2), a.multiply(lu.solve(b.getCol(2))));
+			assertEquals(laf.identity(20), MatrixMultiplication.simple(lu
+					.inverse(), a));
+		}
+	}
+
+	/**
+	 * a singular matrix is decomposed, but cannot be used to solve systems.
+	 */
+	@Test
+	public void testSingular()
+	{
+		Matrix<RE> a = randomMatrix(15, 15);
+		a.setRow(9, a.getRow(3));
+		LUDecomposition<RE> lu = new LUDecomposition<>(a, PARALLEL, 4);
+		assertTrue(lu.isSingular());
+		assertTrue(lu.det().isZero());
+		assertEquals(MatrixMultiplication.simple(lu.getP(), a),
+				MatrixMultiplication.simple(lu.getL(), lu.getU()));
+		try {
+			lu.solve(a.getCol(1));
+			fail("solved a singular system");
+		} catch (InvalidOperationException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * with a parallel default policy, det() and inverse() of large matrices
+	 * use the decomposition and give the same results.
+	 */
+	@Test
+	public void testDefaultPolicy()
+	{
+		int n = LUDecomposition.DEFAULT_TILE_SIZE + 6;
+		// L L^T with a unit lower triangular band matrix L is invertible and
+		// keeps the rational entries of the inverse small.
+		Matrix<RE> l = randomMatrix(n, n);
+		for (int i = 1; i <= n; i++) {
+			for (int j = 1; j <= n; j++) {
+				if (i == j) {
+					l.set(i, j, factory.one());
+				}
+				else if (j > i || i - j > 2) {
+					l.set(i, j, factory.zero());
+				}
+			}
+		}
+		Matrix<RE> a = MatrixMultiplication.simple(l, l.transpose());
+		RE det = a.det();
+		Matrix<RE> inverse = a.inverse();
+		ExecutionPolicy old = ExecutionPolicy.getDefault();
+		ExecutionPolicy.setDefault(PARALLEL);
+		try {
+			assertEquals(det, a.det());
+			assertEquals(inverse, a.inverse());
+		} finally {
+			ExecutionPolicy.setDefault(old);
+		}
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.jlinalg.field_p.FieldP;
+import org.jlinalg.field_p.FieldPAbstractFactory;
+import org.jlinalg.field_p.FieldPFactoryMap;
+import org.jlinalg.rational.Rational;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Matrix#pow(long)} and {@link LinearRecurrence}.
+ */
+public class LinearRecurrenceTest
+{
+	/**
+	 * a prime field
+	 */
+	private static final FieldPAbstractFactory FP = FieldPFactoryMap
+			.getFactory(1000003L);
+
+	/**
+	 * the source of the random entries.
+	 */
+	private final Random random = new Random(3);
+
+	/**
+	 * @return a matrix with small random integer entries.
+	 */
+	private <RE extends IRingElement<RE>> Matrix<RE> randomMatrix(int n,
+			IRingElementFactory<RE> factory)
+	{
+		Matrix<RE> m = new Matrix<>(n, n, factory);
+		for (int r = 1; r <= n; r++) {
+			for (int c = 1; c <= n; c++) {
+				m.set(r, c, factory.get(random.nextInt(7) - 3));
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * @return m to the power n by repeated multiplication.
+	 */
+	private static <RE extends IRingElement<RE>> Matrix<RE> naivePow(
+			Matrix<RE> m, int n)
+	{
+		Matrix<RE> p = new LinAlgFactory<>(m.getFactory()).identity(m
+				.getRows());
+		for (int i = 0; i < n; i++) {
+			p = MatrixMultiplication.simple(p, m);
+		}
+		return p;
+	}
+
+	/**
+	 * powers agree with repeated multiplication, also for matrices
+	 * multiplied by Strassen's method and for negative exponents.
+	 */
+	@Test
+	public void testPow()
+	{
+		Matrix<Rational> m = randomMatrix(6, Rational.FACTORY);
+		for (int n = 0; n <= 9; n++) {
+			assertEquals(naivePow(m, n), m.pow(n));
+		}
+		assertEquals(m.pow(13), m.pow(BigInteger.valueOf(13)));
+		if (!m.det().isZero()) {
+			assertEquals(naivePow(m.inverse(), 3), m.pow(-3));
+		}
+		Matrix<FieldP> large = randomMatrix(
+				MatrixMultiplication.STRASSEN_BODRATO_TRUNCATION_POINT + 3,
+				FP);
+		assertEquals(naivePow(large, 5), large.pow(5));
+		Matrix<FieldP> one = randomMatrix(1, FP);
+		assertEquals(naivePow(one, 11), one.pow(11));
+	}
+
+	/**
+	 * only square matrices have powers.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testPowNotSquare()
+	{
+		new Matrix<>(2, 3, Rational.FACTORY).pow(2);
+	}
+
+	/**
+	 * the Fibonacci numbers modulo p, for a huge index via the recurrence
+	 * and via the power of the companion matrix.
+	 */
+	@Test
+	public void testFibonacci()
+	{
+		LinearRecurrence<FieldP> fib = new LinearRecurrence<>(new Vector<>(
+				FP.one(), FP.one()), new Vector<>(FP.zero(), FP.one()));
+		FieldP a = FP.zero(), b = FP.one();
+		for (int n = 0; n < 100; n++) {
+			assertEquals(a, fib.term(n));
+			FieldP t = a.add(b);
+			a = b;
+			b = t;
+		}
+		Matrix<FieldP> companion = new Matrix<>(new FieldP[][] {
+				{
+						FP.one(), FP.one()
+				}, {
+						FP.one(), FP.zero()
+				}
+		});
+		long n = 1000000000000000000L;
+		assertEquals(companion.pow(n).get(1, 2), fib.term(n));
+		BigInteger big = BigInteger.TEN.pow(30);
+		assertEquals(companion.pow(big).get(1, 2), fib.term(big));
+	}
+
+	/**
+	 * a recurrence of order 5 is recovered from its first terms.
+	 */
+	@Test
+	public void testOf()
+	{
+		Vector<FieldP> c = new Vector<>(FP.get(3), FP.get(0), FP.get(-2),
+				FP.get(7), FP.get(1));
+		Vector<FieldP> initial = new Vector<>(FP.get(1), FP.get(5), FP
+				.get(2), FP.get(0), FP.get(9));
+		LinearRecurrence<FieldP> r = new LinearRecurrence<>(c, initial);
+		Vector<FieldP> terms = new Vector<>(10, FP);
+		for (int i = 1; i <= 10; i++) {
+			terms.set(i, r.term(i - 1));
+		}
+		LinearRecurrence<FieldP> found = LinearRecurrence.of(terms);
+		assertEquals(5, found.getOrder());
+		assertEquals(c, found.getCoefficients());
+		assertEquals(r.term(123456789L), found.term(123456789L));
+	}
+}
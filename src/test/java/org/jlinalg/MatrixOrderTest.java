@@ -0,0 +1,199 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.jlinalg.f2.F2;
+import org.jlinalg.field_p.FieldP;
+import org.jlinalg.field_p.FieldPAbstractFactory;
+import org.jlinalg.field_p.FieldPFactoryMap;
+import org.jlinalg.rational.Rational;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Matrix#multiplicativeOrder()} and {@link MatrixOrder}.
+ */
+public class MatrixOrderTest
+{
+	/**
+	 * the source of the random entries.
+	 */
+	private final Random random = new Random(5);
+
+	/**
+	 * @return a random invertible matrix, which is upper triangular with
+	 *         probability 1/2 (so that repeated eigenvalues are frequent).
+	 */
+	private <RE extends IRingElement<RE>> Matrix<RE> randomInvertible(int n,
+			int p, IRingElementFactory<RE> factory)
+	{
+		while (true) {
+			boolean triangular = random.nextBoolean();
+			Matrix<RE> m = new Matrix<>(n, n, factory);
+			for (int r = 1; r <= n; r++) {
+				for (int c = 1; c <= n; c++) {
+					int v = triangular && c < r ? 0 : random.nextInt(p);
+					if (triangular && c == r && v == 0) v = 1;
+					m.set(r, c, factory.get(v));
+				}
+			}
+			if (!m.det().isZero()) return m;
+		}
+	}
+
+	/**
+	 * @return the order of m by repeated multiplication.
+	 */
+	private static <RE extends IRingElement<RE>> long naiveOrder(Matrix<RE> m)
+	{
+		Matrix<RE> power = m;
+		long k = 1;
+		while (!power.isIdentity()) {
+			power = MatrixMultiplication.simple(power, m);
+			k++;
+		}
+		return k;
+	}
+
+	/**
+	 * the order agrees with repeated multiplication for small matrices.
+	 */
+	@Test
+	public void testSmallMatrices()
+	{
+		FieldPAbstractFactory f7 = FieldPFactoryMap.getFactory(7L);
+		for (int n = 1; n <= 4; n++) {
+			for (int trial = 0; trial < 10; trial++) {
+				Matrix<FieldP> m = randomInvertible(n, 7, f7);
+				assertEquals(m.toString(), BigInteger.valueOf(naiveOrder(m)),
+						m.multiplicativeOrder());
+			}
+		}
+		for (int n = 1; n <= 7; n++) {
+			for (int trial = 0; trial < 10; trial++) {
+				Matrix<F2> m = randomInvertible(n, 2, F2.FACTORY);
+				assertEquals(m.toString(), BigInteger.valueOf(naiveOrder(m)),
+						m.multiplicativeOrder());
+			}
+		}
+	}
+
+	/**
+	 * a unipotent Jordan block of size 5 over F<sub>2</sub> has the order 8.
+	 */
+	@Test
+	public void testJordanBlock()
+	{
+		Matrix<F2> m = new LinAlgFactory<>(F2.FACTORY).identity(5);
+		for (int i = 1; i < 5; i++) {
+			m.set(i, i + 1, F2.FACTORY.one());
+		}
+		assertEquals(BigInteger.valueOf(8), m.multiplicativeOrder());
+		assertEquals(8, m.order(100));
+		assertEquals(-2, m.order(8));
+	}
+
+	/**
+	 * the companion matrix of the primitive polynomial x<sup>31</sup> +
+	 * x<sup>3</sup> + 1 has the order 2<sup>31</sup> - 1, which is out of
+	 * reach for repeated multiplication.
+	 */
+	@Test
+	public void testPrimitivePolynomial()
+	{
+		int n = 31;
+		Matrix<F2> m = new LinAlgFactory<>(F2.FACTORY).zeros(n, n);
+		for (int i = 2; i <= n; i++) {
+			m.set(i, i - 1, F2.FACTORY.one());
+		}
+		m.set(1, n, F2.FACTORY.one());
+		m.set(4, n, F2.FACTORY.one());
+		BigInteger order = BigInteger.ONE.shiftLeft(n).subtract(
+				BigInteger.ONE);
+		assertEquals(order, m.multiplicativeOrder());
+		assertEquals(Integer.MAX_VALUE, order.intValue());
+		assertEquals(-2, m.order());
+	}
+
+	/**
+	 * for a random matrix over a large field, the order k satisfies
+	 * m<sup>k</sup> = I, but m<sup>k/r</sup> is not the identity for any
+	 * prime divisor r of k.
+	 */
+	@Test
+	public void testLargeField()
+	{
+		FieldPAbstractFactory f = FieldPFactoryMap.getFactory(1000003L);
+		for (int n : new int[] { 6, 13 }) {
+			Matrix<FieldP> m = randomInvertible(n, 1000003, f);
+			BigInteger order = m.multiplicativeOrder();
+			assertTrue(m.pow(order).isIdentity());
+			Map<BigInteger, Integer> primes = new TreeMap<>();
+			MatrixOrder.factor(order, primes);
+			for (BigInteger r : primes.keySet()) {
+				assertFalse(m.pow(order.divide(r)).isIdentity());
+			}
+		}
+	}
+
+	/**
+	 * the prime factorisation used for p<sup>d</sup> - 1.
+	 */
+	@Test
+	public void testFactor()
+	{
+		Map<BigInteger, Integer> primes = new TreeMap<>();
+		BigInteger n = BigInteger.valueOf(2).pow(67).subtract(BigInteger.ONE)
+				.multiply(BigInteger.valueOf(9));
+		MatrixOrder.factor(n, primes);
+		assertEquals(3, primes.size());
+		assertEquals(Integer.valueOf(2), primes.get(BigInteger.valueOf(3)));
+		assertEquals(Integer.valueOf(1), primes.get(new BigInteger(
+				"193707721")));
+		assertEquals(Integer.valueOf(1), primes.get(new BigInteger(
+				"761838257287")));
+	}
+
+	/**
+	 * singular matrices have no order.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testSingular()
+	{
+		Matrix<F2> m = new LinAlgFactory<>(F2.FACTORY).identity(3);
+		m.set(2, 2, F2.FACTORY.zero());
+		m.multiplicativeOrder();
+	}
+
+	/**
+	 * only prime fields are supported.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testNotPrimeField()
+	{
+		new LinAlgFactory<>(Rational.FACTORY).identity(3)
+				.multiplicativeOrder();
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.jlinalg.bigdecimalwrapper.BigDecimalWrapper;
+import org.jlinalg.bigdecimalwrapper.BigDecimalWrapperFactory;
+import org.jlinalg.rational.Rational;
+import org.junit.Test;
+
+/**
+ * Tests for {@link MixedPrecisionSolver}.
+ */
+public class MixedPrecisionSolverTest
+{
+	/**
+	 * @return a well-conditioned n x n matrix with random integer entries
+	 *         and a dominant diagonal.
+	 */
+	private static <RE extends IRingElement<RE>> Matrix<RE> matrix(int n,
+			IRingElementFactory<RE> factory, long seed)
+	{
+		Random r = new Random(seed);
+		Matrix<RE> a = new Matrix<>(n, n, factory);
+		for (int i = 1; i <= n; i++) {
+			for (int j = 1; j <= n; j++) {
+				int v = r.nextInt(19) - 9;
+				a.set(i, j, factory.get(i == j ? v + 10 * n : v));
+			}
+		}
+		return a;
+	}
+
+	/**
+	 * @return a vector with entries 1/3, 2/3, ...
+	 */
+	private static <RE extends IRingElement<RE>> Vector<RE> rhs(int n,
+			IRingElementFactory<RE> factory)
+	{
+		Vector<RE> b = new Vector<>(n, factory);
+		for (int i = 1; i <= n; i++) {
+			b.set(i, factory.get(i).divide(factory.get(3)));
+		}
+		return b;
+	}
+
+	/**
+	 * the refined solution over the rationals agrees with the exact solution
+	 * to the tolerance.
+	 */
+	@Test
+	public void testRational()
+	{
+		int n = 25;
+		Matrix<Rational> a = matrix(n, Rational.FACTORY, 1);
+		Vector<Rational> b = rhs(n, Rational.FACTORY);
+		MixedPrecisionSolver<Rational> solver = new MixedPrecisionSolver<>(a);
+		solver.setTolerance(1e-60);
+		Vector<Rational> x = solver.solve(b);
+		assertFalse(solver.isFallbackUsed());
+		assertTrue("iterations " + solver.getIterations(), solver
+				.getIterations() <= 6);
+		Vector<Rational> exact = LinSysSolver.solve(a, b);
+		Rational tolerance = Rational.FACTORY.get("1e-58");
+		for (int i = 1; i <= n; i++) {
+			Rational e = exact.getEntry(i);
+			assertTrue("entry " + i, x.getEntry(i).subtract(e).abs().le(
+					tolerance.multiply(e.abs())));
+		}
+	}
+
+	/**
+	 * with {@link BigDecimalWrapper}s, the solution is correct to the
+	 * precision of the factory.
+	 */
+	@Test
+	public void testBigDecimal()
+	{
+		int n = 20;
+		BigDecimalWrapperFactory f = new BigDecimalWrapperFactory(50);
+		Matrix<BigDecimalWrapper> a = matrix(n, f, 2);
+		Vector<BigDecimalWrapper> b = rhs(n, f);
+		MixedPrecisionSolver<BigDecimalWrapper> solver = new MixedPrecisionSolver<>(
+				a);
+		assertEquals(1e-50, solver.getTolerance(), 1e-60);
+		Vector<BigDecimalWrapper> x = solver.solve(b);
+		assertFalse(solver.isFallbackUsed());
+		Vector<BigDecimalWrapper> r = b.subtract(a.multiply(x));
+		for (int i = 1; i <= n; i++) {
+			assertTrue("residual " + r.getEntry(i), r.getEntry(i).getValue()
+					.abs().compareTo(new BigDecimal("1e-45")) < 0);
+		}
+	}
+
+	/**
+	 * the Hilbert matrix of order 14 is too ill-conditioned for a
+	 * factorisation in double precision, and the exact solution is returned.
+	 */
+	@Test
+	public void testFallback()
+	{
+		int n = 14;
+		Matrix<Rational> a = new Matrix<>(n, n, Rational.FACTORY);
+		for (int i = 1; i <= n; i++) {
+			for (int j = 1; j <= n; j++) {
+				a.set(i, j, Rational.FACTORY.get(1, i + j - 1));
+			}
+		}
+		Vector<Rational> b = rhs(n, Rational.FACTORY);
+		MixedPrecisionSolver<Rational> solver = new MixedPrecisionSolver<>(a);
+		Vector<Rational> x = solver.solve(b);
+		assertTrue(solver.isFallbackUsed());
+		assertEquals(b, a.multiply(x));
+	}
+
+	/**
+	 * a matrix that is singular in double precision uses the fallback too,
+	 * as do inconsistent systems.
+	 */
+	@Test
+	public void testSingular()
+	{
+		Matrix<Rational> a = new Matrix<>(new Rational[][] {
+				{
+						Rational.FACTORY.get(1), Rational.FACTORY.get(2)
+				}, {
+						Rational.FACTORY.get(2), Rational.FACTORY.get(4)
+				}
+		});
+		MixedPrecisionSolver<Rational> solver = new MixedPrecisionSolver<>(a);
+		Vector<Rational> x = solver.solve(new Vector<>(Rational.FACTORY
+				.get(1), Rational.FACTORY.get(2)));
+		assertTrue(solver.isFallbackUsed());
+		assertEquals(Rational.FACTORY.get(1), x.getEntry(1).add(x.getEntry(2)
+				.multiply(Rational.FACTORY.get(2))));
+		assertEquals(null, solver.solve(new Vector<>(Rational.FACTORY.get(1),
+				Rational.FACTORY.get(1))));
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+
+import org.jlinalg.complex.Complex;
+import org.jlinalg.f2.F2;
+import org.jlinalg.fastrational.FastRationalFactory;
+import org.jlinalg.field_p.FieldPFactoryMap;
+import org.jlinalg.rational.Rational;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Compare the results of {@link SmallMatrixKernels} with those of the general
+ * algorithms.
+ */
+@RunWith(value = Parameterized.class)
+public class SmallMatrixKernelsTest<RE extends IRingElement<RE>>
+{
+	/**
+	 * fields with exact arithmetic.
+	 */
+	@Parameters
+	public static Collection<Object[]> data()
+	{
+		IRingElementFactory<?>[] factories = {
+				Rational.FACTORY, FastRationalFactory.INSTANCE, F2.FACTORY,
+				FieldPFactoryMap.getFactory(113L), Complex.FACTORY
+		};
+		Collection<Object[]> data = new ArrayList<>();
+		for (IRingElementFactory<?> f : factories) {
+			data.add(new Object[] {
+					f
+			});
+		}
+		return data;
+	}
+
+	private final IRingElementFactory<RE> factory;
+
+	/**
+	 * @param factory
+	 */
+	public SmallMatrixKernelsTest(IRingElementFactory<RE> factory)
+	{
+		this.factory = factory;
+	}
+
+	/**
+	 * the source of the random entries.
+	 */
+	private final Random random = new Random(4);
+
+	/**
+	 * @return a matrix with small random integer entries (so that no overflow
+	 *         occurs for FastRationals).
+	 */
+	private Matrix<RE> randomMatrix(int rows, int cols)
+	{
+		Matrix<RE> m = new Matrix<>(rows, cols, factory);
+		for (int r = 1; r <= rows; r++) {
+			for (int c = 1; c <= cols; c++) {
+				m.set(r, c, factory.get(random.nextInt(19) - 9));
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * @return the product computed by the general method on views.
+	 */
+	private Matrix<RE> reference(Matrix<RE> m1, Matrix<RE> m2)
+	{
+		Matrix<RE> r = new Matrix<>(m1.getRows(), m2.getCols(), factory);
+		MatrixMultiplication.simple(m1.getView(), m2.getView(), r.getView());
+		return r;
+	}
+
+	/**
+	 * the determinants agree with the Leibniz method.
+	 */
+	@Test
+	public void testDet()
+	{
+		for (int n = 1; n <= SmallMatrixKernels.MAX_SIZE; n++) {
+			for (int k = 0; k < 20; k++) {
+				Matrix<RE> m = randomMatrix(n, n);
+				assertEquals(MatrixDeterminant.leibnizMethod(m), m.det());
+			}
+		}
+	}
+
+	/**
+	 * the product of a matrix and its inverse is the identity.
+	 */
+	@Test
+	public void testInverse()
+	{
+		for (int n = 1; n <= SmallMatrixKernels.MAX_SIZE; n++) {
+			Matrix<RE> id = new LinAlgFactory<>(factory).identity(n);
+			for (int k = 0; k < 20; k++) {
+				Matrix<RE> m = randomMatrix(n, n);
+				if (m.det().isZero()) {
+					continue;
+				}
+				assertEquals(id, reference(m, m.inverse()));
+				assertEquals(id, reference(m.inverse(), m));
+			}
+		}
+	}
+
+	/**
+	 * singular matrices can not be inverted.
+	 */
+	@Test
+	public void testInverseSingular()
+	{
+		for (int n = 1; n <= SmallMatrixKernels.MAX_SIZE; n++) {
+			Matrix<RE> m = randomMatrix(n, n);
+			m.setRow(1, factory.zero());
+			try {
+				m.inverse();
+				assertTrue("inverted a singular matrix", false);
+			} catch (InvalidOperationException e) {
+				// expected
+			}
+		}
+	}
+
+	/**
+	 * products of all combinations of small sizes agree with the general
+	 * method.
+	 */
+	@Test
+	public void testMultiply()
+	{
+		for (int rows = 1; rows <= SmallMatrixKernels.MAX_SIZE; rows++) {
+			for (int inner = 1; inner <= SmallMatrixKernels.MAX_SIZE; inner++) {
+				for (int cols = 1; cols <= SmallMatrixKernels.MAX_SIZE; cols++) {
+					Matrix<RE> m1 = randomMatrix(rows, inner);
+					Matrix<RE> m2 = randomMatrix(inner, cols);
+					Matrix<RE> expected = reference(m1, m2);
+					assertEquals(expected, MatrixMultiplication.simple(m1, m2));
+					assertEquals(expected, MatrixMultiplication.school(m1, m2));
+				}
+				Matrix<RE> m = randomMatrix(rows, inner);
+				Vector<RE> v = randomMatrix(inner, 1).getCol(1);
+				Vector<RE> expected = reference(m, new Matrix<>(v.entries,
+						inner)).getCol(1);
+				assertEquals(expected, m.multiply(v));
+			}
+		}
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.jlinalg.f2.F2;
+import org.jlinalg.field_p.FieldP;
+import org.jlinalg.field_p.FieldPAbstractFactory;
+import org.jlinalg.field_p.FieldPFactoryMap;
+import org.jlinalg.polynomial.Polynomial;
+import org.junit.Test;
+
+/**
+ * Tests for {@link WiedemannSolver}, {@link SparseMatrix} and
+ * {@link BerlekampMassey}.
+ */
+public class WiedemannSolverTest
+{
+	/**
+	 * a prime field large enough for the probabilistic methods.
+	 */
+	private static final FieldPAbstractFactory FP = FieldPFactoryMap
+			.getFactory(1000003L);
+
+	/**
+	 * the source of the random entries.
+	 */
+	private final Random random = new Random(7);
+
+	/**
+	 * @return a random sparse n x n matrix with about <code>perRow</code>
+	 *         entries in each row besides the diagonal.
+	 */
+	private <RE extends IRingElement<RE>> SparseMatrix<RE> randomSparse(
+			int n, int perRow, IRingElementFactory<RE> factory)
+	{
+		List<Integer> rows = new ArrayList<>(), cols = new ArrayList<>();
+		List<RE> values = new ArrayList<>();
+		for (int i = 1; i <= n; i++) {
+			rows.add(i);
+			cols.add(i);
+			values.add(factory.one());
+			for (int k = 0; k < perRow; k++) {
+				rows.add(i);
+				cols.add(1 + random.nextInt(n));
+				values.add(factory.get(1 + random.nextInt(1000)));
+			}
+		}
+		int[] r = new int[rows.size()], c = new int[rows.size()];
+		for (int k = 0; k < r.length; k++) {
+			r[k] = rows.get(k);
+			c[k] = cols.get(k);
+		}
+		return SparseMatrix.fromTriplets(n, n, r, c, values.toArray(factory
+				.getArray(0)), factory);
+	}
+
+	/**
+	 * @return a random vector.
+	 */
+	private static <RE extends IRingElement<RE>> Vector<RE> randomVector(
+			int n, IRingElementFactory<RE> factory)
+	{
+		Vector<RE> v = new Vector<>(n, factory);
+		for (int i = 1; i <= n; i++) {
+			v.set(i, factory.randomValue());
+		}
+		return v;
+	}
+
+	/**
+	 * @return a copy of m with the rows in <code>zero</code> set to zero.
+	 */
+	private static <RE extends IRingElement<RE>> SparseMatrix<RE> withZeroRows(
+			SparseMatrix<RE> m, int... zero)
+	{
+		Matrix<RE> dense = m.toMatrix();
+		for (int row : zero) {
+			dense.setRow(row, m.getFactory().zero());
+		}
+		return SparseMatrix.fromMatrix(dense);
+	}
+
+	/**
+	 * the sparse matrix agrees with its dense copy.
+	 */
+	@Test
+	public void testSparseMatrix()
+	{
+		SparseMatrix<F2> s = SparseMatrix.fromTriplets(3, 2, new int[] {
+				3, 1, 3
+		}, new int[] {
+				2, 1, 2
+		}, new F2[] {
+				F2.FACTORY.one(), F2.FACTORY.one(), F2.FACTORY.one()
+		}, F2.FACTORY);
+		assertEquals(2, s.getNonZeros());
+		assertEquals(F2.FACTORY.zero(), s.get(3, 2));
+		assertEquals(F2.FACTORY.one(), s.get(1, 1));
+		assertEquals(s.toMatrix(), SparseMatrix.fromMatrix(s.toMatrix())
+				.toMatrix());
+
+		SparseMatrix<FieldP> m = randomSparse(20, 3, FP);
+		Vector<FieldP> x = randomVector(20, FP);
+		assertEquals(m.toMatrix().multiply(x), m.apply(x));
+		assertEquals(x.multiply(m.toMatrix()), m.applyTranspose(x));
+	}
+
+	/**
+	 * the Fibonacci numbers satisfy x<sup>2</sup> - x - 1.
+	 */
+	@Test
+	public void testBerlekampMassey()
+	{
+		Vector<FieldP> fib = new Vector<>(10, FP);
+		fib.set(1, FP.zero());
+		fib.set(2, FP.one());
+		for (int i = 3; i <= 10; i++) {
+			fib.set(i, fib.getEntry(i - 1).add(fib.getEntry(i - 2)));
+		}
+		Polynomial<FieldP> p = BerlekampMassey.minimalPolynomial(fib);
+		assertEquals(2, p.getDegree());
+		assertEquals(FP.one(), p.getCoefficinet(2));
+		assertEquals(FP.m_one(), p.getCoefficinet(1));
+		assertEquals(FP.m_one(), p.getCoefficinet(0));
+	}
+
+	/**
+	 * the minimal polynomial of diag(1,2,2,3) is (x-1)(x-2)(x-3).
+	 */
+	@Test
+	public void testMinimalPolynomial()
+	{
+		SparseMatrix<FieldP> d = SparseMatrix.fromTriplets(4, 4, new int[] {
+				1, 2, 3, 4
+		}, new int[] {
+				1, 2, 3, 4
+		}, new FieldP[] {
+				FP.get(1), FP.get(2), FP.get(2), FP.get(3)
+		}, FP);
+		Polynomial<FieldP> p = new WiedemannSolver<>(d).minimalPolynomial();
+		assertEquals(3, p.getDegree());
+		assertEquals(FP.get(-6), p.getCoefficinet(0));
+		assertEquals(FP.get(11), p.getCoefficinet(1));
+		assertEquals(FP.get(-6), p.getCoefficinet(2));
+	}
+
+	/**
+	 * a sparse non-singular system is solved.
+	 */
+	@Test
+	public void testSolve()
+	{
+		SparseMatrix<FieldP> a = randomSparse(80, 3, FP);
+		Vector<FieldP> b = randomVector(80, FP);
+		WiedemannSolver<FieldP> solver = new WiedemannSolver<>(a);
+		assertEquals(b, a.apply(solver.solve(b)));
+		assertFalse(solver.isSingular());
+		assertEquals(80, solver.rank());
+		assertFalse(solver.minimalPolynomial().getCoefficinet(0).isZero());
+	}
+
+	/**
+	 * rank and kernel vector of a singular matrix.
+	 */
+	@Test
+	public void testSingular()
+	{
+		SparseMatrix<FieldP> a = withZeroRows(randomSparse(60, 3, FP), 5, 17,
+				40);
+		assertEquals(57, a.toMatrix().rank());
+		WiedemannSolver<FieldP> solver = new WiedemannSolver<>(a);
+		assertEquals(57, solver.rank());
+		Vector<FieldP> k = solver.kernelVector();
+		assertNotNull(k);
+		assertFalse(k.equals(new Vector<>(60, FP.zero())));
+		assertEquals(new Vector<>(60, FP.zero()), a.apply(k));
+	}
+
+	/**
+	 * over F2, systems are solved and kernel vectors found as well (the
+	 * projections vanish more often, and several random vectors are needed to
+	 * find a kernel vector reliably).
+	 */
+	@Test
+	public void testF2()
+	{
+		SparseMatrix<F2> a;
+		do {
+			a = randomSparse(40, 2, F2.FACTORY);
+		} while (a.toMatrix().det().isZero());
+		Vector<F2> b = randomVector(40, F2.FACTORY);
+		WiedemannSolver<F2> solver = new WiedemannSolver<>(a);
+		assertEquals(b, a.apply(solver.solve(b)));
+		solver.setAttempts(20);
+		assertNull(solver.kernelVector());
+
+		SparseMatrix<F2> s = withZeroRows(a, 3);
+		solver = new WiedemannSolver<>(s);
+		solver.setAttempts(20);
+		Vector<F2> k = solver.kernelVector();
+		assertNotNull(k);
+		assertFalse(k.equals(new Vector<>(40, F2.FACTORY.zero())));
+		assertEquals(new Vector<>(40, F2.FACTORY.zero()), s.apply(k));
+	}
+
+	/**
+	 * over small fields, the rank is found with random values from an
+	 * extension field.
+	 */
+	@Test
+	public void testRankSmallFields()
+	{
+		testRank(F2.FACTORY);
+		testRank(FieldPFactoryMap.getFactory(7L));
+	}
+
+	/**
+	 * the rank of the identity and of a singular matrix over the field of the
+	 * factory.
+	 */
+	private <RE extends IRingElement<RE>> void testRank(
+			IRingElementFactory<RE> factory)
+	{
+		Matrix<RE> identity = new Matrix<>(30, 30, factory);
+		identity.setAll(factory.zero());
+		for (int i = 1; i <= 30; i++) {
+			identity.set(i, i, factory.one());
+		}
+		SparseMatrix<RE> s = withZeroRows(randomSparse(30, 2, factory), 4, 9,
+				22);
+		int rank = s.toMatrix().rank();
+		for (int run = 0; run < 5; run++) {
+			assertEquals(30, new WiedemannSolver<>(BlackBox.of(identity))
+					.rank());
+			assertEquals(rank, new WiedemannSolver<>(s).rank());
+		}
+	}
+}
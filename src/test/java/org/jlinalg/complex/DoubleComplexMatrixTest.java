@@ -0,0 +1,233 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.complex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.Matrix;
+import org.jlinalg.MatrixMultiplication;
+import org.jlinalg.Vector;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DoubleComplexMatrix}.
+ */
+public class DoubleComplexMatrixTest
+{
+	/**
+	 * @return a matrix with random entries.
+	 */
+	private static DoubleComplexMatrix random(int rows, int cols, long seed)
+	{
+		Random r = new Random(seed);
+		DoubleComplexMatrix m = new DoubleComplexMatrix(rows, cols);
+		for (int i = 1; i <= rows; i++) {
+			for (int j = 1; j <= cols; j++) {
+				m.set(i, j, r.nextGaussian(), r.nextGaussian());
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * check that two matrices agree up to delta.
+	 */
+	private static void assertClose(DoubleComplexMatrix expected,
+			DoubleComplexMatrix actual, double delta)
+	{
+		assertEquals(expected.getRows(), actual.getRows());
+		assertEquals(expected.getCols(), actual.getCols());
+		double[] e = expected.getValues(), a = actual.getValues();
+		for (int k = 0; k < e.length; k++) {
+			assertEquals("at " + k, e[k], a[k], delta);
+		}
+	}
+
+	/**
+	 * @return the eigenvalues sorted by real and imaginary part.
+	 */
+	private static double[][] sorted(double[] lambda)
+	{
+		double[][] l = new double[lambda.length / 2][];
+		for (int k = 0; k < l.length; k++) {
+			l[k] = new double[] {
+					lambda[2 * k], lambda[2 * k + 1]
+			};
+		}
+		Arrays.sort(l, (a, b) -> a[0] != b[0] ? Double.compare(a[0], b[0])
+				: Double.compare(a[1], b[1]));
+		return l;
+	}
+
+	/**
+	 * the product, the conjugate transpose and the conversions agree with
+	 * those of {@link ComplexMatrix}.
+	 */
+	@Test
+	public void testMultiplyAndHermitian()
+	{
+		DoubleComplexMatrix a = random(4, 3, 1), b = random(3, 5, 2);
+		Matrix<Complex> p = MatrixMultiplication.simple(a.toMatrix(), b
+				.toMatrix());
+		assertClose(new DoubleComplexMatrix(p), a.multiply(b), 1e-12);
+		assertClose(new DoubleComplexMatrix(a.toMatrix().hermitian()), a
+				.hermitian(), 1e-15);
+		assertEquals(a.get(2, 3), a.toMatrix().get(2, 3));
+		assertEquals(a.getImaginary(4, 1), -a.hermitian().getImaginary(1, 4),
+				0);
+	}
+
+	/**
+	 * the result of a product can not be an operand.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testMultiplyInPlace()
+	{
+		DoubleComplexMatrix a = random(3, 3, 3);
+		DoubleComplexMatrix.multiply(a, a.copy(), a);
+	}
+
+	/**
+	 * A A<sup>-1</sup> = I, the solution of a linear system, and the
+	 * determinant compared to the exact determinant of a
+	 * {@link ComplexMatrix}.
+	 */
+	@Test
+	public void testInverseAndDet()
+	{
+		DoubleComplexMatrix a = random(12, 12, 4);
+		assertClose(DoubleComplexMatrix.identity(12), a.multiply(a
+				.inverse()), 1e-10);
+		DoubleComplexMatrix b = random(12, 2, 5);
+		assertClose(b, a.multiply(a.solve(b)), 1e-10);
+
+		DoubleComplexMatrix c = random(5, 5, 6);
+		Complex det = c.toMatrix().det();
+		Complex d = c.det();
+		assertEquals(det.getReal().doubleValue(), d.getReal().doubleValue(),
+				1e-10);
+		assertEquals(det.getImaginary().doubleValue(), d.getImaginary()
+				.doubleValue(), 1e-10);
+	}
+
+	/**
+	 * singular matrices have the determinant 0 and no inverse.
+	 */
+	@Test
+	public void testSingular()
+	{
+		DoubleComplexMatrix a = random(4, 4, 7);
+		for (int j = 1; j <= 4; j++) {
+			a.set(3, j, 2 * a.getReal(1, j) - a.getImaginary(1, j), a
+					.getReal(1, j) + 2 * a.getImaginary(1, j));
+		}
+		// row 3 is (2 + i) times row 1
+		assertEquals(0, a.det().norm().getReal().doubleValue(), 1e-20);
+		for (int i = 1; i <= 4; i++) {
+			a.set(i, 2, 0, 0);
+		}
+		try {
+			a.inverse();
+			assertTrue("singular matrix inverted", false);
+		} catch (InvalidOperationException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * the eigenvalues of S D S<sup>-1</sup> are the entries of the diagonal
+	 * matrix D.
+	 */
+	@Test
+	public void testEigenvalues()
+	{
+		int n = 20;
+		DoubleComplexMatrix s = random(n, n, 8);
+		DoubleComplexMatrix d = new DoubleComplexMatrix(n, n);
+		double[] expected = new double[2 * n];
+		for (int k = 1; k <= n; k++) {
+			expected[2 * k - 2] = k;
+			expected[2 * k - 1] = (k % 3) - 1;
+			d.set(k, k, expected[2 * k - 2], expected[2 * k - 1]);
+		}
+		DoubleComplexMatrix a = s.multiply(d).multiply(s.inverse());
+		double[][] e = sorted(expected), l = sorted(a.eigenvalues());
+		for (int k = 0; k < n; k++) {
+			assertEquals(e[k][0], l[k][0], 1e-7);
+			assertEquals(e[k][1], l[k][1], 1e-7);
+		}
+	}
+
+	/**
+	 * the eigenvalues of a hermitian matrix are real, and their sum and
+	 * product are the trace and the determinant.
+	 */
+	@Test
+	public void testHermitianEigenvalues()
+	{
+		int n = 30;
+		DoubleComplexMatrix b = random(n, n, 9);
+		DoubleComplexMatrix a = b.multiply(b.hermitian());
+		double[] lambda = a.eigenvalues();
+		double trace = 0, logDet = 0;
+		for (int k = 0; k < n; k++) {
+			assertEquals(0, lambda[2 * k + 1], 1e-9);
+			assertTrue(lambda[2 * k] > 0);
+			trace += a.getReal(k + 1, k + 1);
+			logDet += Math.log(lambda[2 * k]);
+		}
+		double sum = 0;
+		for (int k = 0; k < n; k++) {
+			sum += lambda[2 * k];
+		}
+		assertEquals(trace, sum, 1e-9 * trace);
+		Complex det = a.det();
+		assertEquals(Math.log(det.getReal().doubleValue()), logDet, 1e-8);
+	}
+
+	/**
+	 * {@link ComplexMatrix#eig()} computes the eigenvalues of a rotation.
+	 */
+	@Test
+	public void testComplexMatrixEig()
+	{
+		ComplexMatrix m = new ComplexMatrix(new Complex[][] {
+				{
+						Complex.FACTORY.get(0), Complex.FACTORY.get(-1)
+				}, {
+						Complex.FACTORY.get(1), Complex.FACTORY.get(0)
+				}
+		});
+		Vector<Complex> e = m.eig();
+		assertEquals(2, e.length());
+		double[] lambda = new double[4];
+		for (int k = 0; k < 2; k++) {
+			lambda[2 * k] = e.getEntry(k + 1).getReal().doubleValue();
+			lambda[2 * k + 1] = e.getEntry(k + 1).getImaginary().doubleValue();
+		}
+		double[][] l = sorted(lambda);
+		assertEquals(0, l[0][0], 1e-15);
+		assertEquals(-1, l[0][1], 1e-15);
+		assertEquals(0, l[1][0], 1e-15);
+		assertEquals(1, l[1][1], 1e-15);
+	}
+}
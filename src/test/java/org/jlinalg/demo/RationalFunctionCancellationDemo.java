@@ -0,0 +1,99 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.demo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jlinalg.Matrix;
+import org.jlinalg.polynomial.Polynomial;
+import org.jlinalg.polynomial.PolynomialFactory;
+import org.jlinalg.rational.Rational;
+import org.jlinalg.rationalFunction.RationalFunction;
+import org.jlinalg.rationalFunction.RationalFunctionFactory;
+
+/**
+ * Compare the time needed for the determinant of a matrix of rational
+ * functions (as in {@link RationalFunctionDemo}) with eager and lazy
+ * cancellation (see {@link RationalFunctionFactory#setCancellationDegree(int)}
+ * ).
+ */
+public class RationalFunctionCancellationDemo
+{
+	/**
+	 * @return the polynomial with the coefficients c[0] + c[1] x + ...
+	 */
+	private static Polynomial<Rational> polynomial(int... c)
+	{
+		Map<Integer, Rational> coefficients = new HashMap<>();
+		for (int i = 0; i < c.length; i++) {
+			coefficients.put(i, Rational.FACTORY.get(c[i]));
+		}
+		return PolynomialFactory.getFactory(Rational.FACTORY).get(
+				coefficients);
+	}
+
+	/**
+	 * @return an n x n matrix with the entries (x^2 + i x + j^2) / (x + i +
+	 *         j).
+	 */
+	private static Matrix<RationalFunction<Rational>> matrix(int n,
+			RationalFunctionFactory<Rational> factory)
+	{
+		Matrix<RationalFunction<Rational>> m = new Matrix<>(n, n, factory);
+		for (int i = 1; i <= n; i++) {
+			for (int j = 1; j <= n; j++) {
+				m.set(i, j, factory.get(polynomial(j * j, i, 1), polynomial(
+						i + j, 1), Rational.FACTORY));
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * start the demonstration
+	 * 
+	 * @param argv
+	 *            the size of the matrix (default 4)
+	 */
+	public static void main(String[] argv)
+	{
+		int n = argv != null && argv.length > 0 ? Integer.parseInt(argv[0]) : 4;
+		RationalFunctionFactory<Rational> factory = RationalFunctionFactory
+				.getFactory(Rational.FACTORY);
+		int[] degrees = {
+				RationalFunctionFactory.EAGER, 4, 16
+		};
+		String[] names = {
+				"eager", "degree 4", "degree 16"
+		};
+		try {
+			for (int k = 0; k < degrees.length; k++) {
+				factory.setCancellationDegree(degrees[k]);
+				Matrix<RationalFunction<Rational>> m = matrix(n, factory);
+				long start = System.nanoTime();
+				RationalFunction<Rational> det = m.det();
+				det = det.cancel();
+				long time = System.nanoTime() - start;
+				System.out.println(names[k] + ": " + time / 1000000 + " ms, "
+						+ "det of degree " + det.degree());
+			}
+		} finally {
+			factory.setCancellationDegree(RationalFunctionFactory.EAGER);
+		}
+	}
+}
@@ -26,6 +26,7 @@ import org.jlinalg.demo.LinearEquationSystemDemo;
 import org.jlinalg.demo.MatrixOperationsDemo;
 import org.jlinalg.demo.PolynomialDemo;
 import org.jlinalg.demo.RandomGradientSearchDemo;
+import org.jlinalg.demo.RationalFunctionCancellationDemo;
 import org.jlinalg.demo.RationalFunctionDemo;
 import org.jlinalg.demo.Xor;
 import org.junit.Test;
@@ -54,6 +55,7 @@ public class DemoTest
 		PolynomialDemo.main(null);
 		RandomGradientSearchDemo.main(null);
 		RationalFunctionDemo.main(null);
+		RationalFunctionCancellationDemo.main(null);
 		Xor.main(null);
 
 	}
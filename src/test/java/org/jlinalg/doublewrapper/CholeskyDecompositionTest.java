@@ -0,0 +1,150 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.doublewrapper;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.jlinalg.CholeskyDecomposition;
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.Matrix;
+import org.jlinalg.MatrixMultiplication;
+import org.jlinalg.Vector;
+import org.jlinalg.bigdecimalwrapper.BigDecimalWrapper;
+import org.jlinalg.bigdecimalwrapper.BigDecimalWrapperFactory;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CholeskyDecomposition}.
+ */
+public class CholeskyDecompositionTest
+{
+	/**
+	 * @return a symmetric positive definite n x n matrix B<sup>T</sup>B + I.
+	 */
+	private static Matrix<DoubleWrapper> spd(int n, long seed)
+	{
+		Random r = new Random(seed);
+		Matrix<DoubleWrapper> b = new Matrix<>(n, n,
+				DoubleWrapperFactory.INSTANCE);
+		for (int i = 1; i <= n; i++) {
+			for (int j = 1; j <= n; j++) {
+				b.set(i, j, DoubleWrapperFactory.INSTANCE.get(r.nextGaussian()));
+			}
+		}
+		Matrix<DoubleWrapper> a = MatrixMultiplication.simple(b.transpose(),
+				b);
+		for (int i = 1; i <= n; i++) {
+			a.set(i, i, a.get(i, i).add(DoubleWrapperFactory.INSTANCE.one()));
+		}
+		return a;
+	}
+
+	/**
+	 * L L<sup>T</sup> reproduces a matrix larger than one block, and the
+	 * solution of a linear system is correct.
+	 */
+	@Test
+	public void testDecomposeAndSolve()
+	{
+		Matrix<DoubleWrapper> a = spd(70, 1);
+		CholeskyDecomposition<DoubleWrapper> c = a.cholesky();
+		Matrix<DoubleWrapper> l = c.getL();
+		Matrix<DoubleWrapper> llt = MatrixMultiplication.simple(l,
+				l.transpose());
+		for (int i = 1; i <= 70; i++) {
+			for (int j = 1; j <= 70; j++) {
+				assertEquals(a.get(i, j).getValue(), llt.get(i, j).getValue(),
+						1e-9);
+				if (j > i) {
+					assertEquals(0.0, l.get(i, j).getValue(), 0.0);
+				}
+			}
+		}
+		Vector<DoubleWrapper> b = new Vector<>(70,
+				DoubleWrapperFactory.INSTANCE);
+		for (int i = 1; i <= 70; i++) {
+			b.set(i, DoubleWrapperFactory.INSTANCE.get(i % 5 - 2));
+		}
+		Vector<DoubleWrapper> x = c.solve(b);
+		Vector<DoubleWrapper> ax = a.multiply(x);
+		for (int i = 1; i <= 70; i++) {
+			assertEquals(b.getEntry(i).getValue(), ax.getEntry(i).getValue(),
+					1e-8);
+		}
+		Matrix<DoubleWrapper> bm = new Matrix<>(70, 1,
+				DoubleWrapperFactory.INSTANCE);
+		bm.setCol(1, b);
+		assertEquals(x, c.solve(bm).getCol(1));
+	}
+
+	/**
+	 * the log-determinant agrees with the determinant where the latter does
+	 * not overflow.
+	 */
+	@Test
+	public void testLogDet()
+	{
+		Matrix<DoubleWrapper> a = spd(10, 2);
+		CholeskyDecomposition<DoubleWrapper> c = a.cholesky();
+		assertEquals(Math.log(a.det().getValue()), c.logDet(), 1e-9);
+		assertEquals(a.det().getValue(), c.det().getValue(), Math.abs(a.det()
+				.getValue()) * 1e-9);
+	}
+
+	/**
+	 * BigDecimalWrapper provides sqrt() and can be used as well.
+	 */
+	@Test
+	public void testBigDecimal()
+	{
+		BigDecimalWrapperFactory f = new BigDecimalWrapperFactory(40);
+		Matrix<BigDecimalWrapper> a = f.convert(spd(6, 3));
+		Matrix<BigDecimalWrapper> l = a.cholesky().getL();
+		Matrix<BigDecimalWrapper> llt = MatrixMultiplication.simple(l,
+				l.transpose());
+		for (int i = 1; i <= 6; i++) {
+			for (int j = 1; j <= 6; j++) {
+				assertEquals(a.get(i, j).doubleValue(), llt.get(i, j)
+						.doubleValue(), 1e-12);
+			}
+		}
+	}
+
+	/**
+	 * indefinite matrices are rejected.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testNotPositiveDefinite()
+	{
+		Matrix<DoubleWrapper> a = spd(5, 4);
+		a.set(3, 3, DoubleWrapperFactory.INSTANCE.get(-1.0));
+		a.cholesky();
+	}
+
+	/**
+	 * non-symmetric matrices are rejected.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testNotSymmetric()
+	{
+		Matrix<DoubleWrapper> a = spd(5, 5);
+		a.set(1, 2, DoubleWrapperFactory.INSTANCE.get(100.0));
+		a.cholesky();
+	}
+}
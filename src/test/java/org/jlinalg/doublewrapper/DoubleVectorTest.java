@@ -0,0 +1,143 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.doublewrapper;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.Matrix;
+import org.jlinalg.Vector;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DoubleVector}.
+ */
+public class DoubleVectorTest
+{
+	/**
+	 * @return a matrix with random entries.
+	 */
+	private static Matrix<DoubleWrapper> randomMatrix(int rows, int cols,
+			Random r)
+	{
+		Matrix<DoubleWrapper> m = new Matrix<>(rows, cols,
+				DoubleWrapperFactory.INSTANCE);
+		for (int i = 1; i <= rows; i++) {
+			for (int j = 1; j <= cols; j++) {
+				m.set(i, j, DoubleWrapperFactory.INSTANCE.get(r.nextGaussian()));
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * @return a vector with random entries.
+	 */
+	private static DoubleVector randomVector(int length, Random r)
+	{
+		DoubleVector v = new DoubleVector(length);
+		for (int i = 1; i <= length; i++) {
+			v.set(i, r.nextGaussian());
+		}
+		return v;
+	}
+
+	/**
+	 * the kernels agree with the products of {@link Matrix} and
+	 * {@link Vector}.
+	 */
+	@Test
+	public void testProducts()
+	{
+		Random r = new Random(1);
+		Matrix<DoubleWrapper> a = randomMatrix(7, 5, r);
+		DoubleVector x = randomVector(5, r);
+		DoubleVector z = randomVector(7, r);
+
+		Vector<DoubleWrapper> ax = a.multiply(x.toVector());
+		Vector<DoubleWrapper> za = z.toVector().multiply(a);
+		assertEquals(new DoubleVector(ax), x.multiplyFromLeft(a));
+		DoubleVector zaPrimitive = z.multiply(a);
+		for (int j = 1; j <= 5; j++) {
+			assertEquals(za.getEntry(j).getValue(), zaPrimitive.get(j), 1e-12);
+			assertEquals(a.transpose().multiply(z.toVector()).getEntry(j)
+					.getValue(), zaPrimitive.get(j), 1e-12);
+		}
+
+		// y = 2 A x - 3 y
+		DoubleVector y = randomVector(7, r);
+		DoubleVector expected = y.copy();
+		expected.scale(-3);
+		expected.axpy(2, new DoubleVector(ax));
+		DoubleVector.gemv(2, a, x, -3, y);
+		for (int i = 1; i <= 7; i++) {
+			assertEquals(expected.get(i), y.get(i), 1e-12);
+		}
+
+		// y = 0.5 z^T A + y
+		y = randomVector(5, r);
+		expected = y.copy();
+		expected.axpy(0.5, zaPrimitive);
+		DoubleVector.gevm(0.5, z, a, 1, y);
+		for (int j = 1; j <= 5; j++) {
+			assertEquals(expected.get(j), y.get(j), 1e-12);
+		}
+	}
+
+	/**
+	 * with beta = 0, the previous content of y does not matter.
+	 */
+	@Test
+	public void testBetaZero()
+	{
+		Random r = new Random(2);
+		Matrix<DoubleWrapper> a = randomMatrix(3, 3, r);
+		DoubleVector x = randomVector(3, r);
+		DoubleVector y = new DoubleVector(Double.NaN, Double.NaN, Double.NaN);
+		DoubleVector.gemv(1, a, x, 0, y);
+		assertEquals(x.multiplyFromLeft(a), y);
+		y = new DoubleVector(Double.NaN, Double.NaN, Double.NaN);
+		DoubleVector.gevm(1, x, a, 0, y);
+		assertEquals(x.multiply(a), y);
+	}
+
+	/**
+	 * dot product, norm, and the conversion from and to {@link Vector}.
+	 */
+	@Test
+	public void testVectorOperations()
+	{
+		DoubleVector v = new DoubleVector(3, 4);
+		assertEquals(5.0, v.L2Norm(), 0.0);
+		assertEquals(25.0, v.dot(v), 0.0);
+		assertEquals(v, new DoubleVector(v.toVector()));
+		assertEquals(2, v.length());
+		assertEquals(4.0, v.getValues()[1], 0.0);
+	}
+
+	/**
+	 * the dimensions are checked.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testDimensions()
+	{
+		Matrix<DoubleWrapper> a = randomMatrix(3, 4, new Random(3));
+		DoubleVector.gemv(1, a, new DoubleVector(3), 0, new DoubleVector(3));
+	}
+}
@@ -0,0 +1,191 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.doublewrapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.jlinalg.EigenDecomposition;
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.LinAlgFactory;
+import org.jlinalg.Matrix;
+import org.jlinalg.MatrixMultiplication;
+import org.jlinalg.Vector;
+import org.jlinalg.complex.Complex;
+import org.jlinalg.rational.Rational;
+import org.junit.Test;
+
+/**
+ * Tests for {@link EigenDecomposition}.
+ */
+public class EigenDecompositionTest
+{
+	/**
+	 * the tolerance for comparisons.
+	 */
+	private static final double TOL = 1e-9;
+
+	/**
+	 * @return a n x n matrix with random entries which is symmetric if
+	 *         requested.
+	 */
+	private static Matrix<DoubleWrapper> random(int n, boolean symmetric,
+			long seed)
+	{
+		Random r = new Random(seed);
+		Matrix<DoubleWrapper> m = new Matrix<>(n, n,
+				DoubleWrapperFactory.INSTANCE);
+		for (int i = 1; i <= n; i++) {
+			for (int j = symmetric ? i : 1; j <= n; j++) {
+				DoubleWrapper d = DoubleWrapperFactory.INSTANCE.get(r
+						.nextDouble() * 2 - 1);
+				m.set(i, j, d);
+				if (symmetric) {
+					m.set(j, i, d);
+				}
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * asserts that two matrices are equal up to {@link #TOL}.
+	 */
+	private static void assertClose(Matrix<DoubleWrapper> expected,
+			Matrix<DoubleWrapper> actual)
+	{
+		for (int i = 1; i <= expected.getRows(); i++) {
+			for (int j = 1; j <= expected.getCols(); j++) {
+				assertEquals(expected.get(i, j).getValue(), actual.get(i, j)
+						.getValue(), TOL);
+			}
+		}
+	}
+
+	/**
+	 * A symmetric matrix gives real, ascending eigenvalues and orthonormal
+	 * eigenvectors with A V = V D.
+	 */
+	@Test
+	public void testSymmetric()
+	{
+		Matrix<DoubleWrapper> a = random(12, true, 1);
+		EigenDecomposition ed = a.eigenDecomposition();
+		assertTrue(ed.isSymmetric());
+		Matrix<DoubleWrapper> v = ed.getEigenvectors();
+		Matrix<DoubleWrapper> d = ed.getD();
+		assertClose(MatrixMultiplication.simple(a, v),
+				MatrixMultiplication.simple(v, d));
+		assertClose(new LinAlgFactory<>(DoubleWrapper.FACTORY).identity(12),
+				MatrixMultiplication.simple(v.transpose(), v));
+		double[] wr = ed.getRealEigenvalues();
+		double[] wi = ed.getImagEigenvalues();
+		for (int i = 0; i < wr.length; i++) {
+			assertEquals(0.0, wi[i], 0.0);
+			if (i > 0) {
+				assertTrue(wr[i - 1] <= wr[i]);
+			}
+		}
+	}
+
+	/**
+	 * A nonsymmetric matrix with complex eigenvalues satisfies A V = V D with
+	 * the block diagonal D.
+	 */
+	@Test
+	public void testNonsymmetric()
+	{
+		Matrix<DoubleWrapper> a = random(11, false, 2);
+		EigenDecomposition ed = a.eigenDecomposition();
+		assertFalse(ed.isSymmetric());
+		boolean complex = false;
+		for (double w : ed.getImagEigenvalues()) {
+			complex |= w != 0.0;
+		}
+		assertTrue(complex);
+		Matrix<DoubleWrapper> v = ed.getEigenvectors();
+		assertClose(MatrixMultiplication.simple(a, v),
+				MatrixMultiplication.simple(v, ed.getD()));
+	}
+
+	/**
+	 * The eigenvalues agree with those computed by {@link Matrix#eig()} for
+	 * both the symmetric and the nonsymmetric path.
+	 */
+	@Test
+	public void testAgreesWithEig()
+	{
+		for (boolean symmetric : new boolean[] { true, false }) {
+			Matrix<DoubleWrapper> a = random(8, symmetric, 3);
+			double[] wr = a.eigenDecomposition().getRealEigenvalues();
+			double[] wi = a.eigenDecomposition().getImagEigenvalues();
+			Vector<DoubleWrapper> eig = a.eig();
+			for (int i = 1; i <= eig.length(); i++) {
+				Complex c = (Complex) (Object) eig.getEntry(i);
+				double re = c.getReal().doubleValue();
+				double im = c.getImaginary().doubleValue();
+				boolean found = false;
+				for (int k = 0; k < wr.length && !found; k++) {
+					found = Math.abs(wr[k] - re) < 1e-6
+							&& Math.abs(wi[k] - im) < 1e-6;
+				}
+				assertTrue("eigenvalue " + c + " not found", found);
+			}
+		}
+	}
+
+	/**
+	 * A diagonal matrix is its own decomposition.
+	 */
+	@Test
+	public void testDiagonal()
+	{
+		Matrix<DoubleWrapper> a = new Matrix<>(3, 3,
+				DoubleWrapperFactory.INSTANCE);
+		a.setAll(DoubleWrapperFactory.INSTANCE.zero());
+		a.set(1, 1, DoubleWrapperFactory.INSTANCE.get(3.0));
+		a.set(2, 2, DoubleWrapperFactory.INSTANCE.get(-1.0));
+		a.set(3, 3, DoubleWrapperFactory.INSTANCE.get(2.0));
+		EigenDecomposition ed = new EigenDecomposition(a);
+		double[] wr = ed.getRealEigenvalues();
+		assertEquals(-1.0, wr[0], TOL);
+		assertEquals(2.0, wr[1], TOL);
+		assertEquals(3.0, wr[2], TOL);
+	}
+
+	/**
+	 * Only square matrices of DoubleWrappers are accepted.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testNotDoubles()
+	{
+		new EigenDecomposition(new LinAlgFactory<>(Rational.FACTORY).identity(2));
+	}
+
+	/**
+	 * Only square matrices of DoubleWrappers are accepted.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testNotSquare()
+	{
+		new EigenDecomposition(new Matrix<>(2, 3,
+				DoubleWrapperFactory.INSTANCE));
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.doublewrapper;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.Matrix;
+import org.jlinalg.MatrixMultiplication;
+import org.jlinalg.Vector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link MappedDoubleMatrix}.
+ */
+public class MappedDoubleMatrixTest
+{
+	/**
+	 * the files created in a test.
+	 */
+	private final List<Path> files = new ArrayList<>();
+
+	/**
+	 * a 23x17 matrix with random entries.
+	 */
+	private Matrix<DoubleWrapper> a;
+
+	/**
+	 * a 17x9 matrix with random entries.
+	 */
+	private Matrix<DoubleWrapper> b;
+
+	/**
+	 * create a and b.
+	 */
+	@Before
+	public void setUp()
+	{
+		Random random = new Random(4711);
+		a = randomMatrix(23, 17, random);
+		b = randomMatrix(17, 9, random);
+	}
+
+	/**
+	 * delete the files created.
+	 */
+	@After
+	public void tearDown() throws IOException
+	{
+		for (Path p : files) {
+			Files.deleteIfExists(p);
+		}
+	}
+
+	private static Matrix<DoubleWrapper> randomMatrix(int rows, int cols,
+			Random random)
+	{
+		Matrix<DoubleWrapper> m = new Matrix<>(rows, cols,
+				DoubleWrapperFactory.INSTANCE);
+		for (int r = 1; r <= rows; r++) {
+			for (int c = 1; c <= cols; c++) {
+				m.set(r, c, DoubleWrapperFactory.INSTANCE.get(random
+						.nextInt(21) - 10));
+			}
+		}
+		return m;
+	}
+
+	private Path newFile() throws IOException
+	{
+		Path p = Files.createTempFile("jlinalg", ".mdm");
+		files.add(p);
+		return p;
+	}
+
+	/**
+	 * entries written are read back, also after reopening the file.
+	 */
+	@Test
+	public void roundTrip() throws IOException
+	{
+		Path file = newFile();
+		try (MappedDoubleMatrix m = MappedDoubleMatrix.create(file, a, 5, 3)) {
+			assertEquals(a, m.toMatrix());
+			assertTrue(m.getResidentTiles() <= 3);
+			m.set(23, 17, 42.0);
+		}
+		try (MappedDoubleMatrix m = MappedDoubleMatrix.open(file, 2, false)) {
+			assertEquals(23, m.getRows());
+			assertEquals(17, m.getCols());
+			assertEquals(5, m.getTileSize());
+			assertEquals(42.0, m.get(23, 17), 0.0);
+			assertEquals(a.get(4, 11).getValue(), m.get(4, 11), 0.0);
+		}
+	}
+
+	/**
+	 * the transposed view agrees with {@link Matrix#transpose()}.
+	 */
+	@Test
+	public void transpose() throws IOException
+	{
+		try (MappedDoubleMatrix m = MappedDoubleMatrix.create(newFile(), a, 4,
+				4)) {
+			MappedDoubleMatrix t = m.transpose();
+			assertEquals(17, t.getRows());
+			assertEquals(a.transpose(), t.toMatrix());
+			t.set(2, 7, -1.0);
+			assertEquals(-1.0, m.get(7, 2), 0.0);
+		}
+	}
+
+	/**
+	 * tiled multiplication with mapped and heap matrices, including
+	 * transposed operands.
+	 */
+	@Test
+	public void multiply() throws IOException
+	{
+		try (MappedDoubleMatrix ma = MappedDoubleMatrix.create(newFile(), a, 6,
+				2);
+				MappedDoubleMatrix mb = MappedDoubleMatrix.create(newFile(), b,
+						4, 2);
+				MappedDoubleMatrix p1 = ma.multiply(mb, newFile());
+				MappedDoubleMatrix p2 = ma.multiply(b, newFile());
+				MappedDoubleMatrix p3 = mb.transpose().multiply(
+						ma.transpose(), newFile())) {
+			Matrix<DoubleWrapper> expected = MatrixMultiplication
+					.simple(a, b);
+			assertEquals(expected, p1.toMatrix());
+			assertEquals(expected, p2.toMatrix());
+			assertEquals(expected.transpose(), p3.toMatrix());
+		}
+	}
+
+	/**
+	 * matrix-vector products and row streaming.
+	 */
+	@Test
+	public void vectorAndRows() throws IOException
+	{
+		try (MappedDoubleMatrix m = MappedDoubleMatrix.create(newFile(), a, 8,
+				1)) {
+			Vector<DoubleWrapper> v = b.getCol(3);
+			assertEquals(a.multiply(v), m.multiply(v));
+			assertEquals(a.transpose().multiply(a.getCol(1)), m.transpose()
+					.multiply(a.getCol(1)));
+			Iterator<double[]> rows = m.rowIterator();
+			for (int r = 1; r <= a.getRows(); r++) {
+				double[] expected = new double[a.getCols()];
+				for (int c = 1; c <= a.getCols(); c++) {
+					expected[c - 1] = a.get(r, c).getValue();
+				}
+				assertArrayEquals(expected, rows.next(), 0.0);
+			}
+			assertTrue(!rows.hasNext());
+		}
+	}
+
+	/**
+	 * indices are checked.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void outOfRange() throws IOException
+	{
+		try (MappedDoubleMatrix m = MappedDoubleMatrix.create(newFile(), 3, 3,
+				2, 1)) {
+			m.get(4, 1);
+		}
+	}
+
+	/**
+	 * tiles which would not fit into an array or a mapping are rejected.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void tileTooLarge() throws IOException
+	{
+		MappedDoubleMatrix.create(newFile(), 3, 3,
+				MappedDoubleMatrix.MAX_TILE_SIZE + 1, 1);
+	}
+}
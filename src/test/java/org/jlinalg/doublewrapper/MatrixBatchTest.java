@@ -0,0 +1,187 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.doublewrapper;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.jlinalg.ExecutionPolicy;
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.Matrix;
+import org.jlinalg.MatrixBatch;
+import org.jlinalg.MatrixMultiplication;
+import org.jlinalg.Vector;
+import org.jlinalg.complex.Complex;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link MatrixBatch}.
+ */
+public class MatrixBatchTest
+{
+	/**
+	 * the tolerance for comparisons.
+	 */
+	private static final double TOL = 1e-9;
+
+	/**
+	 * random 5x5 matrices, every third one symmetric.
+	 */
+	private List<Matrix<DoubleWrapper>> matrices;
+
+	/**
+	 * the batch containing {@link #matrices}.
+	 */
+	private MatrixBatch batch;
+
+	/**
+	 * create the matrices and the batch.
+	 */
+	@Before
+	public void setUp()
+	{
+		Random r = new Random(7);
+		matrices = new ArrayList<>();
+		for (int k = 0; k < 300; k++) {
+			Matrix<DoubleWrapper> m = new Matrix<>(5, 5,
+					DoubleWrapperFactory.INSTANCE);
+			for (int i = 1; i <= 5; i++) {
+				for (int j = 1; j <= 5; j++) {
+					m.set(i, j, DoubleWrapperFactory.INSTANCE.get(r
+							.nextDouble() - 0.5));
+				}
+			}
+			if (k % 3 == 0) {
+				m = m.add(m.transpose());
+			}
+			matrices.add(m);
+		}
+		batch = MatrixBatch.of(matrices);
+	}
+
+	/**
+	 * the determinants agree with {@link Matrix#det()}.
+	 */
+	@Test
+	public void testDet()
+	{
+		double[] det = batch.det(ExecutionPolicy.SEQUENTIAL);
+		for (int k = 0; k < matrices.size(); k++) {
+			assertEquals(matrices.get(k).det().getValue(), det[k], TOL);
+		}
+	}
+
+	/**
+	 * A<sub>k</sub> times the inverse is the identity.
+	 */
+	@Test
+	public void testInverse()
+	{
+		MatrixBatch inv = batch.inverse(ExecutionPolicy.SEQUENTIAL);
+		for (int k = 0; k < matrices.size(); k++) {
+			Matrix<DoubleWrapper> p = MatrixMultiplication.simple(
+					matrices.get(k), inv.getMatrix(k));
+			for (int i = 1; i <= 5; i++) {
+				for (int j = 1; j <= 5; j++) {
+					assertEquals(i == j ? 1.0 : 0.0, p.get(i, j).getValue(),
+							1e-8);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The solutions satisfy the linear systems.
+	 */
+	@Test
+	public void testSolve()
+	{
+		double[] b = new double[matrices.size() * 5];
+		for (int i = 0; i < b.length; i++) {
+			b[i] = i % 7 - 3;
+		}
+		double[] x = batch.solve(b, ExecutionPolicy.SEQUENTIAL);
+		for (int k = 0; k < matrices.size(); k++) {
+			Matrix<DoubleWrapper> m = matrices.get(k);
+			for (int i = 1; i <= 5; i++) {
+				double s = 0;
+				for (int j = 1; j <= 5; j++) {
+					s += m.get(i, j).getValue() * x[k * 5 + j - 1];
+				}
+				assertEquals(b[k * 5 + i - 1], s, 1e-8);
+			}
+		}
+	}
+
+	/**
+	 * The eigenvalues agree with {@link Matrix#eig()}.
+	 */
+	@Test
+	public void testEig()
+	{
+		double[][] eig = batch.eig(ExecutionPolicy.SEQUENTIAL);
+		for (int k = 0; k < matrices.size(); k++) {
+			Vector<DoubleWrapper> e = matrices.get(k).eig();
+			for (int i = 1; i <= 5; i++) {
+				Complex c = (Complex) (Object) e.getEntry(i);
+				assertEquals(c.getReal().doubleValue(), eig[0][k * 5 + i - 1],
+						1e-6);
+				assertEquals(c.getImaginary().doubleValue(), eig[1][k * 5 + i
+						- 1], 1e-6);
+			}
+		}
+	}
+
+	/**
+	 * parallel execution gives exactly the same results.
+	 */
+	@Test
+	public void testParallel()
+	{
+		ExecutionPolicy p = ExecutionPolicy.parallel(
+				ForkJoinPool.commonPool(), 16);
+		assertArrayEquals(batch.det(ExecutionPolicy.SEQUENTIAL), batch.det(p),
+				0.0);
+		assertArrayEquals(batch.inverse(ExecutionPolicy.SEQUENTIAL).getData(),
+				batch.inverse(p).getData(), 0.0);
+		double[][] e1 = batch.eig(ExecutionPolicy.SEQUENTIAL);
+		double[][] e2 = batch.eig(p);
+		assertArrayEquals(e1[0], e2[0], 0.0);
+		assertArrayEquals(e1[1], e2[1], 0.0);
+	}
+
+	/**
+	 * the determinant of a singular matrix is 0, inverting it fails.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testSingular()
+	{
+		double[] data = new double[2 * 9];
+		Arrays.fill(data, 0, 9, 1.0);
+		data[9] = data[13] = data[17] = 1.0;
+		MatrixBatch singular = new MatrixBatch(data, 3);
+		assertArrayEquals(new double[] { 0.0, 1.0 }, singular.det(), 0.0);
+		singular.inverse();
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.doublewrapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Random;
+
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.LinSysSolver;
+import org.jlinalg.Matrix;
+import org.jlinalg.MatrixMultiplication;
+import org.jlinalg.QRDecomposition;
+import org.jlinalg.Vector;
+import org.jlinalg.bigdecimalwrapper.BigDecimalWrapper;
+import org.jlinalg.bigdecimalwrapper.BigDecimalWrapperFactory;
+import org.junit.Test;
+
+/**
+ * Tests for {@link QRDecomposition} and
+ * {@link LinSysSolver#leastSquares(Matrix, Vector)}.
+ */
+public class QRDecompositionTest
+{
+	/**
+	 * @return a rows x cols matrix with normally distributed entries.
+	 */
+	private static Matrix<DoubleWrapper> random(int rows, int cols, long seed)
+	{
+		Random r = new Random(seed);
+		Matrix<DoubleWrapper> m = new Matrix<>(rows, cols,
+				DoubleWrapperFactory.INSTANCE);
+		for (int i = 1; i <= rows; i++) {
+			for (int j = 1; j <= cols; j++) {
+				m.set(i, j, DoubleWrapperFactory.INSTANCE.get(r.nextGaussian()));
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * asserts that two matrices are equal up to a tolerance.
+	 */
+	private static void assertClose(Matrix<DoubleWrapper> expected,
+			Matrix<DoubleWrapper> actual, double tol)
+	{
+		assertEquals(expected.getRows(), actual.getRows());
+		assertEquals(expected.getCols(), actual.getCols());
+		for (int i = 1; i <= expected.getRows(); i++) {
+			for (int j = 1; j <= expected.getCols(); j++) {
+				assertEquals(expected.get(i, j).getValue(), actual.get(i, j)
+						.getValue(), tol);
+			}
+		}
+	}
+
+	/**
+	 * Q R reproduces a matrix spanning several blocks, Q has orthonormal
+	 * columns and R is upper triangular.
+	 */
+	@Test
+	public void testDecomposition()
+	{
+		Matrix<DoubleWrapper> a = random(90, 70, 1);
+		QRDecomposition<DoubleWrapper> qr = a.qr();
+		Matrix<DoubleWrapper> q = qr.getQ();
+		Matrix<DoubleWrapper> r = qr.getR();
+		assertClose(a, MatrixMultiplication.simple(q, r), 1e-10);
+		Matrix<DoubleWrapper> id = new Matrix<>(70, 70,
+				DoubleWrapperFactory.INSTANCE);
+		for (int i = 1; i <= 70; i++) {
+			for (int j = 1; j <= 70; j++) {
+				id.set(i, j, DoubleWrapperFactory.INSTANCE.get(i == j ? 1 : 0));
+				if (j < i) {
+					assertEquals(0.0, r.get(i, j).getValue(), 0.0);
+				}
+			}
+		}
+		assertClose(id, MatrixMultiplication.simple(q.transpose(), q), 1e-12);
+	}
+
+	/**
+	 * the least squares solution agrees with that of the normal equations,
+	 * also for several right hand sides.
+	 */
+	@Test
+	public void testLeastSquares()
+	{
+		Matrix<DoubleWrapper> a = random(120, 40, 2);
+		Matrix<DoubleWrapper> b = random(120, 3, 3);
+		Matrix<DoubleWrapper> at = a.transpose();
+		Matrix<DoubleWrapper> expected = MatrixMultiplication.simple(at, a)
+				.cholesky().solve(MatrixMultiplication.simple(at, b));
+		assertClose(expected, LinSysSolver.leastSquares(a, b), 1e-10);
+		assertClose(expected.getCol(2).toMatrix(), LinSysSolver.leastSquares(
+				a, b.getCol(2)).toMatrix(), 1e-10);
+	}
+
+	/**
+	 * consistent systems are solved exactly.
+	 */
+	@Test
+	public void testConsistent()
+	{
+		Matrix<DoubleWrapper> a = random(30, 10, 4);
+		Vector<DoubleWrapper> x = random(10, 1, 5).getCol(1);
+		Vector<DoubleWrapper> y = LinSysSolver.leastSquares(a, a.multiply(x));
+		for (int i = 1; i <= 10; i++) {
+			assertEquals(x.getEntry(i).getValue(), y.getEntry(i).getValue(),
+					1e-12);
+		}
+	}
+
+	/**
+	 * BigDecimalWrapper provides sqrt() and can be used as well.
+	 */
+	@Test
+	public void testBigDecimal()
+	{
+		BigDecimalWrapperFactory f = new BigDecimalWrapperFactory(40);
+		Matrix<BigDecimalWrapper> a = f.convert(new String[][] {
+				{
+						"1", "1"
+				}, {
+						"1", "2"
+				}, {
+						"1", "3"
+				}, {
+						"1", "4"
+				}
+		});
+		Vector<BigDecimalWrapper> b = f.convert(new Matrix<>(new String[][] {
+				{
+						"6", "5", "7", "10"
+				}
+		}, f).getRow(1));
+		// the regression line through (1,6), (2,5), (3,7), (4,10)
+		Vector<BigDecimalWrapper> x = LinSysSolver.leastSquares(a, b);
+		assertEquals(3.5, x.getEntry(1).doubleValue(), 1e-30);
+		assertEquals(1.4, x.getEntry(2).doubleValue(), 1e-30);
+	}
+
+	/**
+	 * rank deficient matrices (here with an exactly zero column) are
+	 * detected.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testRankDeficient()
+	{
+		Matrix<DoubleWrapper> a = random(6, 3, 6);
+		a.setCol(2, DoubleWrapperFactory.INSTANCE.zero());
+		QRDecomposition<DoubleWrapper> qr = a.qr();
+		assertFalse(qr.isFullRank());
+		qr.solve(a.getCol(2));
+	}
+
+	/**
+	 * rank deficiency is detected relative to the size of R, even if rounding
+	 * leaves a tiny non-zero diagonal element.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testNumericallyRankDeficient()
+	{
+		Matrix<DoubleWrapper> a = new Matrix<>(new DoubleWrapper[][] {
+				{
+						new DoubleWrapper(1), new DoubleWrapper(2)
+				}, {
+						new DoubleWrapper(2), new DoubleWrapper(4)
+				}, {
+						new DoubleWrapper(3), new DoubleWrapper(6)
+				}
+		});
+		QRDecomposition<DoubleWrapper> qr = a.qr();
+		assertFalse(qr.isFullRank());
+		qr.solve(a.getCol(1));
+	}
+
+	/**
+	 * matrices with more columns than rows are rejected.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testWide()
+	{
+		random(3, 4, 7).qr();
+	}
+}
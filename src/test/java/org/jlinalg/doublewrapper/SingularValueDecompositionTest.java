@@ -0,0 +1,199 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.doublewrapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.jlinalg.LinSysSolver;
+import org.jlinalg.Matrix;
+import org.jlinalg.MatrixMultiplication;
+import org.jlinalg.SingularValueDecomposition;
+import org.jlinalg.Vector;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SingularValueDecomposition}.
+ */
+public class SingularValueDecompositionTest
+{
+	/**
+	 * @return a rows x cols matrix with normally distributed entries.
+	 */
+	private static Matrix<DoubleWrapper> random(int rows, int cols,
+			Random r)
+	{
+		Matrix<DoubleWrapper> m = new Matrix<>(rows, cols,
+				DoubleWrapperFactory.INSTANCE);
+		for (int i = 1; i <= rows; i++) {
+			for (int j = 1; j <= cols; j++) {
+				m.set(i, j, DoubleWrapperFactory.INSTANCE.get(r.nextGaussian()));
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * asserts that two matrices are equal up to a tolerance.
+	 */
+	private static void assertClose(Matrix<DoubleWrapper> expected,
+			Matrix<DoubleWrapper> actual, double tol)
+	{
+		assertEquals(expected.getRows(), actual.getRows());
+		assertEquals(expected.getCols(), actual.getCols());
+		for (int i = 1; i <= expected.getRows(); i++) {
+			for (int j = 1; j <= expected.getCols(); j++) {
+				assertEquals(expected.get(i, j).getValue(), actual.get(i, j)
+						.getValue(), tol);
+			}
+		}
+	}
+
+	/**
+	 * asserts that the columns of a matrix are orthonormal.
+	 */
+	private static void assertOrthonormal(Matrix<DoubleWrapper> q)
+	{
+		Matrix<DoubleWrapper> qtq = MatrixMultiplication.simple(
+				q.transpose(), q);
+		for (int i = 1; i <= q.getCols(); i++) {
+			for (int j = 1; j <= q.getCols(); j++) {
+				assertEquals(i == j ? 1.0 : 0.0, qtq.get(i, j).getValue(),
+						1e-12);
+			}
+		}
+	}
+
+	/**
+	 * U S V<sup>T</sup> reproduces tall and wide matrices.
+	 */
+	@Test
+	public void testDecomposition()
+	{
+		Random r = new Random(1);
+		for (int[] size : new int[][] { { 30, 20 }, { 20, 30 }, { 15, 15 } })
+		{
+			Matrix<DoubleWrapper> a = random(size[0], size[1], r);
+			SingularValueDecomposition svd = a.svd();
+			Matrix<DoubleWrapper> usvt = MatrixMultiplication.simple(
+					MatrixMultiplication.simple(svd.getU(), svd.getS()), svd
+							.getV().transpose());
+			assertClose(a, usvt, 1e-12);
+			assertOrthonormal(svd.getU());
+			assertOrthonormal(svd.getV());
+			double[] s = svd.getSingularValues();
+			assertEquals(Math.min(size[0], size[1]), s.length);
+			for (int i = 1; i < s.length; i++) {
+				assertTrue(s[i - 1] >= s[i]);
+			}
+			assertTrue(s[s.length - 1] > 0);
+		}
+	}
+
+	/**
+	 * the numerical rank of a noisy low rank matrix.
+	 */
+	@Test
+	public void testRank()
+	{
+		Random r = new Random(2);
+		Matrix<DoubleWrapper> a = MatrixMultiplication.simple(random(25, 5,
+				r), random(5, 18, r));
+		Matrix<DoubleWrapper> noise = random(25, 18, r).multiply(
+				DoubleWrapperFactory.INSTANCE.get(1e-13));
+		SingularValueDecomposition svd = a.add(noise).svd();
+		assertEquals(5, svd.rank(1e-8));
+		assertEquals(18, svd.rank(0));
+		assertEquals(5, a.svd().rank());
+	}
+
+	/**
+	 * the pseudo-inverse of a matrix with full column rank yields the least
+	 * squares solution.
+	 */
+	@Test
+	public void testPseudoInverse()
+	{
+		Random r = new Random(3);
+		Matrix<DoubleWrapper> a = random(12, 6, r);
+		Vector<DoubleWrapper> b = random(12, 1, r).getCol(1);
+		Matrix<DoubleWrapper> pinv = a.svd().pseudoInverse();
+		assertEquals(6, pinv.getRows());
+		assertEquals(12, pinv.getCols());
+		assertClose(LinSysSolver.leastSquares(a, b).toMatrix(), pinv
+				.multiply(b).toMatrix(), 1e-12);
+		// A A+ A = A also for the wide transpose
+		Matrix<DoubleWrapper> at = a.transpose();
+		assertClose(at, MatrixMultiplication.simple(MatrixMultiplication
+				.simple(at, at.svd().pseudoInverse()), at), 1e-12);
+	}
+
+	/**
+	 * the randomised truncated SVD finds the largest singular values of a
+	 * matrix with a decaying spectrum.
+	 */
+	@Test
+	public void testTruncated()
+	{
+		Random r = new Random(4);
+		int m = 80, n = 60;
+		Matrix<DoubleWrapper> a = new Matrix<>(m, n,
+				DoubleWrapperFactory.INSTANCE);
+		a.setAll(DoubleWrapperFactory.INSTANCE.zero());
+		for (int k = 0; k < n; k++) {
+			Matrix<DoubleWrapper> x = random(m, 1, r);
+			Matrix<DoubleWrapper> y = random(1, n, r);
+			a = a.add(MatrixMultiplication.simple(x, y).multiply(
+					DoubleWrapperFactory.INSTANCE.get(Math.pow(0.3, k))));
+		}
+		double[] exact = a.svd().getSingularValues();
+		SingularValueDecomposition t = SingularValueDecomposition.truncated(a,
+				4, 6, 2, new Random(5));
+		double[] s = t.getSingularValues();
+		assertEquals(4, s.length);
+		for (int i = 0; i < 4; i++) {
+			assertEquals(exact[i], s[i], exact[i] * 1e-6);
+		}
+		assertEquals(m, t.getU().getRows());
+		assertEquals(4, t.getU().getCols());
+		assertEquals(n, t.getV().getRows());
+		assertOrthonormal(t.getU());
+		assertOrthonormal(t.getV());
+	}
+
+	/**
+	 * the truncated SVD does not depend on the scale of the matrix: columns
+	 * of the range are not discarded because their norm is small.
+	 */
+	@Test
+	public void testTruncatedScaled()
+	{
+		Matrix<DoubleWrapper> a = random(20, 15, new Random(6));
+		double[] s = SingularValueDecomposition.truncated(a, 3, 5, 1,
+				new Random(7)).getSingularValues();
+		double[] scaled = SingularValueDecomposition.truncated(
+				a.multiply(DoubleWrapperFactory.INSTANCE.get(1e-20)), 3, 5,
+				1, new Random(7)).getSingularValues();
+		assertEquals(3, scaled.length);
+		for (int i = 0; i < 3; i++) {
+			assertTrue(scaled[i] > 0);
+			assertEquals(s[i] * 1e-20, scaled[i], s[i] * 1e-30);
+		}
+	}
+}
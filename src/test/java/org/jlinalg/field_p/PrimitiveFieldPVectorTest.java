@@ -0,0 +1,144 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.field_p;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.Matrix;
+import org.jlinalg.Vector;
+import org.junit.Test;
+
+/**
+ * Tests for {@link PrimitiveFieldPVector}.
+ */
+public class PrimitiveFieldPVectorTest
+{
+	/**
+	 * @return a matrix with random entries.
+	 */
+	private static Matrix<FieldP> randomMatrix(int rows, int cols,
+			FieldPAbstractFactory f, Random r)
+	{
+		Matrix<FieldP> m = new Matrix<>(rows, cols, f);
+		for (int i = 1; i <= rows; i++) {
+			for (int j = 1; j <= cols; j++) {
+				m.set(i, j, f.randomValue());
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * @return a vector with random entries.
+	 */
+	private static Vector<FieldP> randomVector(int length,
+			FieldPAbstractFactory f)
+	{
+		Vector<FieldP> v = new Vector<>(length, f);
+		for (int i = 1; i <= length; i++) {
+			v.set(i, f.randomValue());
+		}
+		return v;
+	}
+
+	/**
+	 * the kernels agree with the products of {@link Matrix} and
+	 * {@link Vector}, for a small field and for the largest primes for which
+	 * {@link FieldPLong} is used (where no products can be accumulated
+	 * without reduction).
+	 */
+	@Test
+	public void testProducts()
+	{
+		for (long p : new long[] { 2, 113, 1000003, 3037000493L }) {
+			FieldPAbstractFactory f = FieldPFactoryMap.getFactory(p);
+			Random r = new Random(p);
+			Matrix<FieldP> a = randomMatrix(9, 6, f, r);
+			Vector<FieldP> x = randomVector(6, f);
+			Vector<FieldP> z = randomVector(9, f);
+			PrimitiveFieldPVector px = new PrimitiveFieldPVector(x);
+			PrimitiveFieldPVector pz = new PrimitiveFieldPVector(z);
+
+			assertEquals(a.multiply(x), px.multiplyFromLeft(a).toVector());
+			assertEquals(z.multiply(a), pz.multiply(a).toVector());
+			assertEquals(x.multiply(x), f.get(px.dot(px)));
+
+			// y = 2 A x - 3 y
+			Vector<FieldP> y = randomVector(9, f);
+			Vector<FieldP> expected = a.multiply(x).multiply(f.get(2)).add(y
+					.multiply(f.get(-3)));
+			PrimitiveFieldPVector py = new PrimitiveFieldPVector(y);
+			PrimitiveFieldPVector.gemv(2, a, px, -3, py);
+			assertEquals(expected, py.toVector());
+
+			// y = z^T A + 5 y
+			y = randomVector(6, f);
+			expected = z.multiply(a).add(y.multiply(f.get(5)));
+			py = new PrimitiveFieldPVector(y);
+			PrimitiveFieldPVector.gevm(1, pz, a, 5, py);
+			assertEquals(expected, py.toVector());
+
+			py.axpy(-1, py.copy());
+			assertEquals(new PrimitiveFieldPVector(6,
+					(FieldPLongFactory) f), py);
+		}
+	}
+
+	/**
+	 * entries are reduced modulo p.
+	 */
+	@Test
+	public void testNormalize()
+	{
+		FieldPLongFactory f = (FieldPLongFactory) FieldPFactoryMap
+				.getFactory(7L);
+		PrimitiveFieldPVector v = new PrimitiveFieldPVector(f, -1, 8, 14);
+		assertEquals(6, v.get(1));
+		assertEquals(1, v.get(2));
+		assertEquals(0, v.get(3));
+		v.set(3, -8);
+		assertEquals(6, v.get(3));
+	}
+
+	/**
+	 * vectors over different fields cannot be combined.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testDifferentFields()
+	{
+		FieldPLongFactory f7 = (FieldPLongFactory) FieldPFactoryMap
+				.getFactory(7L);
+		FieldPLongFactory f11 = (FieldPLongFactory) FieldPFactoryMap
+				.getFactory(11L);
+		new PrimitiveFieldPVector(f7, 1, 2).dot(new PrimitiveFieldPVector(
+				f11, 1, 2));
+	}
+
+	/**
+	 * fields with elements of type {@link FieldPBig} are not supported.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testBigField()
+	{
+		FieldPAbstractFactory f = FieldPFactoryMap.getFactory(
+				"170141183460469231731687303715884105727");
+		new PrimitiveFieldPVector(new Vector<>(2, f.one()));
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.File;
+import java.io.ObjectOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.jlinalg.IRingElement;
+import org.jlinalg.IRingElementFactory;
+import org.jlinalg.Matrix;
+import org.jlinalg.Vector;
+import org.jlinalg.bigdecimalwrapper.BigDecimalWrapperFactory;
+import org.jlinalg.complex.Complex;
+import org.jlinalg.doublewrapper.DoubleWrapperFactory;
+import org.jlinalg.f2.F2;
+import org.jlinalg.fastrational.FastRationalFactory;
+import org.jlinalg.field_p.FieldPFactoryMap;
+import org.jlinalg.rational.Rational;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Test writing and reading matrices and vectors with {@link MatrixIO}.
+ */
+@RunWith(value = Parameterized.class)
+public class MatrixIOTest<RE extends IRingElement<RE>>
+{
+	/**
+	 * all factories with a codec, with and without compression.
+	 */
+	@Parameters
+	public static Collection<Object[]> data()
+	{
+		IRingElementFactory<?>[] factories = {
+				DoubleWrapperFactory.INSTANCE, FastRationalFactory.INSTANCE,
+				Rational.FACTORY, new BigDecimalWrapperFactory(40),
+				F2.FACTORY, FieldPFactoryMap.getFactory(113L),
+				FieldPFactoryMap.getFactory("2932031007403"),
+				FieldPFactoryMap.getFactory("1000000000000000000000007"),
+				Complex.FACTORY
+		};
+		Collection<Object[]> data = new ArrayList<>();
+		for (IRingElementFactory<?> f : factories) {
+			data.add(new Object[] {
+					f, Boolean.FALSE
+			});
+			data.add(new Object[] {
+					f, Boolean.TRUE
+			});
+		}
+		return data;
+	}
+
+	private final IRingElementFactory<RE> factory;
+
+	private final boolean compress;
+
+	/**
+	 * @param factory
+	 * @param compress
+	 */
+	public MatrixIOTest(IRingElementFactory<RE> factory, Boolean compress)
+	{
+		this.factory = factory;
+		this.compress = compress.booleanValue();
+	}
+
+	/**
+	 * @return a matrix with random entries (including zeros).
+	 */
+	private Matrix<RE> randomMatrix(int rows, int cols)
+	{
+		Matrix<RE> m = new Matrix<>(rows, cols, factory);
+		for (int r = 1; r <= rows; r++) {
+			for (int c = 1; c <= cols; c++) {
+				m.set(r, c, (r + c) % 5 == 0 ? factory.zero() : factory
+						.randomValue());
+			}
+		}
+		m.set(1, 1, factory.m_one());
+		return m;
+	}
+
+	/**
+	 * write and read a matrix through streams.
+	 */
+	@Test
+	public void matrixRoundTrip() throws IOException
+	{
+		Matrix<RE> m = randomMatrix(13, 11);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		MatrixIO.write(m, out, compress);
+		Matrix<RE> read = MatrixIO.readMatrix(new ByteArrayInputStream(out
+				.toByteArray()));
+		assertEquals(m, read);
+		assertEquals(m.getFactory().getClass(), read.getFactory()
+				.getClass());
+	}
+
+	/**
+	 * write and read a vector through channels.
+	 */
+	@Test
+	public void vectorRoundTrip() throws IOException
+	{
+		Vector<RE> v = randomMatrix(1, 17).getRow(1);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		MatrixIO.write(v, Channels.newChannel(out), compress);
+		Vector<RE> read = MatrixIO.readVector(Channels
+				.newChannel(new ByteArrayInputStream(out.toByteArray())));
+		assertEquals(v, read);
+	}
+
+	/**
+	 * a matrix and a vector written back to back to a stream are read in
+	 * sequence.
+	 */
+	@Test
+	public void consecutiveRecordsOnStream() throws IOException
+	{
+		Matrix<RE> m = randomMatrix(9, 7);
+		Vector<RE> v = randomMatrix(1, 5).getRow(1);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		MatrixIO.write(m, out, compress);
+		MatrixIO.write(v, out, compress);
+		ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+		assertEquals(m, MatrixIO.readMatrix(in));
+		assertEquals(v, MatrixIO.readVector(in));
+		assertEquals(-1, in.read());
+	}
+
+	/**
+	 * a matrix and a vector written back to back to a file channel are read
+	 * in sequence.
+	 */
+	@Test
+	public void consecutiveRecordsOnFileChannel() throws IOException
+	{
+		Matrix<RE> m = randomMatrix(9, 7);
+		Vector<RE> v = randomMatrix(1, 5).getRow(1);
+		File file = File.createTempFile("matrixio", ".bin");
+		try {
+			try (FileChannel channel = FileChannel.open(file.toPath(),
+					StandardOpenOption.WRITE))
+			{
+				MatrixIO.write(m, channel, compress);
+				MatrixIO.write(v, channel, compress);
+			}
+			try (FileChannel channel = FileChannel.open(file.toPath(),
+					StandardOpenOption.READ))
+			{
+				assertEquals(m, MatrixIO.readMatrix(channel));
+				assertEquals(v, MatrixIO.readVector(channel));
+				assertEquals(channel.size(), channel.position());
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * the binary format is smaller than Java serialisation.
+	 */
+	@Test
+	public void smallerThanSerialisation() throws IOException
+	{
+		Matrix<RE> m = randomMatrix(20, 20);
+		ByteArrayOutputStream binary = new ByteArrayOutputStream();
+		MatrixIO.write(m, binary, compress);
+		ByteArrayOutputStream serialised = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(serialised);
+		out.writeObject(m);
+		out.close();
+		assertTrue(binary.size() + " >= " + serialised.size(),
+				binary.size() < serialised.size());
+	}
+
+	/**
+	 * reading a matrix from a vector record fails.
+	 */
+	@Test(expected = IOException.class)
+	public void wrongKind() throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		MatrixIO.write(randomMatrix(1, 3).getRow(1), out, compress);
+		MatrixIO.readMatrix(new ByteArrayInputStream(out.toByteArray()));
+	}
+}
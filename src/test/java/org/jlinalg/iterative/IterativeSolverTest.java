@@ -0,0 +1,283 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.iterative;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.jlinalg.LinSysSolver;
+import org.jlinalg.Matrix;
+import org.jlinalg.Vector;
+import org.jlinalg.doublewrapper.DoubleWrapper;
+import org.jlinalg.doublewrapper.DoubleWrapperFactory;
+import org.junit.Test;
+
+/**
+ * Tests for the solvers in {@link org.jlinalg.iterative}.
+ */
+public class IterativeSolverTest
+{
+	/**
+	 * @return the five point discretisation of the Laplacian on a k x k grid
+	 */
+	private static CompressedRowMatrix poisson2D(int k)
+	{
+		int n = k * k;
+		List<int[]> positions = new ArrayList<>();
+		List<Double> values = new ArrayList<>();
+		for (int i = 0; i < k; i++) {
+			for (int j = 0; j < k; j++) {
+				int p = i * k + j + 1;
+				positions.add(new int[] { p, p });
+				values.add(4.0);
+				if (i > 0) {
+					positions.add(new int[] { p, p - k });
+					values.add(-1.0);
+				}
+				if (i < k - 1) {
+					positions.add(new int[] { p, p + k });
+					values.add(-1.0);
+				}
+				if (j > 0) {
+					positions.add(new int[] { p, p - 1 });
+					values.add(-1.0);
+				}
+				if (j < k - 1) {
+					positions.add(new int[] { p, p + 1 });
+					values.add(-1.0);
+				}
+			}
+		}
+		int[] rows = new int[values.size()];
+		int[] cols = new int[values.size()];
+		double[] v = new double[values.size()];
+		for (int l = 0; l < v.length; l++) {
+			rows[l] = positions.get(l)[0];
+			cols[l] = positions.get(l)[1];
+			v[l] = values.get(l);
+		}
+		return CompressedRowMatrix.fromTriplets(n, n, rows, cols, v);
+	}
+
+	/**
+	 * @return a nonsymmetric, diagonally dominant n x n matrix
+	 */
+	private static Matrix<DoubleWrapper> nonsymmetric(int n, long seed)
+	{
+		Random r = new Random(seed);
+		Matrix<DoubleWrapper> a = new Matrix<>(n, n,
+				DoubleWrapperFactory.INSTANCE);
+		for (int i = 1; i <= n; i++) {
+			for (int j = 1; j <= n; j++) {
+				double v = i == j ? n : r.nextDouble() - 0.3;
+				a.set(i, j, DoubleWrapperFactory.INSTANCE.get(v));
+			}
+		}
+		return a;
+	}
+
+	/**
+	 * @return a vector of length n with entries in [-1,1)
+	 */
+	private static double[] rhs(int n, long seed)
+	{
+		Random r = new Random(seed);
+		double[] b = new double[n];
+		for (int i = 0; i < n; i++) {
+			b[i] = 2 * r.nextDouble() - 1;
+		}
+		return b;
+	}
+
+	/**
+	 * @return the norm of b - A x relative to b
+	 */
+	private static double relativeResidual(LinearOperator a, double[] b,
+			double[] x)
+	{
+		double[] ax = new double[b.length];
+		a.apply(x, ax);
+		double r = 0, nb = 0;
+		for (int i = 0; i < b.length; i++) {
+			r += (b[i] - ax[i]) * (b[i] - ax[i]);
+			nb += b[i] * b[i];
+		}
+		return Math.sqrt(r / nb);
+	}
+
+	/**
+	 * the sparse matrix built from triplets agrees with the dense one.
+	 */
+	@Test
+	public void testCompressedRowMatrix()
+	{
+		Matrix<DoubleWrapper> a = nonsymmetric(7, 1);
+		a.set(2, 3, DoubleWrapperFactory.INSTANCE.zero());
+		CompressedRowMatrix s = CompressedRowMatrix.fromMatrix(a);
+		assertEquals(48, s.getNonZeros());
+		for (int i = 1; i <= 7; i++) {
+			for (int j = 1; j <= 7; j++) {
+				assertEquals(a.get(i, j).getValue(), s.get(i, j), 0.0);
+			}
+		}
+		double[] x = rhs(7, 2);
+		double[] y1 = new double[7], y2 = new double[7];
+		s.apply(x, y1);
+		new DenseOperator(a).apply(x, y2);
+		assertArrayEquals(y2, y1, 1e-14);
+
+		CompressedRowMatrix t = CompressedRowMatrix.fromTriplets(2, 2,
+				new int[] { 2, 1, 2 }, new int[] { 1, 1, 1 }, new double[] {
+						1.0, 3.0, 2.0 });
+		assertEquals(2, t.getNonZeros());
+		assertEquals(3.0, t.get(2, 1), 0.0);
+		assertEquals(0.0, t.get(1, 2), 0.0);
+	}
+
+	/**
+	 * CG solves the Poisson problem; preconditioning reduces the number of
+	 * iterations.
+	 */
+	@Test
+	public void testConjugateGradient()
+	{
+		CompressedRowMatrix a = poisson2D(20);
+		double[] b = rhs(400, 3);
+		ConjugateGradient cg = new ConjugateGradient();
+		SolverResult plain = cg.solve(a, b);
+		assertTrue(plain.isConverged());
+		assertTrue(relativeResidual(a, b, plain.getSolution()) < 1e-9);
+		assertEquals(plain.getIterations() + 1,
+				plain.getOperatorApplications());
+		assertEquals(plain.getIterations() + 1,
+				plain.getResidualHistory().length);
+		assertEquals(1.0, plain.getResidualHistory()[0], 1e-15);
+
+		cg.setPreconditioner(new JacobiPreconditioner(a));
+		SolverResult jacobi = cg.solve(a, b);
+		assertTrue(jacobi.isConverged());
+		assertTrue(relativeResidual(a, b, jacobi.getSolution()) < 1e-9);
+
+		cg.setPreconditioner(new ILU0Preconditioner(a));
+		SolverResult ilu = cg.solve(a, b);
+		assertTrue(ilu.isConverged());
+		assertTrue(relativeResidual(a, b, ilu.getSolution()) < 1e-9);
+		assertTrue(ilu.getIterations() < plain.getIterations());
+	}
+
+	/**
+	 * BiCGSTAB and GMRES solve a nonsymmetric system and agree with the
+	 * direct solution.
+	 */
+	@Test
+	public void testNonsymmetric()
+	{
+		Matrix<DoubleWrapper> m = nonsymmetric(40, 4);
+		DenseOperator a = new DenseOperator(m);
+		double[] b = rhs(40, 5);
+		Vector<DoubleWrapper> bv = new Vector<>(40,
+				DoubleWrapperFactory.INSTANCE);
+		for (int i = 1; i <= 40; i++) {
+			bv.set(i, DoubleWrapperFactory.INSTANCE.get(b[i - 1]));
+		}
+		Vector<DoubleWrapper> direct = LinSysSolver.solve(m, bv);
+
+		IterativeSolver[] solvers = { new BiCGSTAB(), new GMRES(),
+				new GMRES(5) };
+		for (IterativeSolver solver : solvers) {
+			for (Preconditioner p : new Preconditioner[] {
+					Preconditioner.IDENTITY,
+					new JacobiPreconditioner(a.getDiagonal()),
+					new ILU0Preconditioner(CompressedRowMatrix.fromMatrix(m)) })
+			{
+				solver.setPreconditioner(p);
+				SolverResult result = solver.solve(a, bv);
+				assertTrue(solver + " " + result, result.isConverged());
+				assertTrue(result.getRelativeResidual() < 1e-9);
+				Vector<DoubleWrapper> x = result.getSolutionVector();
+				for (int i = 1; i <= 40; i++) {
+					assertEquals(direct.getEntry(i).getValue(), x.getEntry(i)
+							.getValue(), 1e-9);
+				}
+			}
+		}
+	}
+
+	/**
+	 * the iteration stops after the maximal number of iterations, and the
+	 * listener sees every iteration.
+	 */
+	@Test
+	public void testMaxIterations()
+	{
+		CompressedRowMatrix a = poisson2D(15);
+		double[] b = rhs(225, 6);
+		for (IterativeSolver solver : new IterativeSolver[] {
+				new ConjugateGradient(), new BiCGSTAB(), new GMRES(4) })
+		{
+			final List<Double> seen = new ArrayList<>();
+			solver.setMaxIterations(5);
+			solver.setIterationListener((i, r) -> seen.add(r));
+			SolverResult result = solver.solve(a, b);
+			assertFalse(result.isConverged());
+			assertEquals(5, result.getIterations());
+			assertEquals(6, seen.size());
+			assertEquals(seen.get(5), result.getResidualHistory()[5], 0.0);
+		}
+	}
+
+	/**
+	 * an initial guess which is the solution needs no iterations.
+	 */
+	@Test
+	public void testExactInitialGuess()
+	{
+		CompressedRowMatrix a = poisson2D(4);
+		double[] x = rhs(16, 7);
+		double[] b = new double[16];
+		a.apply(x, b);
+		SolverResult result = new GMRES().solve(a, b, x);
+		assertTrue(result.isConverged());
+		assertEquals(0, result.getIterations());
+		assertArrayEquals(x, result.getSolution(), 0.0);
+	}
+
+	/**
+	 * on a singular system GMRES stops instead of diverging, and the residual
+	 * does not grow.
+	 */
+	@Test
+	public void testGMRESSingular()
+	{
+		Matrix<DoubleWrapper> m = new Matrix<>(2, 2,
+				DoubleWrapperFactory.INSTANCE);
+		m.setAll(DoubleWrapperFactory.INSTANCE.one());
+		DenseOperator a = new DenseOperator(m);
+		double[] b = { 1, 2 };
+		SolverResult result = new GMRES().solve(a, b);
+		assertFalse(result.isConverged());
+		assertTrue(result.getIterations() < 10);
+		// the least squares residual is (-1, 1) / 2
+		assertEquals(Math.sqrt(0.1), result.getRelativeResidual(), 1e-12);
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.operator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+
+import org.jlinalg.ExecutionPolicy;
+import org.jlinalg.Matrix;
+import org.jlinalg.Vector;
+import org.jlinalg.doublewrapper.DoubleWrapper;
+import org.jlinalg.doublewrapper.DoubleWrapperFactory;
+import org.jlinalg.rational.Rational;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for reductions split by a parallel {@link ExecutionPolicy}.
+ */
+public class ParallelReductionTest
+{
+	/**
+	 * a parallel policy with small parts.
+	 */
+	private final ExecutionPolicy parallel = ExecutionPolicy.parallel(
+			new ForkJoinPool(4), 7);
+
+	/**
+	 * a 31x29 matrix with random entries.
+	 */
+	private Matrix<Rational> m;
+
+	/**
+	 * create m.
+	 */
+	@Before
+	public void setUp()
+	{
+		m = new Matrix<>(31, 29, Rational.FACTORY);
+		for (int r = 1; r <= 31; r++) {
+			for (int c = 1; c <= 29; c++) {
+				m.set(r, c, Rational.FACTORY.get((r * 37 + c * 11) % 41 - 20,
+						(r * c) % 5 + 1));
+			}
+		}
+	}
+
+	/**
+	 * sum, min and max agree with the sequential reductions and with a
+	 * straightforward computation.
+	 */
+	@Test
+	public void matrix()
+	{
+		Rational sum = Rational.FACTORY.zero();
+		Rational min = m.get(1, 1);
+		Rational max = m.get(1, 1);
+		for (Rational e : m) {
+			sum = sum.add(e);
+			min = e.lt(min) ? e : min;
+			max = e.gt(max) ? e : max;
+		}
+		assertEquals(sum, m.sum());
+		assertEquals(sum, m.apply(new SumReduction<Rational>(), parallel));
+		assertEquals(min, m.min());
+		assertEquals(min, m.apply(new MinReduction<Rational>(), parallel));
+		assertEquals(max, m.max());
+		assertEquals(max, m.apply(new MaxReduction<Rational>(), parallel));
+	}
+
+	/**
+	 * reductions of vectors.
+	 */
+	@Test
+	public void vector()
+	{
+		Vector<Rational> v = m.getCol(3);
+		assertEquals(v.sum(), v.apply(new SumReduction<Rational>(), parallel));
+		assertEquals(v.min(), v.apply(new MinReduction<Rational>(), parallel));
+		assertEquals(Rational.FACTORY.zero(), new Vector<>(0,
+				Rational.FACTORY).sum());
+	}
+
+	/**
+	 * the sums over rows and columns.
+	 */
+	@Test
+	public void sumRowsAndCols()
+	{
+		Vector<Rational> rows = m.sumRows();
+		Vector<Rational> cols = m.sumCols();
+		assertEquals(m.getCols(), rows.length());
+		assertEquals(m.getRows(), cols.length());
+		for (int c = 1; c <= m.getCols(); c++) {
+			assertEquals(m.getCol(c).sum(), rows.getEntry(c));
+		}
+		for (int r = 1; r <= m.getRows(); r++) {
+			assertEquals(m.getRow(r).sum(), cols.getEntry(r));
+		}
+		ExecutionPolicy.setDefault(parallel);
+		try {
+			assertEquals(rows, m.sumRows());
+			assertEquals(cols, m.sumCols());
+		} finally {
+			ExecutionPolicy.setDefault(ExecutionPolicy.SEQUENTIAL);
+		}
+	}
+
+	/**
+	 * pairwise summation is more accurate than summation from left to right.
+	 */
+	@Test
+	public void pairwiseSum()
+	{
+		int n = 1000000;
+		Vector<DoubleWrapper> v = new Vector<>(n, DoubleWrapperFactory.INSTANCE
+				.get(0.1));
+		double naive = 0;
+		for (int i = 0; i < n; i++) {
+			naive += 0.1;
+		}
+		double pairwise = v.sum().getValue();
+		assertTrue(Math.abs(pairwise - 100000) < Math.abs(naive - 100000));
+		assertEquals(100000, pairwise, 1e-8);
+		assertEquals(pairwise, v.apply(
+				DoubleWrapperFactory.INSTANCE.getSumOperator(), parallel)
+				.getValue(), 1e-8);
+	}
+
+	/**
+	 * the spliterator of a matrix with more than 2<sup>31</sup> entries
+	 * counts and splits them correctly (the rows share one array, so that
+	 * the matrix needs little memory).
+	 */
+	@Test
+	public void largeSpliterator()
+	{
+		DoubleWrapper[] row = new DoubleWrapper[1 << 16];
+		Arrays.fill(row, DoubleWrapperFactory.INSTANCE.one());
+		DoubleWrapper[][] entries = new DoubleWrapper[1 << 16][];
+		Arrays.fill(entries, row);
+		row[row.length - 1] = DoubleWrapperFactory.INSTANCE.zero();
+		Spliterator<DoubleWrapper> s = new Matrix<>(entries).spliterator();
+		assertEquals(1L << 32, s.estimateSize());
+		for (int i = 1; i < 32; i++) {
+			assertEquals(1L << (32 - i), s.trySplit().estimateSize());
+			assertEquals(1L << (32 - i), s.estimateSize());
+		}
+		// the last two entries of the last row
+		List<DoubleWrapper> last = new ArrayList<>();
+		s.forEachRemaining(last::add);
+		assertEquals(Arrays.asList(DoubleWrapperFactory.INSTANCE.one(),
+				DoubleWrapperFactory.INSTANCE.zero()), last);
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.jlinalg.IRingElement;
+import org.jlinalg.doublewrapper.DoubleWrapper;
+import org.junit.Test;
+
+/**
+ * Tests the optimisers with a {@link BatchTarget} ({@link LeastSquares}).
+ */
+public class BatchTargetTest
+{
+	/**
+	 * check that the optimiser finished and found the minimum of the target.
+	 */
+	private static void assertMinimum(Optimiser<DoubleWrapper> o,
+			LeastSquares target, double precision)
+	{
+		assertSame(Optimiser.State.FINISHED_SUCCESSFULL, o.getState());
+		for (int j = 0; j < target.getParameters().length; j++) {
+			assertEquals(j + 1, target.getParameter(j).getValue(), precision);
+		}
+	}
+
+	/**
+	 * evaluating a batch does not change the parameters stored in the target,
+	 * and gives the same residuals as single evaluations.
+	 */
+	@Test
+	public void testGetResiduals()
+	{
+		LeastSquares target = new LeastSquares(10, 3);
+		DoubleWrapper[] x = target.getParameters().clone();
+		IRingElement<?>[][] batch = new IRingElement<?>[2][3];
+		for (int j = 0; j < 3; j++) {
+			batch[0][j] = DoubleWrapper.FACTORY.get(j + 1);
+			batch[1][j] = DoubleWrapper.FACTORY.get(-j);
+		}
+		DoubleWrapper[] residuals = target.getResiduals(batch);
+		assertEquals(Arrays.asList(x), Arrays.asList(target
+				.getParameters()));
+		assertEquals(0, residuals[0].getValue(), 1e-20);
+		target.setParameters(batch[1]);
+		assertEquals(target.getResidual(), residuals[1]);
+	}
+
+	/**
+	 * {@link RandomGradientDescent} probes the parameters of a
+	 * {@link BatchTarget} in batches and finds the minimum.
+	 * 
+	 * @throws InterruptedException
+	 *             because of the Thread.
+	 */
+	@Test
+	public void testRandomGradientDescent() throws InterruptedException
+	{
+		LeastSquares target = new LeastSquares(20, 4);
+		RandomGradientDescent<DoubleWrapper> o = new RandomGradientDescent<>(
+				target);
+		o.optimise().join();
+		assertMinimum(o, target, 1e-4);
+		assertTrue(target.batches > 0);
+		// at most 8 probes per batch, and one combined move
+		assertTrue(target.batchEvaluations <= 8 * target.batches);
+	}
+
+	/**
+	 * {@link BFGS} evaluates the finite differences of the gradient in
+	 * batches.
+	 * 
+	 * @throws InterruptedException
+	 *             because of the Thread.
+	 */
+	@Test
+	public void testBFGS() throws InterruptedException
+	{
+		LeastSquares target = new LeastSquares(20, 4);
+		BFGS<DoubleWrapper> o = new BFGS<>(target);
+		o.optimise().join();
+		assertMinimum(o, target, 1e-5);
+		assertTrue(target.batches > 0);
+		assertTrue(target.batchEvaluations >= 4 * target.batches);
+		assertEquals(o.getEvaluations(), target.evaluations
+				+ target.batchEvaluations);
+	}
+}
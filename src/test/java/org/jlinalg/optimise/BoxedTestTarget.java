@@ -0,0 +1,136 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+import org.jlinalg.IRingElement;
+import org.jlinalg.doublewrapper.DoubleWrapper;
+
+/**
+ * A target with double parameters restricted to a box [-bound,
+ * bound]<sup>n</sup>, whose residual is given by {@link #residual(double[])}.
+ * The evaluations of the residual are counted.
+ */
+public abstract class BoxedTestTarget
+		implements
+		Target<DoubleWrapper>,
+		Cloneable
+{
+	/**
+	 * the parameters
+	 */
+	DoubleWrapper[] x;
+
+	/**
+	 * the minimal values for the parameters.
+	 */
+	final DoubleWrapper[] min;
+
+	/**
+	 * the maximal values for the parameters.
+	 */
+	final DoubleWrapper[] max;
+
+	/**
+	 * the number of calls of {@link #getResidual()}.
+	 */
+	int evaluations;
+
+	/**
+	 * @param bound
+	 *            the absolute value of the limits of the parameters
+	 * @param start
+	 *            the initial parameters
+	 */
+	protected BoxedTestTarget(double bound, double... start)
+	{
+		x = new DoubleWrapper[start.length];
+		min = new DoubleWrapper[start.length];
+		max = new DoubleWrapper[start.length];
+		for (int i = 0; i < start.length; i++) {
+			x[i] = DoubleWrapper.FACTORY.get(start[i]);
+			min[i] = DoubleWrapper.FACTORY.get(-bound);
+			max[i] = DoubleWrapper.FACTORY.get(bound);
+		}
+	}
+
+	/**
+	 * @param values
+	 *            the parameters
+	 * @return the residual for the parameters.
+	 */
+	protected abstract double residual(double[] values);
+
+	@Override
+	public DoubleWrapper getResidual()
+	{
+		evaluations++;
+		double[] values = new double[x.length];
+		for (int i = 0; i < x.length; i++) {
+			values[i] = x[i].getValue();
+		}
+		return DoubleWrapper.FACTORY.get(residual(values));
+	}
+
+	@Override
+	public DoubleWrapper[] getParameters()
+	{
+		return x;
+	}
+
+	@Override
+	public void setParameters(IRingElement<?>[] values)
+	{
+		System.arraycopy(values, 0, x, 0, x.length);
+	}
+
+	@Override
+	public boolean setParameter(int index, IRingElement<DoubleWrapper> value)
+	{
+		x[index] = (DoubleWrapper) value;
+		return true;
+	}
+
+	@Override
+	public DoubleWrapper[] minParameterValues()
+	{
+		return min;
+	}
+
+	@Override
+	public DoubleWrapper[] maxParameterValues()
+	{
+		return max;
+	}
+
+	@Override
+	public DoubleWrapper getParameter(int index)
+	{
+		return x[index];
+	}
+
+	@Override
+	public BoxedTestTarget copy()
+	{
+		try {
+			BoxedTestTarget c = (BoxedTestTarget) clone();
+			c.x = x.clone();
+			return c;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e.getMessage());
+		}
+	}
+}
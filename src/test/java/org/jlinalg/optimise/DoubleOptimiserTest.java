@@ -0,0 +1,175 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jlinalg.IRingElement;
+import org.jlinalg.doublewrapper.DoubleWrapper;
+import org.jlinalg.rational.Rational;
+import org.junit.Test;
+
+/**
+ * Tests for the optimisers derived from {@link DoubleOptimiser}.
+ */
+public class DoubleOptimiserTest
+{
+	/**
+	 * run the optimiser and check that the minimum of a
+	 * {@link Rosenbrock} function is found.
+	 * 
+	 * @return the number of evaluations of the residual.
+	 */
+	private static int minimiseRosenbrock(DoubleOptimiser<DoubleWrapper> o,
+			Rosenbrock target) throws InterruptedException
+	{
+		o.optimise().join();
+		assertSame(Optimiser.State.FINISHED_SUCCESSFULL, o.getState());
+		assertTrue("residual " + target.getResidual(), target.getResidual()
+				.le(DoubleWrapper.FACTORY.get(1e-8)));
+		for (DoubleWrapper x : target.getParameters()) {
+			assertEquals(1, x.getValue(), 1e-3);
+		}
+		assertEquals(target.getResidual(), o.getResidual());
+		return o.getEvaluations();
+	}
+
+	/**
+	 * Nelder-Mead finds the minimum of the Rosenbrock function.
+	 * 
+	 * @throws InterruptedException
+	 *             because of the Thread.
+	 */
+	@Test
+	public void testNelderMead() throws InterruptedException
+	{
+		Rosenbrock target = new Rosenbrock(-1.2, 1, -1.2, 1);
+		NelderMead<DoubleWrapper> o = new NelderMead<>(target);
+		o.setMaxOptimisationSteps(5000);
+		minimiseRosenbrock(o, target);
+	}
+
+	/**
+	 * the quasi-Newton methods find the minimum of the Rosenbrock function
+	 * with far fewer evaluations of the residual than
+	 * {@link RandomGradientDescent}, which does not even reach it.
+	 * 
+	 * @throws InterruptedException
+	 *             because of the Thread.
+	 */
+	@Test
+	public void testQuasiNewton() throws InterruptedException
+	{
+		Rosenbrock target = new Rosenbrock(-1.2, 1, -1.2, 1);
+		int bfgs = minimiseRosenbrock(new BFGS<>(target), target);
+		target = new Rosenbrock(-1.2, 1, -1.2, 1);
+		int lbfgs = minimiseRosenbrock(new LBFGS<>(target, 3), target);
+		assertTrue(bfgs < 1000);
+		assertTrue(lbfgs < 1000);
+
+		target = new Rosenbrock(-1.2, 1, -1.2, 1);
+		new RandomGradientDescent<>(target).optimise().join();
+		assertTrue(target.evaluations > 100 * bfgs);
+	}
+
+	/**
+	 * L-BFGS with many parameters.
+	 * 
+	 * @throws InterruptedException
+	 *             because of the Thread.
+	 */
+	@Test
+	public void testManyParameters() throws InterruptedException
+	{
+		double[] start = new double[30];
+		for (int i = 0; i < start.length; i++) {
+			start[i] = i % 2 == 0 ? -1.2 : 1;
+		}
+		Rosenbrock target = new Rosenbrock(start);
+		LBFGS<DoubleWrapper> o = new LBFGS<>(target);
+		o.setMaxOptimisationSteps(5000);
+		minimiseRosenbrock(o, target);
+	}
+
+	/**
+	 * coordinate descent minimises a function that is a sum of functions of
+	 * one parameter each.
+	 * 
+	 * @throws InterruptedException
+	 *             because of the Thread.
+	 */
+	@Test
+	public void testCoordinateDescent() throws InterruptedException
+	{
+		Rastrigin target = new Rastrigin(0.3, -0.2, 0.1);
+		CoordinateDescent<DoubleWrapper> o = new CoordinateDescent<>(target);
+		o.optimise().join();
+		assertSame(Optimiser.State.FINISHED_SUCCESSFULL, o.getState());
+		assertTrue("residual " + target.getResidual(), target.getResidual()
+				.le(DoubleWrapper.FACTORY.get(1e-12)));
+		assertTrue(o.getEvaluations() < 2000);
+	}
+
+	/**
+	 * parameters and residuals other than {@link DoubleWrapper} are converted.
+	 * 
+	 * @throws InterruptedException
+	 *             because of the Thread.
+	 */
+	@Test
+	public void testRational() throws InterruptedException
+	{
+		ComplexFunction target = new ComplexFunction();
+		Optimiser<Rational> o = new BFGS<>(target);
+		o.optimise().join();
+		assertSame(Optimiser.State.FINISHED_SUCCESSFULL, o.getState());
+		assertTrue(target.getResidual().le(Rational.FACTORY.get(1e-6)));
+	}
+
+	/**
+	 * a parameter rejected by the target is set again for the next point, so
+	 * that no residual is attributed to a point it was not computed for.
+	 */
+	@Test
+	public void testRejectedParameter()
+	{
+		Rosenbrock target = new Rosenbrock(0, 0) {
+			@Override
+			public boolean setParameter(int index,
+					IRingElement<DoubleWrapper> value)
+			{
+				if (index == 0 && ((DoubleWrapper) value).getValue() < 0) {
+					return false;
+				}
+				return super.setParameter(index, value);
+			}
+		};
+		Objective<DoubleWrapper> objective = new Objective<>(target);
+		assertEquals(Double.POSITIVE_INFINITY, objective.value(new double[] {
+				-1, 0
+		}), 0.0);
+		assertEquals(Double.POSITIVE_INFINITY, objective.value(new double[] {
+				-1, 1
+		}), 0.0);
+		assertEquals(Double.POSITIVE_INFINITY, objective.bestValue(), 0.0);
+		assertEquals(101, objective.value(new double[] {
+				0, 1
+		}), 0.0);
+	}
+}
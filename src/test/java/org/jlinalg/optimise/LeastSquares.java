@@ -0,0 +1,123 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+import org.jlinalg.IRingElement;
+import org.jlinalg.Matrix;
+import org.jlinalg.MatrixMultiplication;
+import org.jlinalg.doublewrapper.DoubleWrapper;
+
+/**
+ * A {@link BatchTarget} for a linear least squares fit: the residual is
+ * ||A x - b||<sup>2</sup> for a fixed matrix A and b = A (1, 2, ..., n), so
+ * that the minimum 0 is at x = (1, 2, ..., n). A batch of parameter sets is
+ * evaluated by one matrix product. Single evaluations and batches are
+ * counted.
+ */
+public class LeastSquares
+		extends
+		BoxedTestTarget
+		implements
+		BatchTarget<DoubleWrapper>
+{
+	/**
+	 * the matrix of the linear model.
+	 */
+	private final Matrix<DoubleWrapper> a;
+
+	/**
+	 * the values to be fitted.
+	 */
+	private final double[] b;
+
+	/**
+	 * the number of calls of {@link #getResiduals(IRingElement[][])}.
+	 */
+	int batches;
+
+	/**
+	 * the number of parameter sets evaluated by
+	 * {@link #getResiduals(IRingElement[][])}.
+	 */
+	int batchEvaluations;
+
+	/**
+	 * @param rows
+	 *            the number of data points
+	 * @param n
+	 *            the number of parameters, which are all set to 0.
+	 */
+	public LeastSquares(int rows, int n)
+	{
+		super(10, new double[n]);
+		a = new Matrix<>(rows, n, DoubleWrapper.FACTORY);
+		b = new double[rows];
+		for (int i = 1; i <= rows; i++) {
+			for (int j = 1; j <= n; j++) {
+				double v = Math.cos(i * j + 0.5 * i);
+				a.set(i, j, DoubleWrapper.FACTORY.get(v));
+				b[i - 1] += v * j;
+			}
+		}
+	}
+
+	@Override
+	protected double residual(double[] values)
+	{
+		DoubleWrapper[] p = new DoubleWrapper[values.length];
+		for (int j = 0; j < values.length; j++) {
+			p[j] = DoubleWrapper.FACTORY.get(values[j]);
+		}
+		return evaluate(new IRingElement<?>[][] {
+			p
+		})[0].getValue();
+	}
+
+	@Override
+	public DoubleWrapper[] getResiduals(IRingElement<?>[][] parameters)
+	{
+		batches++;
+		batchEvaluations += parameters.length;
+		return evaluate(parameters);
+	}
+
+	/**
+	 * The parameter sets are the columns of a matrix X, and the residuals are
+	 * the squared norms of the columns of A X - b.
+	 */
+	private DoubleWrapper[] evaluate(IRingElement<?>[][] parameters)
+	{
+		Matrix<DoubleWrapper> xs = new Matrix<>(x.length, parameters.length,
+				DoubleWrapper.FACTORY);
+		for (int k = 0; k < parameters.length; k++) {
+			for (int j = 0; j < x.length; j++) {
+				xs.set(j + 1, k + 1, (DoubleWrapper) parameters[k][j]);
+			}
+		}
+		Matrix<DoubleWrapper> ax = MatrixMultiplication.simple(a, xs);
+		DoubleWrapper[] residuals = new DoubleWrapper[parameters.length];
+		for (int k = 1; k <= parameters.length; k++) {
+			double sum = 0;
+			for (int i = 1; i <= b.length; i++) {
+				double d = ax.get(i, k).getValue() - b[i - 1];
+				sum += d * d;
+			}
+			residuals[k - 1] = DoubleWrapper.FACTORY.get(sum);
+		}
+		return residuals;
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jlinalg.demo.Function;
+import org.jlinalg.doublewrapper.DoubleWrapper;
+import org.junit.Test;
+
+/**
+ * Tests for {@link MultiStartGradientDescent}.
+ */
+public class MultiStartGradientDescentTest
+{
+	/**
+	 * starting in a local minimum far from the global one, one of many random
+	 * starts finds the global minimum.
+	 * 
+	 * @throws InterruptedException
+	 *             because of the Thread.
+	 */
+	@Test
+	public void testLocalMinima() throws InterruptedException
+	{
+		Rastrigin target = new Rastrigin(4, -4, 3);
+		DoubleWrapper start = target.getResidual();
+		MultiStartGradientDescent<DoubleWrapper> optimiser = new MultiStartGradientDescent<>(
+				target, 64);
+		optimiser.optimise().join();
+		assertSame(Optimiser.State.FINISHED_SUCCESSFULL, optimiser.getState());
+		assertTrue(target.getResidual().lt(start));
+		assertTrue("residual " + target.getResidual(), target.getResidual()
+				.le(DoubleWrapper.FACTORY.get(1e-6)));
+		assertEquals(target.getResidual(), optimiser.getResidual());
+		assertTrue(optimiser.getOptimisationStepsTaken() >= 64);
+	}
+
+	/**
+	 * the descents end once the target residual is reached.
+	 * 
+	 * @throws InterruptedException
+	 *             because of the Thread.
+	 */
+	@Test
+	public void testTargetResidual() throws InterruptedException
+	{
+		Rastrigin target = new Rastrigin(4, -4, 3, 2, -1);
+		MultiStartGradientDescent<DoubleWrapper> optimiser = new MultiStartGradientDescent<>(
+				target, 8);
+		DoubleWrapper goal = DoubleWrapper.FACTORY.get(20);
+		optimiser.setTargetResidual(goal);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		optimiser.setExecutor(executor);
+		optimiser.optimise().join();
+		assertSame(Optimiser.State.FINISHED_SUCCESSFULL, optimiser.getState());
+		assertTrue(target.getResidual().le(goal));
+		assertFalse(executor.isShutdown());
+		executor.shutdown();
+	}
+
+	/**
+	 * targets which cannot be copied are rejected.
+	 * 
+	 * @throws InterruptedException
+	 *             because of the Thread.
+	 */
+	@Test
+	public void testNoCopy() throws InterruptedException
+	{
+		MultiStartGradientDescent<DoubleWrapper> optimiser = new MultiStartGradientDescent<>(
+				new Function(), 2);
+		optimiser.optimise().join();
+		assertSame(Optimiser.State.ERROR, optimiser.getState());
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+/**
+ * A target with many local minima: the Rastrigin function sum(x<sup>2</sup>
+ * - 10 cos(2 pi x) + 10) on [-5.12, 5.12]<sup>n</sup>, whose global minimum 0
+ * is at the origin.
+ */
+public class Rastrigin
+		extends
+		BoxedTestTarget
+{
+	/**
+	 * @param start
+	 *            the initial parameters
+	 */
+	public Rastrigin(double... start)
+	{
+		super(5.12, start);
+	}
+
+	@Override
+	protected double residual(double[] values)
+	{
+		double sum = 0;
+		for (double v : values) {
+			sum += v * v - 10 * Math.cos(2 * Math.PI * v) + 10;
+		}
+		return sum;
+	}
+}
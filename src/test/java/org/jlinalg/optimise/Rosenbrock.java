@@ -0,0 +1,49 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.optimise;
+
+/**
+ * A target with a curved valley: the Rosenbrock function sum(100
+ * (x<sub>i+1</sub> - x<sub>i</sub><sup>2</sup>)<sup>2</sup> + (1 -
+ * x<sub>i</sub>)<sup>2</sup>) on [-5, 5]<sup>n</sup>, whose minimum 0 is at
+ * (1, ..., 1).
+ */
+public class Rosenbrock
+		extends
+		BoxedTestTarget
+{
+	/**
+	 * @param start
+	 *            the initial parameters
+	 */
+	public Rosenbrock(double... start)
+	{
+		super(5, start);
+	}
+
+	@Override
+	protected double residual(double[] values)
+	{
+		double sum = 0;
+		for (int i = 0; i + 1 < values.length; i++) {
+			double a = values[i];
+			double b = values[i + 1];
+			sum += 100 * (b - a * a) * (b - a * a) + (1 - a) * (1 - a);
+		}
+		return sum;
+	}
+}
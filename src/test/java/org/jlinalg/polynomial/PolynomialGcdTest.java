@@ -0,0 +1,197 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.polynomial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.jlinalg.EuclideanAlgorithm;
+import org.jlinalg.IRingElement;
+import org.jlinalg.IRingElementFactory;
+import org.jlinalg.complex.Complex;
+import org.jlinalg.fastrational.FastRational;
+import org.jlinalg.field_p.FieldP;
+import org.jlinalg.field_p.FieldPFactoryMap;
+import org.jlinalg.rational.Rational;
+import org.junit.Test;
+
+/**
+ * Tests for {@link PolynomialGcd}.
+ */
+public class PolynomialGcdTest
+{
+	/**
+	 * @return the polynomial c[0]+c[1]*x+c[2]*x^2+...
+	 */
+	private static <RE extends IRingElement<RE>> Polynomial<RE> poly(
+			IRingElementFactory<RE> f, long... c)
+	{
+		Map<Integer, RE> coefficients = new HashMap<>();
+		for (int i = 0; i < c.length; i++) {
+			coefficients.put(i, f.get(c[i]));
+		}
+		return new Polynomial<>(coefficients, f);
+	}
+
+	/**
+	 * @return a polynomial of the given degree with random coefficients in
+	 *         [-9,9] and a non-zero leading coefficient.
+	 */
+	private static <RE extends IRingElement<RE>> Polynomial<RE> random(
+			IRingElementFactory<RE> f, int degree, Random r)
+	{
+		long[] c = new long[degree + 1];
+		for (int i = 0; i < degree; i++) {
+			c[i] = r.nextInt(19) - 9;
+		}
+		c[degree] = r.nextInt(9) + 1;
+		return poly(f, c);
+	}
+
+	/**
+	 * @return the result of the recursive Euclidean algorithm, made monic.
+	 */
+	private static <RE extends IRingElement<RE>> Polynomial<RE> reference(
+			Polynomial<RE> a, Polynomial<RE> b)
+	{
+		Polynomial<RE> g = EuclideanAlgorithm.gcd(a, b);
+		return g.divideByScalar(g.getHighestCoefficient());
+	}
+
+	/**
+	 * the modular algorithm agrees with the Euclidean algorithm for Rational
+	 * coefficients, including non-integral ones.
+	 */
+	@Test
+	public void testRational()
+	{
+		Random r = new Random(1);
+		for (int i = 0; i < 20; i++) {
+			Polynomial<Rational> h = random(Rational.FACTORY, i % 4 + 1, r)
+					.divideByScalar(Rational.FACTORY.get(r.nextInt(5) + 1));
+			Polynomial<Rational> a = random(Rational.FACTORY, 5, r).multiply(h);
+			Polynomial<Rational> b = random(Rational.FACTORY, 4, r).multiply(h)
+					.divideByScalar(Rational.FACTORY.get(-7));
+			Polynomial<Rational> g = a.gcd(b);
+			assertEquals(reference(a, b), g);
+			assertTrue(a.euclideanDivision(h).getRemainder().isZero());
+			assertTrue(g.euclideanDivision(h).getRemainder().isZero());
+		}
+		// coprime polynomials
+		assertEquals(Rational.FACTORY.one(),
+				poly(Rational.FACTORY, 1, 1).gcd(poly(Rational.FACTORY, 2, 1))
+						.getHighestCoefficient());
+	}
+
+	/**
+	 * the modular algorithm for FastRational coefficients.
+	 */
+	@Test
+	public void testFastRational()
+	{
+		Polynomial<FastRational> h = poly(FastRational.FACTORY, -3, 0, 2);
+		Polynomial<FastRational> a = poly(FastRational.FACTORY, 1, 4, 5)
+				.multiply(h);
+		Polynomial<FastRational> b = poly(FastRational.FACTORY, 7, -1)
+				.multiply(h);
+		assertEquals(poly(FastRational.FACTORY, -3, 0, 2)
+				.divideByScalar(FastRational.FACTORY.get(2)), a.gcd(b));
+	}
+
+	/**
+	 * polynomials of high degree do not exhaust the stack:
+	 * gcd(x^600-1,x^400-1)=x^200-1.
+	 */
+	@Test
+	public void testHighDegree()
+	{
+		long[] c = new long[601];
+		c[0] = -1;
+		c[600] = 1;
+		Polynomial<Rational> a = poly(Rational.FACTORY, c);
+		c = new long[401];
+		c[0] = -1;
+		c[400] = 1;
+		Polynomial<Rational> b = poly(Rational.FACTORY, c);
+		c = new long[201];
+		c[0] = -1;
+		c[200] = 1;
+		assertEquals(poly(Rational.FACTORY, c), a.gcd(b));
+		assertEquals(poly(Rational.FACTORY, c),
+				PolynomialGcd.subresultant(a, b));
+	}
+
+	/**
+	 * the subresultant remainder sequence for Complex coefficients, and the
+	 * Euclidean algorithm for a finite field.
+	 */
+	@Test
+	public void testComplexAndFieldP()
+	{
+		Random r = new Random(2);
+		IRingElementFactory<FieldP> fp = FieldPFactoryMap.getFactory(101L);
+		for (int i = 0; i < 5; i++) {
+			Polynomial<Complex> h = random(Complex.FACTORY, 2, r).multiply(
+					new Polynomial<>(Complex.FACTORY.get(1.0, 2.0)));
+			Polynomial<Complex> a = random(Complex.FACTORY, 4, r).multiply(h);
+			Polynomial<Complex> b = random(Complex.FACTORY, 3, r).multiply(h);
+			assertEquals(reference(a, b), a.gcd(b));
+
+			Polynomial<FieldP> hp = random(fp, 3, r);
+			Polynomial<FieldP> ap = random(fp, 6, r).multiply(hp);
+			Polynomial<FieldP> bp = random(fp, 5, r).multiply(hp);
+			assertEquals(reference(ap, bp), ap.gcd(bp));
+		}
+	}
+
+	/**
+	 * coefficients from a ring which is not a field: polynomials in y with
+	 * Rational coefficients.
+	 */
+	@Test
+	public void testPolynomialCoefficients()
+	{
+		PolynomialFactory<Rational> inner = PolynomialFactory
+				.getFactory(Rational.FACTORY);
+		Polynomial<Rational> y = poly(Rational.FACTORY, 0, 1);
+		Map<Integer, Polynomial<Rational>> m = new HashMap<>();
+		// h = y*x^2 + (y+1)
+		m.put(2, y);
+		m.put(0, y.add(inner.one()));
+		Polynomial<Polynomial<Rational>> h = new Polynomial<>(m, inner);
+		m = new HashMap<>();
+		// x + y
+		m.put(1, inner.one());
+		m.put(0, y);
+		Polynomial<Polynomial<Rational>> a = new Polynomial<>(m, inner)
+				.multiply(h);
+		m = new HashMap<>();
+		// y*x - 2
+		m.put(1, y);
+		m.put(0, inner.get(-2));
+		Polynomial<Polynomial<Rational>> b = new Polynomial<>(m, inner)
+				.multiply(h);
+		Polynomial<Polynomial<Rational>> g = a.gcd(b);
+		assertEquals(2, g.getDegree());
+		assertTrue(PolynomialGcd.pseudoRemainder(g, h).isZero());
+		assertTrue(PolynomialGcd.pseudoRemainder(h, g).isZero());
+	}
+}
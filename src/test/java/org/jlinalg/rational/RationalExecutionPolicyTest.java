@@ -0,0 +1,121 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.rational;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.jlinalg.DivisionByZeroException;
+import org.jlinalg.ExecutionPolicy;
+import org.jlinalg.Matrix;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test that element-wise operations on matrices yield the same results with
+ * sequential and parallel {@link ExecutionPolicy}s.
+ */
+public class RationalExecutionPolicyTest
+{
+	/**
+	 * a parallel policy splitting down to single rows.
+	 */
+	private final ExecutionPolicy parallel = ExecutionPolicy.parallel(
+			new ForkJoinPool(4), 1);
+
+	/**
+	 * two 40x30 matrices with random entries.
+	 */
+	private Matrix<Rational> a, b;
+
+	/**
+	 * create a and b.
+	 */
+	@Before
+	public void setUp()
+	{
+		a = new Matrix<>(40, 30, Rational.FACTORY);
+		b = new Matrix<>(40, 30, Rational.FACTORY);
+		for (int r = 1; r <= 40; r++) {
+			for (int c = 1; c <= 30; c++) {
+				a.set(r, c, Rational.FACTORY.get((r * 31 + c * 17) % 23 - 11,
+						(r + c) % 7 + 1));
+				b.set(r, c, Rational.FACTORY.get((r * 13 + c * 5) % 19 - 9));
+			}
+		}
+	}
+
+	/**
+	 * restore the default policy.
+	 */
+	@After
+	public void tearDown()
+	{
+		ExecutionPolicy.setDefault(ExecutionPolicy.SEQUENTIAL);
+	}
+
+	/**
+	 * apply with an explicit policy.
+	 */
+	@Test
+	public void apply()
+	{
+		assertEquals(a.apply(Rational.FACTORY.getSquareOperator()), a.apply(
+				Rational.FACTORY.getSquareOperator(), parallel));
+		assertEquals(a.apply(b, Rational.FACTORY.getMultiplyOperator()), a
+				.apply(b, Rational.FACTORY.getMultiplyOperator(), parallel));
+		Rational r = Rational.FACTORY.get(3, 7);
+		assertEquals(a.apply(r, Rational.FACTORY.getAddOperator()), a.apply(
+				r, Rational.FACTORY.getAddOperator(), parallel));
+
+		Matrix<Rational> c = a.copy();
+		c.applyReplace(b, Rational.FACTORY.getSubtractOperator(), parallel);
+		assertEquals(a.subtract(b), c);
+		c.applyReplace(Rational.FACTORY.getAbsOperator(), parallel);
+		assertEquals(a.subtract(b).apply(Rational.FACTORY.getAbsOperator()),
+				c);
+	}
+
+	/**
+	 * comparisons and replace operations with a parallel default policy.
+	 */
+	@Test
+	public void defaultPolicy()
+	{
+		Matrix<Rational> lt = a.lt(b);
+		Matrix<Rational> ge = a.ge(Rational.FACTORY.zero());
+		Matrix<Rational> sum = a.add(b);
+		ExecutionPolicy.setDefault(parallel);
+		assertEquals(lt, a.lt(b));
+		assertEquals(ge, a.ge(Rational.FACTORY.zero()));
+		assertEquals(sum, a.add(b));
+		Matrix<Rational> c = a.copy();
+		c.addReplace(b);
+		assertEquals(sum, c);
+	}
+
+	/**
+	 * exceptions in tasks are passed to the caller.
+	 */
+	@Test(expected = DivisionByZeroException.class)
+	public void exception()
+	{
+		a.apply(a.subtract(a), Rational.FACTORY.getDivideOperator(), parallel);
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.rational;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.jlinalg.IRingElement;
+import org.jlinalg.IRingElementFactory;
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.LDLDecomposition;
+import org.jlinalg.LinAlgFactory;
+import org.jlinalg.Matrix;
+import org.jlinalg.MatrixMultiplication;
+import org.jlinalg.Vector;
+import org.jlinalg.field_p.FieldPFactoryMap;
+import org.junit.Test;
+
+/**
+ * Tests for {@link LDLDecomposition} in exact fields.
+ */
+public class RationalLDLDecompositionTest
+{
+	/**
+	 * @return a symmetric n x n matrix with small random integer entries.
+	 */
+	private static <RE extends IRingElement<RE>> Matrix<RE> symmetric(
+			IRingElementFactory<RE> factory, int n, long seed)
+	{
+		Random r = new Random(seed);
+		Matrix<RE> a = new Matrix<>(n, n, factory);
+		for (int i = 1; i <= n; i++) {
+			for (int j = 1; j <= i; j++) {
+				RE e = factory.get(r.nextInt(21) - 10);
+				a.set(i, j, e);
+				a.set(j, i, e);
+			}
+		}
+		return a;
+	}
+
+	/**
+	 * L D L<sup>T</sup> reproduces the matrix exactly, the determinant agrees
+	 * with {@link Matrix#det()}, and solutions are exact.
+	 */
+	private static <RE extends IRingElement<RE>> void check(
+			IRingElementFactory<RE> factory, int n, long seed)
+	{
+		Matrix<RE> a = symmetric(factory, n, seed);
+		LDLDecomposition<RE> ldl = a.ldl();
+		Matrix<RE> l = ldl.getL();
+		Matrix<RE> d = new LinAlgFactory<>(factory).identity(n);
+		for (int i = 1; i <= n; i++) {
+			d.set(i, i, ldl.getD().getEntry(i));
+		}
+		assertEquals(a, MatrixMultiplication.simple(
+				MatrixMultiplication.simple(l, d), l.transpose()));
+		assertEquals(a.det(), ldl.det());
+
+		Vector<RE> b = new Vector<>(n, factory);
+		for (int i = 1; i <= n; i++) {
+			b.set(i, factory.get(i));
+		}
+		assertEquals(b, a.multiply(ldl.solve(b)));
+		Matrix<RE> id = new LinAlgFactory<>(factory).identity(n);
+		assertEquals(id, MatrixMultiplication.simple(a, ldl.solve(id)));
+	}
+
+	/**
+	 * a small and a blocked decomposition over the rationals.
+	 */
+	@Test
+	public void testRational()
+	{
+		check(Rational.FACTORY, 5, 1);
+		check(Rational.FACTORY, 40, 2);
+	}
+
+	/**
+	 * a decomposition over a prime field.
+	 */
+	@Test
+	public void testFieldP()
+	{
+		check(FieldPFactoryMap.getFactory(10007L), 45, 3);
+	}
+
+	/**
+	 * a zero leading principal minor is reported.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void testZeroMinor()
+	{
+		Matrix<Rational> a = Rational.FACTORY.convert(new String[][] {
+				{
+						"0", "1"
+				}, {
+						"1", "0"
+				}
+		});
+		a.ldl();
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.rational;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.jlinalg.InvalidOperationException;
+import org.jlinalg.Matrix;
+import org.jlinalg.MatrixMultiplication;
+import org.jlinalg.MatrixView;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link MatrixView}.
+ */
+public class RationalMatrixViewTest
+{
+
+	/**
+	 * a 3x4 matrix with the entries 1..12
+	 */
+	Matrix<Rational> m;
+
+	/**
+	 * create m.
+	 */
+	@Before
+	public void setUp()
+	{
+		m = new Matrix<>(3, 4, Rational.FACTORY);
+		for (int r = 1; r <= 3; r++) {
+			for (int c = 1; c <= 4; c++) {
+				m.set(r, c, Rational.FACTORY.get((r - 1) * 4 + c));
+			}
+		}
+	}
+
+	/**
+	 * submatrix views agree with {@link Matrix#getMatrix(int, int, int, int)}
+	 */
+	@Test
+	public void subMatrix()
+	{
+		MatrixView<Rational> v = m.getView(1, 2, 1, 3);
+		assertEquals(2, v.getRows());
+		assertEquals(3, v.getCols());
+		assertEquals(m.getMatrix(1, 2, 1, 3), v.copy());
+		assertEquals(m.withoutRow(2).withoutCol(3), m.getView().withoutRow(2)
+				.withoutCol(3).copy());
+	}
+
+	/**
+	 * a transposed view agrees with {@link Matrix#transpose()}
+	 */
+	@Test
+	public void transpose()
+	{
+		MatrixView<Rational> t = m.getView().transpose();
+		assertEquals(4, t.getRows());
+		assertEquals(3, t.getCols());
+		assertEquals(m.transpose(), t.copy());
+		assertEquals(m.getCol(2), t.getRow(2));
+	}
+
+	/**
+	 * writing to a view writes to the underlying matrix.
+	 */
+	@Test
+	public void writeThrough()
+	{
+		MatrixView<Rational> v = m.getView(1, 2, 2, 3).transpose();
+		v.set(2, 1, Rational.FACTORY.zero());
+		assertEquals(Rational.FACTORY.zero(), m.get(2, 4));
+		v.addReplace(v);
+		assertEquals(Rational.FACTORY.get(14), m.get(2, 3));
+		assertEquals(Rational.FACTORY.get(24), m.get(3, 4));
+	}
+
+	/**
+	 * strided and permuted views.
+	 */
+	@Test
+	public void strideAndPermute()
+	{
+		MatrixView<Rational> v = m.getView().getView(0, 2, 2, 0, 2, 2);
+		assertEquals(Rational.FACTORY.get(11), v.get(2, 2));
+		MatrixView<Rational> p = m.getView().permuteRows(new int[] {
+				3, 1, 2
+		}).swapCols(1, 4);
+		assertEquals(Rational.FACTORY.get(12), p.get(1, 1));
+		assertEquals(Rational.FACTORY.get(1), p.get(2, 4));
+		// the matrix itself is unchanged
+		assertEquals(Rational.FACTORY.get(1), m.get(1, 1));
+	}
+
+	/**
+	 * indices outside the view are rejected.
+	 */
+	@Test(expected = InvalidOperationException.class)
+	public void outOfRange()
+	{
+		m.getView(0, 1, 0, 1).get(3, 1);
+	}
+
+	/**
+	 * the Strassen variants working on views compute the same product as the
+	 * school method.
+	 */
+	@Test
+	public void strassen()
+	{
+		int n = 100;
+		Matrix<Rational> a = new Matrix<>(n, n, Rational.FACTORY);
+		Matrix<Rational> b = new Matrix<>(n, n, Rational.FACTORY);
+		for (int r = 1; r <= n; r++) {
+			for (int c = 1; c <= n; c++) {
+				a.set(r, c, Rational.FACTORY.get((r * 7 + c * 3) % 11 - 5));
+				b.set(r, c, Rational.FACTORY.get((r * 5 + c * c) % 13 - 6));
+			}
+		}
+		Matrix<Rational> expected = MatrixMultiplication.school(a, b);
+		assertEquals(expected, MatrixMultiplication.simple(a, b));
+		assertEquals(expected, MatrixMultiplication.strassenOriginal(a, b));
+		assertEquals(expected, MatrixMultiplication.strassenWinograd(a, b));
+		assertEquals(expected, MatrixMultiplication.strassenBodrato(a, b));
+		assertTrue(MatrixMultiplication.strassenBodrato(a, a).equals(
+				MatrixMultiplication.school(a, a)));
+	}
+}
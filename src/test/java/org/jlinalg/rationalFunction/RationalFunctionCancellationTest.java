@@ -0,0 +1,260 @@
+/*
+ * This file is part of JLinAlg (<http://jlinalg.sourceforge.net/>).
+ * 
+ * JLinAlg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * JLinAlg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with JLinALg. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jlinalg.rationalFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jlinalg.Matrix;
+import org.jlinalg.MatrixMultiplication;
+import org.jlinalg.polynomial.Polynomial;
+import org.jlinalg.polynomial.PolynomialFactory;
+import org.jlinalg.rational.Rational;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for the lazy cancellation of {@link RationalFunction}s (see
+ * {@link RationalFunctionFactory#setCancellationDegree(int)}).
+ */
+public class RationalFunctionCancellationTest
+{
+	/**
+	 * the factory for rational functions over the rationals.
+	 */
+	private final RationalFunctionFactory<Rational> factory = RationalFunctionFactory
+			.getFactory(Rational.FACTORY);
+
+	/**
+	 * @return the polynomial with the coefficients c[0] + c[1] x + ...
+	 */
+	private static Polynomial<Rational> polynomial(int... c)
+	{
+		Map<Integer, Rational> coefficients = new HashMap<>();
+		for (int i = 0; i < c.length; i++) {
+			if (c[i] != 0) coefficients.put(i, Rational.FACTORY.get(c[i]));
+		}
+		return PolynomialFactory.getFactory(Rational.FACTORY).get(
+				coefficients);
+	}
+
+	/**
+	 * @return the rational function p/q
+	 */
+	private RationalFunction<Rational> function(Polynomial<Rational> p,
+			Polynomial<Rational> q)
+	{
+		return factory.get(p, q, Rational.FACTORY);
+	}
+
+	/**
+	 * @return a matrix of rational functions (x + i) / (x + j) with
+	 *         polynomials in the diagonal.
+	 */
+	private Matrix<RationalFunction<Rational>> matrix(int n)
+	{
+		Matrix<RationalFunction<Rational>> m = new Matrix<>(n, n, factory);
+		for (int i = 1; i <= n; i++) {
+			for (int j = 1; j <= n; j++) {
+				m.set(i, j, i == j ? function(polynomial(i, 0, 1),
+						polynomial(1)) : function(polynomial(i, 1),
+						polynomial(j + n, 1)));
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * check that a and b are the same rational function, even if they are not
+	 * cancelled in the same way.
+	 */
+	private static void assertSameFunction(RationalFunction<Rational> a,
+			RationalFunction<Rational> b)
+	{
+		assertEquals(a.getNumerator().multiply(b.getDenominator()), b
+				.getNumerator().multiply(a.getDenominator()));
+	}
+
+	/**
+	 * @return a copy of f obtained by serialisation.
+	 */
+	@SuppressWarnings("unchecked")
+	private static RationalFunction<Rational> roundTrip(
+			RationalFunction<Rational> f) throws IOException,
+			ClassNotFoundException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(f);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(
+				new ByteArrayInputStream(bytes.toByteArray())))
+		{
+			return (RationalFunction<Rational>) in.readObject();
+		}
+	}
+
+	/**
+	 * restore the default.
+	 */
+	@After
+	public void eager()
+	{
+		factory.setCancellationDegree(RationalFunctionFactory.EAGER);
+	}
+
+	/**
+	 * the common factor of the sum x/(x^2-1) + 1/(x^2-1) is kept until it is
+	 * needed.
+	 */
+	@Test
+	public void testCancelOnDemand()
+	{
+		factory.setCancellationDegree(RationalFunctionFactory.ON_DEMAND);
+		Polynomial<Rational> q = polynomial(-1, 0, 1);
+		RationalFunction<Rational> sum = function(polynomial(0, 1), q).add(
+				function(polynomial(1), q));
+		assertSame(q, sum.getDenominator());
+		RationalFunction<Rational> c = sum.cancel();
+		assertEquals(0, c.getDenominator().getDegree() - 1);
+		assertEquals(0, c.getNumerator().getDegree());
+		assertSame(c, sum.cancel());
+		assertSame(c, c.cancel());
+		// 1/(x - 1)
+		RationalFunction<Rational> expected = function(polynomial(1),
+				polynomial(-1, 1));
+		assertEquals(expected, sum);
+		assertEquals(expected.toString(), sum.toString());
+		assertEquals(expected.hashCode(), sum.hashCode());
+		assertEquals(expected.invert(), sum.invert());
+		assertEquals(expected.negate(), sum.negate());
+	}
+
+	/**
+	 * a product of a numerator and an equal denominator is cancelled
+	 * without a gcd.
+	 */
+	@Test
+	public void testMultiply()
+	{
+		factory.setCancellationDegree(RationalFunctionFactory.ON_DEMAND);
+		RationalFunction<Rational> a = function(polynomial(1, 1), polynomial(
+				2, 1));
+		RationalFunction<Rational> b = function(polynomial(2, 1), polynomial(
+				3, 1));
+		RationalFunction<Rational> p = a.multiply(b);
+		assertEquals(1, p.getNumerator().getDegree());
+		assertEquals(1, p.getDenominator().getDegree());
+		assertEquals(factory.one(), a.multiply(a.invert()));
+	}
+
+	/**
+	 * results whose degrees exceed the cancellation degree are computed with
+	 * gcds.
+	 */
+	@Test
+	public void testCancellationDegree()
+	{
+		factory.setCancellationDegree(3);
+		RationalFunction<Rational> a = function(polynomial(1, 1), polynomial(
+				2, 1));
+		RationalFunction<Rational> b = function(polynomial(-1, 1), polynomial(
+				1, 1));
+		// (x + 1) / (x + 2) * (x - 1) / (x + 3) has the degrees 2 + 2
+		RationalFunction<Rational> p = a.multiply(function(polynomial(-1, 1),
+				polynomial(3, 1)));
+		assertEquals(function(polynomial(-1, 0, 1), polynomial(6, 5, 1)), p);
+		// (x + 1) / (x + 2) * (x - 1) / (x + 1) = (x - 1) / (x + 2)
+		p = a.multiply(b);
+		assertEquals(1, p.getNumerator().getDegree());
+		assertEquals(1, p.getDenominator().getDegree());
+		// 1 / (x + 2) + (x + 1) / (x + 2) = (x + 2) / (x + 2) has the
+		// degrees 1 + 1
+		RationalFunction<Rational> s = function(polynomial(1), polynomial(2, 1))
+				.add(a);
+		assertEquals(1, s.getNumerator().getDegree());
+		assertNotSame(s, s.cancel());
+		assertEquals(factory.one(), s);
+	}
+
+	/**
+	 * the determinant and the inverse of a matrix of rational functions are
+	 * the same with eager and lazy cancellation.
+	 */
+	@Test
+	public void testMatrix()
+	{
+		Matrix<RationalFunction<Rational>> m = matrix(4);
+		RationalFunction<Rational> det = m.det();
+		Matrix<RationalFunction<Rational>> inverse = m.inverse();
+		for (int degree : new int[] {
+				RationalFunctionFactory.ON_DEMAND, 0, 6
+		})
+		{
+			factory.setCancellationDegree(degree);
+			m = matrix(4);
+			assertSameFunction(det, m.det());
+			Matrix<RationalFunction<Rational>> i = m.inverse();
+			for (int r = 1; r <= 4; r++) {
+				for (int c = 1; c <= 4; c++) {
+					assertSameFunction(inverse.get(r, c), i.get(r, c));
+				}
+			}
+			assertTrue(MatrixMultiplication.simple(m, m.inverse()).isIdentity());
+		}
+	}
+
+	/**
+	 * serialisation keeps eagerly created rational functions as they are,
+	 * and lazily created ones still cancel on demand.
+	 */
+	@Test
+	public void testSerialisation() throws IOException, ClassNotFoundException
+	{
+		// (2 x) / 2 is not cancelled
+		RationalFunction<Rational> f = function(polynomial(0, 2),
+				polynomial(2));
+		RationalFunction<Rational> copy = roundTrip(f);
+		assertEquals(f.toString(), copy.toString());
+		assertSame(copy, copy.cancel());
+		assertEquals(f, copy);
+		assertEquals(f.hashCode(), copy.hashCode());
+		// results of arithmetic with it are not cancelled again
+		RationalFunction<Rational> s = copy.add(function(polynomial(1),
+				polynomial(1, 1)));
+		assertSame(s, s.cancel());
+
+		factory.setCancellationDegree(RationalFunctionFactory.ON_DEMAND);
+		Polynomial<Rational> q = polynomial(-1, 0, 1);
+		RationalFunction<Rational> sum = function(polynomial(0, 1), q).add(
+				function(polynomial(1), q));
+		copy = roundTrip(sum);
+		assertEquals(q.getDegree(), copy.getDenominator().getDegree());
+		assertNotSame(copy, copy.cancel());
+		assertEquals(function(polynomial(1), polynomial(-1, 1)), copy);
+	}
+}